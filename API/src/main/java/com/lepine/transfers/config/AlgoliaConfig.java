@@ -6,11 +6,13 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import javax.validation.constraints.NotNull;
 
 @Component
+@Profile("!local-search")
 @EnableConfigurationProperties
 @ConfigurationProperties(prefix = "algolia")
 @Data
@@ -0,0 +1,21 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.Min;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "confirmation.batch")
+@Data
+public class ConfirmationBatchConfig {
+
+    /**
+     * Most confirmations of one batch request, all of them are held in a single transaction
+     */
+    @Min(1)
+    private int maxSize = 500;
+}
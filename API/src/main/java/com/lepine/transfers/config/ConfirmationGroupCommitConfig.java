@@ -0,0 +1,40 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "confirmation.group-commit")
+@Data
+public class ConfirmationGroupCommitConfig {
+
+    /**
+     * Whether confirmations are queued and committed together, instead of each in its own transaction
+     */
+    private boolean enabled = false;
+
+    /**
+     * Most confirmations committed in one transaction
+     */
+    @Min(1)
+    private int maxBatchSize = 200;
+
+    /**
+     * Longest a confirmation waits for others to share its transaction
+     */
+    @NotNull
+    private Duration maxDelay = Duration.ofMillis(5);
+
+    /**
+     * Confirmations waiting to be committed before callers are held back
+     */
+    @Min(1)
+    private int queueCapacity = 5_000;
+}
@@ -0,0 +1,32 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.Min;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "events.bus")
+@Data
+public class EventBusConfig {
+
+    /**
+     * Whether handlers run on the bus' own threads, when off they run on the publishing thread right after commit
+     */
+    private boolean async = true;
+
+    /**
+     * Handler threads, events of one aggregate always land on the same thread
+     */
+    @Min(1)
+    private int threads = 4;
+
+    /**
+     * Events waiting per thread before publishers are held back
+     */
+    @Min(1)
+    private int queueCapacity = 2_500;
+}
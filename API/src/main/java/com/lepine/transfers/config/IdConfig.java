@@ -0,0 +1,46 @@
+package com.lepine.transfers.config;
+
+import com.lepine.transfers.utils.id.RandomUUIDGenerator;
+import com.lepine.transfers.utils.id.TimeOrderedUUIDGenerator;
+import com.lepine.transfers.utils.id.UUIDGenerator;
+import com.lepine.transfers.utils.id.UUIDs;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.validation.constraints.NotNull;
+import java.util.function.Supplier;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "ids")
+@Data
+@Slf4j
+public class IdConfig {
+
+    public enum Strategy {
+        TIME_ORDERED(TimeOrderedUUIDGenerator::new),
+        RANDOM(RandomUUIDGenerator::new);
+
+        private final Supplier<UUIDGenerator> factory;
+
+        Strategy(Supplier<UUIDGenerator> factory) {
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * How new entity identifiers are generated, existing identifiers are never rewritten
+     */
+    @NotNull
+    private Strategy strategy = Strategy.TIME_ORDERED;
+
+    @PostConstruct
+    public void installGenerator() {
+        log.info("Generating entity identifiers with the {} strategy", strategy);
+        UUIDs.use(strategy.factory.get());
+    }
+}
@@ -23,4 +23,10 @@ public class JWTConfig {
     @NotNull
     @Min(1)
     private long expiration;
+
+    /**
+     * Decoded tokens kept until they expire, 0 disables the cache
+     */
+    @Min(0)
+    private int cacheSize = 10_000;
 }
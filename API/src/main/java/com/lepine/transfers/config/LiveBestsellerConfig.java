@@ -0,0 +1,29 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "bestseller.live")
+@Data
+public class LiveBestsellerConfig {
+
+    /**
+     * Counters kept per hourly bucket
+     */
+    @Min(1)
+    private int capacity = 1000;
+
+    /**
+     * Longest window that can be queried, older buckets are dropped
+     */
+    @NotNull
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,30 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotBlank;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "search.local")
+@Data
+public class LocalSearchConfig {
+
+    /**
+     * Where the segment of each index is kept, used with the local-search profile
+     */
+    @NotBlank
+    private String directory = "search-index";
+
+    /**
+     * Share of a segment taken by overwritten or deleted documents before it is compacted
+     */
+    @DecimalMin("0.1")
+    @DecimalMax("1.0")
+    private double maxDeadRatio = 0.5;
+}
@@ -0,0 +1,66 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "mail.queue")
+@Data
+public class MailQueueConfig {
+
+    /**
+     * Whether this instance drains the mail queue, only one instance should
+     */
+    private boolean dispatchEnabled = true;
+
+    /**
+     * Delay between two drains of the mail queue
+     */
+    @NotNull
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Due mails read per drain, before grouping
+     */
+    @Min(1)
+    private int batchSize = 500;
+
+    /**
+     * Most recipients sharing one request, SendGrid rejects more than 1000 personalizations
+     */
+    @Min(1)
+    @Max(1000)
+    private int maxRecipientsPerRequest = 1000;
+
+    /**
+     * Requests in flight at once
+     */
+    @Min(1)
+    private int concurrency = 4;
+
+    /**
+     * Delay before the first retry of a mail, doubled on each failure
+     */
+    @NotNull
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Longest delay between two tries of a mail
+     */
+    @NotNull
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    /**
+     * Tries a mail goes through before it is moved to the dead letters
+     */
+    @Min(1)
+    private int maxAttempts = 8;
+}
@@ -0,0 +1,40 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "notification.digest")
+@Data
+public class NotificationDigestConfig {
+
+    /**
+     * Whether shipment updates are gathered into digests instead of mailed one by one
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a user's first pending update waits for others before the digest goes out
+     */
+    @NotNull
+    private Duration window = Duration.ofMinutes(5);
+
+    /**
+     * Pending updates that send a user's digest right away, without waiting for the window
+     */
+    @Min(1)
+    private int maxEvents = 25;
+
+    /**
+     * Delay between two looks for digests whose window is over
+     */
+    @NotNull
+    private Duration pollInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,131 @@
+package com.lepine.transfers.config;
+
+import com.lepine.transfers.data.routing.ReadReplicaRoutingDataSource;
+import com.lepine.transfers.data.routing.ReadReplicaTransactionManager;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Data;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "datasource.replica")
+@Data
+public class ReadReplicaConfig {
+
+    /**
+     * Whether read-only transactions go to a separate replica pool, when off everything uses spring.datasource
+     */
+    private boolean enabled = false;
+
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    /**
+     * Most connections held to the replica, separate from the primary's
+     */
+    @Min(1)
+    private int maximumPoolSize = 10;
+
+    /**
+     * How long a read waits for a replica connection before reading from the primary instead
+     */
+    @NotNull
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Delay between two checks of an unhealthy replica, or of a healthy one going down
+     */
+    @NotNull
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+    /**
+     * How long the replica has to answer a health check
+     */
+    @NotNull
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+    @Bean(name = "transactionManager")
+    @Primary
+    public JpaTransactionManager getTransactionManager(
+            EntityManagerFactory entityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        // Declaring the replica's manager turns off Spring Boot's default one, this stands in for it
+        final JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean(name = ReadReplicaTransactionManager.BEAN_NAME)
+    public ReadReplicaTransactionManager getReadReplicaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        return new ReadReplicaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+    public ReadReplicaRoutingDataSource getReadReplicaRoutingDataSource(
+            DataSourceProperties dataSourceProperties,
+            Environment environment) {
+        final HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        final HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(url);
+        replica.setUsername(username);
+        replica.setPassword(password);
+        if(driverClassName != null) {
+            replica.setDriverClassName(driverClassName);
+        }
+        replica.setMaximumPoolSize(maximumPoolSize);
+        replica.setConnectionTimeout(connectionTimeout.toMillis());
+        replica.setReadOnly(true);
+        // A replica that is down at startup must not keep the application from starting
+        replica.setInitializationFailTimeout(-1);
+
+        return new ReadReplicaRoutingDataSource(primary, replica, healthCheckTimeout);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+    public DataSource getRoutingDataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        // Connections are taken on the first statement, transactions served from the second-level cache take none
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer getReadReplicaConnectionCustomizer() {
+        // Held connections would outlive the transaction that picked their pool, into the rest of the request
+        return properties -> properties.put(
+                AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
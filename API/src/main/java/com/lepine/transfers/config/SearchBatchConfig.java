@@ -0,0 +1,54 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "search.batch")
+@Data
+public class SearchBatchConfig {
+
+    /**
+     * Most operations sent in one batch request
+     */
+    @Min(1)
+    private int maxOperations = 1000;
+
+    /**
+     * Largest serialized payload of one batch request, Algolia rejects anything above 10MB
+     */
+    @NotNull
+    private DataSize maxBytes = DataSize.ofMegabytes(5);
+
+    /**
+     * Batch requests in flight at once, per index
+     */
+    @Min(1)
+    private int concurrency = 4;
+
+    /**
+     * Tries per batch request before giving up on it
+     */
+    @Min(1)
+    private int maxAttempts = 3;
+
+    /**
+     * Upper bound of the first retry delay, doubled on each retry and randomized below it
+     */
+    @NotNull
+    private Duration initialBackoff = Duration.ofMillis(200);
+
+    /**
+     * Upper bound of any retry delay
+     */
+    @NotNull
+    private Duration maxBackoff = Duration.ofSeconds(5);
+}
@@ -0,0 +1,52 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "search.outbox")
+@Data
+public class SearchOutboxConfig {
+
+    /**
+     * Whether this instance drains the outbox, only one instance should
+     */
+    private boolean dispatchEnabled = true;
+
+    /**
+     * Delay between two drains of the outbox
+     */
+    @NotNull
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Outbox entries read per drain, before coalescing
+     */
+    @Min(1)
+    private int batchSize = 500;
+
+    /**
+     * Pause after the first failed drain, doubled on each consecutive failure
+     */
+    @NotNull
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Longest pause between two failed drains
+     */
+    @NotNull
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    /**
+     * Failed drains an entry goes through before it is dropped
+     */
+    @Min(1)
+    private int maxAttempts = 20;
+}
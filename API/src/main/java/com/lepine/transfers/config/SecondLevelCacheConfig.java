@@ -0,0 +1,110 @@
+package com.lepine.transfers.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.Data;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache for the reference entities, which are read on every write but rarely change. Each region is
+ * a bounded Caffeine cache behind JCache, and Hibernate keeps hit and miss counts for all of them.
+ */
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "jpa.cache")
+@Data
+public class SecondLevelCacheConfig {
+
+    public final static String
+            ITEMS_REGION = "items",
+            WAREHOUSES_REGION = "warehouses",
+            ROLES_REGION = "roles";
+
+    private final static List<String> ENTITY_REGIONS = List.of(ITEMS_REGION, WAREHOUSES_REGION, ROLES_REGION);
+
+    /**
+     * Whether entities and queries marked cacheable are cached at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Most entities kept per region
+     */
+    @Min(1)
+    private long maxEntries = 10_000;
+
+    /**
+     * How long a cached entity is kept after it was loaded or changed
+     */
+    @NotNull
+    private Duration timeToLive = Duration.ofMinutes(30);
+
+    /**
+     * Most query results kept
+     */
+    @Min(1)
+    private long maxQueryResults = 1_000;
+
+    /**
+     * How long a cached query result is kept, it is dropped sooner if one of its tables changes
+     */
+    @NotNull
+    private Duration queryTimeToLive = Duration.ofMinutes(10);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager getSecondLevelCacheManager() {
+        // One manager per application context, so that contexts sharing a JVM (tests) do not share regions
+        final CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:lepine:second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        ENTITY_REGIONS.forEach(region -> cacheManager.createCache(region, regionConfiguration(maxEntries, timeToLive)));
+        cacheManager.createCache(
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                regionConfiguration(maxQueryResults, queryTimeToLive));
+
+        // Never expired nor evicted, losing a timestamp could let a stale query result through
+        final CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer getSecondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maxEntries, Duration timeToLive) {
+        final CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
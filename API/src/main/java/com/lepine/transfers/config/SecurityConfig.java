@@ -56,12 +56,13 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .and()
                 .authorizeRequests()
                     .antMatchers("/users/**").hasRole("MANAGER")
+                    .antMatchers("/search/outbox", "/search/reindex/**", "/events/**", "/cache/**", "/datasource/**", "/sql/**").hasRole("MANAGER")
                     .antMatchers(POST, "/items", "/warehouses", "/stocks").hasRole("MANAGER")
                     .antMatchers(PUT, "/items/*", "/warehouses/*", "/stocks/*").hasRole("MANAGER")
                     .antMatchers(DELETE, "/items/*", "/warehouses/*", "/stocks/*").hasRole("MANAGER")
-                    .antMatchers(POST, "/shipments").hasAnyRole("MANAGER", "SALESPERSON")
+                    .antMatchers(POST, "/shipments", "/shipments/batch").hasAnyRole("MANAGER", "SALESPERSON")
                     .antMatchers(PATCH, "/shipments/{uuid}").hasAnyRole("MANAGER")
-                    .antMatchers(POST, "/confirmations").hasAnyRole("MANAGER", "CLERK");
+                    .antMatchers(POST, "/confirmations", "/confirmations/batch", "/shipments/*/confirm-all").hasAnyRole("MANAGER", "CLERK");
 
 
         for(Map.Entry<HttpMethod, List<String>> entry : whiteListByMethod.entrySet()) {
@@ -21,8 +21,21 @@ public class SendGridConfig {
     @NotNull
     private String from;
 
+    /**
+     * Host the SendGrid API is reached on, overridden to point at a fake server in tests
+     */
+    @NotNull
+    private String host = "api.sendgrid.com";
+
+    /**
+     * Whether the SendGrid API is reached over https, a local fake server usually only speaks http
+     */
+    private boolean secure = true;
+
     @Bean
     public SendGrid getSendGrid() {
-        return new SendGrid(apiKey);
+        final SendGrid sendGrid = new SendGrid(apiKey, !secure);
+        sendGrid.setHost(host);
+        return sendGrid;
     }
 }
@@ -0,0 +1,21 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.Min;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "shipment.batch")
+@Data
+public class ShipmentBatchConfig {
+
+    /**
+     * Most shipments created by one batch request, all of them are held in a single transaction
+     */
+    @Min(1)
+    private int maxSize = 500;
+}
@@ -0,0 +1,66 @@
+package com.lepine.transfers.config;
+
+import com.lepine.transfers.data.routing.ReadReplicaRoutingDataSource;
+import com.lepine.transfers.data.sql.StatementCountingDataSource;
+import com.lepine.transfers.filters.SqlStatisticsFilter;
+import com.lepine.transfers.services.sql.SqlStatisticsService;
+import lombok.Data;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import javax.validation.constraints.Min;
+
+/**
+ * Counts the SQL statements each request runs, lazy loads during serialization and logging included, and reports
+ * them on the response and per endpoint.
+ */
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "sql.statistics")
+@Data
+public class SqlStatisticsConfig {
+
+    /**
+     * Whether the statement count and time are sent back as response headers
+     */
+    private boolean headers = true;
+
+    /**
+     * Statements above which a request is logged as a warning, as it likely loads associations one by one
+     */
+    @Min(1)
+    private int warnThreshold = 25;
+
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> getSqlStatisticsFilter(SqlStatisticsService sqlStatisticsService) {
+        // Declared here rather than as a component so that controller slice tests, which pick up every filter
+        // component but none of the services, do not need it
+        final FilterRegistrationBean<SqlStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatisticsFilter(this, sqlStatisticsService));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor getStatementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The routing data source is only used through the proxy in front of it, which gets counted instead
+                if(!(bean instanceof DataSource)
+                        || bean instanceof StatementCountingDataSource
+                        || bean instanceof ReadReplicaRoutingDataSource) {
+                    return bean;
+                }
+
+                return new StatementCountingDataSource((DataSource) bean);
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.lepine.transfers.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "stocks.stream")
+@Data
+public class StockStreamConfig {
+
+    /**
+     * Latest changes kept for reconnecting clients, older ones can only be recovered by reloading the stocks
+     */
+    @Min(1)
+    private int bufferSize = 10_000;
+
+    /**
+     * How long one stream stays open before the client has to reconnect
+     */
+    @NotNull
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Delay between two keep-alive comments on idle streams
+     */
+    @NotNull
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
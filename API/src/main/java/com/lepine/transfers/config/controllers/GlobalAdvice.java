@@ -4,6 +4,10 @@ import com.lepine.transfers.exceptions.DuplicateResourceException;
 import com.lepine.transfers.exceptions.I18nAble;
 import com.lepine.transfers.exceptions.NotFoundException;
 import com.lepine.transfers.exceptions.auth.DefaultLoginNotAllowedException;
+import com.lepine.transfers.exceptions.confirmation.ConfirmationBatchSizeException;
+import com.lepine.transfers.exceptions.item.InvalidBestsellerWindowException;
+import com.lepine.transfers.exceptions.pagination.InvalidCursorException;
+import com.lepine.transfers.exceptions.shipment.ShipmentBatchSizeException;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotAcceptedException;
 import com.lepine.transfers.exceptions.stock.StockTooLowException;
 import com.lepine.transfers.exceptions.transfer.QuantityExceededException;
@@ -88,6 +92,10 @@ public class GlobalAdvice {
             DefaultLoginNotAllowedException.class,
             QuantityExceededException.class,
             ShipmentNotAcceptedException.class,
+            InvalidCursorException.class,
+            InvalidBestsellerWindowException.class,
+            ShipmentBatchSizeException.class,
+            ConfirmationBatchSizeException.class,
     })
     @ResponseStatus(value = BAD_REQUEST)
     public HTTPErrorMessage handleGenericBusinessLogicRuntimeException(WebRequest req, RuntimeException e) {
@@ -1,19 +1,25 @@
 package com.lepine.transfers.controllers;
 
+import com.lepine.transfers.data.CursorPage;
 import com.lepine.transfers.data.OneIndexedPageAdapter;
 import com.lepine.transfers.data.stock.Stock;
 import com.lepine.transfers.data.stock.StockUuidLessItemLessWarehouseLess;
 import com.lepine.transfers.data.stock.StockUuidLessItemUuidWarehouseUuid;
 import com.lepine.transfers.exceptions.stock.StockNotFoundException;
 import com.lepine.transfers.services.stock.StockService;
+import com.lepine.transfers.services.stock.stream.StockStreamService;
+import com.lepine.transfers.utils.pagination.CursorUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.constraints.Min;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.springframework.http.HttpStatus.CREATED;
@@ -28,6 +34,7 @@ import static org.springframework.http.HttpStatus.NO_CONTENT;
 public class StockController {
 
     private final StockService stockService;
+    private final StockStreamService stockStreamService;
 
     @PostMapping
     @ResponseStatus(value = CREATED)
@@ -45,6 +52,26 @@ public class StockController {
         return OneIndexedPageAdapter.of(stockService.findAll(PageRequest.of(page - 1, size)));
     }
 
+    @GetMapping(params = "after")
+    public CursorPage<Stock> getAllAfter(
+            @RequestParam String after,
+            @RequestParam(required = false, defaultValue = "10") @Min(value = 1, message = "{pagination.size.min}") int size
+    ){
+        log.info("Getting {} stocks after cursor {}", size, after);
+        return CursorPage.of(
+                stockService.findAllAfter(CursorUtils.decodeUuid(after), size),
+                stock -> CursorUtils.encode(stock.getUuid()));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Optional<UUID> warehouseUuid,
+            @RequestHeader(name = "Last-Event-ID", required = false) Optional<Long> lastEventId
+    ){
+        log.info("Streaming stock changes of warehouse {} after {}", warehouseUuid, lastEventId);
+        return stockStreamService.subscribe(warehouseUuid, lastEventId);
+    }
+
     @GetMapping("/{uuid}")
     public Stock get(@PathVariable("uuid") UUID uuid) {
         log.info("Get stock {}", uuid);
@@ -0,0 +1,28 @@
+package com.lepine.transfers.controllers.cache;
+
+import com.lepine.transfers.data.cache.CacheRegionStats;
+import com.lepine.transfers.services.cache.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "${cors.origin}")
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    @GetMapping("/status")
+    public Map<String, CacheRegionStats> getStatus() {
+        log.info("Getting second-level cache status");
+        final Map<String, CacheRegionStats> regionStats = cacheStatsService.getRegionStats();
+        log.info("Got statistics for {} cache regions", regionStats.size());
+
+        return regionStats;
+    }
+}
@@ -1,16 +1,22 @@
 package com.lepine.transfers.controllers.confirmation;
 
 import com.lepine.transfers.data.confirmation.Confirmation;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntryResult;
 import com.lepine.transfers.data.confirmation.ConfirmationUuidLessDTO;
 import com.lepine.transfers.services.confirmation.ConfirmationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
 import java.util.UUID;
 
+import static com.lepine.transfers.utils.i18n.RejectionUtils.getConfirmationResults;
 import static org.springframework.http.HttpStatus.CREATED;
 
 @RestController
@@ -21,6 +27,7 @@ import static org.springframework.http.HttpStatus.CREATED;
 public class ConfirmationController {
 
     private final ConfirmationService confirmationService;
+    private final ReloadableResourceBundleMessageSource messageSource;
 
     @PostMapping
     @ResponseStatus(value = CREATED)
@@ -34,4 +41,17 @@ public class ConfirmationController {
 
         return confirmationService.confirm(transferUuid, quantity);
     }
+
+    @PostMapping("/batch")
+    public List<ConfirmationBatchEntryResult> createAll(
+            @RequestBody List<ConfirmationUuidLessDTO> confirmationUuidLessDTOs
+    ) {
+        log.info("Confirming batch of {} confirmations", confirmationUuidLessDTOs.size());
+
+        // Each entry is validated on its own by the service, so that one invalid confirmation does not refuse the others
+        final List<ConfirmationBatchEntry> entries = confirmationService.confirmAll(confirmationUuidLessDTOs);
+        log.info("Confirmed {} of {} confirmations", entries.stream().filter(ConfirmationBatchEntry::isConfirmed).count(), entries.size());
+
+        return getConfirmationResults(entries, messageSource, LocaleContextHolder.getLocale());
+    }
 }
@@ -0,0 +1,28 @@
+package com.lepine.transfers.controllers.datasource;
+
+import com.lepine.transfers.data.routing.DataSourceStatus;
+import com.lepine.transfers.data.routing.ReadReplicaRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/datasource")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "${cors.origin}")
+@ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+public class DataSourceController {
+
+    private final ReadReplicaRoutingDataSource readReplicaRoutingDataSource;
+
+    @GetMapping("/status")
+    public DataSourceStatus getStatus() {
+        log.info("Getting data source status");
+        final DataSourceStatus status = readReplicaRoutingDataSource.getStatus();
+        log.info("Read replica is {}", status.isReplicaHealthy() ? "healthy" : "unhealthy");
+
+        return status;
+    }
+}
@@ -0,0 +1,26 @@
+package com.lepine.transfers.controllers.events;
+
+import com.lepine.transfers.data.events.EventBusStatus;
+import com.lepine.transfers.events.DomainEventBus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "${cors.origin}")
+public class EventController {
+
+    private final DomainEventBus domainEventBus;
+
+    @GetMapping("/status")
+    public EventBusStatus getStatus() {
+        log.info("Getting event bus status");
+        final EventBusStatus status = domainEventBus.getStatus();
+        log.info("Event bus has {} queued events", status.getQueueDepth());
+
+        return status;
+    }
+}
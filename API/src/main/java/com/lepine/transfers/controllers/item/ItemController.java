@@ -1,14 +1,19 @@
 package com.lepine.transfers.controllers.item;
 
+import com.lepine.transfers.data.CursorPage;
 import com.lepine.transfers.data.OneIndexedPageAdapter;
 import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.data.item.ItemMapper;
 import com.lepine.transfers.data.item.ItemQuantityTuple;
 import com.lepine.transfers.data.item.ItemUUIDLessDTO;
+import com.lepine.transfers.exceptions.item.InvalidBestsellerWindowException;
 import com.lepine.transfers.exceptions.item.ItemNotFoundException;
 import com.lepine.transfers.services.item.ItemService;
+import com.lepine.transfers.services.item.LiveBestsellerService;
+import com.lepine.transfers.utils.pagination.CursorUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.validation.annotation.Validated;
@@ -17,7 +22,9 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,6 +41,7 @@ public class ItemController {
 
     private final ItemService itemService;
     private final ItemMapper itemMapper;
+    private final LiveBestsellerService liveBestsellerService;
 
     @GetMapping
     public Page<Item> getAll(
@@ -49,6 +57,21 @@ public class ItemController {
         return all;
     }
 
+    @GetMapping(params = "after")
+    public CursorPage<Item> getAllAfter(
+            @RequestParam String after,
+            @RequestParam(required = false, defaultValue = "10")
+            @Min(value = 1, message = "{pagination.size.min}") int size) {
+
+        log.info("retrieving {} items after cursor {}", size, after);
+        final CursorPage<Item> all = CursorPage.of(
+                itemService.findAllAfter(CursorUtils.decodeString(after), size),
+                item -> CursorUtils.encode(item.getSku()));
+        log.info("retrieved {} items", all.getContent().size());
+
+        return all;
+    }
+
     @GetMapping("/bestseller")
     public Page<ItemQuantityTuple> getBestseller(
             @RequestParam(required = false, defaultValue = "1")
@@ -75,6 +98,25 @@ public class ItemController {
                 .of(itemService.findBestSellerForRange(parsedFrom, parsedTo, PageRequest.of(page - 1, size)));
     }
 
+    @GetMapping("/bestseller/live")
+    public List<ItemQuantityTuple> getLiveBestseller(
+            @RequestParam(required = false, defaultValue = "24h") String window,
+            @RequestParam(required = false, defaultValue = "20")
+            @Min(value = 1, message = "{item.bestseller.k.min}") int k
+    ) {
+
+        Duration parsedWindow;
+
+        try {
+            parsedWindow = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBestsellerWindowException(window);
+        }
+
+        log.info("Retrieving {} live bestseller items over {}", k, parsedWindow);
+        return liveBestsellerService.findTop(parsedWindow, k);
+    }
+
     @GetMapping("/{uuid}")
     public Item getByUuid(@PathVariable @NotNull UUID uuid) {
         log.info("retrieving item by uuid {}", uuid);
@@ -0,0 +1,87 @@
+package com.lepine.transfers.controllers.search;
+
+import com.lepine.transfers.data.item.ItemSearchDTO;
+import com.lepine.transfers.data.search.ReindexReport;
+import com.lepine.transfers.data.search.SearchOutboxStatus;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.services.search.outbox.SearchOutboxService;
+import com.lepine.transfers.services.search.reindex.ReindexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.constraints.Min;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+@CrossOrigin(origins = "${cors.origin}")
+public class SearchController {
+
+    private final SearchOutboxService searchOutboxService;
+    private final ReindexService reindexService;
+    private final SearchService<ItemSearchDTO, UUID> itemSearchService;
+    private final SearchService<StockSearchDTO, UUID> stockSearchService;
+
+    @GetMapping("/items")
+    public List<ItemSearchDTO> searchItems(
+            @RequestParam(required = false, defaultValue = "") String query,
+            @RequestParam(required = false, defaultValue = "10")
+            @Min(value = 1, message = "{pagination.size.min}") int size) {
+
+        log.info("Searching items for {}", query);
+        final List<ItemSearchDTO> hits = itemSearchService.search(query, Map.of(), size);
+        log.info("Found {} items", hits.size());
+
+        return hits;
+    }
+
+    @GetMapping("/stocks")
+    public List<StockSearchDTO> searchStocks(
+            @RequestParam(required = false, defaultValue = "") String query,
+            @RequestParam(required = false) Optional<String> zipCode,
+            @RequestParam(required = false) Optional<UUID> warehouseUuid,
+            @RequestParam(required = false, defaultValue = "10")
+            @Min(value = 1, message = "{pagination.size.min}") int size) {
+
+        final Map<String, String> facetFilters = new HashMap<>();
+        zipCode.ifPresent(value -> facetFilters.put("zipCode", value));
+        warehouseUuid.ifPresent(value -> facetFilters.put("warehouseUuid", value.toString()));
+
+        log.info("Searching stocks for {} with facets {}", query, facetFilters);
+        final List<StockSearchDTO> hits = stockSearchService.search(query, facetFilters, size);
+        log.info("Found {} stocks", hits.size());
+
+        return hits;
+    }
+
+    @GetMapping("/outbox")
+    public SearchOutboxStatus getOutboxStatus() {
+        log.info("Getting search outbox status");
+        final SearchOutboxStatus status = searchOutboxService.getStatus();
+        log.info("Search outbox holds {} entries, {}ms behind", status.getDepth(), status.getLagMillis());
+
+        return status;
+    }
+
+    @PostMapping("/reindex/items")
+    public ReindexReport reindexItems() {
+        log.info("Reindexing items");
+        return reindexService.reindexItems();
+    }
+
+    @PostMapping("/reindex/stocks")
+    public ReindexReport reindexStocks() {
+        log.info("Reindexing stocks");
+        return reindexService.reindexStocks();
+    }
+}
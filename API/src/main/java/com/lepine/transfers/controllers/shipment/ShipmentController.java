@@ -1,17 +1,28 @@
 package com.lepine.transfers.controllers.shipment;
 
+import com.lepine.transfers.data.CursorPage;
 import com.lepine.transfers.data.OneIndexedPageAdapter;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntryResult;
 import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.shipment.ShipmentBatchEntry;
+import com.lepine.transfers.data.shipment.ShipmentBatchEntryResult;
 import com.lepine.transfers.data.shipment.ShipmentMapper;
 import com.lepine.transfers.data.shipment.ShipmentStatusLessCreatedByLessUuidLessDTO;
 import com.lepine.transfers.data.shipment.ShipmentStatusLessUuidLessDTO;
 import com.lepine.transfers.data.user.User;
 import com.lepine.transfers.exceptions.auth.DefaultLoginNotAllowedException;
+import com.lepine.transfers.services.confirmation.ConfirmationService;
 import com.lepine.transfers.services.shipment.ShipmentService;
+import com.lepine.transfers.utils.pagination.CursorUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.javatuples.Pair;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
@@ -21,9 +32,14 @@ import javax.json.JsonPatch;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import static com.lepine.transfers.utils.i18n.RejectionUtils.getConfirmationResults;
+import static com.lepine.transfers.utils.i18n.RejectionUtils.getMessages;
 import static org.springframework.http.HttpStatus.CREATED;
 
 @RestController
@@ -36,7 +52,9 @@ public class ShipmentController {
     private final static UUID DEFAULT_LOGIN_UUID = UUID.fromString("00000000-0000-0000-0000-000000000000");
 
     private final ShipmentService shipmentService;
+    private final ConfirmationService confirmationService;
     private final ShipmentMapper shipmentMapper;
+    private final ReloadableResourceBundleMessageSource messageSource;
 
     @GetMapping
     public Page<Shipment> findAll(@AuthenticationPrincipal User user,
@@ -76,6 +94,34 @@ public class ShipmentController {
         return shipmentService.findAllByUserUuid(user.getUuid(), pageRequest);
     }
 
+    @GetMapping(params = "after")
+    public CursorPage<Shipment> findAllAfter(@AuthenticationPrincipal User user,
+
+                                             @RequestParam String after,
+
+                                             @RequestParam(required = false, defaultValue = "10")
+                                             @Min(value = 1, message = "{pagination.size.min}") final int size) {
+
+        final Optional<Pair<ZonedDateTime, UUID>> key = CursorUtils.decodeZonedDateTimeAndUuid(after);
+
+        log.info("Fetching {} shipments for user {} after {}", size, user.getUsername(), key);
+
+        final Slice<Shipment> all;
+        final String roleName = user.getRole().getName();
+        if(roleName.equals("MANAGER")) {
+            log.info("User is a manager, fetching all shipments");
+            all = shipmentService.findAllAfter(key, size);
+        } else if(roleName.equals("CLERK")) {
+            log.info("User is a clerk, fetching all accepted shipments");
+            all = shipmentService.findAllAcceptedAfter(key, size);
+        } else {
+            log.info("User is a salesperson, fetching only relevant shipments");
+            all = shipmentService.findAllByUserUuidAfter(user.getUuid(), key, size);
+        }
+
+        return CursorPage.of(all, shipment -> CursorUtils.encode(shipment.getExpectedDate(), shipment.getUuid()));
+    }
+
     public Page<Shipment> findAllFullyConfirmed(
             final Optional<String> from,
             final Optional<String> to,
@@ -116,6 +162,54 @@ public class ShipmentController {
         return shipmentService.create(mapped);
     }
 
+    @PostMapping("/batch")
+    public List<ShipmentBatchEntryResult> createAll(@AuthenticationPrincipal User user,
+
+                                                    @RequestBody
+                                                    List<ShipmentStatusLessCreatedByLessUuidLessDTO> shipmentStatusLessCreatedByLessUuidLessDTOs
+    ) {
+        log.info("Creating batch of {} shipments for user {}", shipmentStatusLessCreatedByLessUuidLessDTOs.size(), user.getUsername());
+
+        log.info("Checking for default login");
+        if(user.getUuid().equals(DEFAULT_LOGIN_UUID)) {
+            log.info("Default login detected, denying creation");
+            throw new DefaultLoginNotAllowedException();
+        }
+
+        // Each entry is validated on its own by the service, so that one invalid shipment does not refuse the others
+        final List<ShipmentStatusLessUuidLessDTO> mapped = shipmentStatusLessCreatedByLessUuidLessDTOs.stream()
+                .map(dto -> shipmentMapper.toStatusLessUuidLessDTO(dto, user))
+                .collect(Collectors.toList());
+
+        final List<ShipmentBatchEntry> entries = shipmentService.createAll(mapped);
+        log.info("Created {} of {} shipments", entries.stream().filter(ShipmentBatchEntry::isCreated).count(), entries.size());
+
+        final Locale locale = LocaleContextHolder.getLocale();
+        return entries.stream()
+                .map(entry -> entry.isCreated() ?
+                        ShipmentBatchEntryResult.builder()
+                                .index(entry.getIndex())
+                                .status(ShipmentBatchEntryResult.Status.CREATED)
+                                .shipment(entry.getShipment())
+                                .build() :
+                        ShipmentBatchEntryResult.builder()
+                                .index(entry.getIndex())
+                                .status(ShipmentBatchEntryResult.Status.REJECTED)
+                                .errors(getMessages(entry.getRejection(), messageSource, locale))
+                                .build())
+                .collect(Collectors.toList());
+    }
+
+    @PostMapping("/{uuid}/confirm-all")
+    public List<ConfirmationBatchEntryResult> confirmAll(@PathVariable UUID uuid) {
+        log.info("Confirming what is left of shipment {}", uuid);
+
+        final List<ConfirmationBatchEntry> entries = confirmationService.confirmShipment(uuid);
+        log.info("Confirmed {} of {} transfers", entries.stream().filter(ConfirmationBatchEntry::isConfirmed).count(), entries.size());
+
+        return getConfirmationResults(entries, messageSource, LocaleContextHolder.getLocale());
+    }
+
     @PatchMapping(
             path = "/{uuid}",
             consumes = "application/json-patch+json",
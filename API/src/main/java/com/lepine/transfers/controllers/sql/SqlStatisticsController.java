@@ -0,0 +1,28 @@
+package com.lepine.transfers.controllers.sql;
+
+import com.lepine.transfers.data.sql.EndpointSqlStats;
+import com.lepine.transfers.services.sql.SqlStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/sql")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "${cors.origin}")
+public class SqlStatisticsController {
+
+    private final SqlStatisticsService sqlStatisticsService;
+
+    @GetMapping("/status")
+    public Map<String, EndpointSqlStats> getStatus() {
+        log.info("Getting SQL statistics");
+        final Map<String, EndpointSqlStats> endpointStats = sqlStatisticsService.getEndpointStats();
+        log.info("Got SQL statistics for {} endpoints", endpointStats.size());
+
+        return endpointStats;
+    }
+}
@@ -1,11 +1,13 @@
 package com.lepine.transfers.controllers.warehouse;
 
+import com.lepine.transfers.data.CursorPage;
 import com.lepine.transfers.data.OneIndexedPageAdapter;
 import com.lepine.transfers.data.warehouse.Warehouse;
 import com.lepine.transfers.data.warehouse.WarehouseActiveLessUUIDLessDTO;
 import com.lepine.transfers.data.warehouse.WarehouseUUIDLessDTO;
 import com.lepine.transfers.exceptions.warehouse.WarehouseNotFoundException;
 import com.lepine.transfers.services.warehouse.WarehouseService;
+import com.lepine.transfers.utils.pagination.CursorUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Example;
@@ -72,6 +74,19 @@ public class WarehouseController {
         return OneIndexedPageAdapter.of(all);
     }
 
+    @GetMapping(params = "after")
+    public CursorPage<Warehouse> getAllAfter(
+            @RequestParam String after,
+            @RequestParam(required = false, defaultValue = "10") @Min(value = 1, message = "{pagination.size.min}") int size,
+            @RequestParam("active") Optional<Boolean> active
+    ) {
+        log.info("Getting {} warehouses after cursor {} with active filter {}", size, after, active);
+
+        return CursorPage.of(
+                warehouseService.findAllAfter(active, CursorUtils.decodeUuid(after), size),
+                warehouse -> CursorUtils.encode(warehouse.getUuid()));
+    }
+
     @GetMapping("/{uuid}")
     public Warehouse getByUuid(@PathVariable UUID uuid) {
         log.info("Getting warehouse with uuid {}", uuid);
@@ -0,0 +1,28 @@
+package com.lepine.transfers.data;
+
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final String next;
+
+    public static <T> CursorPage<T> of(Slice<T> slice, Function<T, String> cursorOf) {
+        final List<T> content = slice.getContent();
+        final String next = slice.hasNext() ? cursorOf.apply(content.get(content.size() - 1)) : null;
+
+        return new CursorPage<>(content, slice.getSize(), next);
+    }
+
+    private CursorPage(List<T> content, int size, String next) {
+        this.content = content;
+        this.size = size;
+        this.next = next;
+    }
+}
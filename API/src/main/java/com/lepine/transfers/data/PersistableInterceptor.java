@@ -0,0 +1,20 @@
+package com.lepine.transfers.data;
+
+import org.hibernate.EmptyInterceptor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Entities carry their identifier from the start, which Hibernate would otherwise take as a sign that they already
+ * exist. Entities that know whether they are new are trusted, so that persisting them cascades without a select
+ * per entity and their inserts can be batched.
+ */
+public class PersistableInterceptor extends EmptyInterceptor {
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        if(entity instanceof Persistable) {
+            return ((Persistable<?>) entity).isNew();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.lepine.transfers.data.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class CacheRegionStats {
+
+    private long hits;
+    private long misses;
+    private long puts;
+    private long entriesInMemory;
+}
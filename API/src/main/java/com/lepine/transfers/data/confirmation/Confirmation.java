@@ -1,8 +1,11 @@
 package com.lepine.transfers.data.confirmation;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lepine.transfers.utils.id.UUIDs;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.*;
 import java.util.UUID;
@@ -15,16 +18,43 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
-public class Confirmation {
+public class Confirmation implements Persistable<UUID> {
 
     @Builder.Default
     @GeneratedValue(generator = "UUIDGenerator")
-    @GenericGenerator(name = "UUIDGenerator", strategy = "uuid2")
+    @GenericGenerator(name = "UUIDGenerator", strategy = "com.lepine.transfers.utils.id.UUIDsIdentifierGenerator")
     @Id
-    private UUID uuid = UUID.randomUUID();
+    private UUID uuid = UUIDs.next();
+
+    /**
+     * Set when the confirmation is read from the database, until then saving it skips the lookup a merge would do
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean persisted;
 
     private int quantity;
 
     @JoinColumn(name = "transfer_uuid", referencedColumnName = "uuid", nullable = false)
     private UUID transferUuid;
+
+    @JsonIgnore
+    @Override
+    public UUID getId() {
+        return uuid;
+    }
+
+    @JsonIgnore
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
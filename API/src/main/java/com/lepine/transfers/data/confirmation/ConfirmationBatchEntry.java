@@ -0,0 +1,24 @@
+package com.lepine.transfers.data.confirmation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one confirmation of a batch, either saved or rejected with the reason it would have been refused alone
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ConfirmationBatchEntry {
+
+    private int index;
+    private Confirmation confirmation;
+    private RuntimeException rejection;
+
+    public boolean isConfirmed() {
+        return rejection == null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.lepine.transfers.data.confirmation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConfirmationBatchEntryResult {
+
+    public enum Status { CONFIRMED, REJECTED }
+
+    /**
+     * Position of the entry in the request
+     */
+    private int index;
+    private Status status;
+    private Confirmation confirmation;
+    private List<String> errors;
+}
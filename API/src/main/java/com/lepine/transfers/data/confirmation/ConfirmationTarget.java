@@ -0,0 +1,27 @@
+package com.lepine.transfers.data.confirmation;
+
+import com.lepine.transfers.data.shipment.ShipmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * What confirming a transfer needs to know about it, its shipment and its item, read at once
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ConfirmationTarget {
+
+    private UUID transferUuid;
+    private int quantity;
+    private int confirmedQuantity;
+    private UUID shipmentUuid;
+    private ShipmentStatus shipmentStatus;
+    private UUID to;
+    private UUID itemUuid;
+}
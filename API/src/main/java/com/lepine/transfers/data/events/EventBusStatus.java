@@ -0,0 +1,18 @@
+package com.lepine.transfers.data.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class EventBusStatus {
+
+    private int queueDepth;
+    private Map<String, HandlerStats> handlers;
+}
@@ -0,0 +1,18 @@
+package com.lepine.transfers.data.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class HandlerStats {
+
+    private long calls;
+    private long failures;
+    private double averageMillis;
+    private double maxMillis;
+}
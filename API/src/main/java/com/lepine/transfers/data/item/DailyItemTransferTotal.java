@@ -0,0 +1,37 @@
+package com.lepine.transfers.data.item;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Table(schema = "lepine", name = "daily_item_transfer_totals")
+@Entity
+@IdClass(DailyItemTransferTotal.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class DailyItemTransferTotal {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private UUID itemUuid;
+    }
+
+    @Id
+    @Column(name = "\"day\"")
+    private LocalDate day;
+
+    @Id
+    private UUID itemUuid;
+
+    private long quantity;
+}
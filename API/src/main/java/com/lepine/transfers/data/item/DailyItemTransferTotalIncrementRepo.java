@@ -0,0 +1,21 @@
+package com.lepine.transfers.data.item;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+public interface DailyItemTransferTotalIncrementRepo {
+
+    /**
+     * Adds to the total of an item for a day, creating it when there is none, in one atomic statement so that
+     * the first shipments of a day neither lose an increment nor collide on its (day, item) key.
+     * Goes around the persistence context, a total loaded beforehand is not refreshed.
+     */
+    void increment(LocalDate day, UUID itemUuid, long quantity);
+
+    /**
+     * Adds to the totals of many days and items as one batch, each the way {@link #increment} does, in the order the
+     * maps iterate
+     */
+    void incrementAll(Map<LocalDate, ? extends Map<UUID, Long>> quantityByDayAndItemUuid);
+}
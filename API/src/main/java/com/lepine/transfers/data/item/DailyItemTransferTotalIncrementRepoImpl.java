@@ -0,0 +1,76 @@
+package com.lepine.transfers.data.item;
+
+import com.lepine.transfers.data.sql.EmbeddedMergeLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@RequiredArgsConstructor
+public class DailyItemTransferTotalIncrementRepoImpl implements DailyItemTransferTotalIncrementRepo {
+
+    private final static String POSTGRES_UPSERT_QUERY =
+            "INSERT INTO lepine.daily_item_transfer_totals (\"day\", item_uuid, quantity) VALUES (?, ?, ?) " +
+            "ON CONFLICT (\"day\", item_uuid) " +
+                "DO UPDATE SET quantity = daily_item_transfer_totals.quantity + excluded.quantity";
+
+    private final static String MERGE_QUERY =
+            "MERGE INTO lepine.daily_item_transfer_totals d " +
+            "USING (SELECT CAST(? AS DATE) AS \"day\", CAST(? AS UUID) AS item_uuid, CAST(? AS BIGINT) AS quantity) r " +
+                "ON d.\"day\" = r.\"day\" AND d.item_uuid = r.item_uuid " +
+            "WHEN MATCHED THEN UPDATE SET quantity = d.quantity + r.quantity " +
+            "WHEN NOT MATCHED THEN INSERT (\"day\", item_uuid, quantity) VALUES (r.\"day\", r.item_uuid, r.quantity)";
+
+    private final static EmbeddedMergeLock MERGE_LOCK = new EmbeddedMergeLock();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void increment(LocalDate day, UUID itemUuid, long quantity) {
+        if(isPostgres()) {
+            jdbcTemplate.update(POSTGRES_UPSERT_QUERY, day, itemUuid, quantity);
+        } else {
+            merge(day, itemUuid, quantity);
+        }
+        log.info("Added {} to the total of item {} on {}", quantity, itemUuid, day);
+    }
+
+    @Override
+    public void incrementAll(Map<LocalDate, ? extends Map<UUID, Long>> quantityByDayAndItemUuid) {
+        final List<Object[]> batchArgs = new ArrayList<>();
+        quantityByDayAndItemUuid.forEach((day, quantityByItemUuid) -> quantityByItemUuid.forEach((itemUuid, quantity) ->
+                batchArgs.add(new Object[]{ day, itemUuid, quantity })));
+        if(batchArgs.isEmpty()) {
+            return;
+        }
+
+        if(isPostgres()) {
+            jdbcTemplate.batchUpdate(POSTGRES_UPSERT_QUERY, batchArgs);
+        } else {
+            MERGE_LOCK.merge(() -> jdbcTemplate.batchUpdate(MERGE_QUERY, batchArgs));
+        }
+        log.info("Added to {} totals in batch", batchArgs.size());
+    }
+
+    private void merge(LocalDate day, UUID itemUuid, long quantity) {
+        // A total this MERGE would not see is created by a transaction holding the lock, so it is committed by now
+        MERGE_LOCK.merge(() -> jdbcTemplate.update(MERGE_QUERY, day, itemUuid, quantity));
+    }
+
+    private boolean isPostgres() {
+        if(postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,9 @@
+package com.lepine.transfers.data.item;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DailyItemTransferTotalRepo extends JpaRepository<DailyItemTransferTotal, DailyItemTransferTotal.Key>,
+        DailyItemTransferTotalIncrementRepo {
+}
@@ -1,8 +1,13 @@
 package com.lepine.transfers.data.item;
 
+import com.lepine.transfers.config.SecondLevelCacheConfig;
+import com.lepine.transfers.utils.id.UUIDs;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
@@ -11,6 +16,8 @@ import java.util.UUID;
 
 @Table(schema = "lepine", name = "items")
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ITEMS_REGION)
 @Getter
 @Setter
 @ToString
@@ -21,9 +28,9 @@ public class Item {
 
     @Builder.Default
     @GeneratedValue(generator = "UUIDGenerator")
-    @GenericGenerator(name = "UUIDGenerator", strategy = "uuid2")
+    @GenericGenerator(name = "UUIDGenerator", strategy = "com.lepine.transfers.utils.id.UUIDsIdentifierGenerator")
     @Id
-    private UUID uuid = UUID.randomUUID();
+    private UUID uuid = UUIDs.next();
 
     private String sku;
     private String description;
@@ -2,30 +2,66 @@ package com.lepine.transfers.data.item;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import javax.persistence.AttributeConverter;
 import javax.persistence.Convert;
 import javax.persistence.Converter;
+import javax.persistence.QueryHint;
 import java.lang.annotation.Annotation;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ItemRepo extends JpaRepository<Item, UUID> {
     Integer deleteByUuid(UUID uuid);
 
     Optional<Item> findBySkuIgnoreCase(String sku);
 
-    @Query("select new com.lepine.transfers.data.item.ItemQuantityTuple(transfer.stock.item, sum(transfer.quantity)) from Transfer transfer " +
-            "join Shipment shipment " +
-                "on transfer.shipmentUuid = shipment.uuid " +
-            "where shipment.expectedDate between :start and :end " +
-            "group by transfer.stock.item " +
-                "order by sum(transfer.quantity) desc"
+    @Query("select s.uuid from Stock s where s.item.uuid = :uuid")
+    List<UUID> findStockUuidsByUuid(@Param("uuid") UUID uuid);
+
+    Slice<Item> findAllByOrderBySkuAsc(Pageable pageable);
+
+    Slice<Item> findAllBySkuGreaterThanOrderBySkuAsc(String sku, Pageable pageable);
+
+    // Forward-only cursor for reindexing, has to be consumed in a transaction
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select i from Item i")
+    Stream<Item> streamAll();
+
+    // Totals are rolled up per UTC day of the shipments' expected date, see DailyItemTransferTotal
+    @Query(value = "select new com.lepine.transfers.data.item.ItemQuantityTuple(item, sum(total.quantity)) " +
+            "from DailyItemTransferTotal total " +
+            "join Item item " +
+                "on total.itemUuid = item.uuid " +
+            "where total.day between :start and :end " +
+            "group by item " +
+                "order by sum(total.quantity) desc",
+            countQuery = "select count(distinct total.itemUuid) from DailyItemTransferTotal total " +
+                    "where total.day between :start and :end"
     )
-    Page<ItemQuantityTuple> mostTransferredItemsInRange(ZonedDateTime start, ZonedDateTime end, Pageable pageable);
+    Page<ItemQuantityTuple> mostTransferredItemsInDays(@Param("start") LocalDate start,
+                                                       @Param("end") LocalDate end,
+                                                       Pageable pageable);
+
+    default Page<ItemQuantityTuple> mostTransferredItemsInRange(ZonedDateTime start, ZonedDateTime end, Pageable pageable) {
+        return mostTransferredItemsInDays(
+                start.withZoneSameInstant(ZoneOffset.UTC).toLocalDate(),
+                end.withZoneSameInstant(ZoneOffset.UTC).toLocalDate(),
+                pageable);
+    }
 }
 
@@ -0,0 +1,35 @@
+package com.lepine.transfers.data.mail;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.ZonedDateTime;
+
+@Table(schema = "lepine", name = "mail_dead_letters")
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class MailDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String recipient;
+
+    private String subject;
+
+    private String content;
+
+    private ZonedDateTime createdAt;
+
+    private int attempts;
+
+    private String lastError;
+
+    private ZonedDateTime failedAt;
+}
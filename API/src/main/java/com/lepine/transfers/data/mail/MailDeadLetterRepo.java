@@ -0,0 +1,8 @@
+package com.lepine.transfers.data.mail;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MailDeadLetterRepo extends JpaRepository<MailDeadLetter, Long> {
+}
@@ -0,0 +1,33 @@
+package com.lepine.transfers.data.mail;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.ZonedDateTime;
+
+@Table(schema = "lepine", name = "mail_queue")
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class MailQueueEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String recipient;
+
+    private String subject;
+
+    private String content;
+
+    private ZonedDateTime createdAt;
+
+    private int attempts;
+
+    private ZonedDateTime nextAttemptAt;
+}
@@ -0,0 +1,39 @@
+package com.lepine.transfers.data.mail;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.transaction.Transactional;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MailQueueRepo extends JpaRepository<MailQueueEntry, Long> {
+
+    List<MailQueueEntry> findAllByNextAttemptAtLessThanEqualOrderByIdAsc(ZonedDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update MailQueueEntry e set e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt where e.id in :ids")
+    int reschedule(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") ZonedDateTime nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from MailQueueEntry e where e.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into lepine.mail_queue " +
+                "(recipient, subject, content, created_at, attempts, next_attempt_at) " +
+            "select u.email, :subject, :content, current_timestamp, 0, current_timestamp " +
+            "from lepine.users u " +
+            "where u.uuid = :userUuid")
+    int insertForUser(@Param("userUuid") UUID userUuid, @Param("subject") String subject, @Param("content") String content);
+}
@@ -0,0 +1,32 @@
+package com.lepine.transfers.data.notification;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Table(schema = "lepine", name = "notification_digest_entries")
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class DigestEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private UUID userUuid;
+
+    private String recipient;
+
+    private UUID shipmentUuid;
+
+    private String status;
+
+    private ZonedDateTime createdAt;
+}
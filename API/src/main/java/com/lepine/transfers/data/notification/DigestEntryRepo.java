@@ -0,0 +1,49 @@
+package com.lepine.transfers.data.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import javax.transaction.Transactional;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DigestEntryRepo extends JpaRepository<DigestEntry, Long> {
+
+    // Locks the entries read, skipping those another flush already holds (FOR UPDATE SKIP LOCKED), so that the
+    // entries returned are deleted and sent by this transaction alone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select e from DigestEntry e where e.userUuid = :userUuid order by e.id asc")
+    List<DigestEntry> lockAllByUserUuid(@Param("userUuid") UUID userUuid);
+
+    long countByUserUuid(UUID userUuid);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into lepine.notification_digest_entries " +
+                "(user_uuid, recipient, shipment_uuid, status, created_at) " +
+            "select u.uuid, u.email, :shipmentUuid, :status, current_timestamp " +
+            "from lepine.users u " +
+            "where u.uuid = :userUuid")
+    int insertForUser(@Param("userUuid") UUID userUuid,
+                      @Param("shipmentUuid") UUID shipmentUuid,
+                      @Param("status") String status);
+
+    @Query("select e.userUuid from DigestEntry e group by e.userUuid having min(e.createdAt) <= :cutoff")
+    List<UUID> findUserUuidsWithEntriesBefore(@Param("cutoff") ZonedDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("delete from DigestEntry e where e.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -2,12 +2,15 @@ package com.lepine.transfers.data.role;
 
 import com.lepine.transfers.data.auth.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RoleRepo extends JpaRepository<Role, UUID> {
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(String name);
 }
@@ -0,0 +1,6 @@
+package com.lepine.transfers.data.routing;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,18 @@
+package com.lepine.transfers.data.routing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class DataSourceStatus {
+
+    private boolean replicaHealthy;
+    private Map<DataSourceRoute, PoolStats> pools;
+}
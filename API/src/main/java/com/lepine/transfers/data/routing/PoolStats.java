@@ -0,0 +1,19 @@
+package com.lepine.transfers.data.routing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class PoolStats {
+
+    private long routedConnections;
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    private int waitingThreads;
+}
@@ -0,0 +1,16 @@
+package com.lepine.transfers.data.routing;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.*;
+
+/**
+ * Read-only transaction served by the read replica when one is configured and healthy. Only the outermost
+ * transaction picks the pool, a method marked so and called from a write transaction reads from the primary.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true, transactionManager = ReadReplicaTransactionManager.BEAN_NAME)
+public @interface ReadOnlyTransactional {
+}
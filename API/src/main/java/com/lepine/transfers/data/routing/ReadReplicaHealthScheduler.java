@@ -0,0 +1,19 @@
+package com.lepine.transfers.data.routing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaHealthScheduler {
+
+    private final ReadReplicaRoutingDataSource readReplicaRoutingDataSource;
+
+    @Scheduled(fixedDelayString = "#{@readReplicaConfig.healthCheckInterval.toMillis()}")
+    public void checkHealth() {
+        readReplicaRoutingDataSource.checkReplicaHealth();
+    }
+}
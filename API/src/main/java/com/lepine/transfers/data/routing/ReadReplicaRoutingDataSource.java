@@ -0,0 +1,134 @@
+package com.lepine.transfers.data.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out replica connections to transactions started by {@link ReadReplicaTransactionManager} and primary
+ * connections to everything else. Replica reads fall back to the primary as soon as the replica fails to give a
+ * connection, until a health check finds it working again.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final static ThreadLocal<Boolean> REPLICA_READ = ThreadLocal.withInitial(() -> false);
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final Duration healthCheckTimeout;
+
+    private final Map<DataSourceRoute, LongAdder> routedConnections = new EnumMap<>(DataSourceRoute.class);
+
+    private volatile boolean replicaHealthy = true;
+
+    public ReadReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica, Duration healthCheckTimeout) {
+        this.primary = primary;
+        this.replica = replica;
+        this.healthCheckTimeout = healthCheckTimeout;
+
+        for (DataSourceRoute route : DataSourceRoute.values()) {
+            routedConnections.put(route, new LongAdder());
+        }
+
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    static void setReplicaRead(boolean replicaRead) {
+        if(replicaRead) {
+            REPLICA_READ.set(true);
+        } else {
+            REPLICA_READ.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return REPLICA_READ.get() && replicaHealthy ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if(determineCurrentLookupKey() == DataSourceRoute.REPLICA) {
+            try {
+                final Connection connection = replica.getConnection();
+                routedConnections.get(DataSourceRoute.REPLICA).increment();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Read replica gave no connection, reading from primary until it recovers: {}", e.getMessage());
+                replicaHealthy = false;
+            }
+        }
+
+        final Connection connection = primary.getConnection();
+        routedConnections.get(DataSourceRoute.PRIMARY).increment();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Pools are configured with their own credentials");
+    }
+
+    public void checkReplicaHealth() {
+        boolean healthy;
+        try (Connection connection = replica.getConnection()) {
+            healthy = connection.isValid((int) Math.max(1, healthCheckTimeout.toSeconds()));
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if(healthy != replicaHealthy) {
+            log.info("Read replica is now {}", healthy ? "healthy, routing read-only transactions to it" : "unhealthy, routing everything to primary");
+        }
+        replicaHealthy = healthy;
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    public DataSourceStatus getStatus() {
+        final Map<DataSourceRoute, PoolStats> pools = new EnumMap<>(DataSourceRoute.class);
+        pools.put(DataSourceRoute.PRIMARY, getPoolStats(DataSourceRoute.PRIMARY, primary));
+        pools.put(DataSourceRoute.REPLICA, getPoolStats(DataSourceRoute.REPLICA, replica));
+
+        return DataSourceStatus.builder()
+                .replicaHealthy(replicaHealthy)
+                .pools(pools)
+                .build();
+    }
+
+    private PoolStats getPoolStats(DataSourceRoute route, HikariDataSource pool) {
+        final PoolStats.PoolStatsBuilder stats = PoolStats.builder()
+                .routedConnections(routedConnections.get(route).sum());
+
+        // Not there until the pool starts
+        final HikariPoolMXBean poolMXBean = pool.getHikariPoolMXBean();
+        if(poolMXBean != null) {
+            stats.activeConnections(poolMXBean.getActiveConnections())
+                    .idleConnections(poolMXBean.getIdleConnections())
+                    .totalConnections(poolMXBean.getTotalConnections())
+                    .waitingThreads(poolMXBean.getThreadsAwaitingConnection());
+        }
+
+        return stats.build();
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.lepine.transfers.data.routing;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Marks the transactions it starts as replica reads for the whole time they run. The mark is set before the
+ * transaction takes its connection, so that {@link ReadReplicaRoutingDataSource} hands it a replica one.
+ */
+public class ReadReplicaTransactionManager extends JpaTransactionManager {
+
+    public final static String BEAN_NAME = "readReplicaTransactionManager";
+
+    public ReadReplicaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        ReadReplicaRoutingDataSource.setReplicaRead(true);
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            ReadReplicaRoutingDataSource.setReplicaRead(false);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            ReadReplicaRoutingDataSource.setReplicaRead(false);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.lepine.transfers.data.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ReindexReport {
+
+    private String indexName;
+    private long rows;
+    private long millis;
+    private double rowsPerSecond;
+}
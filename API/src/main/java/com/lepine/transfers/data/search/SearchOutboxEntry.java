@@ -0,0 +1,34 @@
+package com.lepine.transfers.data.search;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.ZonedDateTime;
+
+@Table(schema = "lepine", name = "search_outbox")
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class SearchOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String indexName;
+
+    private String objectId;
+
+    @Enumerated(EnumType.STRING)
+    private SearchOutboxOperation operation;
+
+    private String payload;
+
+    private ZonedDateTime createdAt;
+
+    private int attempts;
+}
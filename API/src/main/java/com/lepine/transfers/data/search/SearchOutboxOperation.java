@@ -0,0 +1,9 @@
+package com.lepine.transfers.data.search;
+
+public enum SearchOutboxOperation {
+    SAVE,
+    PARTIAL_UPDATE,
+    DELETE,
+    // Only names the object, which is read again when dispatched and saved, or deleted when it is gone by then
+    REFRESH
+}
@@ -0,0 +1,19 @@
+package com.lepine.transfers.data.search;
+
+import com.lepine.transfers.data.stock.StockReceipt;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface SearchOutboxRefreshRepo {
+
+    /**
+     * Queues a refresh of each object as one batch, whether the object still exists or not
+     */
+    void insertRefreshes(String indexName, Collection<UUID> objectIds);
+
+    /**
+     * Queues a refresh of the stock of each receipt as one batch, read by warehouse and item in the database
+     */
+    void insertStockRefreshes(String indexName, Collection<StockReceipt> receipts);
+}
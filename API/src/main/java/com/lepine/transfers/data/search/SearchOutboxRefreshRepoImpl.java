@@ -0,0 +1,56 @@
+package com.lepine.transfers.data.search;
+
+import com.lepine.transfers.data.stock.StockReceipt;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+public class SearchOutboxRefreshRepoImpl implements SearchOutboxRefreshRepo {
+
+    // The ids are generated by the database, so Hibernate would have to insert the entries one by one
+    private final static String INSERT_REFRESH_QUERY =
+            "INSERT INTO lepine.search_outbox (index_name, object_id, operation, payload, created_at, attempts) " +
+            "VALUES (?, ?, 'REFRESH', ?, current_timestamp, 0)";
+
+    private final static String INSERT_STOCK_REFRESH_QUERY =
+            "INSERT INTO lepine.search_outbox (index_name, object_id, operation, payload, created_at, attempts) " +
+            "SELECT ?, CAST(s.uuid AS VARCHAR), 'REFRESH', " +
+                "CONCAT('{\"objectID\":\"', CAST(s.uuid AS VARCHAR), '\"}'), current_timestamp, 0 " +
+            "FROM lepine.stocks s " +
+            "WHERE s.warehouse_uuid = ? AND s.item_uuid = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertRefreshes(String indexName, Collection<UUID> objectIds) {
+        if(objectIds.isEmpty()) {
+            return;
+        }
+
+        final List<Object[]> batchArgs = objectIds.stream()
+                .map(objectId -> new Object[]{ indexName, objectId.toString(), "{\"objectID\":\"" + objectId + "\"}" })
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INSERT_REFRESH_QUERY, batchArgs);
+        log.info("Queued {} refreshes in {}", batchArgs.size(), indexName);
+    }
+
+    @Override
+    public void insertStockRefreshes(String indexName, Collection<StockReceipt> receipts) {
+        if(receipts.isEmpty()) {
+            return;
+        }
+
+        final List<Object[]> batchArgs = receipts.stream()
+                .map(receipt -> new Object[]{ indexName, receipt.getWarehouseUuid(), receipt.getItemUuid() })
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INSERT_STOCK_REFRESH_QUERY, batchArgs);
+        log.info("Queued refreshes of {} received stocks in {}", batchArgs.size(), indexName);
+    }
+}
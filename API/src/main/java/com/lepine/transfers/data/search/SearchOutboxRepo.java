@@ -0,0 +1,45 @@
+package com.lepine.transfers.data.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.transaction.Transactional;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SearchOutboxRepo extends JpaRepository<SearchOutboxEntry, Long>, SearchOutboxRefreshRepo {
+
+    List<SearchOutboxEntry> findAllByOrderByIdAsc(Pageable pageable);
+
+    @Query("select min(e.createdAt) from SearchOutboxEntry e")
+    Optional<ZonedDateTime> findOldestCreatedAt();
+
+    @Transactional
+    @Modifying
+    @Query("update SearchOutboxEntry e set e.attempts = e.attempts + 1 where e.id in :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SearchOutboxEntry e where e.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Stocks are queued by the database itself, the caller never has to read them
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into lepine.search_outbox " +
+                "(index_name, object_id, operation, payload, created_at, attempts) " +
+            "select :indexName, cast(s.uuid as varchar), 'REFRESH', " +
+                "concat('{\"objectID\":\"', cast(s.uuid as varchar), '\"}'), current_timestamp, 0 " +
+            "from lepine.stocks s " +
+            "where s.item_uuid = :itemUuid")
+    int insertStockRefreshesByItemUuid(@Param("indexName") String indexName, @Param("itemUuid") UUID itemUuid);
+}
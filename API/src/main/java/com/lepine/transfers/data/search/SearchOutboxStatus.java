@@ -0,0 +1,20 @@
+package com.lepine.transfers.data.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class SearchOutboxStatus {
+
+    private long depth;
+    private long lagMillis;
+    private ZonedDateTime oldestCreatedAt;
+    private int consecutiveFailures;
+}
@@ -1,8 +1,11 @@
 package com.lepine.transfers.data.shipment;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.utils.id.UUIDs;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.*;
 import java.time.ZonedDateTime;
@@ -18,13 +21,22 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
-public class Shipment {
+public class Shipment implements Persistable<UUID> {
 
     @Builder.Default
     @GeneratedValue(generator = "UUIDGenerator")
-    @GenericGenerator(name = "UUIDGenerator", strategy = "uuid2")
+    @GenericGenerator(name = "UUIDGenerator", strategy = "com.lepine.transfers.utils.id.UUIDsIdentifierGenerator")
     @Id
-    private UUID uuid = UUID.randomUUID();
+    private UUID uuid = UUIDs.next();
+
+    /**
+     * Set when the shipment is read from the database, until then saving it inserts it without looking it up first
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean persisted;
 
     @Builder.Default
     @Enumerated(EnumType.STRING)
@@ -32,17 +44,42 @@ public class Shipment {
     private ShipmentStatus status = ShipmentStatus.PENDING;
 
     @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn(name = "shipment_uuid", referencedColumnName = "uuid", nullable = false)
+    // Not updatable, the key is written by the transfer inserts instead of one extra update per transfer
+    @JoinColumn(name = "shipment_uuid", referencedColumnName = "uuid", nullable = false, updatable = false)
     @Builder.Default
     private List<Transfer> transfers = new ArrayList<>(0);
 
     private ZonedDateTime expectedDate;
     private String orderNumber;
 
+    private boolean fullyConfirmed;
+    private ZonedDateTime confirmedAt;
+
+    @Column(updatable = false)
+    private ZonedDateTime createdAt;
+
     @JoinColumn(name = "created_by", referencedColumnName = "uuid", nullable = false)
     private UUID createdBy;
 
     @JoinColumn(name = "\"to\"", referencedColumnName = "uuid", nullable = false)
     @Column(name = "\"to\"")
     private UUID to;
+
+    @JsonIgnore
+    @Override
+    public UUID getId() {
+        return uuid;
+    }
+
+    @JsonIgnore
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -0,0 +1,24 @@
+package com.lepine.transfers.data.shipment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one shipment of a batch, either created or rejected with the reason it would have been refused alone
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ShipmentBatchEntry {
+
+    private int index;
+    private Shipment shipment;
+    private RuntimeException rejection;
+
+    public boolean isCreated() {
+        return rejection == null;
+    }
+}
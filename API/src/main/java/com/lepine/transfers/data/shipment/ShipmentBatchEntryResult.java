@@ -0,0 +1,27 @@
+package com.lepine.transfers.data.shipment;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ShipmentBatchEntryResult {
+
+    public enum Status { CREATED, REJECTED }
+
+    /**
+     * Position of the entry in the request
+     */
+    private int index;
+    private Status status;
+    private Shipment shipment;
+    private List<String> errors;
+}
@@ -1,17 +1,23 @@
 package com.lepine.transfers.data.shipment;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import java.time.ZonedDateTime;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Repository
 public interface ShipmentRepo extends JpaRepository<Shipment, UUID>, JpaSpecificationExecutor<Shipment> {
@@ -21,40 +27,135 @@ public interface ShipmentRepo extends JpaRepository<Shipment, UUID>, JpaSpecific
     Shipment findOneByUuidEagerLoad(UUID uuid);
 
     @EntityGraph(attributePaths = {"transfers.stock", "transfers.stock.item", "transfers.stock.warehouse"})
-    @Query("select s from Shipment s")
-    Page<Shipment> findAll(Pageable pageable);
+    @Query("select distinct s from Shipment s where s.uuid in :uuids")
+    List<Shipment> findAllByUuidInEagerLoad(@Param("uuids") Collection<UUID> uuids);
 
-    @EntityGraph(attributePaths = {"transfers.stock", "transfers.stock.item", "transfers.stock.warehouse"})
-    @Query("select s from Shipment s where s.createdBy = :createdBy")
-    Page<Shipment> findAllByCreatedBy(@Param("createdBy") UUID createdBy, Pageable pageable);
+    /**
+     * Locks the shipments in uuid order until the transaction ends, so that confirmations completing transfers of the
+     * same shipment check it for completion one after the other, each seeing the transfers the others confirmed
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s.uuid from Shipment s where s.uuid in :uuids order by s.uuid")
+    List<UUID> lockAllByUuidIn(@Param("uuids") Collection<UUID> uuids);
 
-    @Query("select s from Transfer t join Shipment s on t.shipmentUuid=s.uuid where t.uuid = :transferUuid")
-    Optional<Shipment> findByTransferUuid(UUID transferUuid);
+    @Modifying
+    @Query("update Shipment s set s.fullyConfirmed = true, s.confirmedAt = :confirmedAt " +
+            "where s.uuid = :uuid " +
+                "and s.fullyConfirmed = false " +
+                "and not exists (" +
+                    "select t.uuid from Transfer t where t.shipmentUuid = s.uuid and t.confirmedQuantity < t.quantity" +
+                ")")
+    int markFullyConfirmed(@Param("uuid") UUID uuid, @Param("confirmedAt") ZonedDateTime confirmedAt);
 
-    @EntityGraph(attributePaths = {"transfers.stock", "transfers.stock.item", "transfers.stock.warehouse"})
-    Page<Shipment> findAllByStatus(ShipmentStatus status, Pageable pageable);
-
-    @Query("select s from Shipment s " +
-            "join Transfer t " +
-                "on s.uuid = t.shipmentUuid " +
-            "join Confirmation c " +
-                "on t.uuid = c.transferUuid " +
-            "group by s.uuid " +
-                "having sum(c.quantity) = t.quantity"
-    )
-    @EntityGraph(attributePaths = {"transfers.stock", "transfers.stock.item", "transfers.stock.warehouse"})
-    Page<Shipment> findAllFullyConfirmed(Pageable pageable);
-
-    @Query("select s from Shipment s " +
-            "where s.expectedDate between :start and :end " +
-            "and " +
-                "(select sum(t.quantity) from Transfer t where t.shipmentUuid=s.uuid group by t.shipmentUuid) = " +
-                "(select sum(c.quantity) from Transfer t " +
-                    "join Confirmation c " +
-                        "on t.uuid = c.transferUuid " +
-                    "where t.shipmentUuid=s.uuid " +
-                    "group by t.shipmentUuid)"
-    )
-    @EntityGraph(attributePaths = {"transfers.stock", "transfers.stock.item", "transfers.stock.warehouse"})
-    Page<Shipment> findAllFullyConfirmedInTimeRange(ZonedDateTime start, ZonedDateTime end, Pageable pageable);
+    @Modifying
+    @Query("update Shipment s set s.fullyConfirmed = true, s.confirmedAt = :confirmedAt " +
+            "where s.uuid in :uuids " +
+                "and s.fullyConfirmed = false " +
+                "and not exists (" +
+                    "select t.uuid from Transfer t where t.shipmentUuid = s.uuid and t.confirmedQuantity < t.quantity" +
+                ")")
+    int markAllFullyConfirmed(@Param("uuids") Collection<UUID> uuids, @Param("confirmedAt") ZonedDateTime confirmedAt);
+
+    // Paging a collection fetch makes Hibernate page in memory (HHH000104), so the paged queries below
+    // only select UUIDs and the graphs are loaded for the current page alone through eagerLoad
+
+    @Query("select s.uuid from Shipment s")
+    Page<UUID> findAllUuids(Pageable pageable);
+
+    @Query("select s.uuid from Shipment s where s.createdBy = :createdBy")
+    Page<UUID> findAllUuidsByCreatedBy(@Param("createdBy") UUID createdBy, Pageable pageable);
+
+    @Query("select s.uuid from Shipment s where s.status = :status")
+    Page<UUID> findAllUuidsByStatus(@Param("status") ShipmentStatus status, Pageable pageable);
+
+    @Query("select s.uuid from Shipment s where s.fullyConfirmed = true")
+    Page<UUID> findAllFullyConfirmedUuids(Pageable pageable);
+
+    @Query("select s.uuid from Shipment s " +
+            "where s.fullyConfirmed = true " +
+                "and s.expectedDate between :start and :end")
+    Page<UUID> findAllFullyConfirmedUuidsInTimeRange(ZonedDateTime start, ZonedDateTime end, Pageable pageable);
+
+    // Keyset variants, ordered the same way as the shipment listing (expectedDate desc) with the uuid as
+    // tie-breaker so that the last row of a slice is enough to seek to the next one without an offset or a count
+
+    @Query("select s.uuid from Shipment s order by s.expectedDate desc, s.uuid desc")
+    Slice<UUID> findFirstUuids(Pageable pageable);
+
+    @Query("select s.uuid from Shipment s " +
+            "where s.expectedDate < :expectedDate " +
+                "or (s.expectedDate = :expectedDate and s.uuid < :uuid) " +
+            "order by s.expectedDate desc, s.uuid desc")
+    Slice<UUID> findUuidsAfter(@Param("expectedDate") ZonedDateTime expectedDate, @Param("uuid") UUID uuid, Pageable pageable);
+
+    @Query("select s.uuid from Shipment s where s.createdBy = :createdBy order by s.expectedDate desc, s.uuid desc")
+    Slice<UUID> findFirstUuidsByCreatedBy(@Param("createdBy") UUID createdBy, Pageable pageable);
+
+    @Query("select s.uuid from Shipment s " +
+            "where s.createdBy = :createdBy " +
+            "and (s.expectedDate < :expectedDate " +
+                "or (s.expectedDate = :expectedDate and s.uuid < :uuid)) " +
+            "order by s.expectedDate desc, s.uuid desc")
+    Slice<UUID> findUuidsByCreatedByAfter(@Param("createdBy") UUID createdBy,
+                                          @Param("expectedDate") ZonedDateTime expectedDate,
+                                          @Param("uuid") UUID uuid,
+                                          Pageable pageable);
+
+    @Query("select s.uuid from Shipment s where s.status = :status order by s.expectedDate desc, s.uuid desc")
+    Slice<UUID> findFirstUuidsByStatus(@Param("status") ShipmentStatus status, Pageable pageable);
+
+    @Query("select s.uuid from Shipment s " +
+            "where s.status = :status " +
+            "and (s.expectedDate < :expectedDate " +
+                "or (s.expectedDate = :expectedDate and s.uuid < :uuid)) " +
+            "order by s.expectedDate desc, s.uuid desc")
+    Slice<UUID> findUuidsByStatusAfter(@Param("status") ShipmentStatus status,
+                                       @Param("expectedDate") ZonedDateTime expectedDate,
+                                       @Param("uuid") UUID uuid,
+                                       Pageable pageable);
+
+    default Page<Shipment> findAllEagerLoad(Pageable pageable) {
+        return eagerLoad(findAllUuids(pageable));
+    }
+
+    default Page<Shipment> findAllByCreatedBy(UUID createdBy, Pageable pageable) {
+        return eagerLoad(findAllUuidsByCreatedBy(createdBy, pageable));
+    }
+
+    default Page<Shipment> findAllByStatus(ShipmentStatus status, Pageable pageable) {
+        return eagerLoad(findAllUuidsByStatus(status, pageable));
+    }
+
+    default Page<Shipment> findAllFullyConfirmed(Pageable pageable) {
+        return eagerLoad(findAllFullyConfirmedUuids(pageable));
+    }
+
+    default Page<Shipment> findAllFullyConfirmedInTimeRange(ZonedDateTime start, ZonedDateTime end, Pageable pageable) {
+        return eagerLoad(findAllFullyConfirmedUuidsInTimeRange(start, end, pageable));
+    }
+
+    default Page<Shipment> eagerLoad(Page<UUID> uuids) {
+        return new PageImpl<>(eagerLoadContent(uuids), uuids.getPageable(), uuids.getTotalElements());
+    }
+
+    default Slice<Shipment> eagerLoad(Slice<UUID> uuids) {
+        return new SliceImpl<>(eagerLoadContent(uuids), uuids.getPageable(), uuids.hasNext());
+    }
+
+    /**
+     * Shipments of the UUID page in its order, leaving out the ones deleted since the page was read
+     */
+    default List<Shipment> eagerLoadContent(Slice<UUID> uuids) {
+        if(!uuids.hasContent()) {
+            return List.of();
+        }
+
+        final Map<UUID, Shipment> byUuid = new HashMap<>(uuids.getNumberOfElements());
+        findAllByUuidInEagerLoad(uuids.getContent()).forEach(s -> byUuid.put(s.getUuid(), s));
+
+        return uuids.getContent().stream()
+                .map(byUuid::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,44 @@
+package com.lepine.transfers.data.sql;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the MERGE upserts into one table of the embedded H2 database until their transaction ends. A MERGE only
+ * matches committed rows, so two transactions creating the same row would both insert it and one would fail on the
+ * unique key. H2 only ever runs embedded in this process, which makes a lock in memory seen by every writer.
+ */
+public final class EmbeddedMergeLock {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Runs the merge once the lock is held, keeping it until the current transaction commits or rolls back, or only
+     * for the merge itself when there is no transaction
+     */
+    public <T> T merge(Supplier<T> merge) {
+        if(lock.isHeldByCurrentThread()) {
+            return merge.get();
+        }
+
+        lock.lock();
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return merge.get();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+        return merge.get();
+    }
+}
@@ -0,0 +1,20 @@
+package com.lepine.transfers.data.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class EndpointSqlStats {
+
+    private long requests;
+    private long statements;
+    private long maxStatements;
+    private double millis;
+    private double maxMillis;
+    private long overWarnThreshold;
+}
@@ -0,0 +1,38 @@
+package com.lepine.transfers.data.sql;
+
+/**
+ * Counts the statements run on the current thread between {@link #start()} and {@link #stop()}, along with the time
+ * spent running them. Statements outside of such a scope, like the ones of schedulers, are not counted.
+ */
+public final class SqlStatementCounter {
+
+    private final static ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {}
+
+    public static void start() {
+        CURRENT.set(new SqlStatistics());
+    }
+
+    public static SqlStatistics stop() {
+        final SqlStatistics statistics = current();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    /**
+     * @return What was counted so far on this thread, zero when nothing is being counted
+     */
+    public static SqlStatistics current() {
+        final SqlStatistics statistics = CURRENT.get();
+        return statistics == null ? new SqlStatistics() : statistics.toBuilder().build();
+    }
+
+    static void record(long nanos) {
+        final SqlStatistics statistics = CURRENT.get();
+        if(statistics == null) return;
+
+        statistics.setStatements(statistics.getStatements() + 1);
+        statistics.setNanos(statistics.getNanos() + nanos);
+    }
+}
@@ -0,0 +1,20 @@
+package com.lepine.transfers.data.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class SqlStatistics {
+
+    private long statements;
+    private long nanos;
+
+    public double getMillis() {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,78 @@
+package com.lepine.transfers.data.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Times every execution of the statements made on its connections and reports it to {@link SqlStatementCounter}.
+ * A batch counts as a single statement, as it goes to the database in one round trip.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (method, result) ->
+                // createStatement, prepareStatement and prepareCall, each returning its own statement interface
+                result instanceof Statement ? wrap(method.getReturnType(), (Statement) result) : result);
+    }
+
+    private static Object wrap(Class<?> statementType, Statement statement) {
+        return proxy(statementType, statement, null);
+    }
+
+    private interface ResultMapper {
+        Object map(Method method, Object result);
+    }
+
+    private static <T> T proxy(Class<?> type, Object target, ResultMapper resultMapper) {
+        final Object proxy = Proxy.newProxyInstance(
+                StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{ type },
+                (self, method, args) -> {
+                    // Identity of the proxy itself, drivers and pools keep statements in maps
+                    switch (method.getName()) {
+                        case "equals": return self == args[0];
+                        case "hashCode": return System.identityHashCode(self);
+                    }
+
+                    final boolean counted = resultMapper == null && method.getName().startsWith("execute");
+                    final long start = System.nanoTime();
+                    final Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if(counted) {
+                            SqlStatementCounter.record(System.nanoTime() - start);
+                        }
+                    }
+
+                    return resultMapper == null ? result : resultMapper.map(method, result);
+                });
+
+        @SuppressWarnings("unchecked")
+        final T typed = (T) proxy;
+        return typed;
+    }
+}
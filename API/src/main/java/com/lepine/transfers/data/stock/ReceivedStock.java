@@ -0,0 +1,23 @@
+package com.lepine.transfers.data.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Stock of an item in a warehouse as a receipt left it, read back by the statement that received it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ReceivedStock {
+
+    private UUID stockUuid;
+    private UUID warehouseUuid;
+    private UUID itemUuid;
+    private int quantity;
+}
@@ -3,6 +3,7 @@ package com.lepine.transfers.data.stock;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.utils.id.UUIDs;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
 
@@ -21,9 +22,9 @@ public class Stock {
 
     @Builder.Default
     @GeneratedValue(generator = "UUIDGenerator")
-    @GenericGenerator(name = "UUIDGenerator", strategy = "uuid2")
+    @GenericGenerator(name = "UUIDGenerator", strategy = "com.lepine.transfers.utils.id.UUIDsIdentifierGenerator")
     @Id
-    private UUID uuid = UUID.randomUUID();
+    private UUID uuid = UUIDs.next();
 
     private int quantity;
 
@@ -0,0 +1,21 @@
+package com.lepine.transfers.data.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class StockChange {
+
+    private long version;
+    private UUID stockUuid;
+    private UUID warehouseUuid;
+    private UUID itemUuid;
+    private int quantity;
+}
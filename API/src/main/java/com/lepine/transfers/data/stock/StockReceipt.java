@@ -0,0 +1,22 @@
+package com.lepine.transfers.data.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Quantity to add to the stock of an item in a warehouse
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class StockReceipt {
+
+    private UUID warehouseUuid;
+    private UUID itemUuid;
+    private int quantity;
+}
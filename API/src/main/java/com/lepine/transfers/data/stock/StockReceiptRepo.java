@@ -0,0 +1,31 @@
+package com.lepine.transfers.data.stock;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StockReceiptRepo {
+
+    /**
+     * Adds to the stock of an item in a warehouse, creating it when there is none, in one atomic statement so that
+     * concurrent receipts into the same stock neither lose an increment nor collide on its (item, warehouse) key.
+     * Clears the persistence context afterwards, like {@code @Modifying(clearAutomatically = true)}.
+     *
+     * @return the quantity of the stock once received
+     */
+    int receive(UUID warehouseUuid, UUID itemUuid, int quantity);
+
+    /**
+     * Adds to the stock of the transfer's item in the destination of its shipment like {@link #receive}, finding
+     * both in the same statement.
+     *
+     * @return the stock once received, empty when there is no such transfer
+     */
+    Optional<ReceivedStock> receiveTransferred(UUID transferUuid, int quantity);
+
+    /**
+     * Adds every receipt to its stock like {@link #receive}, in one batch where the database can take one.
+     * Receipts are expected to name each stock once.
+     */
+    void receiveAll(List<StockReceipt> receipts);
+}
@@ -0,0 +1,164 @@
+package com.lepine.transfers.data.stock;
+
+import com.lepine.transfers.data.sql.EmbeddedMergeLock;
+import com.lepine.transfers.utils.id.UUIDs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.function.Supplier;
+
+@Slf4j
+@RequiredArgsConstructor
+public class StockReceiptRepoImpl implements StockReceiptRepo {
+
+    private final static String POSTGRES_ON_CONFLICT =
+            "ON CONFLICT (item_uuid, warehouse_uuid) DO UPDATE SET quantity = stocks.quantity + excluded.quantity";
+
+    private final static String POSTGRES_UPSERT_QUERY =
+            "INSERT INTO lepine.stocks (uuid, quantity, item_uuid, warehouse_uuid) VALUES (?, ?, ?, ?) " +
+            POSTGRES_ON_CONFLICT;
+
+    private final static String POSTGRES_UPSERT_TRANSFERRED_QUERY =
+            "INSERT INTO lepine.stocks (uuid, quantity, item_uuid, warehouse_uuid) " +
+            "SELECT ?, ?, st.item_uuid, sh.\"to\" FROM lepine.transfers t " +
+                "JOIN lepine.stocks st ON st.uuid = t.stock_uuid " +
+                "JOIN lepine.shipments sh ON sh.uuid = t.shipment_uuid " +
+            "WHERE t.uuid = ? " +
+            POSTGRES_ON_CONFLICT;
+
+    private final static String MERGE_MATCH =
+                "ON s.item_uuid = r.item_uuid AND s.warehouse_uuid = r.warehouse_uuid " +
+            "WHEN MATCHED THEN UPDATE SET quantity = s.quantity + r.quantity " +
+            "WHEN NOT MATCHED THEN INSERT (uuid, quantity, item_uuid, warehouse_uuid) " +
+                "VALUES (r.uuid, r.quantity, r.item_uuid, r.warehouse_uuid)";
+
+    private final static String MERGE_QUERY =
+            "MERGE INTO lepine.stocks s " +
+            "USING (SELECT CAST(? AS UUID) AS uuid, CAST(? AS INT) AS quantity, " +
+                    "CAST(? AS UUID) AS item_uuid, CAST(? AS UUID) AS warehouse_uuid) r " +
+            MERGE_MATCH;
+
+    private final static String MERGE_TRANSFERRED_QUERY =
+            "MERGE INTO lepine.stocks s " +
+            "USING (SELECT CAST(? AS UUID) AS uuid, CAST(? AS INT) AS quantity, " +
+                    "st.item_uuid AS item_uuid, sh.\"to\" AS warehouse_uuid FROM lepine.transfers t " +
+                    "JOIN lepine.stocks st ON st.uuid = t.stock_uuid " +
+                    "JOIN lepine.shipments sh ON sh.uuid = t.shipment_uuid " +
+                "WHERE t.uuid = ?) r " +
+            MERGE_MATCH;
+
+    // Read back through the generated keys, which both H2 and Postgres fill with the inserted or updated row
+    private final static String[] RECEIVED_COLUMNS = { "uuid", "warehouse_uuid", "item_uuid", "quantity" };
+
+    private final static EmbeddedMergeLock MERGE_LOCK = new EmbeddedMergeLock();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public int receive(UUID warehouseUuid, UUID itemUuid, int quantity) {
+        // Pending changes must hit the database before the stock is read and written by the statement
+        entityManager.flush();
+
+        final int received = upsert(isPostgres() ? POSTGRES_UPSERT_QUERY : MERGE_QUERY,
+                UUIDs.next(), quantity, itemUuid, warehouseUuid)
+                .orElseThrow()
+                .getQuantity();
+        log.info("Received {} into stock of item {} in warehouse {}, now {}", quantity, itemUuid, warehouseUuid, received);
+
+        // A managed stock would now hold a stale quantity
+        entityManager.clear();
+
+        return received;
+    }
+
+    @Override
+    public Optional<ReceivedStock> receiveTransferred(UUID transferUuid, int quantity) {
+        entityManager.flush();
+
+        final Optional<ReceivedStock> received = upsert(isPostgres() ? POSTGRES_UPSERT_TRANSFERRED_QUERY : MERGE_TRANSFERRED_QUERY,
+                UUIDs.next(), quantity, transferUuid);
+        received.ifPresent(stock -> log.info("Received {} of transfer {} into stock {}, now {}",
+                quantity, transferUuid, stock.getStockUuid(), stock.getQuantity()));
+
+        entityManager.clear();
+
+        return received;
+    }
+
+    @Override
+    public void receiveAll(List<StockReceipt> receipts) {
+        if(receipts.isEmpty()) {
+            return;
+        }
+
+        entityManager.flush();
+
+        // Same order in every batch, so that two batches locking the same stocks cannot deadlock
+        final List<StockReceipt> sorted = new ArrayList<>(receipts);
+        sorted.sort(Comparator.comparing(StockReceipt::getItemUuid).thenComparing(StockReceipt::getWarehouseUuid));
+
+        if(isPostgres()) {
+            final List<Object[]> batchArgs = new ArrayList<>(sorted.size());
+            sorted.forEach(receipt -> batchArgs.add(new Object[]{
+                    UUIDs.next(), receipt.getQuantity(), receipt.getItemUuid(), receipt.getWarehouseUuid() }));
+            jdbcTemplate.batchUpdate(POSTGRES_UPSERT_QUERY, batchArgs);
+        } else {
+            // Embedded, there is no round-trip to save, and one failing statement must not leave half a batch applied
+            sorted.forEach(receipt -> upsert(MERGE_QUERY,
+                    UUIDs.next(), receipt.getQuantity(), receipt.getItemUuid(), receipt.getWarehouseUuid()));
+        }
+        log.info("Received {} stocks in batch", sorted.size());
+
+        entityManager.clear();
+    }
+
+    /**
+     * Runs one of the upserts above and reads the stock back from it, empty when it had nothing to receive
+     */
+    private Optional<ReceivedStock> upsert(String query, Object... args) {
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        final Supplier<Integer> update = () -> jdbcTemplate.update(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(query, RECEIVED_COLUMNS);
+            new ArgumentPreparedStatementSetter(args).setValues(statement);
+            return statement;
+        }, keyHolder);
+
+        if(isPostgres()) {
+            update.get();
+        } else {
+            // A stock this MERGE would not see is created by a transaction holding the lock, so it is committed by now
+            MERGE_LOCK.merge(update);
+        }
+
+        if(keyHolder.getKeyList().isEmpty()) {
+            return Optional.empty();
+        }
+
+        final Map<String, Object> received = keyHolder.getKeyList().get(0);
+        return Optional.of(ReceivedStock.builder()
+                .stockUuid((UUID) received.get("uuid"))
+                .warehouseUuid((UUID) received.get("warehouse_uuid"))
+                .itemUuid((UUID) received.get("item_uuid"))
+                .quantity(((Number) received.get("quantity")).intValue())
+                .build());
+    }
+
+    private boolean isPostgres() {
+        if(postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -1,16 +1,58 @@
 package com.lepine.transfers.data.stock;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface StockRepo extends JpaRepository<Stock, UUID> {
+public interface StockRepo extends JpaRepository<Stock, UUID>, StockReservationRepo, StockReceiptRepo {
     int deleteByUuid(UUID dto);
     List<Stock> findByItemUuid(UUID itemUuid);
+
+    // A set hashes each stock with its item and warehouse, which would otherwise be loaded one by one
+    @EntityGraph(attributePaths = {"item", "warehouse"})
     Set<Stock> findDistinctByUuidIn(Set<UUID> uuids);
+
     Optional<Stock> findByWarehouseUuidAndItemUuid(UUID uuid, UUID uuid1);
     Optional<Stock> findByItemUuidAndWarehouseUuid(UUID itemUuid, UUID warehouseUuid);
+
+    @EntityGraph(attributePaths = {"item", "warehouse"})
+    List<Stock> findAllByWarehouseUuidInAndItemUuidIn(Set<UUID> warehouseUuids, Set<UUID> itemUuids);
+
+    // Read from the database even when the stock is already loaded, where it may be stale
+    @Query("select s.quantity from Stock s where s.uuid = :uuid")
+    Optional<Integer> findQuantityByUuid(UUID uuid);
+
+    // Listings load the item and warehouse of the whole page in the same query, instead of one query for each
+    @EntityGraph(attributePaths = {"item", "warehouse"})
+    Page<Stock> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "warehouse"})
+    Slice<Stock> findAllByOrderByUuidAsc(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "warehouse"})
+    Slice<Stock> findAllByUuidGreaterThanOrderByUuidAsc(UUID uuid, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "warehouse"})
+    List<Stock> findAllByUuidIn(Collection<UUID> uuids);
+
+    // Forward-only cursor for reindexing, has to be consumed in a transaction
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select s from Stock s join fetch s.item join fetch s.warehouse")
+    Stream<Stock> streamAllWithItemAndWarehouse();
 }
@@ -0,0 +1,16 @@
+package com.lepine.transfers.data.stock;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public interface StockReservationRepo {
+
+    /**
+     * Decrements every stock by its wanted quantity in one batch of guarded updates.
+     * Clears the persistence context afterwards, like {@code @Modifying(clearAutomatically = true)}.
+     *
+     * @return the UUIDs of the stocks that could not be reserved (missing or too low)
+     */
+    Set<UUID> reserveAll(Map<UUID, Integer> quantitiesByStockUuid);
+}
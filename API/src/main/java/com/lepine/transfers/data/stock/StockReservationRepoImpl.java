@@ -0,0 +1,54 @@
+package com.lepine.transfers.data.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+
+@Slf4j
+@RequiredArgsConstructor
+public class StockReservationRepoImpl implements StockReservationRepo {
+
+    private final static String RESERVE_QUERY =
+            "UPDATE lepine.stocks SET quantity = quantity - ? WHERE uuid = ? AND quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public Set<UUID> reserveAll(Map<UUID, Integer> quantitiesByStockUuid) {
+        if(quantitiesByStockUuid.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        // Pending changes must hit the database before the guarded updates read the quantities
+        entityManager.flush();
+
+        // Same order in every batch, so that two shipments reserving the same stocks cannot deadlock
+        final List<UUID> stockUuids = new ArrayList<>(quantitiesByStockUuid.keySet());
+        Collections.sort(stockUuids);
+        final List<Object[]> batchArgs = new ArrayList<>(stockUuids.size());
+        for (UUID stockUuid : stockUuids) {
+            final int wanted = quantitiesByStockUuid.get(stockUuid);
+            batchArgs.add(new Object[]{ wanted, stockUuid, wanted });
+        }
+
+        log.info("Reserving {} stocks in batch", stockUuids.size());
+        final int[] affected = jdbcTemplate.batchUpdate(RESERVE_QUERY, batchArgs);
+
+        final Set<UUID> notReserved = new HashSet<>();
+        for (int i = 0; i < affected.length; i++) {
+            if(affected[i] == 0) {
+                notReserved.add(stockUuids.get(i));
+            }
+        }
+        log.info("Reserved {} stocks, {} could not be reserved", affected.length - notReserved.size(), notReserved.size());
+
+        // Managed stocks now hold stale quantities
+        entityManager.clear();
+
+        return notReserved;
+    }
+}
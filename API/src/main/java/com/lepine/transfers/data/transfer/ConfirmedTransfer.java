@@ -0,0 +1,23 @@
+package com.lepine.transfers.data.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Transfer as a confirmation left it, read back by the statement that confirmed it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ConfirmedTransfer {
+
+    private UUID transferUuid;
+    private int quantity;
+    private int confirmedQuantity;
+    private UUID shipmentUuid;
+}
@@ -0,0 +1,18 @@
+package com.lepine.transfers.data.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemMovement {
+
+    private UUID itemUuid;
+    private int quantity;
+    private ZonedDateTime at;
+}
@@ -1,8 +1,11 @@
 package com.lepine.transfers.data.transfer;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.utils.id.UUIDs;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.*;
 import java.util.UUID;
@@ -14,13 +17,21 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
-public class Transfer {
+public class Transfer implements Persistable<UUID> {
 
     @Builder.Default
     @GeneratedValue(generator = "UUIDGenerator")
-    @GenericGenerator(name = "UUIDGenerator", strategy = "uuid2")
+    @GenericGenerator(name = "UUIDGenerator", strategy = "com.lepine.transfers.utils.id.UUIDsIdentifierGenerator")
     @Id
-    private UUID uuid = UUID.randomUUID();
+    private UUID uuid = UUIDs.next();
+
+    /**
+     * Set once the transfer is written or read back, new transfers cascade from their shipment as plain inserts
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "stock_uuid")
@@ -28,7 +39,27 @@ public class Transfer {
 
     private int quantity;
 
+    private int confirmedQuantity;
+
     @JoinColumn(name = "shipment_uuid", referencedColumnName = "uuid", nullable = false)
     @Column(name = "shipment_uuid", insertable = false, updatable = false)
     private UUID shipmentUuid;
+
+    @JsonIgnore
+    @Override
+    public UUID getId() {
+        return uuid;
+    }
+
+    @JsonIgnore
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -0,0 +1,28 @@
+package com.lepine.transfers.data.transfer;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+public interface TransferConfirmationRepo {
+
+    /**
+     * Adds to the confirmed quantity of a transfer in one guarded update, refused when its shipment is not
+     * accepted or when it would go over the transferred quantity, and reads the transfer back in the same statement.
+     * Clears the persistence context afterwards, like {@code @Modifying(clearAutomatically = true)}.
+     *
+     * @return the transfer once confirmed, empty when it could not be confirmed (missing, shipment not accepted or
+     * quantity exceeded)
+     */
+    Optional<ConfirmedTransfer> confirm(UUID transferUuid, int quantity);
+
+    /**
+     * Adds to the confirmed quantity of every transfer in one batch of guarded updates, each refused when it would
+     * go over the transferred quantity. Clears the persistence context afterwards, like
+     * {@code @Modifying(clearAutomatically = true)}.
+     *
+     * @return the UUIDs of the transfers that could not be confirmed (missing or quantity exceeded)
+     */
+    Set<UUID> addConfirmedQuantities(Map<UUID, Integer> quantitiesByTransferUuid);
+}
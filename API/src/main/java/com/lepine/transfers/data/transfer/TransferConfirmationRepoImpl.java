@@ -0,0 +1,97 @@
+package com.lepine.transfers.data.transfer;
+
+import com.lepine.transfers.data.shipment.ShipmentStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.util.*;
+
+@Slf4j
+@RequiredArgsConstructor
+public class TransferConfirmationRepoImpl implements TransferConfirmationRepo {
+
+    private final static String CONFIRM_QUERY =
+            "UPDATE lepine.transfers SET confirmed_quantity = confirmed_quantity + ? " +
+            "WHERE uuid = ? AND confirmed_quantity + ? <= quantity";
+
+    private final static String CONFIRM_ACCEPTED_QUERY =
+            "UPDATE lepine.transfers t SET confirmed_quantity = t.confirmed_quantity + ? " +
+            "WHERE t.uuid = ? AND t.confirmed_quantity + ? <= t.quantity " +
+                "AND EXISTS (SELECT 1 FROM lepine.shipments s WHERE s.uuid = t.shipment_uuid AND s.status = ?)";
+
+    // Read back through the generated keys, which both H2 and Postgres fill with the updated row
+    private final static String[] CONFIRMED_COLUMNS = { "quantity", "confirmed_quantity", "shipment_uuid" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<ConfirmedTransfer> confirm(UUID transferUuid, int quantity) {
+        // Pending changes must hit the database before the guarded update reads the quantities
+        entityManager.flush();
+
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(CONFIRM_ACCEPTED_QUERY, CONFIRMED_COLUMNS);
+            new ArgumentPreparedStatementSetter(new Object[]{
+                    quantity, transferUuid, quantity, ShipmentStatus.ACCEPTED.name() }).setValues(statement);
+            return statement;
+        }, keyHolder);
+
+        // Managed transfers now hold stale quantities
+        entityManager.clear();
+
+        if(keyHolder.getKeyList().isEmpty()) {
+            log.info("Transfer {} could not be confirmed", transferUuid);
+            return Optional.empty();
+        }
+
+        final Map<String, Object> confirmed = keyHolder.getKeyList().get(0);
+        return Optional.of(ConfirmedTransfer.builder()
+                .transferUuid(transferUuid)
+                .quantity(((Number) confirmed.get("quantity")).intValue())
+                .confirmedQuantity(((Number) confirmed.get("confirmed_quantity")).intValue())
+                .shipmentUuid((UUID) confirmed.get("shipment_uuid"))
+                .build());
+    }
+
+    @Override
+    public Set<UUID> addConfirmedQuantities(Map<UUID, Integer> quantitiesByTransferUuid) {
+        if(quantitiesByTransferUuid.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        // Pending changes must hit the database before the guarded updates read the quantities
+        entityManager.flush();
+
+        // Same order in every batch, so that two batches locking the same transfers cannot deadlock
+        final List<UUID> transferUuids = new ArrayList<>(new TreeSet<>(quantitiesByTransferUuid.keySet()));
+        final List<Object[]> batchArgs = new ArrayList<>(transferUuids.size());
+        for (UUID transferUuid : transferUuids) {
+            final int quantity = quantitiesByTransferUuid.get(transferUuid);
+            batchArgs.add(new Object[]{ quantity, transferUuid, quantity });
+        }
+
+        log.info("Confirming {} transfers in batch", transferUuids.size());
+        final int[] affected = jdbcTemplate.batchUpdate(CONFIRM_QUERY, batchArgs);
+
+        final Set<UUID> notConfirmed = new HashSet<>();
+        for (int i = 0; i < affected.length; i++) {
+            if(affected[i] == 0) {
+                notConfirmed.add(transferUuids.get(i));
+            }
+        }
+        log.info("Confirmed {} transfers, {} could not be confirmed", affected.length - notConfirmed.size(), notConfirmed.size());
+
+        // Managed transfers now hold stale quantities
+        entityManager.clear();
+
+        return notConfirmed;
+    }
+}
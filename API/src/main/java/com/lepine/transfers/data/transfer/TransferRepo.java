@@ -1,20 +1,70 @@
 package com.lepine.transfers.data.transfer;
 
+import com.lepine.transfers.data.confirmation.ConfirmationTarget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface TransferRepo extends JpaRepository<Transfer, UUID> {
-
-    @Query(
-            "select t as confirmed from Transfer t " +
-                    "join Confirmation c on t.uuid = c.transferUuid " +
-                        "group by t.uuid " +
-                            "having sum(c.quantity) = t.quantity"
-    )
+public interface TransferRepo extends JpaRepository<Transfer, UUID>, TransferConfirmationRepo {
+
+    @Query("select t from Transfer t where t.confirmedQuantity = t.quantity")
     List<Transfer> findAllFullyConfirmed();
+
+    /**
+     * Adds to the confirmed quantity of a transfer, unless it would go over the transferred quantity.
+     * @return the number of updated rows, 0 meaning the quantity was exceeded or the transfer does not exist
+     */
+    @Modifying
+    @Query("update Transfer t set t.confirmedQuantity = t.confirmedQuantity + :quantity " +
+            "where t.uuid = :uuid " +
+                "and t.confirmedQuantity + :quantity <= t.quantity")
+    int addConfirmedQuantity(@Param("uuid") UUID uuid, @Param("quantity") int quantity);
+
+    /**
+     * Reads the transfer with the status and destination of its shipment and the item it moves in one query,
+     * the shipment fields being null when it has none
+     */
+    @Query("select new com.lepine.transfers.data.confirmation.ConfirmationTarget(" +
+                "t.uuid, t.quantity, t.confirmedQuantity, s.uuid, s.status, s.to, st.item.uuid) " +
+            "from Transfer t " +
+            "join t.stock st " +
+            "left join Shipment s " +
+                "on t.shipmentUuid = s.uuid " +
+            "where t.uuid = :uuid")
+    Optional<ConfirmationTarget> findConfirmationTarget(@Param("uuid") UUID uuid);
+
+    @Query("select new com.lepine.transfers.data.confirmation.ConfirmationTarget(" +
+                "t.uuid, t.quantity, t.confirmedQuantity, s.uuid, s.status, s.to, st.item.uuid) " +
+            "from Transfer t " +
+            "join t.stock st " +
+            "left join Shipment s " +
+                "on t.shipmentUuid = s.uuid " +
+            "where t.uuid in :uuids")
+    List<ConfirmationTarget> findAllConfirmationTargets(@Param("uuids") Collection<UUID> uuids);
+
+    @Query("select new com.lepine.transfers.data.confirmation.ConfirmationTarget(" +
+                "t.uuid, t.quantity, t.confirmedQuantity, s.uuid, s.status, s.to, st.item.uuid) " +
+            "from Transfer t " +
+            "join t.stock st " +
+            "join Shipment s " +
+                "on t.shipmentUuid = s.uuid " +
+            "where s.uuid = :shipmentUuid " +
+            "order by t.uuid")
+    List<ConfirmationTarget> findAllConfirmationTargetsByShipmentUuid(@Param("shipmentUuid") UUID shipmentUuid);
+
+    @Query("select new com.lepine.transfers.data.transfer.ItemMovement(t.stock.item.uuid, t.quantity, s.createdAt) " +
+            "from Transfer t " +
+            "join Shipment s " +
+                "on t.shipmentUuid = s.uuid " +
+            "where s.createdAt >= :since")
+    List<ItemMovement> findAllItemMovementsSince(@Param("since") ZonedDateTime since);
 }
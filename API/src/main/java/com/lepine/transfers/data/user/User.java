@@ -2,6 +2,7 @@ package com.lepine.transfers.data.user;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.lepine.transfers.data.auth.Role;
+import com.lepine.transfers.utils.id.UUIDs;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
 import org.springframework.security.core.GrantedAuthority;
@@ -27,9 +28,9 @@ public class User implements UserDetails {
 
     @Builder.Default
     @GeneratedValue(generator = "UUIDGenerator")
-    @GenericGenerator(name = "UUIDGenerator", strategy = "uuid2")
+    @GenericGenerator(name = "UUIDGenerator", strategy = "com.lepine.transfers.utils.id.UUIDsIdentifierGenerator")
     @Id
-    private UUID uuid = UUID.randomUUID();
+    private UUID uuid = UUIDs.next();
 
     @Column(unique = true)
     private String email;
@@ -3,16 +3,29 @@ package com.lepine.transfers.data.warehouse;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 import java.util.UUID;
 @Repository
 public interface WarehouseRepo extends JpaRepository<Warehouse, UUID> {
     Integer deleteByUuid(UUID uuid);
 
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<Warehouse> findByZipCode(String zipCode);
 
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<Warehouse> findByUuid(UUID uuid);
+
+    Slice<Warehouse> findAllByOrderByUuidAsc(Pageable pageable);
+
+    Slice<Warehouse> findAllByUuidGreaterThanOrderByUuidAsc(UUID uuid, Pageable pageable);
+
+    Slice<Warehouse> findAllByActiveOrderByUuidAsc(boolean active, Pageable pageable);
+
+    Slice<Warehouse> findAllByActiveAndUuidGreaterThanOrderByUuidAsc(boolean active, UUID uuid, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package com.lepine.transfers.events;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * An event about one aggregate, delivered by the {@link DomainEventBus} as the publishing transaction commits.
+ * Events sharing an aggregate key reach their handlers in the order they were published.
+ */
+public abstract class DomainEvent extends ApplicationEvent {
+
+    protected DomainEvent(Object source) {
+        super(source);
+    }
+
+    public abstract String getAggregateKey();
+}
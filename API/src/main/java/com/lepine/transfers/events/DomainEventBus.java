@@ -0,0 +1,230 @@
+package com.lepine.transfers.events;
+
+import com.lepine.transfers.config.EventBusConfig;
+import com.lepine.transfers.data.events.EventBusStatus;
+import com.lepine.transfers.data.events.HandlerStats;
+import com.lepine.transfers.events.item.ItemDeleteEvent;
+import com.lepine.transfers.events.item.ItemDeleteHandler;
+import com.lepine.transfers.events.item.ItemUpdateEvent;
+import com.lepine.transfers.events.item.ItemUpdateHandler;
+import com.lepine.transfers.events.shipment.ShipmentBatchCreateEvent;
+import com.lepine.transfers.events.shipment.ShipmentCreateEvent;
+import com.lepine.transfers.events.shipment.ShipmentCreateHandler;
+import com.lepine.transfers.events.shipment.ShipmentUpdateEvent;
+import com.lepine.transfers.events.shipment.ShipmentUpdateHandler;
+import com.lepine.transfers.events.stock.StockBatchReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Hands domain events to their handlers once the publishing transaction commits, or right away when there is none,
+ * so that a request only pays for its own write. Each aggregate is pinned to one of a fixed set of single threaded
+ * queues, which keeps its events in order, and a full queue holds the publisher back rather than growing.
+ * Every handler call runs in its own transaction so that one failing handler does not undo the others.
+ * Handlers marked {@link InPublishingTransaction} are instead called right before the publishing transaction
+ * commits, in that transaction, since queued events are lost on shutdown and a failed call is only logged.
+ */
+@Component
+@Slf4j
+public class DomainEventBus implements Closeable {
+
+    private final EventBusConfig eventBusConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate publishingTransactionTemplate;
+    private final ObjectProvider<ItemUpdateHandler> itemUpdateHandlers;
+    private final ObjectProvider<ItemDeleteHandler> itemDeleteHandlers;
+    private final ObjectProvider<ShipmentCreateHandler> shipmentCreateHandlers;
+    private final ObjectProvider<ShipmentUpdateHandler> shipmentUpdateHandlers;
+    private final ObjectProvider<StockReceiveHandler> stockReceiveHandlers;
+    private final ThreadPoolExecutor[] stripes;
+    private final Map<String, Stats> statsByHandler = new ConcurrentHashMap<>();
+
+    public DomainEventBus(EventBusConfig eventBusConfig,
+                          PlatformTransactionManager transactionManager,
+                          ObjectProvider<ItemUpdateHandler> itemUpdateHandlers,
+                          ObjectProvider<ItemDeleteHandler> itemDeleteHandlers,
+                          ObjectProvider<ShipmentCreateHandler> shipmentCreateHandlers,
+                          ObjectProvider<ShipmentUpdateHandler> shipmentUpdateHandlers,
+                          ObjectProvider<StockReceiveHandler> stockReceiveHandlers) {
+        this.eventBusConfig = eventBusConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.publishingTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.itemUpdateHandlers = itemUpdateHandlers;
+        this.itemDeleteHandlers = itemDeleteHandlers;
+        this.shipmentCreateHandlers = shipmentCreateHandlers;
+        this.shipmentUpdateHandlers = shipmentUpdateHandlers;
+        this.stockReceiveHandlers = stockReceiveHandlers;
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("event-bus-");
+        threadFactory.setDaemon(true);
+        this.stripes = new ThreadPoolExecutor[eventBusConfig.isAsync() ? eventBusConfig.getThreads() : 0];
+        for(int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(eventBusConfig.getQueueCapacity()), threadFactory, DomainEventBus::waitForRoom);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDomainEventBeforeCommit(DomainEvent event) {
+        deliver(event, true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        if(stripes.length == 0) {
+            deliver(event, false);
+            return;
+        }
+
+        final String key = event.getAggregateKey();
+        stripes[Math.floorMod(key.hashCode(), stripes.length)].execute(() -> deliver(event, false));
+    }
+
+    public EventBusStatus getStatus() {
+        final int queueDepth = Arrays.stream(stripes)
+                .mapToInt(stripe -> stripe.getQueue().size() + stripe.getActiveCount())
+                .sum();
+
+        final Map<String, HandlerStats> handlers = new TreeMap<>();
+        statsByHandler.forEach((name, stats) -> handlers.put(name, stats.snapshot()));
+
+        return EventBusStatus.builder()
+                .queueDepth(queueDepth)
+                .handlers(handlers)
+                .build();
+    }
+
+    @Override
+    public void close() {
+        for(ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        for(ThreadPoolExecutor stripe : stripes) {
+            try {
+                if(!stripe.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Dropping {} undelivered events on shutdown", stripe.shutdownNow().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void deliver(DomainEvent event, boolean inPublishingTransaction) {
+        if(event instanceof ItemUpdateEvent) {
+            handlers(itemUpdateHandlers, inPublishingTransaction).forEach(handler ->
+                    invoke(handler, "onItemUpdate", inPublishingTransaction,
+                            () -> handler.onItemUpdate((ItemUpdateEvent) event)));
+        } else if(event instanceof ItemDeleteEvent) {
+            handlers(itemDeleteHandlers, inPublishingTransaction).forEach(handler ->
+                    invoke(handler, "onItemDelete", inPublishingTransaction,
+                            () -> handler.onItemDelete((ItemDeleteEvent) event)));
+        } else if(event instanceof ShipmentCreateEvent) {
+            handlers(shipmentCreateHandlers, inPublishingTransaction).forEach(handler ->
+                    invoke(handler, "onShipmentCreate", inPublishingTransaction,
+                            () -> handler.onShipmentCreate((ShipmentCreateEvent) event)));
+        } else if(event instanceof ShipmentBatchCreateEvent) {
+            handlers(shipmentCreateHandlers, inPublishingTransaction).forEach(handler ->
+                    invoke(handler, "onShipmentBatchCreate", inPublishingTransaction,
+                            () -> handler.onShipmentBatchCreate((ShipmentBatchCreateEvent) event)));
+        } else if(event instanceof ShipmentUpdateEvent) {
+            handlers(shipmentUpdateHandlers, inPublishingTransaction).forEach(handler ->
+                    invoke(handler, "onShipmentUpdate", inPublishingTransaction,
+                            () -> handler.onShipmentUpdate((ShipmentUpdateEvent) event)));
+        } else if(event instanceof StockReceiveEvent) {
+            handlers(stockReceiveHandlers, inPublishingTransaction).forEach(handler ->
+                    invoke(handler, "onStockReceive", inPublishingTransaction,
+                            () -> handler.onStockReceive((StockReceiveEvent) event)));
+        } else if(event instanceof StockBatchReceiveEvent) {
+            handlers(stockReceiveHandlers, inPublishingTransaction).forEach(handler ->
+                    invoke(handler, "onStockBatchReceive", inPublishingTransaction,
+                            () -> handler.onStockBatchReceive((StockBatchReceiveEvent) event)));
+        } else if(!inPublishingTransaction) {
+            log.warn("No handlers for {}", event.getClass().getSimpleName());
+        }
+    }
+
+    private static <T> Stream<T> handlers(ObjectProvider<T> handlers, boolean inPublishingTransaction) {
+        return handlers.orderedStream().filter(handler -> inPublishingTransaction ==
+                AnnotatedElementUtils.hasAnnotation(AopProxyUtils.ultimateTargetClass(handler), InPublishingTransaction.class));
+    }
+
+    private void invoke(Object handler, String method, boolean inPublishingTransaction, Runnable call) {
+        final String name = ClassUtils.getUserClass(handler).getSimpleName() + "." + method;
+        final Stats stats = statsByHandler.computeIfAbsent(name, ignored -> new Stats());
+
+        final long start = System.nanoTime();
+        try {
+            // The first joins the publishing transaction, the second starts one of its own
+            (inPublishingTransaction ? publishingTransactionTemplate : transactionTemplate)
+                    .executeWithoutResult(status -> call.run());
+        } catch (RuntimeException e) {
+            stats.failures.increment();
+            log.error("Handler {} failed", name, e);
+            if(inPublishingTransaction) {
+                throw e;
+            }
+        } finally {
+            stats.record(System.nanoTime() - start);
+        }
+    }
+
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor stripe) {
+        if(stripe.isShutdown()) {
+            throw new RejectedExecutionException("Event bus is shut down");
+        }
+
+        try {
+            stripe.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in the event bus", e);
+        }
+    }
+
+    private static class Stats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        HandlerStats snapshot() {
+            final long callCount = calls.sum();
+            return HandlerStats.builder()
+                    .calls(callCount)
+                    .failures(failures.sum())
+                    .averageMillis(callCount == 0 ? 0 : totalNanos.sum() / 1e6 / callCount)
+                    .maxMillis(maxNanos.get() / 1e6)
+                    .build();
+        }
+    }
+}
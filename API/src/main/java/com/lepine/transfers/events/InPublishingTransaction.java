@@ -0,0 +1,15 @@
+package com.lepine.transfers.events;
+
+import java.lang.annotation.*;
+
+/**
+ * Handler whose writes must commit with the event that caused them, such as an outbox or a rollup. The
+ * {@link DomainEventBus} calls it on the publishing thread right before the transaction commits, and a failing
+ * call rolls the whole transaction back instead of losing the write. The request waits on every such handler,
+ * so they only insert what the event carries and leave reads and mapping to the queued handlers.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface InPublishingTransaction {
+}
@@ -1,18 +1,31 @@
 package com.lepine.transfers.events.item;
 
+import com.lepine.transfers.events.DomainEvent;
 import lombok.Getter;
-import org.springframework.context.ApplicationEvent;
 
+import java.util.List;
 import java.util.UUID;
 
 
-public class ItemDeleteEvent extends ApplicationEvent {
+public class ItemDeleteEvent extends DomainEvent {
 
     @Getter
     private final UUID uuid;
 
-    public ItemDeleteEvent(Object source, UUID uuid) {
+    /**
+     * Stocks of the item, gathered before the delete since they are cascaded with it
+     */
+    @Getter
+    private final List<UUID> stockUuids;
+
+    public ItemDeleteEvent(Object source, UUID uuid, List<UUID> stockUuids) {
         super(source);
         this.uuid = uuid;
+        this.stockUuids = stockUuids;
+    }
+
+    @Override
+    public String getAggregateKey() {
+        return "item:" + uuid;
     }
 }
@@ -1,10 +1,10 @@
 package com.lepine.transfers.events.item;
 
 import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.events.DomainEvent;
 import lombok.Getter;
-import org.springframework.context.ApplicationEvent;
 
-public class ItemUpdateEvent extends ApplicationEvent {
+public class ItemUpdateEvent extends DomainEvent {
     @Getter
     private final Item item;
 
@@ -12,4 +12,9 @@ public class ItemUpdateEvent extends ApplicationEvent {
         super(source);
         this.item = item;
     }
+
+    @Override
+    public String getAggregateKey() {
+        return "item:" + item.getUuid();
+    }
 }
@@ -0,0 +1,23 @@
+package com.lepine.transfers.events.shipment;
+
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.events.DomainEvent;
+import lombok.Getter;
+
+import java.util.List;
+
+public class ShipmentBatchCreateEvent extends DomainEvent {
+    @Getter
+    private List<Shipment> shipments;
+
+    public ShipmentBatchCreateEvent(Object source, List<Shipment> shipments) {
+        super(source);
+        this.shipments = shipments;
+    }
+
+    @Override
+    public String getAggregateKey() {
+        // Shipments of a batch are new, nothing else is queued for them yet
+        return "shipment-batch:" + shipments.get(0).getUuid();
+    }
+}
@@ -1,10 +1,10 @@
 package com.lepine.transfers.events.shipment;
 
 import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.events.DomainEvent;
 import lombok.Getter;
-import org.springframework.context.ApplicationEvent;
 
-public class ShipmentCreateEvent extends ApplicationEvent {
+public class ShipmentCreateEvent extends DomainEvent {
     @Getter
     private Shipment shipment;
 
@@ -12,4 +12,9 @@ public class ShipmentCreateEvent extends ApplicationEvent {
         super(source);
         this.shipment = shipment;
     }
+
+    @Override
+    public String getAggregateKey() {
+        return "shipment:" + shipment.getUuid();
+    }
 }
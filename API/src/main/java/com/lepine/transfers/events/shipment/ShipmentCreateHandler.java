@@ -1,9 +1,13 @@
 package com.lepine.transfers.events.shipment;
 
-import org.springframework.context.event.EventListener;
-
 public interface ShipmentCreateHandler {
 
-    @EventListener(ShipmentCreateEvent.class)
     void onShipmentCreate(ShipmentCreateEvent event);
+
+    /**
+     * Shipments created together, handled one by one unless the handler can do better with all of them at once
+     */
+    default void onShipmentBatchCreate(ShipmentBatchCreateEvent event) {
+        event.getShipments().forEach(shipment -> onShipmentCreate(new ShipmentCreateEvent(event.getSource(), shipment)));
+    }
 }
@@ -1,10 +1,10 @@
 package com.lepine.transfers.events.shipment;
 
 import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.events.DomainEvent;
 import lombok.Getter;
-import org.springframework.context.ApplicationEvent;
 
-public class ShipmentUpdateEvent extends ApplicationEvent {
+public class ShipmentUpdateEvent extends DomainEvent {
 
 
     @Getter
@@ -18,4 +18,9 @@ public class ShipmentUpdateEvent extends ApplicationEvent {
         this.old = old;
         this.updated = updated;
     }
+
+    @Override
+    public String getAggregateKey() {
+        return "shipment:" + updated.getUuid();
+    }
 }
@@ -1,9 +1,6 @@
 package com.lepine.transfers.events.shipment;
 
-import org.springframework.context.event.EventListener;
-
 public interface ShipmentUpdateHandler {
 
-    @EventListener(ShipmentUpdateEvent.class)
     void onShipmentUpdate(ShipmentUpdateEvent event);
 }
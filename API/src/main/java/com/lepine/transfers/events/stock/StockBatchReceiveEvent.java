@@ -0,0 +1,24 @@
+package com.lepine.transfers.events.stock;
+
+import com.lepine.transfers.data.stock.StockReceipt;
+import com.lepine.transfers.events.DomainEvent;
+import lombok.Getter;
+
+import java.util.List;
+
+public class StockBatchReceiveEvent extends DomainEvent {
+    @Getter
+    private final List<StockReceipt> receipts;
+
+    public StockBatchReceiveEvent(Object source, List<StockReceipt> receipts) {
+        super(source);
+        this.receipts = receipts;
+    }
+
+    @Override
+    public String getAggregateKey() {
+        // Receipts of one batch are handled together, in order with the batch that touches the same first stock
+        final StockReceipt first = receipts.get(0);
+        return "stock:" + first.getWarehouseUuid() + ":" + first.getItemUuid();
+    }
+}
@@ -0,0 +1,37 @@
+package com.lepine.transfers.events.stock;
+
+import com.lepine.transfers.events.DomainEvent;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Quantity received into the stock of an item in a warehouse, which may not have existed before. Carries the stock
+ * as the receipt left it, so that handlers do not have to read it again.
+ */
+public class StockReceiveEvent extends DomainEvent {
+    @Getter
+    private final UUID stockUuid;
+
+    @Getter
+    private final UUID warehouseUuid;
+
+    @Getter
+    private final UUID itemUuid;
+
+    @Getter
+    private final int quantity;
+
+    public StockReceiveEvent(Object source, UUID stockUuid, UUID warehouseUuid, UUID itemUuid, int quantity) {
+        super(source);
+        this.stockUuid = stockUuid;
+        this.warehouseUuid = warehouseUuid;
+        this.itemUuid = itemUuid;
+        this.quantity = quantity;
+    }
+
+    @Override
+    public String getAggregateKey() {
+        return "stock:" + warehouseUuid + ":" + itemUuid;
+    }
+}
@@ -0,0 +1,11 @@
+package com.lepine.transfers.events.stock;
+
+public interface StockReceiveHandler {
+
+    void onStockReceive(StockReceiveEvent event);
+
+    /**
+     * Stocks received together, which only carry what was added to each, unlike a single receipt
+     */
+    void onStockBatchReceive(StockBatchReceiveEvent event);
+}
@@ -0,0 +1,24 @@
+package com.lepine.transfers.exceptions.confirmation;
+
+import com.lepine.transfers.exceptions.I18nAble;
+import org.springframework.context.MessageSource;
+
+import java.util.Locale;
+
+public class ConfirmationBatchSizeException extends IllegalArgumentException implements I18nAble {
+    private final static String MESSAGE = "A batch must hold between 1 and %d confirmations, got %d";
+    private final static String CODE = "confirmation.batch.size";
+    private final int size;
+    private final int maxSize;
+
+    public ConfirmationBatchSizeException(int size, int maxSize) {
+        super(String.format(MESSAGE, maxSize, size));
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public String getLocalizedMessage(MessageSource messageSource, Locale locale) {
+        return messageSource.getMessage(CODE, new Object[]{size, maxSize}, locale);
+    }
+}
@@ -0,0 +1,24 @@
+package com.lepine.transfers.exceptions.item;
+
+import com.lepine.transfers.exceptions.I18nAble;
+import org.springframework.context.MessageSource;
+
+import java.util.Locale;
+
+import static java.lang.String.format;
+
+public class InvalidBestsellerWindowException extends RuntimeException implements I18nAble {
+    private final static String MESSAGE = "Invalid bestseller window %s";
+    private final static String CODE = "item.bestseller.window.invalid";
+    private final String window;
+
+    public InvalidBestsellerWindowException(String window) {
+        super(format(MESSAGE, window));
+        this.window = window;
+    }
+
+    @Override
+    public String getLocalizedMessage(MessageSource messageSource, Locale locale) {
+        return messageSource.getMessage(CODE, new Object[]{ window }, locale);
+    }
+}
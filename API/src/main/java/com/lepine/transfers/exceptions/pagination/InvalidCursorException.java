@@ -0,0 +1,20 @@
+package com.lepine.transfers.exceptions.pagination;
+
+import com.lepine.transfers.exceptions.I18nAble;
+import org.springframework.context.MessageSource;
+
+import java.util.Locale;
+
+public class InvalidCursorException extends RuntimeException implements I18nAble {
+    private final static String MESSAGE = "Invalid pagination cursor";
+    private final static String CODE = "pagination.cursor.invalid";
+
+    public InvalidCursorException() {
+        super(MESSAGE);
+    }
+
+    @Override
+    public String getLocalizedMessage(MessageSource messageSource, Locale locale) {
+        return messageSource.getMessage(CODE, null, locale);
+    }
+}
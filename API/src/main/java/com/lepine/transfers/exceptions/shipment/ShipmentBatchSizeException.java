@@ -0,0 +1,24 @@
+package com.lepine.transfers.exceptions.shipment;
+
+import com.lepine.transfers.exceptions.I18nAble;
+import org.springframework.context.MessageSource;
+
+import java.util.Locale;
+
+public class ShipmentBatchSizeException extends IllegalArgumentException implements I18nAble {
+    private final static String MESSAGE = "A batch must hold between 1 and %d shipments, got %d";
+    private final static String CODE = "shipment.batch.size";
+    private final int size;
+    private final int maxSize;
+
+    public ShipmentBatchSizeException(int size, int maxSize) {
+        super(String.format(MESSAGE, maxSize, size));
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public String getLocalizedMessage(MessageSource messageSource, Locale locale) {
+        return messageSource.getMessage(CODE, new Object[]{size, maxSize}, locale);
+    }
+}
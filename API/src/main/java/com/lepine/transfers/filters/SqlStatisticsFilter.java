@@ -0,0 +1,96 @@
+package com.lepine.transfers.filters;
+
+import com.lepine.transfers.config.SqlStatisticsConfig;
+import com.lepine.transfers.data.sql.SqlStatementCounter;
+import com.lepine.transfers.data.sql.SqlStatistics;
+import com.lepine.transfers.services.sql.SqlStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the statements of the whole request, the security filters and the serialization of the response included,
+ * since open-session-in-view lets lazy associations load while the body is written. The body is held back until
+ * then so the count can still go in the headers, except for streamed responses which are sent as they come.
+ * Registered by {@link SqlStatisticsConfig}, ahead of every other filter.
+ */
+@RequiredArgsConstructor
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public final static String
+            STATEMENTS_HEADER = "X-SQL-Statements",
+            TIME_HEADER = "X-SQL-Time";
+
+    private final SqlStatisticsConfig sqlStatisticsConfig;
+    private final SqlStatisticsService sqlStatisticsService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        final StreamingAwareResponseWrapper wrapper = new StreamingAwareResponseWrapper(request, response);
+
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            final SqlStatistics statistics = SqlStatementCounter.stop();
+
+            if(sqlStatisticsConfig.isHeaders() && !wrapper.isCommitted()) {
+                wrapper.setHeader(STATEMENTS_HEADER, Long.toString(statistics.getStatements()));
+                wrapper.setHeader(TIME_HEADER, String.format("%.3f", statistics.getMillis()));
+            }
+
+            // Unmapped paths are left out, there would be one entry per URL tried
+            final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if(pattern != null) {
+                sqlStatisticsService.record(request.getMethod() + " " + pattern, statistics);
+            }
+
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static class StreamingAwareResponseWrapper extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        StreamingAwareResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        // Server-sent events are written once the handler returned and the request went async
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if(!request.isAsyncStarted()) return super.getOutputStream();
+
+            copyBodyToResponse();
+            return getResponse().getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if(!request.isAsyncStarted()) return super.getWriter();
+
+            copyBodyToResponse();
+            return getResponse().getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if(!request.isAsyncStarted()) return;
+
+            copyBodyToResponse();
+            getResponse().flushBuffer();
+        }
+    }
+}
@@ -1,27 +1,29 @@
 package com.lepine.transfers.notification;
 
+import com.lepine.transfers.config.NotificationDigestConfig;
 import com.lepine.transfers.data.shipment.Shipment;
-import com.lepine.transfers.data.user.User;
+import com.lepine.transfers.events.InPublishingTransaction;
 import com.lepine.transfers.events.shipment.ShipmentUpdateEvent;
 import com.lepine.transfers.events.shipment.ShipmentUpdateHandler;
-import com.lepine.transfers.services.mailer.MailerService;
-import com.lepine.transfers.services.user.UserService;
+import com.lepine.transfers.notification.digest.NotificationDigestService;
+import com.lepine.transfers.services.mailer.queue.MailQueueService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
 import java.util.UUID;
 
 import static java.lang.String.format;
 
 @Component
+@InPublishingTransaction
 @RequiredArgsConstructor
 @Slf4j
 public class Notifier implements ShipmentUpdateHandler {
 
-    private final UserService userService;
-    private final MailerService mailerService;
+    private final MailQueueService mailQueueService;
+    private final NotificationDigestService notificationDigestService;
+    private final NotificationDigestConfig notificationDigestConfig;
 
     @Override
     public void onShipmentUpdate(ShipmentUpdateEvent event) {
@@ -38,25 +40,19 @@ public class Notifier implements ShipmentUpdateHandler {
             return;
         }
 
+        // Only queued, the request that made the update never waits on SendGrid. The user's address is looked up
+        // by the insert itself, so the update only pays for the insert.
         final UUID createdBy = current.getCreatedBy();
-        final Optional<User> affectedUser = userService.findByUuid(createdBy);
-
-        if(affectedUser.isEmpty()) {
+        final String status = current.getStatus().name().toLowerCase();
+        final boolean queued = notificationDigestConfig.isEnabled()
+                ? notificationDigestService.add(createdBy, current.getUuid(), status)
+                : mailQueueService.enqueueForUser(
+                        createdBy,
+                        "Shipment status update",
+                        format("Your shipment has been %s", status));
+
+        if(!queued) {
             log.info("No user found for uuid {}, ignoring", createdBy);
-            return;
-        }
-
-        final String to = affectedUser.get().getEmail();
-        log.info("Sending email to {}", to);
-        final boolean emailSent = mailerService.sendHTML(
-                to,
-                "Shipment status update",
-                format("Your shipment has been %s", current.getStatus().name().toLowerCase()));
-
-        if(!emailSent) {
-            log.error("Failed to send email to {}", to);
-        } else {
-            log.info("Email sent to {}", to);
         }
     }
 }
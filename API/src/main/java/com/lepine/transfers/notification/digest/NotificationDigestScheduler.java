@@ -0,0 +1,19 @@
+package com.lepine.transfers.notification.digest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "notification.digest", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationDigestScheduler {
+
+    private final NotificationDigestService notificationDigestService;
+
+    @Scheduled(fixedDelayString = "#{@notificationDigestConfig.pollInterval.toMillis()}")
+    public void flush() {
+        notificationDigestService.flushDue();
+    }
+}
@@ -0,0 +1,19 @@
+package com.lepine.transfers.notification.digest;
+
+import java.util.UUID;
+
+public interface NotificationDigestService {
+
+    /**
+     * Adds a shipment's new status to its creator's pending digest, looking up their address in the same statement.
+     * A digest that is full is sent once the addition commits.
+     *
+     * @return false when there is no such user
+     */
+    boolean add(UUID userUuid, UUID shipmentUuid, String status);
+
+    /**
+     * Sends the digests whose window is over, returns how many were sent
+     */
+    int flushDue();
+}
@@ -0,0 +1,120 @@
+package com.lepine.transfers.notification.digest;
+
+import com.lepine.transfers.config.NotificationDigestConfig;
+import com.lepine.transfers.data.notification.DigestEntry;
+import com.lepine.transfers.data.notification.DigestEntryRepo;
+import com.lepine.transfers.events.shipment.ShipmentUpdateEvent;
+import com.lepine.transfers.events.shipment.ShipmentUpdateHandler;
+import com.lepine.transfers.services.mailer.queue.MailQueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Keeps pending shipment updates in the database, so a digest survives a restart, and turns each user's pending
+ * updates into a single mail once the window of the first one is over or enough of them piled up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDigestServiceImpl implements NotificationDigestService, ShipmentUpdateHandler {
+
+    final static String
+            SINGLE_SUBJECT = "Shipment status update",
+            DIGEST_SUBJECT = "Shipment status updates";
+
+    private final DigestEntryRepo digestEntryRepo;
+    private final MailQueueService mailQueueService;
+    private final NotificationDigestConfig notificationDigestConfig;
+
+    @Override
+    @Transactional
+    public boolean add(UUID userUuid, UUID shipmentUuid, String status) {
+        log.info("Adding shipment {} to the digest of user {}", shipmentUuid, userUuid);
+        return digestEntryRepo.insertForUser(userUuid, shipmentUuid, status) > 0;
+    }
+
+    /**
+     * Sends the digest the update was added to by the {@link com.lepine.transfers.notification.Notifier} when it
+     * is full, off the request that made the update. A digest left behind is still sent by {@link #flushDue()}.
+     */
+    @Override
+    public void onShipmentUpdate(ShipmentUpdateEvent event) {
+        if(!notificationDigestConfig.isEnabled() || event.getOld().getStatus() == event.getUpdated().getStatus()) {
+            return;
+        }
+
+        final UUID userUuid = event.getUpdated().getCreatedBy();
+        if(digestEntryRepo.countByUserUuid(userUuid) >= notificationDigestConfig.getMaxEvents()) {
+            log.info("Digest of user {} is full, sending it now", userUuid);
+            flush(userUuid);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int flushDue() {
+        final ZonedDateTime cutoff = ZonedDateTime.now().minus(notificationDigestConfig.getWindow());
+        final List<UUID> userUuids = digestEntryRepo.findUserUuidsWithEntriesBefore(cutoff);
+        if(userUuids.isEmpty()) {
+            return 0;
+        }
+
+        log.info("Sending {} digests", userUuids.size());
+        return (int) userUuids.stream()
+                .filter(this::flush)
+                .count();
+    }
+
+    private boolean flush(UUID userUuid) {
+        // Entries held by a concurrent flush of the same digest are skipped, they are that flush's to send
+        final List<DigestEntry> entries = digestEntryRepo.lockAllByUserUuid(userUuid);
+        if(entries.isEmpty()) {
+            log.info("Digest of user {} was already sent", userUuid);
+            return false;
+        }
+
+        final int deleted = digestEntryRepo.deleteAllByIdIn(entries.stream()
+                .map(DigestEntry::getId)
+                .collect(Collectors.toList()));
+        if(deleted != entries.size()) {
+            // Cannot tell which of the entries went missing, rolling back sends none of them twice
+            throw new IllegalStateException(format("Digest of user %s changed while being sent", userUuid));
+        }
+
+        final String recipient = entries.get(entries.size() - 1).getRecipient();
+        final Map<UUID, String> statusByShipment = new LinkedHashMap<>();
+        entries.forEach(entry -> statusByShipment.put(entry.getShipmentUuid(), entry.getStatus()));
+
+        if(statusByShipment.size() == 1) {
+            mailQueueService.enqueue(
+                    recipient,
+                    SINGLE_SUBJECT,
+                    format("Your shipment has been %s", statusByShipment.values().iterator().next()));
+        } else {
+            mailQueueService.enqueue(recipient, DIGEST_SUBJECT, summarize(statusByShipment));
+        }
+        log.info("Sent digest of {} shipment updates to user {}", statusByShipment.size(), userUuid);
+
+        return true;
+    }
+
+    private static String summarize(Map<UUID, String> statusByShipment) {
+        final StringBuilder content = new StringBuilder()
+                .append(format("%d of your shipments have been updated:", statusByShipment.size()))
+                .append("<ul>");
+        statusByShipment.forEach((shipmentUuid, status) ->
+                content.append(format("<li>Shipment %s has been %s</li>", shipmentUuid, status)));
+        return content.append("</ul>").toString();
+    }
+}
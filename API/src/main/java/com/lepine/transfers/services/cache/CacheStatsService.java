@@ -0,0 +1,14 @@
+package com.lepine.transfers.services.cache;
+
+import com.lepine.transfers.data.cache.CacheRegionStats;
+
+import java.util.Map;
+
+public interface CacheStatsService {
+
+    /**
+     * Hit, miss and put counts of every second-level cache region, keyed by region name
+     * @return Statistics of each region since startup
+     */
+    Map<String, CacheRegionStats> getRegionStats();
+}
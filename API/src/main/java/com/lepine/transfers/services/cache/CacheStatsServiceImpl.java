@@ -0,0 +1,52 @@
+package com.lepine.transfers.services.cache;
+
+import com.lepine.transfers.config.SecondLevelCacheConfig;
+import com.lepine.transfers.data.cache.CacheRegionStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheStatsServiceImpl implements CacheStatsService {
+
+    private final static List<String> REGIONS = List.of(
+            SecondLevelCacheConfig.ITEMS_REGION,
+            SecondLevelCacheConfig.WAREHOUSES_REGION,
+            SecondLevelCacheConfig.ROLES_REGION,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Map<String, CacheRegionStats> getRegionStats() {
+        log.info("Collecting second-level cache statistics");
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        final Map<String, CacheRegionStats> regionStats = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            // Null when the cache is disabled, the region is then never built
+            final CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) continue;
+
+            regionStats.put(region, CacheRegionStats.builder()
+                    .hits(regionStatistics.getHitCount())
+                    .misses(regionStatistics.getMissCount())
+                    .puts(regionStatistics.getPutCount())
+                    .entriesInMemory(regionStatistics.getElementCountInMemory())
+                    .build());
+        }
+
+        return regionStats;
+    }
+}
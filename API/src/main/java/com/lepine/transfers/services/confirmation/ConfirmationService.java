@@ -1,9 +1,12 @@
 package com.lepine.transfers.services.confirmation;
 
 import com.lepine.transfers.data.confirmation.Confirmation;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
+import com.lepine.transfers.data.confirmation.ConfirmationUuidLessDTO;
 
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.util.List;
 import java.util.UUID;
 
 public interface ConfirmationService {
@@ -12,4 +15,19 @@ public interface ConfirmationService {
             @Min(value = 1, message = "{transfer.quantity.min}")
             final int quantity
     );
+
+    /**
+     * Confirms many transfers in one transaction. Each confirmation is checked as if it came alone after the ones
+     * before it in the list, and is rejected rather than failing the others.
+     *
+     * @return one entry per confirmation, in the same order
+     */
+    List<ConfirmationBatchEntry> confirmAll(List<ConfirmationUuidLessDTO> confirmationUuidLessDTOs);
+
+    /**
+     * Confirms what is left of every transfer of an ACCEPTED shipment in one transaction, completing it.
+     *
+     * @return one entry per transfer that was not fully confirmed yet
+     */
+    List<ConfirmationBatchEntry> confirmShipment(UUID shipmentUuid);
 }
@@ -1,29 +1,38 @@
 package com.lepine.transfers.services.confirmation;
 
+import com.lepine.transfers.config.ConfirmationBatchConfig;
 import com.lepine.transfers.data.confirmation.Confirmation;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
 import com.lepine.transfers.data.confirmation.ConfirmationRepo;
-import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.confirmation.ConfirmationTarget;
+import com.lepine.transfers.data.confirmation.ConfirmationUuidLessDTO;
 import com.lepine.transfers.data.shipment.ShipmentRepo;
 import com.lepine.transfers.data.shipment.ShipmentStatus;
-import com.lepine.transfers.data.stock.Stock;
-import com.lepine.transfers.data.stock.StockMapper;
+import com.lepine.transfers.data.stock.ReceivedStock;
+import com.lepine.transfers.data.stock.StockReceipt;
 import com.lepine.transfers.data.stock.StockRepo;
-import com.lepine.transfers.data.stock.StockSearchDTO;
-import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.data.transfer.ConfirmedTransfer;
 import com.lepine.transfers.data.transfer.TransferRepo;
-import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.events.stock.StockBatchReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveEvent;
+import com.lepine.transfers.exceptions.confirmation.ConfirmationBatchSizeException;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotAcceptedException;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotFoundException;
 import com.lepine.transfers.exceptions.transfer.QuantityExceededException;
 import com.lepine.transfers.exceptions.transfer.TransferNotFoundException;
-import com.lepine.transfers.services.search.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.Optional;
-import java.util.UUID;
+import javax.transaction.Transactional;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,74 +46,235 @@ public class ConfirmationServiceImpl implements ConfirmationService {
     private final TransferRepo transferRepo;
     private final ShipmentRepo shipmentRepo;
     private final StockRepo stockRepo;
-    private final SearchService<StockSearchDTO, UUID> searchService;
-    private final StockMapper stockMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final Validator validator;
+    private final ConfirmationBatchConfig confirmationBatchConfig;
 
     @Override
+    @Transactional
     public Confirmation confirm(final UUID transferUuid, final int quantity) {
         log.info("Confirming {} of transfer {}", quantity, transferUuid);
 
-        log.info("Looking for transfer");
-        Transfer transfer = transferRepo.findById(transferUuid)
+        log.info("Adding {} to confirmed quantity of transfer", quantity);
+        // Checks the shipment and the quantity left in the same statement, the reasons are only read on refusal
+        final ConfirmedTransfer confirmed = transferRepo.confirm(transferUuid, quantity)
+                .orElseThrow(() -> notConfirmable(transferUuid, quantity));
+        log.info("Transfer now at {} confirmed of {}", confirmed.getConfirmedQuantity(), confirmed.getQuantity());
+
+        log.info("Confirming transfer");
+        final Confirmation confirmation = confirmationRepo.save(Confirmation.builder()
+                .transferUuid(transferUuid)
+                .quantity(quantity)
+                .build());
+        log.info("Transfer confirmed");
+
+        // Only a confirmation completing its transfer can complete the shipment, which is checked under its lock
+        if(confirmed.getConfirmedQuantity() == confirmed.getQuantity()) {
+            final UUID shipmentUuid = confirmed.getShipmentUuid();
+            shipmentRepo.lockAllByUuidIn(List.of(shipmentUuid));
+            if(shipmentRepo.markFullyConfirmed(shipmentUuid, ZonedDateTime.now()) > 0) {
+                log.info("Shipment {} is now fully confirmed", shipmentUuid);
+            }
+        }
+
+        log.info("Updating stock");
+        final ReceivedStock received = stockRepo.receiveTransferred(transferUuid, quantity)
                 .orElseThrow(() -> new TransferNotFoundException(transferUuid));
-        log.info("Found transfer with quantity {}", transfer.getQuantity());
+        log.info("Stock of item {} in warehouse {} now at {}", received.getItemUuid(), received.getWarehouseUuid(), received.getQuantity());
 
-        log.info("Checking if shipment is ACCEPTED");
-        final Shipment byTransferUuid = shipmentRepo.findByTransferUuid(transferUuid)
-                .orElseThrow(ShipmentNotFoundException::new);
+        // Queued for indexing with this transaction, Algolia and the stream only get the stock once committed
+        applicationEventPublisher.publishEvent(new StockReceiveEvent(this, received.getStockUuid(),
+                received.getWarehouseUuid(), received.getItemUuid(), received.getQuantity()));
+
+        return confirmation;
+    }
+
+    /**
+     * Reads why a transfer could not be confirmed, in the order a confirmation checks it
+     */
+    private RuntimeException notConfirmable(UUID transferUuid, int quantity) {
+        final Optional<ConfirmationTarget> target = transferRepo.findConfirmationTarget(transferUuid);
+        if(target.isEmpty()) {
+            return new TransferNotFoundException(transferUuid);
+        }
 
-        final ShipmentStatus status = byTransferUuid.getStatus();
-        if (status != ShipmentStatus.ACCEPTED) {
+        final ShipmentStatus status = target.get().getShipmentStatus();
+        if(status == null) {
+            return new ShipmentNotFoundException();
+        }
+        if(status != ShipmentStatus.ACCEPTED) {
             log.info("Shipment is not ACCEPTED");
-            throw new ShipmentNotAcceptedException(transferUuid, status.name());
+            return new ShipmentNotAcceptedException(transferUuid, status.name());
         }
 
-        Integer alreadyConfirmed = confirmationRepo.sumQuantityByTransferUuid(transferUuid);
+        log.error("Transfer quantity {} is less than confirmation quantity {}", target.get().getQuantity(), quantity);
+        return new QuantityExceededException(target.get().getQuantity(), quantity);
+    }
 
-        if(alreadyConfirmed == null) {
-            alreadyConfirmed = 0;
+    @Override
+    @Transactional
+    public List<ConfirmationBatchEntry> confirmAll(List<ConfirmationUuidLessDTO> confirmationUuidLessDTOs) {
+        final int size = confirmationUuidLessDTOs.size();
+        log.info("Confirming batch of {} confirmations", size);
+        if(size == 0 || size > confirmationBatchConfig.getMaxSize()) {
+            throw new ConfirmationBatchSizeException(size, confirmationBatchConfig.getMaxSize());
         }
 
-        if (alreadyConfirmed + quantity > transfer.getQuantity()) {
-            log.error("Transfer quantity {} is less than confirmation quantity {}", transfer.getQuantity(), quantity);
-            throw new QuantityExceededException(transfer.getQuantity(), quantity);
+        final List<ConfirmationBatchEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Set<ConstraintViolation<ConfirmationUuidLessDTO>> violations =
+                    validator.validate(confirmationUuidLessDTOs.get(i));
+            entries.add(ConfirmationBatchEntry.builder()
+                    .index(i)
+                    .rejection(violations.isEmpty() ? null : new ConstraintViolationException(violations))
+                    .build());
         }
 
-        log.info("Confirming transfer");
-        final Confirmation confirmation = confirmationRepo.save(Confirmation.builder()
-                .transferUuid(transferUuid)
-                .quantity(quantity)
-                .build());
-        log.info("Transfer confirmed");
+        log.info("Looking for transfers of the batch with their shipments and items");
+        final Set<UUID> transferUuids = entries.stream()
+                .filter(ConfirmationBatchEntry::isConfirmed)
+                .map(entry -> confirmationUuidLessDTOs.get(entry.getIndex()).getTransferUuid())
+                .collect(Collectors.toSet());
+        final Map<UUID, ConfirmationTarget> targetByTransferUuid = new HashMap<>(transferUuids.size());
+        if(!transferUuids.isEmpty()) {
+            transferRepo.findAllConfirmationTargets(transferUuids)
+                    .forEach(target -> targetByTransferUuid.put(target.getTransferUuid(), target));
+        }
+        log.info("Found {} of {} transfers", targetByTransferUuid.size(), transferUuids.size());
 
-        log.info("Updating stock");
-        final Stock stock = transfer.getStock();
+        return confirmAll(confirmationUuidLessDTOs, entries, targetByTransferUuid);
+    }
 
-        final UUID to = byTransferUuid.getTo();
-        final Optional<Stock> byWarehouseUuidAndItemUuid =
-                stockRepo.findByWarehouseUuidAndItemUuid(to, stock.getItem().getUuid());
+    @Override
+    @Transactional
+    public List<ConfirmationBatchEntry> confirmShipment(UUID shipmentUuid) {
+        log.info("Confirming what is left of shipment {}", shipmentUuid);
 
-        int newQuantity = quantity;
+        log.info("Looking for transfers of the shipment with their items");
+        final List<ConfirmationTarget> targets = transferRepo.findAllConfirmationTargetsByShipmentUuid(shipmentUuid);
+        if(targets.isEmpty()) {
+            throw new ShipmentNotFoundException(shipmentUuid);
+        }
+        log.info("Found {} transfers", targets.size());
 
-        final Stock toSave = Stock.builder()
-                .warehouse(Warehouse.builder().uuid(to).build())
-                .item(stock.getItem())
-                .build();
+        log.info("Checking if shipment is ACCEPTED");
+        final ShipmentStatus status = targets.get(0).getShipmentStatus();
+        if(status != ShipmentStatus.ACCEPTED) {
+            log.info("Shipment is not ACCEPTED");
+            throw new ShipmentNotAcceptedException(shipmentUuid, status.name());
+        }
+
+        final List<ConfirmationUuidLessDTO> confirmationUuidLessDTOs = new ArrayList<>(targets.size());
+        final List<ConfirmationBatchEntry> entries = new ArrayList<>(targets.size());
+        final Map<UUID, ConfirmationTarget> targetByTransferUuid = new HashMap<>(targets.size());
+        for (ConfirmationTarget target : targets) {
+            final int remaining = target.getQuantity() - target.getConfirmedQuantity();
+            if(remaining <= 0) continue;
+
+            entries.add(ConfirmationBatchEntry.builder().index(confirmationUuidLessDTOs.size()).build());
+            confirmationUuidLessDTOs.add(ConfirmationUuidLessDTO.builder()
+                    .transferUuid(target.getTransferUuid())
+                    .quantity(remaining)
+                    .build());
+            targetByTransferUuid.put(target.getTransferUuid(), target);
+        }
+        log.info("{} transfers of the shipment are left to confirm", entries.size());
+
+        return confirmAll(confirmationUuidLessDTOs, entries, targetByTransferUuid);
+    }
 
-        if(byWarehouseUuidAndItemUuid.isPresent()) {
-            final Stock existingTarget = byWarehouseUuidAndItemUuid.get();
+    /**
+     * Confirms the entries not rejected yet against the targets read for them, in as few statements as possible
+     */
+    private List<ConfirmationBatchEntry> confirmAll(List<ConfirmationUuidLessDTO> confirmationUuidLessDTOs,
+                                                    List<ConfirmationBatchEntry> entries,
+                                                    Map<UUID, ConfirmationTarget> targetByTransferUuid) {
+        final int size = entries.size();
 
-            final int existingQuantity = existingTarget.getQuantity();
-            log.info("Stock found with quantity {}", existingQuantity);
-            newQuantity += existingQuantity;
+        // What is left to confirm of each transfer once the entries before are served
+        final Map<UUID, Integer> remainingByTransferUuid = new HashMap<>(targetByTransferUuid.size());
+        targetByTransferUuid.forEach((uuid, target) ->
+                remainingByTransferUuid.put(uuid, target.getQuantity() - target.getConfirmedQuantity()));
 
-            toSave.setUuid(existingTarget.getUuid());
+        final Map<UUID, Integer> confirmedByTransferUuid = new HashMap<>();
+        final Map<String, StockReceipt> receiptByStock = new LinkedHashMap<>();
+        final List<ConfirmationBatchEntry> toConfirm = new ArrayList<>(size);
+        for (ConfirmationBatchEntry entry : entries) {
+            if(!entry.isConfirmed()) continue;
+
+            final ConfirmationUuidLessDTO dto = confirmationUuidLessDTOs.get(entry.getIndex());
+            final UUID transferUuid = dto.getTransferUuid();
+            final int quantity = dto.getQuantity();
+            final ConfirmationTarget target = targetByTransferUuid.get(transferUuid);
+
+            try {
+                if(target == null) {
+                    throw new TransferNotFoundException(transferUuid);
+                }
+                if(target.getShipmentStatus() == null) {
+                    throw new ShipmentNotFoundException();
+                }
+                if(target.getShipmentStatus() != ShipmentStatus.ACCEPTED) {
+                    throw new ShipmentNotAcceptedException(transferUuid, target.getShipmentStatus().name());
+                }
+                if(remainingByTransferUuid.get(transferUuid) < quantity) {
+                    throw new QuantityExceededException(target.getQuantity(), quantity);
+                }
+            } catch (TransferNotFoundException | ShipmentNotFoundException | ShipmentNotAcceptedException | QuantityExceededException e) {
+                log.info("Rejecting confirmation {} of the batch: {}", entry.getIndex(), e.getMessage());
+                entry.setRejection(e);
+                continue;
+            }
+
+            remainingByTransferUuid.merge(transferUuid, -quantity, Integer::sum);
+            confirmedByTransferUuid.merge(transferUuid, quantity, Integer::sum);
+            receiptByStock.merge(target.getTo() + ":" + target.getItemUuid(),
+                    new StockReceipt(target.getTo(), target.getItemUuid(), quantity),
+                    (existing, added) -> existing.toBuilder().quantity(existing.getQuantity() + added.getQuantity()).build());
+            toConfirm.add(entry);
         }
+        log.info("{} confirmations of the batch are valid, {} rejected", toConfirm.size(), size - toConfirm.size());
 
-        toSave.setQuantity(newQuantity);
-        searchService.index(stockMapper.toSearchDTO(stockRepo.save(toSave)));
-        log.info("Stock updated");
+        if(toConfirm.isEmpty()) {
+            return entries;
+        }
 
-        return confirmation;
+        log.info("Adding to confirmed quantities of {} transfers", confirmedByTransferUuid.size());
+        final Set<UUID> notConfirmed = transferRepo.addConfirmedQuantities(confirmedByTransferUuid);
+        if(!notConfirmed.isEmpty()) {
+            // Only happens when a transfer was confirmed elsewhere since it was read, the whole batch is rolled back
+            final UUID uuid = notConfirmed.iterator().next();
+            log.error("Transfer {} was confirmed concurrently", uuid);
+            throw new QuantityExceededException(targetByTransferUuid.get(uuid).getQuantity(), confirmedByTransferUuid.get(uuid));
+        }
+
+        final List<Confirmation> confirmations = confirmationRepo.saveAll(toConfirm.stream()
+                .map(entry -> Confirmation.builder()
+                        .transferUuid(confirmationUuidLessDTOs.get(entry.getIndex()).getTransferUuid())
+                        .quantity(confirmationUuidLessDTOs.get(entry.getIndex()).getQuantity())
+                        .build())
+                .collect(Collectors.toList()));
+        for (int i = 0; i < toConfirm.size(); i++) {
+            toConfirm.get(i).setConfirmation(confirmations.get(i));
+        }
+        log.info("Saved {} confirmations", confirmations.size());
+
+        // The remaining quantities were read before other confirmations of the same transfers committed, so every
+        // shipment of the batch is checked, under its lock, against what is confirmed now
+        final Set<UUID> shipmentUuids = toConfirm.stream()
+                .map(entry -> targetByTransferUuid.get(confirmationUuidLessDTOs.get(entry.getIndex()).getTransferUuid()))
+                .map(ConfirmationTarget::getShipmentUuid)
+                .collect(Collectors.toSet());
+        shipmentRepo.lockAllByUuidIn(shipmentUuids);
+        final int fullyConfirmed = shipmentRepo.markAllFullyConfirmed(shipmentUuids, ZonedDateTime.now());
+        log.info("{} of {} shipments are now fully confirmed", fullyConfirmed, shipmentUuids.size());
+
+        log.info("Receiving {} stocks", receiptByStock.size());
+        final List<StockReceipt> receipts = new ArrayList<>(receiptByStock.values());
+        stockRepo.receiveAll(receipts);
+
+        applicationEventPublisher.publishEvent(new StockBatchReceiveEvent(this, receipts));
+
+        return entries;
     }
 }
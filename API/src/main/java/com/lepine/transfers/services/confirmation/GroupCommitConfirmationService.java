@@ -0,0 +1,184 @@
+package com.lepine.transfers.services.confirmation;
+
+import com.lepine.transfers.config.ConfirmationGroupCommitConfig;
+import com.lepine.transfers.data.confirmation.Confirmation;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
+import com.lepine.transfers.data.confirmation.ConfirmationUuidLessDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Queues single confirmations and commits them in batches through {@link ConfirmationService#confirmAll}, so that
+ * scanning at the dock pays for one transaction every few milliseconds rather than one per scan. A batch is committed
+ * once it is full or its first confirmation waited long enough, and each caller is answered with its own outcome.
+ * Confirmations are committed on their own, outside of any transaction of the caller.
+ */
+@Service
+@Primary
+@Slf4j
+@Validated
+@ConditionalOnProperty(prefix = "confirmation.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitConfirmationService implements ConfirmationService, Closeable {
+
+    private final static long IDLE_POLL_MILLIS = 100;
+
+    private final ConfirmationGroupCommitConfig confirmationGroupCommitConfig;
+    private final ConfirmationService confirmationService;
+    private final BlockingQueue<Pending> queue;
+    private final Thread committer;
+
+    private volatile boolean running = true;
+
+    public GroupCommitConfirmationService(ConfirmationGroupCommitConfig confirmationGroupCommitConfig,
+                                          @Qualifier("confirmationServiceImpl") ConfirmationService confirmationService) {
+        this.confirmationGroupCommitConfig = confirmationGroupCommitConfig;
+        this.confirmationService = confirmationService;
+        this.queue = new ArrayBlockingQueue<>(confirmationGroupCommitConfig.getQueueCapacity());
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("confirmation-commit-");
+        threadFactory.setDaemon(true);
+        this.committer = threadFactory.newThread(this::commitLoop);
+        this.committer.start();
+    }
+
+    @Override
+    public Confirmation confirm(UUID transferUuid, int quantity) {
+        if(!running) {
+            throw new RejectedExecutionException("Confirmation queue is shut down");
+        }
+
+        final Pending pending = new Pending(ConfirmationUuidLessDTO.builder()
+                .transferUuid(transferUuid)
+                .quantity(quantity)
+                .build());
+
+        try {
+            // A full queue holds the caller back rather than growing
+            queue.put(pending);
+            return pending.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for confirmation", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public List<ConfirmationBatchEntry> confirmAll(List<ConfirmationUuidLessDTO> confirmationUuidLessDTOs) {
+        return confirmationService.confirmAll(confirmationUuidLessDTOs);
+    }
+
+    @Override
+    public List<ConfirmationBatchEntry> confirmShipment(UUID shipmentUuid) {
+        return confirmationService.confirmShipment(shipmentUuid);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        if(!left.isEmpty()) {
+            log.warn("Dropping {} uncommitted confirmations on shutdown", left.size());
+            left.forEach(pending -> pending.future.completeExceptionally(
+                    new RejectedExecutionException("Confirmation queue is shut down")));
+        }
+    }
+
+    private void commitLoop() {
+        final int maxBatchSize = confirmationGroupCommitConfig.getMaxBatchSize();
+        final long maxDelayNanos = confirmationGroupCommitConfig.getMaxDelay().toNanos();
+        final List<Pending> batch = new ArrayList<>(maxBatchSize);
+
+        while(running || !queue.isEmpty()) {
+            try {
+                final Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if(first == null) continue;
+                batch.add(first);
+
+                final long deadline = System.nanoTime() + maxDelayNanos;
+                while(batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    final long left = deadline - System.nanoTime();
+                    if(batch.size() >= maxBatchSize || left <= 0) break;
+
+                    final Pending next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if(next == null) break;
+                    batch.add(next);
+                }
+
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future.completeExceptionally(
+                        new RejectedExecutionException("Interrupted before commit", e)));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        log.info("Committing {} confirmations together", batch.size());
+
+        final List<ConfirmationBatchEntry> entries;
+        try {
+            entries = confirmationService.confirmAll(batch.stream()
+                    .map(pending -> pending.dto)
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            // A transfer confirmed elsewhere since it was read fails the whole batch, each caller then gets its own try
+            log.warn("Batch of {} confirmations failed, confirming them one by one", batch.size(), e);
+            for(Pending pending : batch) {
+                try {
+                    pending.future.complete(confirmationService.confirm(
+                            pending.dto.getTransferUuid(), pending.dto.getQuantity()));
+                } catch (RuntimeException ex) {
+                    pending.future.completeExceptionally(ex);
+                }
+            }
+            return;
+        }
+
+        for(ConfirmationBatchEntry entry : entries) {
+            final Pending pending = batch.get(entry.getIndex());
+            if(entry.isConfirmed()) {
+                pending.future.complete(entry.getConfirmation());
+            } else {
+                pending.future.completeExceptionally(entry.getRejection());
+            }
+        }
+    }
+
+    private static class Pending {
+        private final ConfirmationUuidLessDTO dto;
+        private final CompletableFuture<Confirmation> future = new CompletableFuture<>();
+
+        Pending(ConfirmationUuidLessDTO dto) {
+            this.dto = dto;
+        }
+    }
+}
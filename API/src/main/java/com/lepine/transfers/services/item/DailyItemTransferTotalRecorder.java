@@ -0,0 +1,69 @@
+package com.lepine.transfers.services.item;
+
+import com.lepine.transfers.data.item.DailyItemTransferTotalRepo;
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.events.InPublishingTransaction;
+import com.lepine.transfers.events.shipment.ShipmentBatchCreateEvent;
+import com.lepine.transfers.events.shipment.ShipmentCreateEvent;
+import com.lepine.transfers.events.shipment.ShipmentCreateHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Adds the transfers of new shipments to the daily item totals the bestsellers are read from, with the shipment
+ * and from the shipment alone.
+ */
+@Component
+@InPublishingTransaction
+@RequiredArgsConstructor
+@Slf4j
+public class DailyItemTransferTotalRecorder implements ShipmentCreateHandler {
+
+    private final DailyItemTransferTotalRepo dailyItemTransferTotalRepo;
+
+    @Override
+    public void onShipmentCreate(ShipmentCreateEvent event) {
+        log.info("Reacting to shipment create");
+        final Shipment shipment = event.getShipment();
+        final LocalDate day = shipment.getExpectedDate().withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+
+        // Sorted so that concurrent shipments touch the rollup rows in the same order
+        final Map<UUID, Long> quantityByItemUuid = shipment.getTransfers()
+                .stream()
+                .collect(Collectors.groupingBy(
+                        transfer -> transfer.getStock().getItem().getUuid(),
+                        TreeMap::new,
+                        Collectors.summingLong(Transfer::getQuantity)));
+
+        log.info("Adding transfers of {} items to daily totals of {}", quantityByItemUuid.size(), day);
+        dailyItemTransferTotalRepo.incrementAll(Map.of(day, quantityByItemUuid));
+        log.info("Added transfers to daily totals");
+    }
+
+    @Override
+    public void onShipmentBatchCreate(ShipmentBatchCreateEvent event) {
+        log.info("Reacting to batch of {} shipments created", event.getShipments().size());
+
+        // One increment per day and item for the whole batch, in the same order as single shipments take them
+        final Map<LocalDate, Map<UUID, Long>> quantityByDayAndItemUuid = new TreeMap<>();
+        for (Shipment shipment : event.getShipments()) {
+            final LocalDate day = shipment.getExpectedDate().withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+            final Map<UUID, Long> quantityByItemUuid = quantityByDayAndItemUuid.computeIfAbsent(day, d -> new TreeMap<>());
+            shipment.getTransfers().forEach(transfer -> quantityByItemUuid.merge(
+                    transfer.getStock().getItem().getUuid(), (long) transfer.getQuantity(), Long::sum));
+        }
+
+        log.info("Adding transfers to daily totals of {} days", quantityByDayAndItemUuid.size());
+        dailyItemTransferTotalRepo.incrementAll(quantityByDayAndItemUuid);
+        log.info("Added transfers to daily totals");
+    }
+}
@@ -4,6 +4,7 @@ import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.data.item.ItemQuantityTuple;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
 import javax.validation.Valid;
 import java.time.ZonedDateTime;
@@ -17,6 +18,8 @@ public interface ItemService {
 
     Page<Item> findAll(PageRequest pageRequest);
 
+    Slice<Item> findAllAfter(Optional<String> afterSku, int size);
+
     Item create(Item item);
 
     Item update(Item item);
@@ -1,6 +1,7 @@
 package com.lepine.transfers.services.item;
 
 import com.lepine.transfers.data.item.*;
+import com.lepine.transfers.data.routing.ReadOnlyTransactional;
 import com.lepine.transfers.events.item.ItemDeleteEvent;
 import com.lepine.transfers.events.item.ItemUpdateEvent;
 import com.lepine.transfers.exceptions.item.DuplicateSkuException;
@@ -11,11 +12,12 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.ZonedDateTime;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,11 +32,13 @@ public class ItemServiceImpl implements ItemService, ApplicationEventPublisherAw
     private ApplicationEventPublisher applicationEventPublisher;
 
     @Override
+    @ReadOnlyTransactional
     public Page<Item> findAll() {
         return itemRepo.findAll(PageRequest.of(0, 10));
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Item> findAll(PageRequest pageRequest) {
         log.info("retrieving all items");
         final Page<Item> all = itemRepo.findAll(pageRequest);
@@ -44,6 +48,20 @@ public class ItemServiceImpl implements ItemService, ApplicationEventPublisherAw
     }
 
     @Override
+    @ReadOnlyTransactional
+    public Slice<Item> findAllAfter(Optional<String> afterSku, int size) {
+        log.info("retrieving {} items after sku {}", size, afterSku);
+        final PageRequest pageRequest = PageRequest.of(0, size);
+        final Slice<Item> all = afterSku
+                .map(sku -> itemRepo.findAllBySkuGreaterThanOrderBySkuAsc(sku, pageRequest))
+                .orElseGet(() -> itemRepo.findAllByOrderBySkuAsc(pageRequest));
+        log.info("retrieved {} items", all.getNumberOfElements());
+
+        return all;
+    }
+
+    @Override
+    @Transactional
     public Item create(Item item) {
         log.info("creating item");
 
@@ -64,6 +82,7 @@ public class ItemServiceImpl implements ItemService, ApplicationEventPublisherAw
     }
 
     @Override
+    @Transactional
     public Item update(Item item) {
         log.info("updating item");
 
@@ -92,8 +111,8 @@ public class ItemServiceImpl implements ItemService, ApplicationEventPublisherAw
     public void delete(UUID uuid) {
         log.info("deleting item");
 
-        log.info("Publish item delete event");
-        applicationEventPublisher.publishEvent(new ItemDeleteEvent(this, uuid));
+        // Stocks go away with the item, so they are gathered beforehand for the handlers running once they are gone
+        final List<UUID> stockUuids = itemRepo.findStockUuidsByUuid(uuid);
 
         final Integer deleted = itemRepo.deleteByUuid(uuid);
         if(deleted <= 0) {
@@ -102,6 +121,9 @@ public class ItemServiceImpl implements ItemService, ApplicationEventPublisherAw
         }
         log.info("deleted item");
 
+        log.info("Publish item delete event");
+        applicationEventPublisher.publishEvent(new ItemDeleteEvent(this, uuid, stockUuids));
+
         log.info("sending item to search service");
         searchService.delete(uuid);
         log.info("sent item to search service");
@@ -117,6 +139,7 @@ public class ItemServiceImpl implements ItemService, ApplicationEventPublisherAw
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<ItemQuantityTuple> findBestSellerForRange(ZonedDateTime from, ZonedDateTime to, PageRequest pageRequest) {
         log.info("Retrieving best seller items in time range {} - {}", from, to);
         final var bestSeller = itemRepo.mostTransferredItemsInRange(from, to, pageRequest);
@@ -0,0 +1,14 @@
+package com.lepine.transfers.services.item;
+
+import com.lepine.transfers.data.item.ItemQuantityTuple;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface LiveBestsellerService {
+
+    /**
+     * Estimated most transferred items over the last {@code window}, from memory only
+     */
+    List<ItemQuantityTuple> findTop(Duration window, int k);
+}
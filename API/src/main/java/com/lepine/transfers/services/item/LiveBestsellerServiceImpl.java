@@ -0,0 +1,156 @@
+package com.lepine.transfers.services.item;
+
+import com.lepine.transfers.config.LiveBestsellerConfig;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemQuantityTuple;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.transfer.ItemMovement;
+import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.data.transfer.TransferRepo;
+import com.lepine.transfers.events.item.ItemDeleteEvent;
+import com.lepine.transfers.events.item.ItemDeleteHandler;
+import com.lepine.transfers.events.item.ItemUpdateEvent;
+import com.lepine.transfers.events.item.ItemUpdateHandler;
+import com.lepine.transfers.events.shipment.ShipmentCreateEvent;
+import com.lepine.transfers.events.shipment.ShipmentCreateHandler;
+import com.lepine.transfers.exceptions.item.InvalidBestsellerWindowException;
+import com.lepine.transfers.utils.sketch.SpaceSaving;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one Space-Saving summary of transferred quantities per item for each hour of the retention, so that
+ * the top items of any window can be estimated by merging the buckets it covers without querying the database.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LiveBestsellerServiceImpl implements LiveBestsellerService,
+        ShipmentCreateHandler, ItemUpdateHandler, ItemDeleteHandler {
+
+    private final static long SECONDS_PER_HOUR = Duration.ofHours(1).getSeconds();
+
+    private final TransferRepo transferRepo;
+    private final ItemRepo itemRepo;
+    private final LiveBestsellerConfig liveBestsellerConfig;
+
+    private final TreeMap<Long, SpaceSaving<UUID>> bucketsByHour = new TreeMap<>();
+    private final Map<UUID, Item> itemsByUuid = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        final Instant now = Instant.now();
+        final ZonedDateTime since = ZonedDateTime.ofInstant(now.minus(liveBestsellerConfig.getRetention()), ZoneOffset.UTC);
+        log.info("Rebuilding live bestsellers from transfers since {}", since);
+
+        final List<ItemMovement> movements = transferRepo.findAllItemMovementsSince(since);
+        final Set<UUID> itemUuids = movements.stream()
+                .map(ItemMovement::getItemUuid)
+                .collect(Collectors.toSet());
+        final List<Item> items = itemRepo.findAllById(itemUuids);
+
+        synchronized (this) {
+            bucketsByHour.clear();
+            itemsByUuid.clear();
+            items.forEach(item -> itemsByUuid.put(item.getUuid(), item));
+            movements.forEach(movement ->
+                    record(movement.getItemUuid(), movement.getQuantity(), movement.getAt().toInstant(), now));
+        }
+        log.info("Rebuilt live bestsellers from {} transfers of {} items", movements.size(), items.size());
+    }
+
+    @Override
+    public synchronized List<ItemQuantityTuple> findTop(Duration window, int k) {
+        final long windowHours = (window.getSeconds() + SECONDS_PER_HOUR - 1) / SECONDS_PER_HOUR;
+        if(windowHours < 1 || window.compareTo(liveBestsellerConfig.getRetention()) > 0) {
+            throw new InvalidBestsellerWindowException(window.toString());
+        }
+
+        log.info("Merging live bestsellers of the last {} hours", windowHours);
+        final long fromHour = hourOf(Instant.now()) - windowHours + 1;
+        final Map<UUID, Long> merged = new HashMap<>();
+        bucketsByHour.tailMap(fromHour, true).values().forEach(bucket -> bucket.addCountsTo(merged));
+
+        return merged.entrySet().stream()
+                .filter(entry -> itemsByUuid.containsKey(entry.getKey()))
+                .sorted(Map.Entry.<UUID, Long>comparingByValue().reversed())
+                .limit(k)
+                .map(entry -> new ItemQuantityTuple(itemsByUuid.get(entry.getKey()), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void onShipmentCreate(ShipmentCreateEvent event) {
+        log.info("Reacting to shipment create");
+        final Shipment shipment = event.getShipment();
+        final Instant at = shipment.getCreatedAt() == null ? Instant.now() : shipment.getCreatedAt().toInstant();
+        final List<Transfer> transfers = shipment.getTransfers();
+
+        final Runnable recordTransfers = () -> {
+            synchronized (this) {
+                final Instant now = Instant.now();
+                transfers.forEach(transfer -> {
+                    final Item item = transfer.getStock().getItem();
+                    itemsByUuid.put(item.getUuid(), item);
+                    record(item.getUuid(), transfer.getQuantity(), at, now);
+                });
+            }
+            log.info("Recorded {} transfers in live bestsellers", transfers.size());
+        };
+
+        // Only count shipments that actually get committed
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordTransfers.run();
+                }
+            });
+        } else {
+            recordTransfers.run();
+        }
+    }
+
+    @Override
+    public synchronized void onItemUpdate(ItemUpdateEvent event) {
+        final Item item = event.getItem();
+        itemsByUuid.computeIfPresent(item.getUuid(), (uuid, old) -> item);
+    }
+
+    @Override
+    public synchronized void onItemDelete(ItemDeleteEvent event) {
+        final UUID uuid = event.getUuid();
+        if(itemsByUuid.remove(uuid) != null) {
+            bucketsByHour.values().forEach(bucket -> bucket.remove(uuid));
+        }
+    }
+
+    private void record(UUID itemUuid, long quantity, Instant at, Instant now) {
+        final long oldestHour = hourOf(now) - liveBestsellerConfig.getRetention().toHours() + 1;
+        final long hour = hourOf(at);
+        if(hour < oldestHour) {
+            return;
+        }
+
+        bucketsByHour.computeIfAbsent(hour, h -> new SpaceSaving<>(liveBestsellerConfig.getCapacity()))
+                .offer(itemUuid, quantity);
+        bucketsByHour.headMap(oldestHour).clear();
+    }
+
+    private static long hourOf(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_HOUR);
+    }
+}
@@ -1,5 +1,16 @@
 package com.lepine.transfers.services.mailer;
 
+import java.io.IOException;
+import java.util.Collection;
+
 public interface MailerService {
     boolean sendHTML(String to, String subject, String content);
+
+    /**
+     * Sends the same mail to every recipient in a single request, each recipient in its own personalization so
+     * that no one sees the others' addresses
+     *
+     * @throws IOException when the mail could not be handed over, with the provider's reason as message
+     */
+    void sendBatchHTML(Collection<String> to, String subject, String content) throws IOException;
 }
@@ -3,15 +3,18 @@ package com.lepine.transfers.services.mailer;
 import com.lepine.transfers.config.SendGridConfig;
 import com.sendgrid.Method;
 import com.sendgrid.Request;
+import com.sendgrid.Response;
 import com.sendgrid.SendGrid;
 import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Service
 @RequiredArgsConstructor
@@ -43,4 +46,29 @@ public class SendgridMailer implements MailerService {
 
         return true;
     }
+
+    @Override
+    public void sendBatchHTML(Collection<String> to, String subject, String content) throws IOException {
+
+        final Mail mail = new Mail();
+        mail.setFrom(new Email(sendGridConfig.getFrom()));
+        mail.setSubject(subject);
+        mail.addContent(new Content("text/html", content));
+        for(String recipient : to) {
+            final Personalization personalization = new Personalization();
+            personalization.addTo(new Email(recipient));
+            mail.addPersonalization(personalization);
+        }
+
+        final Request request = new Request();
+        request.setMethod(Method.POST);
+        request.setEndpoint("mail/send");
+        request.setBody(mail.build());
+
+        log.info("Sending email to {} recipients", to.size());
+        final Response response = sendGrid.api(request);
+        if(response != null && response.getStatusCode() >= 300) {
+            throw new IOException(response.getStatusCode() + " " + response.getBody());
+        }
+    }
 }
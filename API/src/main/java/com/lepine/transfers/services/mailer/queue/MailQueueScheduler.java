@@ -0,0 +1,24 @@
+package com.lepine.transfers.services.mailer.queue;
+
+import com.lepine.transfers.config.MailQueueConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "mail.queue", name = "dispatch-enabled", havingValue = "true", matchIfMissing = true)
+public class MailQueueScheduler {
+
+    private final MailQueueService mailQueueService;
+    private final MailQueueConfig mailQueueConfig;
+
+    @Scheduled(fixedDelayString = "#{@mailQueueConfig.pollInterval.toMillis()}")
+    public void drain() {
+        int dispatched;
+        do {
+            dispatched = mailQueueService.dispatch();
+        } while(dispatched >= mailQueueConfig.getBatchSize());
+    }
+}
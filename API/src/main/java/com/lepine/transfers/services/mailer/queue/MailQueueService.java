@@ -0,0 +1,23 @@
+package com.lepine.transfers.services.mailer.queue;
+
+import java.util.UUID;
+
+public interface MailQueueService {
+
+    /**
+     * Queues a mail, it is only picked up once the surrounding transaction, if any, commits
+     */
+    void enqueue(String to, String subject, String content);
+
+    /**
+     * Queues a mail to the user, looking up their address in the same statement
+     *
+     * @return false when there is no such user
+     */
+    boolean enqueueForUser(UUID userUuid, String subject, String content);
+
+    /**
+     * Sends the mails that are due, returns how many were read from the queue
+     */
+    int dispatch();
+}
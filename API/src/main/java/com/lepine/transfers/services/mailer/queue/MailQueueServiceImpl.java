@@ -0,0 +1,204 @@
+package com.lepine.transfers.services.mailer.queue;
+
+import com.lepine.transfers.config.MailQueueConfig;
+import com.lepine.transfers.data.mail.MailDeadLetter;
+import com.lepine.transfers.data.mail.MailDeadLetterRepo;
+import com.lepine.transfers.data.mail.MailQueueEntry;
+import com.lepine.transfers.data.mail.MailQueueRepo;
+import com.lepine.transfers.services.mailer.MailerService;
+import com.lepine.transfers.utils.retry.BackoffUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the mail queue on a small worker pool. Due mails sharing a subject and content go out together, one
+ * request per group of recipients, and a failed request reschedules its mails with an exponential backoff until
+ * they run out of attempts and are moved to the dead letters.
+ */
+@Service
+@Slf4j
+public class MailQueueServiceImpl implements MailQueueService, Closeable {
+
+    private final MailQueueRepo mailQueueRepo;
+    private final MailDeadLetterRepo mailDeadLetterRepo;
+    private final MailerService mailerService;
+    private final MailQueueConfig mailQueueConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    public MailQueueServiceImpl(MailQueueRepo mailQueueRepo,
+                                MailDeadLetterRepo mailDeadLetterRepo,
+                                MailerService mailerService,
+                                MailQueueConfig mailQueueConfig,
+                                PlatformTransactionManager transactionManager) {
+        this.mailQueueRepo = mailQueueRepo;
+        this.mailDeadLetterRepo = mailDeadLetterRepo;
+        this.mailerService = mailerService;
+        this.mailQueueConfig = mailQueueConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mail-queue-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(mailQueueConfig.getConcurrency(), threadFactory);
+    }
+
+    @Override
+    public void enqueue(String to, String subject, String content) {
+        log.info("Queueing email to {}", to);
+        final ZonedDateTime now = ZonedDateTime.now();
+        mailQueueRepo.save(MailQueueEntry.builder()
+                .recipient(to)
+                .subject(subject)
+                .content(content)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+    }
+
+    @Override
+    public boolean enqueueForUser(UUID userUuid, String subject, String content) {
+        log.info("Queueing email to user {}", userUuid);
+        return mailQueueRepo.insertForUser(userUuid, subject, content) > 0;
+    }
+
+    @Override
+    public synchronized int dispatch() {
+        final List<MailQueueEntry> due = mailQueueRepo.findAllByNextAttemptAtLessThanEqualOrderByIdAsc(
+                ZonedDateTime.now(), PageRequest.of(0, mailQueueConfig.getBatchSize()));
+        if(due.isEmpty()) {
+            return 0;
+        }
+
+        final List<List<MailQueueEntry>> requests = group(due);
+        log.info("Dispatching {} queued emails in {} requests", due.size(), requests.size());
+
+        final List<Future<?>> sent = new ArrayList<>();
+        for(List<MailQueueEntry> request : requests) {
+            sent.add(executor.submit(() -> send(request)));
+        }
+        for(Future<?> future : sent) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Unexpected failure while sending queued emails", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending queued emails", e);
+            }
+        }
+
+        return due.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Groups mails with the same subject and content, split so no request exceeds the recipient limit
+     */
+    private List<List<MailQueueEntry>> group(List<MailQueueEntry> entries) {
+        final Map<List<String>, List<MailQueueEntry>> entriesByMail = entries.stream()
+                .collect(Collectors.groupingBy(
+                        entry -> List.of(entry.getSubject(), entry.getContent()),
+                        LinkedHashMap::new,
+                        Collectors.toList()));
+
+        final int maxRecipients = mailQueueConfig.getMaxRecipientsPerRequest();
+        final List<List<MailQueueEntry>> requests = new ArrayList<>();
+        for(List<MailQueueEntry> sameMail : entriesByMail.values()) {
+            for(int i = 0; i < sameMail.size(); i += maxRecipients) {
+                requests.add(sameMail.subList(i, Math.min(i + maxRecipients, sameMail.size())));
+            }
+        }
+
+        return requests;
+    }
+
+    private void send(List<MailQueueEntry> request) {
+        final MailQueueEntry first = request.get(0);
+        final List<String> recipients = request.stream()
+                .map(MailQueueEntry::getRecipient)
+                .distinct()
+                .collect(Collectors.toList());
+        final List<Long> ids = request.stream()
+                .map(MailQueueEntry::getId)
+                .collect(Collectors.toList());
+
+        try {
+            mailerService.sendBatchHTML(recipients, first.getSubject(), first.getContent());
+        } catch (Exception e) {
+            fail(request, e);
+            return;
+        }
+
+        mailQueueRepo.deleteAllByIdIn(ids);
+        log.info("Sent email to {} recipients", recipients.size());
+    }
+
+    private void fail(List<MailQueueEntry> request, Exception e) {
+        log.warn("Failed to send email to {} recipients", request.size(), e);
+
+        final Map<Boolean, List<MailQueueEntry>> byExhausted = request.stream()
+                .collect(Collectors.partitioningBy(entry -> entry.getAttempts() + 1 >= mailQueueConfig.getMaxAttempts()));
+
+        final List<MailQueueEntry> exhausted = byExhausted.get(true);
+        if(!exhausted.isEmpty()) {
+            log.error("Moving {} emails to the dead letters after {} attempts", exhausted.size(), mailQueueConfig.getMaxAttempts());
+            deadLetter(exhausted, String.valueOf(e.getMessage()));
+        }
+
+        final ZonedDateTime now = ZonedDateTime.now();
+        byExhausted.get(false).stream()
+                .collect(Collectors.groupingBy(MailQueueEntry::getAttempts))
+                .forEach((attempts, entries) -> {
+                    final Duration backoff = backoff(attempts + 1);
+                    log.info("Retrying {} emails in {}", entries.size(), backoff);
+                    mailQueueRepo.reschedule(
+                            entries.stream().map(MailQueueEntry::getId).collect(Collectors.toList()),
+                            now.plus(backoff));
+                });
+    }
+
+    private void deadLetter(List<MailQueueEntry> entries, String lastError) {
+        final ZonedDateTime now = ZonedDateTime.now();
+        final List<MailDeadLetter> deadLetters = entries.stream()
+                .map(entry -> MailDeadLetter.builder()
+                        .recipient(entry.getRecipient())
+                        .subject(entry.getSubject())
+                        .content(entry.getContent())
+                        .createdAt(entry.getCreatedAt())
+                        .attempts(entry.getAttempts() + 1)
+                        .lastError(lastError)
+                        .failedAt(now)
+                        .build())
+                .collect(Collectors.toList());
+        final List<Long> ids = entries.stream()
+                .map(MailQueueEntry::getId)
+                .collect(Collectors.toList());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            mailDeadLetterRepo.saveAll(deadLetters);
+            mailQueueRepo.deleteAllByIdIn(ids);
+        });
+    }
+
+    private Duration backoff(int attempts) {
+        return BackoffUtils.capped(mailQueueConfig.getInitialBackoff(), mailQueueConfig.getMaxBackoff(), attempts);
+    }
+}
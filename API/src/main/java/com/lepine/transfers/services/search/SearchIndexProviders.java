@@ -8,28 +8,42 @@ import com.lepine.transfers.data.stock.StockSearchDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
-import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Configuration
+@Profile("!local-search")
 @RequiredArgsConstructor
 public class SearchIndexProviders {
 
+    public final static String
+            ITEMS_INDEX = "items",
+            STOCKS_INDEX = "stocks";
+
+    public final static List<String>
+            ITEMS_SEARCHABLE_ATTRIBUTES = List.of("sku", "name", "description"),
+            STOCKS_SEARCHABLE_ATTRIBUTES = List.of("sku", "name", "description", "zipCode", "quantity"),
+            STOCKS_FACET_ATTRIBUTES = List.of("zipCode", "sku", "warehouseUuid", "objectID");
+
     private final SearchClient searchClient;
 
     @Bean
     public SearchIndex<ItemSearchDTO> getItemSearchIndex() {
-        final SearchIndex<ItemSearchDTO> index = searchClient.initIndex("items", ItemSearchDTO.class);
-        index.setSettings(new IndexSettings().setSearchableAttributes(Arrays.asList("sku", "name", "description")));
+        final SearchIndex<ItemSearchDTO> index = searchClient.initIndex(ITEMS_INDEX, ItemSearchDTO.class);
+        index.setSettings(new IndexSettings().setSearchableAttributes(ITEMS_SEARCHABLE_ATTRIBUTES));
         return index;
     }
 
     @Bean
     public SearchIndex<StockSearchDTO> getStockSearchIndex() {
-        final SearchIndex<StockSearchDTO> index = searchClient.initIndex("stocks", StockSearchDTO.class);
+        final SearchIndex<StockSearchDTO> index = searchClient.initIndex(STOCKS_INDEX, StockSearchDTO.class);
         index.setSettings(new IndexSettings()
-                .setSearchableAttributes(Arrays.asList("sku", "name", "description", "zipCode", "quantity"))
-                .setAttributesForFaceting(Arrays.asList("searchable(zipCode)", "searchable(sku)", "searchable(warehouseUuid)", "searchable(objectID)"))
+                .setSearchableAttributes(STOCKS_SEARCHABLE_ATTRIBUTES)
+                .setAttributesForFaceting(STOCKS_FACET_ATTRIBUTES.stream()
+                        .map(attribute -> "searchable(" + attribute + ")")
+                        .collect(Collectors.toList()))
         );
         return index;
     }
@@ -1,10 +1,20 @@
 package com.lepine.transfers.services.search;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 public interface SearchService<T, I> {
     void index(T toIndex);
     void delete(I identifier);
+    void indexAllInBatch(List<T> toIndex);
     void partialUpdateAllInBatch(List<T> toIndex);
     void deleteAllInBatch(List<T> toDelete);
+    List<T> search(String query, Map<String, String> facetFilters, int limit);
+
+    /**
+     * Rebuilds the index from scratch out of the given batches and swaps it in once complete, searches keep
+     * hitting the previous content until then
+     */
+    void replaceAll(Iterator<List<T>> batches);
 }
@@ -1,23 +1,62 @@
 package com.lepine.transfers.services.search;
 
+import com.algolia.search.SearchClient;
 import com.algolia.search.SearchIndex;
-import com.algolia.search.models.RequestOptions;
 import com.algolia.search.models.indexing.ActionEnum;
 import com.algolia.search.models.indexing.BatchOperation;
 import com.algolia.search.models.indexing.BatchRequest;
-import lombok.RequiredArgsConstructor;
+import com.algolia.search.models.indexing.Query;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.config.SearchBatchConfig;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
+/**
+ * Batch operations are split in requests bounded by both operation count and payload size, sent with bounded
+ * concurrency, and each request is retried on its own with a jittered exponential backoff.
+ */
 @Slf4j
-@RequiredArgsConstructor
-public class SearchServiceImpl<T, I> implements SearchService<T, I> {
+public class SearchServiceImpl<T, I> implements SearchService<T, I>, Closeable {
 
+    // Only used to weigh operations, Algolia serializes them itself
+    private final static ObjectMapper SIZING_MAPPER = new ObjectMapper();
+
+    private final SearchClient searchClient;
     private final SearchIndex<T> searchIndex;
+    private final String indexName;
+    private final Class<T> type;
+    private final SearchBatchConfig searchBatchConfig;
+    private final ExecutorService executor;
+
+    public SearchServiceImpl(SearchClient searchClient,
+                             SearchIndex<T> searchIndex,
+                             String indexName,
+                             Class<T> type,
+                             SearchBatchConfig searchBatchConfig) {
+        this.searchClient = searchClient;
+        this.searchIndex = searchIndex;
+        this.indexName = indexName;
+        this.type = type;
+        this.searchBatchConfig = searchBatchConfig;
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("search-batch-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(searchBatchConfig.getConcurrency(), threadFactory);
+    }
 
     @Override
     public void index(T toIndex) {
@@ -33,27 +72,170 @@ public class SearchServiceImpl<T, I> implements SearchService<T, I> {
         log.info("Deleted {}", identifier);
     }
 
+    @Override
+    public void indexAllInBatch(List<T> toIndex) {
+        log.info("Indexing all {} items in batch", toIndex.size());
+        sendInChunks(searchIndex, ActionEnum.UPDATE_OBJECT, toIndex);
+        log.info("Indexed {} items in batch", toIndex.size());
+    }
+
     @Override
     public void partialUpdateAllInBatch(List<T> toIndex) {
         log.info("Updating all {} items in batch", toIndex.size());
-        searchIndex.batch(
-                new BatchRequest<>(
-                    toIndex.parallelStream()
-                            .map(n -> new BatchOperation<>(ActionEnum.PARTIAL_UPDATE_OBJECT_NO_CREATE, n))
-                            .collect(Collectors.toList()))
-        );
+        sendInChunks(searchIndex, ActionEnum.PARTIAL_UPDATE_OBJECT_NO_CREATE, toIndex);
         log.info("Updated {} items in batch", toIndex.size());
     }
 
     @Override
     public void deleteAllInBatch(List<T> toDelete) {
         log.info("Deleting all {} items in batch", toDelete.size());
-        searchIndex.batch(
-                new BatchRequest<>(
-                        toDelete.parallelStream()
-                                .map(n -> new BatchOperation<>(ActionEnum.DELETE_OBJECT, n))
-                                .collect(Collectors.toList()))
-        );
+        sendInChunks(searchIndex, ActionEnum.DELETE_OBJECT, toDelete);
         log.info("Deleted {} items in batch", toDelete.size());
     }
+
+    @Override
+    public List<T> search(String query, Map<String, String> facetFilters, int limit) {
+        log.info("Searching for {} with facets {}", query, facetFilters);
+        final List<T> hits = searchIndex.search(new Query(query)
+                .setHitsPerPage(limit)
+                .setFacetFilters(facetFilters.entrySet().stream()
+                        .map(filter -> List.of(filter.getKey() + ":" + filter.getValue()))
+                        .collect(Collectors.toList())))
+                .getHits();
+        log.info("Found {} hits", hits.size());
+
+        return hits;
+    }
+
+    /**
+     * Loads a temporary index with the same settings, then moves it over the live one, which Algolia does
+     * atomically
+     */
+    @Override
+    public void replaceAll(Iterator<List<T>> batches) {
+        final String temporaryName = indexName + "_reindex_" + System.currentTimeMillis();
+        log.info("Rebuilding {} in {}", indexName, temporaryName);
+        searchClient.copySettings(indexName, temporaryName).waitTask();
+        final SearchIndex<T> temporaryIndex = searchClient.initIndex(temporaryName, type);
+
+        try {
+            while(batches.hasNext()) {
+                sendInChunks(temporaryIndex, ActionEnum.UPDATE_OBJECT, batches.next());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild {}, dropping {}", indexName, temporaryName);
+            temporaryIndex.delete();
+            throw e;
+        }
+
+        searchClient.moveIndex(temporaryName, indexName).waitTask();
+        log.info("Swapped {} in place of {}", temporaryName, indexName);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private void sendInChunks(SearchIndex<T> target, ActionEnum action, List<T> objects) {
+        if(objects.isEmpty()) {
+            return;
+        }
+
+        final List<List<BatchOperation<T>>> chunks = chunk(action, objects);
+        final List<Future<?>> sent = new ArrayList<>();
+        for(int i = 0; i < chunks.size(); i++) {
+            final int chunkNumber = i + 1;
+            final List<BatchOperation<T>> chunk = chunks.get(i);
+            sent.add(executor.submit(() -> send(target, chunkNumber, chunks.size(), chunk)));
+        }
+
+        RuntimeException failure = null;
+        int failed = 0;
+        for(Future<?> future : sent) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failed++;
+                if(failure == null) {
+                    failure = new IllegalStateException("Search batch request failed", e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending search batch requests", e);
+            }
+        }
+
+        if(failure != null) {
+            log.warn("{} of {} search batch requests failed", failed, chunks.size());
+            throw failure;
+        }
+    }
+
+    private List<List<BatchOperation<T>>> chunk(ActionEnum action, List<T> objects) {
+        final long maxBytes = searchBatchConfig.getMaxBytes().toBytes();
+        final List<List<BatchOperation<T>>> chunks = new ArrayList<>();
+
+        List<BatchOperation<T>> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+        for(T object : objects) {
+            final long bytes = sizeOf(object);
+            if(!chunk.isEmpty() && (chunk.size() >= searchBatchConfig.getMaxOperations() || chunkBytes + bytes > maxBytes)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(new BatchOperation<>(action, object));
+            chunkBytes += bytes;
+        }
+        chunks.add(chunk);
+
+        return chunks;
+    }
+
+    private void send(SearchIndex<T> target, int chunkNumber, int chunkCount, List<BatchOperation<T>> chunk) {
+        for(int attempt = 1; ; attempt++) {
+            final long start = System.nanoTime();
+            try {
+                target.batch(new BatchRequest<>(chunk));
+                log.info("Sent search batch request {}/{} of {} operations in {}ms after {} attempts",
+                        chunkNumber, chunkCount, chunk.size(), Duration.ofNanos(System.nanoTime() - start).toMillis(), attempt);
+                return;
+            } catch (RuntimeException e) {
+                if(attempt >= searchBatchConfig.getMaxAttempts()) {
+                    log.warn("Giving up on search batch request {}/{} after {} attempts", chunkNumber, chunkCount, attempt);
+                    throw e;
+                }
+
+                final long backoffMillis = backoffMillis(attempt);
+                log.info("Search batch request {}/{} failed after {}ms, retrying in {}ms",
+                        chunkNumber, chunkCount, Duration.ofNanos(System.nanoTime() - start).toMillis(), backoffMillis);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while retrying search batch request", interrupted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Full jitter: anywhere between 0 and the exponential bound, so retries of parallel requests spread out
+     */
+    private long backoffMillis(int attempt) {
+        final long initial = searchBatchConfig.getInitialBackoff().toMillis();
+        final long bound = Math.min(searchBatchConfig.getMaxBackoff().toMillis(), initial << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    private static long sizeOf(Object object) {
+        try {
+            return SIZING_MAPPER.writeValueAsBytes(object).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize search object " + object, e);
+        }
+    }
 }
@@ -1,28 +1,37 @@
 package com.lepine.transfers.services.search;
 
+import com.algolia.search.SearchClient;
 import com.algolia.search.SearchIndex;
+import com.lepine.transfers.config.SearchBatchConfig;
 import com.lepine.transfers.data.item.ItemSearchDTO;
 import com.lepine.transfers.data.stock.StockSearchDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.util.UUID;
 
+import static com.lepine.transfers.services.search.SearchIndexProviders.ITEMS_INDEX;
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_INDEX;
+
 @Configuration
+@Profile("!local-search")
 @RequiredArgsConstructor
 public class SearchServiceProviders {
 
+    private final SearchClient searchClient;
     private final SearchIndex<ItemSearchDTO> itemSearchIndex;
     private final SearchIndex<StockSearchDTO> stockSearchIndex;
+    private final SearchBatchConfig searchBatchConfig;
 
     @Bean
     public SearchService<ItemSearchDTO, UUID> getItemSearchService() {
-        return new SearchServiceImpl<>(itemSearchIndex);
+        return new SearchServiceImpl<>(searchClient, itemSearchIndex, ITEMS_INDEX, ItemSearchDTO.class, searchBatchConfig);
     }
 
     @Bean
     public SearchService<StockSearchDTO, UUID> getStockSearchService() {
-        return new SearchServiceImpl<>(stockSearchIndex);
+        return new SearchServiceImpl<>(searchClient, stockSearchIndex, STOCKS_INDEX, StockSearchDTO.class, searchBatchConfig);
     }
 }
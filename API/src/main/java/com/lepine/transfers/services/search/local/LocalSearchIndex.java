@@ -0,0 +1,444 @@
+package com.lepine.transfers.services.search.local;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Embedded inverted index over the documents of one search index.
+ *
+ * Documents live in an append-only segment file that is read through a memory mapping, the heap only holds the
+ * postings, the facets and where each live document starts. The segment is replayed when opened, and rewritten
+ * with only its live documents once overwritten and deleted ones take more than {@code maxDeadRatio} of it.
+ *
+ * Like Algolia, every word of a query has to match, the last one as a prefix, and hits are ranked by the
+ * position of the attributes they matched in {@code searchableAttributes}.
+ */
+@Slf4j
+public class LocalSearchIndex<T> implements Closeable {
+
+    private final static byte PUT = 1, DELETE = 2;
+    private final static int HEADER_BYTES = Byte.BYTES + Integer.BYTES;
+    private final static long MIN_COMPACTION_BYTES = 1 << 20;
+
+    private final Path segment;
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+    private final List<String> searchableAttributes;
+    private final List<String> facetAttributes;
+    private final double maxDeadRatio;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Location> locations = new HashMap<>();
+    private TreeMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private Map<String, Map<String, Set<String>>> facets = new HashMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long liveBytes;
+
+    public LocalSearchIndex(Path segment,
+                            Class<T> type,
+                            ObjectMapper objectMapper,
+                            List<String> searchableAttributes,
+                            List<String> facetAttributes,
+                            double maxDeadRatio) throws IOException {
+        this.segment = segment;
+        this.type = type;
+        this.objectMapper = objectMapper;
+        this.searchableAttributes = searchableAttributes;
+        this.facetAttributes = facetAttributes;
+        this.maxDeadRatio = maxDeadRatio;
+        facetAttributes.forEach(attribute -> facets.put(attribute, new HashMap<>()));
+
+        Files.createDirectories(segment.toAbsolutePath().getParent());
+        channel = FileChannel.open(segment, CREATE, READ, WRITE);
+        replay();
+    }
+
+    public void put(List<T> documents) {
+        final List<ObjectNode> trees = documents.stream()
+                .map(document -> (ObjectNode) objectMapper.valueToTree(document))
+                .collect(Collectors.toList());
+        write(trees, List.of());
+    }
+
+    /**
+     * Overwrites the non null attributes of documents that are already indexed, others are ignored
+     */
+    public void patch(List<T> documents) {
+        lock.writeLock().lock();
+        try {
+            final List<ObjectNode> trees = new ArrayList<>();
+            for(T document : documents) {
+                final ObjectNode partial = objectMapper.valueToTree(document);
+                final Location location = locations.get(objectIdOf(partial));
+                if(location == null) {
+                    continue;
+                }
+
+                final ObjectNode merged = readTree(location);
+                partial.fields().forEachRemaining(field -> {
+                    if(!field.getValue().isNull()) {
+                        merged.set(field.getKey(), field.getValue());
+                    }
+                });
+                trees.add(merged);
+            }
+            write(trees, List.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(List<String> objectIds) {
+        write(List.of(), objectIds);
+    }
+
+    /**
+     * Builds a new segment next to the live one out of the given batches, then renames it over the live one and
+     * takes over its state. Searches and writes keep using the previous segment until then.
+     */
+    public void replaceAll(Iterator<List<T>> batches) {
+        final Path rebuilding = segment.resolveSibling(segment.getFileName() + ".rebuilding");
+        try {
+            Files.deleteIfExists(rebuilding);
+            final LocalSearchIndex<T> rebuilt = new LocalSearchIndex<>(
+                    rebuilding, type, objectMapper, searchableAttributes, facetAttributes, maxDeadRatio);
+            try {
+                while(batches.hasNext()) {
+                    rebuilt.put(batches.next());
+                }
+            } catch (RuntimeException e) {
+                rebuilt.close();
+                Files.deleteIfExists(rebuilding);
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                // The rebuilt channel keeps pointing at the same file once renamed
+                Files.move(rebuilding, segment, ATOMIC_MOVE, REPLACE_EXISTING);
+                channel.close();
+                channel = rebuilt.channel;
+                mapped = rebuilt.mapped;
+                liveBytes = rebuilt.liveBytes;
+                locations = rebuilt.locations;
+                postings = rebuilt.postings;
+                facets = rebuilt.facets;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Rebuilt search segment {} with {} documents", segment, size());
+    }
+
+    public List<T> search(String query, Map<String, String> facetFilters, int limit) {
+        lock.readLock().lock();
+        try {
+            final List<String> tokens = tokenize(query);
+            Map<String, Integer> scores;
+            if(tokens.isEmpty()) {
+                scores = new HashMap<>();
+                for(String objectId : locations.keySet()) {
+                    scores.put(objectId, 0);
+                }
+            } else {
+                scores = null;
+                for(int i = 0; i < tokens.size(); i++) {
+                    final Map<String, Integer> ranks = i == tokens.size() - 1
+                            ? prefixRanks(tokens.get(i))
+                            : postings.getOrDefault(tokens.get(i), Map.of());
+
+                    final Map<String, Integer> matched = new HashMap<>();
+                    for(Map.Entry<String, Integer> rank : ranks.entrySet()) {
+                        final Integer score = scores == null ? Integer.valueOf(0) : scores.get(rank.getKey());
+                        if(score != null) {
+                            matched.put(rank.getKey(), score + searchableAttributes.size() - rank.getValue());
+                        }
+                    }
+                    scores = matched;
+                }
+            }
+
+            for(Map.Entry<String, String> filter : facetFilters.entrySet()) {
+                final Map<String, Set<String>> values = facets.getOrDefault(filter.getKey(), Map.of());
+                scores.keySet().retainAll(values.getOrDefault(filter.getValue(), Set.of()));
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(limit)
+                    .map(hit -> read(locations.get(hit.getKey())))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replay() throws IOException {
+        remap();
+
+        int offset = 0;
+        while(offset + HEADER_BYTES <= mapped.limit()) {
+            final byte operation = mapped.get(offset);
+            final int length = mapped.getInt(offset + Byte.BYTES);
+            if((operation != PUT && operation != DELETE) || length < 0 || (long) offset + HEADER_BYTES + length > mapped.limit()) {
+                break;
+            }
+
+            final Location location = new Location(offset + HEADER_BYTES, length);
+            if(operation == PUT) {
+                final ObjectNode tree = readTree(location);
+                apply(objectIdOf(tree), tree, location);
+            } else {
+                apply(new String(readBytes(location), StandardCharsets.UTF_8), null, null);
+            }
+            offset += HEADER_BYTES + length;
+        }
+
+        if(offset < mapped.limit()) {
+            log.warn("Truncating torn tail of search segment {} at {}", segment, offset);
+            channel.truncate(offset);
+            remap();
+        }
+        log.info("Opened search segment {} with {} documents", segment, locations.size());
+    }
+
+    private void write(List<ObjectNode> puts, List<String> deletes) {
+        if(puts.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            final List<byte[]> payloads = new ArrayList<>();
+            int bytes = 0;
+            for(ObjectNode tree : puts) {
+                payloads.add(objectMapper.writeValueAsBytes(tree));
+                bytes += HEADER_BYTES + payloads.get(payloads.size() - 1).length;
+            }
+            for(String objectId : deletes) {
+                payloads.add(objectId.getBytes(StandardCharsets.UTF_8));
+                bytes += HEADER_BYTES + payloads.get(payloads.size() - 1).length;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate(bytes);
+            for(int i = 0; i < payloads.size(); i++) {
+                buffer.put(i < puts.size() ? PUT : DELETE)
+                        .putInt(payloads.get(i).length)
+                        .put(payloads.get(i));
+            }
+            buffer.flip();
+
+            int offset = mapped.limit();
+            long position = offset;
+            while(buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+            remap();
+
+            for(int i = 0; i < payloads.size(); i++) {
+                final int length = payloads.get(i).length;
+                if(i < puts.size()) {
+                    apply(objectIdOf(puts.get(i)), puts.get(i), new Location(offset + HEADER_BYTES, length));
+                } else {
+                    apply(deletes.get(i - puts.size()), null, null);
+                }
+                offset += HEADER_BYTES + length;
+            }
+
+            if(mapped.limit() >= MIN_COMPACTION_BYTES && mapped.limit() - liveBytes > maxDeadRatio * mapped.limit()) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the indexed version of an object, if any, with the given one, or removes it when tree is null
+     */
+    private void apply(String objectId, ObjectNode tree, Location location) {
+        final Location previous = location == null ? locations.remove(objectId) : locations.put(objectId, location);
+        if(previous != null) {
+            unindex(objectId, readTree(previous));
+            liveBytes -= HEADER_BYTES + previous.length;
+        }
+        if(tree != null) {
+            index(objectId, tree);
+            liveBytes += HEADER_BYTES + location.length;
+        }
+    }
+
+    private void index(String objectId, ObjectNode tree) {
+        for(int rank = 0; rank < searchableAttributes.size(); rank++) {
+            for(String token : tokenize(textOf(tree, searchableAttributes.get(rank)))) {
+                postings.computeIfAbsent(token, t -> new HashMap<>()).merge(objectId, rank, Math::min);
+            }
+        }
+        for(String attribute : facetAttributes) {
+            final String value = textOf(tree, attribute);
+            if(value != null) {
+                facets.get(attribute).computeIfAbsent(value, v -> new HashSet<>()).add(objectId);
+            }
+        }
+    }
+
+    private void unindex(String objectId, ObjectNode tree) {
+        for(String attribute : searchableAttributes) {
+            for(String token : tokenize(textOf(tree, attribute))) {
+                final Map<String, Integer> ranks = postings.get(token);
+                if(ranks != null && ranks.remove(objectId) != null && ranks.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+        for(String attribute : facetAttributes) {
+            final Map<String, Set<String>> values = facets.get(attribute);
+            final Set<String> objectIds = values.get(textOf(tree, attribute));
+            if(objectIds != null && objectIds.remove(objectId) && objectIds.isEmpty()) {
+                values.remove(textOf(tree, attribute));
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        final Path compacting = segment.resolveSibling(segment.getFileName() + ".compacting");
+        final Map<String, Location> compacted = new HashMap<>();
+        log.info("Compacting search segment {} from {} to {} bytes", segment, mapped.limit(), liveBytes);
+
+        try(FileChannel out = FileChannel.open(compacting, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            int offset = 0;
+            for(Map.Entry<String, Location> entry : locations.entrySet()) {
+                final byte[] payload = readBytes(entry.getValue());
+                final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                        .put(PUT)
+                        .putInt(payload.length)
+                        .put(payload);
+                buffer.flip();
+                while(buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+
+                compacted.put(entry.getKey(), new Location(offset + HEADER_BYTES, payload.length));
+                offset += HEADER_BYTES + payload.length;
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(compacting, segment, ATOMIC_MOVE, REPLACE_EXISTING);
+        channel = FileChannel.open(segment, READ, WRITE);
+        remap();
+        locations.putAll(compacted);
+    }
+
+    private void remap() throws IOException {
+        final long size = channel.size();
+        if(size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Search segment " + segment + " outgrew a single mapping");
+        }
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    private Map<String, Integer> prefixRanks(String prefix) {
+        final Map<String, Integer> ranks = new HashMap<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()
+                .forEach(byObjectId -> byObjectId.forEach((objectId, rank) -> ranks.merge(objectId, rank, Math::min)));
+        return ranks;
+    }
+
+    private byte[] readBytes(Location location) {
+        final byte[] bytes = new byte[location.length];
+        final ByteBuffer view = mapped.duplicate();
+        view.position(location.offset);
+        view.get(bytes);
+        return bytes;
+    }
+
+    private ObjectNode readTree(Location location) {
+        try {
+            return (ObjectNode) objectMapper.readTree(readBytes(location));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private T read(Location location) {
+        try {
+            return objectMapper.readValue(readBytes(location), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String objectIdOf(JsonNode tree) {
+        return tree.get("objectID").asText();
+    }
+
+    private static String textOf(JsonNode tree, String attribute) {
+        final JsonNode value = tree.get(attribute);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static List<String> tokenize(String text) {
+        if(text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    @RequiredArgsConstructor
+    private static class Location {
+        private final int offset;
+        private final int length;
+    }
+}
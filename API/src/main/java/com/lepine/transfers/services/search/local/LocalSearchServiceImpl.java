@@ -0,0 +1,81 @@
+package com.lepine.transfers.services.search.local;
+
+import com.lepine.transfers.services.search.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+public class LocalSearchServiceImpl<T> implements SearchService<T, UUID>, Closeable {
+
+    private final LocalSearchIndex<T> localSearchIndex;
+    private final Function<T, UUID> objectIdOf;
+
+    @Override
+    public void index(T toIndex) {
+        log.info("Indexing {}", toIndex);
+        localSearchIndex.put(List.of(toIndex));
+        log.info("Indexed {}", toIndex);
+    }
+
+    @Override
+    public void delete(UUID identifier) {
+        log.info("Deleting {}", identifier);
+        localSearchIndex.delete(List.of(identifier.toString()));
+        log.info("Deleted {}", identifier);
+    }
+
+    @Override
+    public void indexAllInBatch(List<T> toIndex) {
+        log.info("Indexing all {} items in batch", toIndex.size());
+        localSearchIndex.put(toIndex);
+        log.info("Indexed {} items in batch", toIndex.size());
+    }
+
+    @Override
+    public void partialUpdateAllInBatch(List<T> toIndex) {
+        log.info("Updating all {} items in batch", toIndex.size());
+        localSearchIndex.patch(toIndex);
+        log.info("Updated {} items in batch", toIndex.size());
+    }
+
+    @Override
+    public void deleteAllInBatch(List<T> toDelete) {
+        log.info("Deleting all {} items in batch", toDelete.size());
+        localSearchIndex.delete(toDelete.stream()
+                .map(objectIdOf)
+                .map(UUID::toString)
+                .collect(Collectors.toList()));
+        log.info("Deleted {} items in batch", toDelete.size());
+    }
+
+    @Override
+    public List<T> search(String query, Map<String, String> facetFilters, int limit) {
+        log.info("Searching for {} with facets {}", query, facetFilters);
+        final List<T> hits = localSearchIndex.search(query, facetFilters, limit);
+        log.info("Found {} hits", hits.size());
+
+        return hits;
+    }
+
+    @Override
+    public void replaceAll(Iterator<List<T>> batches) {
+        log.info("Rebuilding index");
+        localSearchIndex.replaceAll(batches);
+        log.info("Rebuilt index with {} items", localSearchIndex.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        localSearchIndex.close();
+    }
+}
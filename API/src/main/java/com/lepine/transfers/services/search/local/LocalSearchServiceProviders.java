@@ -0,0 +1,58 @@
+package com.lepine.transfers.services.search.local;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.config.LocalSearchConfig;
+import com.lepine.transfers.data.item.ItemSearchDTO;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.services.search.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+
+import static com.lepine.transfers.services.search.SearchIndexProviders.*;
+
+/**
+ * Same beans as {@link com.lepine.transfers.services.search.SearchServiceProviders}, backed by embedded indices
+ * instead of Algolia
+ */
+@Configuration
+@Profile("local-search")
+@RequiredArgsConstructor
+public class LocalSearchServiceProviders {
+
+    private final LocalSearchConfig localSearchConfig;
+    private final ObjectMapper objectMapper;
+
+    @Bean
+    public SearchService<ItemSearchDTO, UUID> getItemSearchService() throws IOException {
+        return new LocalSearchServiceImpl<>(
+                open(ITEMS_INDEX, ItemSearchDTO.class, ITEMS_SEARCHABLE_ATTRIBUTES, List.of()),
+                ItemSearchDTO::getObjectID);
+    }
+
+    @Bean
+    public SearchService<StockSearchDTO, UUID> getStockSearchService() throws IOException {
+        return new LocalSearchServiceImpl<>(
+                open(STOCKS_INDEX, StockSearchDTO.class, STOCKS_SEARCHABLE_ATTRIBUTES, STOCKS_FACET_ATTRIBUTES),
+                StockSearchDTO::getObjectID);
+    }
+
+    private <T> LocalSearchIndex<T> open(String indexName,
+                                         Class<T> type,
+                                         List<String> searchableAttributes,
+                                         List<String> facetAttributes) throws IOException {
+        return new LocalSearchIndex<>(
+                Paths.get(localSearchConfig.getDirectory(), indexName + ".segment"),
+                type,
+                objectMapper,
+                searchableAttributes,
+                facetAttributes,
+                localSearchConfig.getMaxDeadRatio());
+    }
+}
@@ -0,0 +1,98 @@
+package com.lepine.transfers.services.search.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.data.search.SearchOutboxEntry;
+import com.lepine.transfers.data.search.SearchOutboxOperation;
+import com.lepine.transfers.data.search.SearchOutboxRepo;
+import com.lepine.transfers.services.search.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records index changes in the search outbox instead of sending them, so that they commit or roll back with
+ * the entity change that caused them. {@link SearchOutboxService#dispatch()} sends them later on, searches and
+ * rebuilds go straight to the index.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxSearchService<T> implements SearchService<T, UUID> {
+
+    private final String indexName;
+    private final Function<T, UUID> objectIdOf;
+    private final SearchOutboxRepo searchOutboxRepo;
+    private final ObjectMapper objectMapper;
+    private final SearchService<T, UUID> index;
+
+    @Override
+    public void index(T toIndex) {
+        log.info("Queueing {} for indexing in {}", toIndex, indexName);
+        searchOutboxRepo.save(toEntry(SearchOutboxOperation.SAVE, toIndex));
+    }
+
+    @Override
+    public void delete(UUID identifier) {
+        log.info("Queueing {} for deletion from {}", identifier, indexName);
+        final String payload = objectMapper.createObjectNode()
+                .put("objectID", identifier.toString())
+                .toString();
+        searchOutboxRepo.save(toEntry(SearchOutboxOperation.DELETE, identifier, payload));
+    }
+
+    @Override
+    public void indexAllInBatch(List<T> toIndex) {
+        log.info("Queueing {} items for indexing in {}", toIndex.size(), indexName);
+        searchOutboxRepo.saveAll(toEntries(SearchOutboxOperation.SAVE, toIndex));
+    }
+
+    @Override
+    public void partialUpdateAllInBatch(List<T> toIndex) {
+        log.info("Queueing {} items for partial update in {}", toIndex.size(), indexName);
+        searchOutboxRepo.saveAll(toEntries(SearchOutboxOperation.PARTIAL_UPDATE, toIndex));
+    }
+
+    @Override
+    public void deleteAllInBatch(List<T> toDelete) {
+        log.info("Queueing {} items for deletion from {}", toDelete.size(), indexName);
+        searchOutboxRepo.saveAll(toEntries(SearchOutboxOperation.DELETE, toDelete));
+    }
+
+    @Override
+    public List<T> search(String query, Map<String, String> facetFilters, int limit) {
+        return index.search(query, facetFilters, limit);
+    }
+
+    @Override
+    public void replaceAll(Iterator<List<T>> batches) {
+        index.replaceAll(batches);
+    }
+
+    private List<SearchOutboxEntry> toEntries(SearchOutboxOperation operation, List<T> objects) {
+        return objects.stream()
+                .map(object -> toEntry(operation, object))
+                .collect(Collectors.toList());
+    }
+
+    @SneakyThrows
+    private SearchOutboxEntry toEntry(SearchOutboxOperation operation, T object) {
+        return toEntry(operation, objectIdOf.apply(object), objectMapper.writeValueAsString(object));
+    }
+
+    private SearchOutboxEntry toEntry(SearchOutboxOperation operation, UUID objectId, String payload) {
+        return SearchOutboxEntry.builder()
+                .indexName(indexName)
+                .objectId(objectId.toString())
+                .operation(operation)
+                .payload(payload)
+                .createdAt(ZonedDateTime.now())
+                .build();
+    }
+}
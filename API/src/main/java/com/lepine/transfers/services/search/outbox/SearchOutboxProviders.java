@@ -0,0 +1,42 @@
+package com.lepine.transfers.services.search.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.data.item.ItemSearchDTO;
+import com.lepine.transfers.data.search.SearchOutboxRepo;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.services.search.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.UUID;
+
+import static com.lepine.transfers.services.search.SearchIndexProviders.ITEMS_INDEX;
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_INDEX;
+
+/**
+ * Services get the outbox backed search services, only the dispatcher writes to the indices directly
+ */
+@Configuration
+@RequiredArgsConstructor
+public class SearchOutboxProviders {
+
+    private final SearchOutboxRepo searchOutboxRepo;
+    private final ObjectMapper objectMapper;
+
+    @Bean
+    @Primary
+    public SearchService<ItemSearchDTO, UUID> getItemOutboxSearchService(
+            @Qualifier("getItemSearchService") SearchService<ItemSearchDTO, UUID> itemSearchService) {
+        return new OutboxSearchService<>(ITEMS_INDEX, ItemSearchDTO::getObjectID, searchOutboxRepo, objectMapper, itemSearchService);
+    }
+
+    @Bean
+    @Primary
+    public SearchService<StockSearchDTO, UUID> getStockOutboxSearchService(
+            @Qualifier("getStockSearchService") SearchService<StockSearchDTO, UUID> stockSearchService) {
+        return new OutboxSearchService<>(STOCKS_INDEX, StockSearchDTO::getObjectID, searchOutboxRepo, objectMapper, stockSearchService);
+    }
+}
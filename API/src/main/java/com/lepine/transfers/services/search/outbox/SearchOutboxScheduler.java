@@ -0,0 +1,25 @@
+package com.lepine.transfers.services.search.outbox;
+
+import com.lepine.transfers.config.SearchOutboxConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "search.outbox", name = "dispatch-enabled", havingValue = "true", matchIfMissing = true)
+public class SearchOutboxScheduler {
+
+    private final SearchOutboxService searchOutboxService;
+    private final SearchOutboxConfig searchOutboxConfig;
+
+    @Scheduled(fixedDelayString = "#{@searchOutboxConfig.pollInterval.toMillis()}")
+    public void drain() {
+        // Keep going while full batches come back, so a backlog does not wait one poll interval per batch
+        int dispatched;
+        do {
+            dispatched = searchOutboxService.dispatch();
+        } while(dispatched >= searchOutboxConfig.getBatchSize());
+    }
+}
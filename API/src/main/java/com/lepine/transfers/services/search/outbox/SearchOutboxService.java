@@ -0,0 +1,42 @@
+package com.lepine.transfers.services.search.outbox;
+
+import com.lepine.transfers.data.search.SearchOutboxStatus;
+import com.lepine.transfers.data.stock.StockReceipt;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface SearchOutboxService {
+
+    /**
+     * Sends the oldest batch of queued index changes, coalesced per object
+     *
+     * @return the number of outbox entries drained, 0 when empty or backing off
+     */
+    int dispatch();
+
+    SearchOutboxStatus getStatus();
+
+    /**
+     * Drains the outbox then runs the task with dispatching held off, so that nothing queued before the task
+     * lands after it and nothing queued during it is sent before it ends
+     *
+     * @throws IllegalStateException when the outbox cannot be drained
+     */
+    void runPaused(Runnable task);
+
+    /**
+     * Queues the objects to be read again and sent as they are when dispatched, for writers that do not hold them
+     */
+    void refreshAll(String indexName, Collection<UUID> objectIds);
+
+    /**
+     * Queues every stock of the item to be refreshed, without reading them
+     */
+    void refreshStocksOfItem(UUID itemUuid);
+
+    /**
+     * Queues the stocks received to be refreshed, found by warehouse and item without reading them
+     */
+    void refreshStocks(Collection<StockReceipt> receipts);
+}
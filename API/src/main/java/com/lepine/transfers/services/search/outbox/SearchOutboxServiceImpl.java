@@ -0,0 +1,280 @@
+package com.lepine.transfers.services.search.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.config.SearchOutboxConfig;
+import com.lepine.transfers.data.item.ItemMapper;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.item.ItemSearchDTO;
+import com.lepine.transfers.data.search.SearchOutboxEntry;
+import com.lepine.transfers.data.search.SearchOutboxOperation;
+import com.lepine.transfers.data.search.SearchOutboxRepo;
+import com.lepine.transfers.data.search.SearchOutboxStatus;
+import com.lepine.transfers.data.stock.StockReceipt;
+import com.lepine.transfers.data.stock.StockMapper;
+import com.lepine.transfers.data.stock.StockRepo;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.utils.retry.BackoffUtils;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.lepine.transfers.services.search.SearchIndexProviders.ITEMS_INDEX;
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_INDEX;
+
+/**
+ * Drains the search outbox in id order. Only the latest change of each object in a batch is sent, and a failed
+ * batch is retried as a whole after an exponential backoff so that an older change never overwrites a newer one.
+ */
+@Service
+@Slf4j
+public class SearchOutboxServiceImpl implements SearchOutboxService {
+
+    private final SearchOutboxRepo searchOutboxRepo;
+    private final SearchOutboxConfig searchOutboxConfig;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Target<?>> targetsByIndex;
+
+    private volatile int consecutiveFailures = 0;
+    private volatile Instant pausedUntil = Instant.MIN;
+
+    public SearchOutboxServiceImpl(
+            SearchOutboxRepo searchOutboxRepo,
+            SearchOutboxConfig searchOutboxConfig,
+            ObjectMapper objectMapper,
+            @Qualifier("getItemSearchService") SearchService<ItemSearchDTO, UUID> itemSearchService,
+            @Qualifier("getStockSearchService") SearchService<StockSearchDTO, UUID> stockSearchService,
+            ItemRepo itemRepo,
+            ItemMapper itemMapper,
+            StockRepo stockRepo,
+            StockMapper stockMapper) {
+
+        this.searchOutboxRepo = searchOutboxRepo;
+        this.searchOutboxConfig = searchOutboxConfig;
+        this.objectMapper = objectMapper;
+        this.targetsByIndex = Map.of(
+                ITEMS_INDEX, new Target<>(ItemSearchDTO.class, itemSearchService, uuids -> itemRepo.findAllById(uuids)
+                        .stream()
+                        .map(itemMapper::toSearchDTO)
+                        .collect(Collectors.toMap(ItemSearchDTO::getObjectID, Function.identity()))),
+                STOCKS_INDEX, new Target<>(StockSearchDTO.class, stockSearchService, uuids -> stockRepo.findAllByUuidIn(uuids)
+                        .stream()
+                        .map(stockMapper::toSearchDTO)
+                        .collect(Collectors.toMap(StockSearchDTO::getObjectID, Function.identity())))
+        );
+    }
+
+    @Override
+    public synchronized int dispatch() {
+        if(Instant.now().isBefore(pausedUntil)) {
+            return 0;
+        }
+
+        final List<SearchOutboxEntry> entries = searchOutboxRepo
+                .findAllByOrderByIdAsc(PageRequest.of(0, searchOutboxConfig.getBatchSize()));
+        if(entries.isEmpty()) {
+            return 0;
+        }
+
+        final List<Long> ids = entries.stream()
+                .map(SearchOutboxEntry::getId)
+                .collect(Collectors.toList());
+        log.info("Dispatching {} search outbox entries", entries.size());
+
+        try {
+            final Map<String, List<SearchOutboxEntry>> entriesByIndex = entries.stream()
+                    .collect(Collectors.groupingBy(SearchOutboxEntry::getIndexName, TreeMap::new, Collectors.toList()));
+            entriesByIndex.forEach((indexName, indexEntries) -> send(indexName, coalesce(indexEntries)));
+        } catch (RuntimeException e) {
+            fail(entries, ids, e);
+            return 0;
+        }
+
+        searchOutboxRepo.deleteAllByIdIn(ids);
+        consecutiveFailures = 0;
+        log.info("Dispatched {} search outbox entries", entries.size());
+
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void runPaused(Runnable task) {
+        log.info("Draining search outbox before pausing it");
+        while(searchOutboxRepo.count() > 0) {
+            if(dispatch() == 0) {
+                throw new IllegalStateException("Search outbox could not be drained");
+            }
+        }
+
+        log.info("Search outbox paused");
+        try {
+            task.run();
+        } finally {
+            log.info("Search outbox resumed");
+        }
+    }
+
+    @Override
+    public void refreshAll(String indexName, Collection<UUID> objectIds) {
+        log.info("Queueing {} objects for refresh in {}", objectIds.size(), indexName);
+        searchOutboxRepo.insertRefreshes(indexName, objectIds);
+    }
+
+    @Override
+    public void refreshStocksOfItem(UUID itemUuid) {
+        final int queued = searchOutboxRepo.insertStockRefreshesByItemUuid(STOCKS_INDEX, itemUuid);
+        log.info("Queued {} stocks of item {} for refresh", queued, itemUuid);
+    }
+
+    @Override
+    public void refreshStocks(Collection<StockReceipt> receipts) {
+        log.info("Queueing stocks of {} receipts for refresh", receipts.size());
+        searchOutboxRepo.insertStockRefreshes(STOCKS_INDEX, receipts);
+    }
+
+    @Override
+    public SearchOutboxStatus getStatus() {
+        final long depth = searchOutboxRepo.count();
+        final Optional<ZonedDateTime> oldestCreatedAt = searchOutboxRepo.findOldestCreatedAt();
+        final long lagMillis = oldestCreatedAt
+                .map(oldest -> Duration.between(oldest.toInstant(), Instant.now()).toMillis())
+                .orElse(0L);
+
+        return SearchOutboxStatus.builder()
+                .depth(depth)
+                .lagMillis(lagMillis)
+                .oldestCreatedAt(oldestCreatedAt.orElse(null))
+                .consecutiveFailures(consecutiveFailures)
+                .build();
+    }
+
+    /**
+     * Keeps one entry per object, the latest. A save followed by partial updates stays a save, and nothing
+     * brings an object back after a delete since partial updates never create objects. A refresh reads the
+     * object as it is at dispatch, which no save or partial update queued before the dispatch is newer than.
+     */
+    private static Collection<SearchOutboxEntry> coalesce(List<SearchOutboxEntry> entries) {
+        final Map<String, SearchOutboxEntry> latestByObjectId = new LinkedHashMap<>();
+        for(SearchOutboxEntry entry : entries) {
+            latestByObjectId.merge(entry.getObjectId(), entry, (previous, next) -> {
+                if(previous.getOperation() == SearchOutboxOperation.REFRESH) {
+                    return next.getOperation() == SearchOutboxOperation.DELETE ? next : previous;
+                }
+                if(next.getOperation() != SearchOutboxOperation.PARTIAL_UPDATE
+                        || previous.getOperation() == SearchOutboxOperation.PARTIAL_UPDATE) {
+                    return next;
+                }
+                if(previous.getOperation() == SearchOutboxOperation.DELETE) {
+                    return previous;
+                }
+                return next.toBuilder().operation(SearchOutboxOperation.SAVE).build();
+            });
+        }
+        return latestByObjectId.values();
+    }
+
+    private <T> void send(String indexName, Collection<SearchOutboxEntry> entries) {
+        @SuppressWarnings("unchecked")
+        final Target<T> target = (Target<T>) targetsByIndex.get(indexName);
+        if(target == null) {
+            log.error("Dropping {} search outbox entries for unknown index {}", entries.size(), indexName);
+            return;
+        }
+
+        final Map<SearchOutboxOperation, List<T>> objectsByOperation = entries.stream()
+                .filter(entry -> entry.getOperation() != SearchOutboxOperation.REFRESH)
+                .collect(Collectors.groupingBy(
+                        SearchOutboxEntry::getOperation,
+                        () -> new EnumMap<>(SearchOutboxOperation.class),
+                        Collectors.mapping(entry -> read(entry, target.getType()), Collectors.toList())));
+        refresh(target, entries, objectsByOperation);
+
+        objectsByOperation.forEach((operation, objects) -> {
+            log.info("Sending {} {} operations to {}", objects.size(), operation, indexName);
+            switch (operation) {
+                case SAVE:
+                    target.getSearchService().indexAllInBatch(objects);
+                    break;
+                case PARTIAL_UPDATE:
+                    target.getSearchService().partialUpdateAllInBatch(objects);
+                    break;
+                case DELETE:
+                    target.getSearchService().deleteAllInBatch(objects);
+                    break;
+            }
+        });
+    }
+
+    /**
+     * Reads the objects to refresh in one query, those found are saved and those gone since are deleted
+     */
+    private <T> void refresh(Target<T> target, Collection<SearchOutboxEntry> entries,
+                             Map<SearchOutboxOperation, List<T>> objectsByOperation) {
+        final List<SearchOutboxEntry> refreshes = entries.stream()
+                .filter(entry -> entry.getOperation() == SearchOutboxOperation.REFRESH)
+                .collect(Collectors.toList());
+        if(refreshes.isEmpty()) {
+            return;
+        }
+
+        final Map<UUID, T> current = target.getReader().apply(refreshes.stream()
+                .map(entry -> UUID.fromString(entry.getObjectId()))
+                .collect(Collectors.toList()));
+        log.info("Read {} of {} objects to refresh", current.size(), refreshes.size());
+
+        refreshes.forEach(entry -> {
+            final T object = current.get(UUID.fromString(entry.getObjectId()));
+            if(object != null) {
+                objectsByOperation.computeIfAbsent(SearchOutboxOperation.SAVE, operation -> new ArrayList<>()).add(object);
+            } else {
+                objectsByOperation.computeIfAbsent(SearchOutboxOperation.DELETE, operation -> new ArrayList<>())
+                        .add(read(entry, target.getType()));
+            }
+        });
+    }
+
+    private <T> T read(SearchOutboxEntry entry, Class<T> type) {
+        try {
+            return objectMapper.readValue(entry.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable search outbox entry " + entry.getId(), e);
+        }
+    }
+
+    private void fail(List<SearchOutboxEntry> entries, List<Long> ids, RuntimeException e) {
+        consecutiveFailures++;
+        final Duration backoff = BackoffUtils.capped(
+                searchOutboxConfig.getInitialBackoff(), searchOutboxConfig.getMaxBackoff(), consecutiveFailures);
+        pausedUntil = Instant.now().plus(backoff);
+        log.warn("Failed to dispatch {} search outbox entries, retrying in {}", entries.size(), backoff, e);
+
+        final List<Long> exhausted = entries.stream()
+                .filter(entry -> entry.getAttempts() + 1 >= searchOutboxConfig.getMaxAttempts())
+                .map(SearchOutboxEntry::getId)
+                .collect(Collectors.toList());
+        if(!exhausted.isEmpty()) {
+            log.error("Dropping {} search outbox entries after {} attempts", exhausted.size(), searchOutboxConfig.getMaxAttempts());
+            searchOutboxRepo.deleteAllByIdIn(exhausted);
+        }
+        searchOutboxRepo.incrementAttempts(ids);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Target<T> {
+        private final Class<T> type;
+        private final SearchService<T, UUID> searchService;
+        private final Function<Collection<UUID>, Map<UUID, T>> reader;
+    }
+}
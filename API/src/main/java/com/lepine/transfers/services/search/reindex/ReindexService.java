@@ -0,0 +1,10 @@
+package com.lepine.transfers.services.search.reindex;
+
+import com.lepine.transfers.data.search.ReindexReport;
+
+public interface ReindexService {
+
+    ReindexReport reindexItems();
+
+    ReindexReport reindexStocks();
+}
@@ -0,0 +1,111 @@
+package com.lepine.transfers.services.search.reindex;
+
+import com.lepine.transfers.config.SearchBatchConfig;
+import com.lepine.transfers.data.item.ItemMapper;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.item.ItemSearchDTO;
+import com.lepine.transfers.data.search.ReindexReport;
+import com.lepine.transfers.data.stock.StockMapper;
+import com.lepine.transfers.data.stock.StockRepo;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.services.search.outbox.SearchOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.lepine.transfers.services.search.SearchIndexProviders.ITEMS_INDEX;
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_INDEX;
+
+/**
+ * Rebuilds whole indices from the database. Rows are streamed through a cursor and the persistence context is
+ * cleared after every batch, so memory stays bounded by the batch size whatever the table size.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ReindexServiceImpl implements ReindexService {
+
+    private final ItemRepo itemRepo;
+    private final StockRepo stockRepo;
+    private final ItemMapper itemMapper;
+    private final StockMapper stockMapper;
+    private final SearchService<ItemSearchDTO, UUID> itemSearchService;
+    private final SearchService<StockSearchDTO, UUID> stockSearchService;
+    private final SearchOutboxService searchOutboxService;
+    private final SearchBatchConfig searchBatchConfig;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public ReindexReport reindexItems() {
+        return reindex(ITEMS_INDEX, itemRepo::streamAll, itemMapper::toSearchDTO, itemSearchService);
+    }
+
+    @Override
+    @Transactional
+    public ReindexReport reindexStocks() {
+        return reindex(STOCKS_INDEX, stockRepo::streamAllWithItemAndWarehouse, stockMapper::toSearchDTO, stockSearchService);
+    }
+
+    private <E, T> ReindexReport reindex(String indexName,
+                                         Supplier<Stream<E>> rows,
+                                         Function<E, T> toSearchDTO,
+                                         SearchService<T, UUID> searchService) {
+        log.info("Reindexing {}", indexName);
+        final long start = System.nanoTime();
+        final long[] count = { 0 };
+
+        // Changes queued meanwhile are sent to the rebuilt index once it is swapped in
+        searchOutboxService.runPaused(() -> {
+            try(Stream<E> stream = rows.get()) {
+                final Iterator<E> iterator = stream.iterator();
+                searchService.replaceAll(new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public List<T> next() {
+                        final List<T> batch = new ArrayList<>(searchBatchConfig.getMaxOperations());
+                        while(iterator.hasNext() && batch.size() < searchBatchConfig.getMaxOperations()) {
+                            batch.add(toSearchDTO.apply(iterator.next()));
+                        }
+                        entityManager.clear();
+
+                        count[0] += batch.size();
+                        log.info("Streamed {} rows of {} at {} rows/s", count[0], indexName, rowsPerSecond(count[0], start));
+                        return batch;
+                    }
+                });
+            }
+        });
+
+        final ReindexReport report = ReindexReport.builder()
+                .indexName(indexName)
+                .rows(count[0])
+                .millis(Duration.ofNanos(System.nanoTime() - start).toMillis())
+                .rowsPerSecond(rowsPerSecond(count[0], start))
+                .build();
+        log.info("Reindexed {}", report);
+
+        return report;
+    }
+
+    private static double rowsPerSecond(long rows, long start) {
+        final long nanos = Math.max(1, System.nanoTime() - start);
+        return rows * 1e9 / nanos;
+    }
+}
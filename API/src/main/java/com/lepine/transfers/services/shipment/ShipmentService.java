@@ -1,21 +1,36 @@
 package com.lepine.transfers.services.shipment;
 
 import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.shipment.ShipmentBatchEntry;
 import com.lepine.transfers.data.shipment.ShipmentStatusLessUuidLessDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import org.javatuples.Pair;
 
 import javax.json.JsonPatch;
 import javax.validation.Valid;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ShipmentService {
     Shipment create(@Valid ShipmentStatusLessUuidLessDTO shipmentStatusLessUUIDLessDTO);
+
+    /**
+     * Creates every shipment that would be created alone, given the ones before it in the list, and rejects the others
+     * @return One entry per shipment, in the same order
+     */
+    List<ShipmentBatchEntry> createAll(List<ShipmentStatusLessUuidLessDTO> shipmentStatusLessUuidLessDTOs);
     Page<Shipment> findAll(PageRequest pageRequest);
     Page<Shipment> findAllByUserUuid(UUID userUuid, PageRequest pageRequest);
     Shipment update(UUID uuid, JsonPatch jsonPatch);
     Page<Shipment> findAllAccepted(PageRequest pageRequest);
     Page<Shipment> findAllFullyConfirmed(PageRequest pageRequest);
     Page<Shipment> findAllFullyConfirmed(ZonedDateTime from, ZonedDateTime to, PageRequest pageRequest);
+    Slice<Shipment> findAllAfter(Optional<Pair<ZonedDateTime, UUID>> after, int size);
+    Slice<Shipment> findAllByUserUuidAfter(UUID userUuid, Optional<Pair<ZonedDateTime, UUID>> after, int size);
+    Slice<Shipment> findAllAcceptedAfter(Optional<Pair<ZonedDateTime, UUID>> after, int size);
 }
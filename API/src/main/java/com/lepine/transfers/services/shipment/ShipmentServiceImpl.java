@@ -1,11 +1,17 @@
 package com.lepine.transfers.services.shipment;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.config.ShipmentBatchConfig;
+import com.lepine.transfers.data.routing.ReadOnlyTransactional;
 import com.lepine.transfers.data.shipment.*;
 import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.transfer.Transfer;
 import com.lepine.transfers.data.transfer.TransferUuidLessDTO;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.events.shipment.ShipmentBatchCreateEvent;
 import com.lepine.transfers.events.shipment.ShipmentCreateEvent;
 import com.lepine.transfers.events.shipment.ShipmentUpdateEvent;
+import com.lepine.transfers.exceptions.shipment.ShipmentBatchSizeException;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotFoundException;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotPendingException;
 import com.lepine.transfers.exceptions.stock.StockNotFoundException;
@@ -13,26 +19,35 @@ import com.lepine.transfers.exceptions.stock.StockTooLowException;
 import com.lepine.transfers.exceptions.transfer.SameWarehouseException;
 import com.lepine.transfers.exceptions.warehouse.WarehouseNotFoundException;
 import com.lepine.transfers.services.stock.StockService;
+import com.lepine.transfers.services.stock.stream.StockStreamService;
 import com.lepine.transfers.services.warehouse.WarehouseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.javatuples.Pair;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.json.JsonPatch;
 import javax.json.JsonStructure;
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -43,10 +58,13 @@ public class ShipmentServiceImpl implements ShipmentService {
     private final ShipmentRepo shipmentRepo;
     private final ShipmentMapper shipmentMapper;
     private final StockService stockService;
+    private final StockStreamService stockStreamService;
     private final WarehouseService warehouseService;
     private final ApplicationEventPublisher applicationEventPublisher;
     private final ObjectMapper objectMapper;
     private final Validator validator;
+    private final EntityManager entityManager;
+    private final ShipmentBatchConfig shipmentBatchConfig;
 
     @Override
     @Transactional
@@ -69,28 +87,161 @@ public class ShipmentServiceImpl implements ShipmentService {
         final HashMap<UUID, Stock> stockByUuid = new HashMap<>(byUuidIn.size());
         byUuidIn.forEach(s -> stockByUuid.put(s.getUuid(), s));
 
-        log.info("Checking for existence of all stocks and their quantities");
-        verifyStockExistenceAndQuantityAndMutate(
-                dtoTransfersByStockUuid, dtoStockUuids, stockByUuid, shipmentStatusLessUUIDLessDTO.getTo());
-        log.info("All stocks and quantities are valid");
+        log.info("Checking for existence of all stocks");
+        verifyStockExistenceAndWarehouse(dtoStockUuids, stockByUuid, shipmentStatusLessUUIDLessDTO.getTo());
+        log.info("All stocks are valid");
+
+        log.info("Reserving stock quantities");
+        reserveStocks(dtoTransfersByStockUuid);
+        log.info("All stock quantities reserved");
 
         log.info("Mapping Shipment DTO to entity");
         final Shipment shipment = shipmentMapper.toEntity(shipmentStatusLessUUIDLessDTO);
+        shipment.setCreatedAt(ZonedDateTime.now());
         log.info("Mapped to entity");
 
         final Shipment saved = shipmentRepo.save(shipment);
         log.info("Shipment with order number {} created as {}", saved.getOrderNumber(), saved.getUuid());
 
+        // The shipment and its transfers go out as batched inserts, but the persisted instance only holds bare stock
+        // references, so it is let go and read back whole
+        entityManager.flush();
+        entityManager.detach(saved);
+
         final Shipment oneByUuidEagerLoad = shipmentRepo.findOneByUuidEagerLoad(saved.getUuid());
 
         log.info("Publishing shipment created event");
         applicationEventPublisher.publishEvent(new ShipmentCreateEvent(this, oneByUuidEagerLoad));
+        stockStreamService.publish(oneByUuidEagerLoad.getTransfers().stream()
+                .map(Transfer::getStock)
+                .collect(Collectors.toList()));
 
         return oneByUuidEagerLoad;
     }
 
-    private void verifyStockExistenceAndQuantityAndMutate(
-            HashMap<UUID, TransferUuidLessDTO> dtoTransfersByStockUuid,
+    @Override
+    @Transactional
+    public List<ShipmentBatchEntry> createAll(List<ShipmentStatusLessUuidLessDTO> shipmentStatusLessUuidLessDTOs) {
+        final int size = shipmentStatusLessUuidLessDTOs.size();
+        log.info("Creating batch of {} shipments", size);
+        if(size == 0 || size > shipmentBatchConfig.getMaxSize()) {
+            throw new ShipmentBatchSizeException(size, shipmentBatchConfig.getMaxSize());
+        }
+
+        final List<ShipmentBatchEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Set<ConstraintViolation<ShipmentStatusLessUuidLessDTO>> violations =
+                    validator.validate(shipmentStatusLessUuidLessDTOs.get(i));
+            entries.add(ShipmentBatchEntry.builder()
+                    .index(i)
+                    .rejection(violations.isEmpty() ? null : new ConstraintViolationException(violations))
+                    .build());
+        }
+
+        log.info("Looking up target warehouses and stocks of the batch");
+        final Set<UUID> warehouseUuids = entries.stream()
+                .filter(ShipmentBatchEntry::isCreated)
+                .map(entry -> shipmentStatusLessUuidLessDTOs.get(entry.getIndex()).getTo())
+                .collect(Collectors.toSet());
+        final Set<UUID> existingWarehouseUuids = warehouseUuids.isEmpty() ? Set.of() :
+                warehouseService.findAllByUuidIn(warehouseUuids).stream()
+                        .map(Warehouse::getUuid)
+                        .collect(Collectors.toSet());
+
+        final Set<UUID> stockUuids = entries.stream()
+                .filter(ShipmentBatchEntry::isCreated)
+                .flatMap(entry -> shipmentStatusLessUuidLessDTOs.get(entry.getIndex()).getTransfers().stream())
+                .map(TransferUuidLessDTO::getStockUuid)
+                .collect(Collectors.toSet());
+        final HashMap<UUID, Stock> stockByUuid = new HashMap<>(stockUuids.size());
+        if(!stockUuids.isEmpty()) {
+            stockService.findByUuidIn(stockUuids).forEach(s -> stockByUuid.put(s.getUuid(), s));
+        }
+        log.info("Found {} of {} warehouses and {} of {} stocks",
+                existingWarehouseUuids.size(), warehouseUuids.size(), stockByUuid.size(), stockUuids.size());
+
+        // An entry is rejected when it asks for more than what remains of a stock after the earlier entries of the batch
+        final HashMap<UUID, Integer> remainingByStockUuid = new HashMap<>(stockByUuid.size());
+        stockByUuid.forEach((uuid, stock) -> remainingByStockUuid.put(uuid, stock.getQuantity()));
+        final HashMap<UUID, Integer> wantedByStockUuid = new HashMap<>(stockByUuid.size());
+
+        final List<ShipmentBatchEntry> toCreate = new ArrayList<>(size);
+        for (ShipmentBatchEntry entry : entries) {
+            if(!entry.isCreated()) continue;
+
+            final ShipmentStatusLessUuidLessDTO dto = shipmentStatusLessUuidLessDTOs.get(entry.getIndex());
+            final HashMap<UUID, Integer> entryWantedByStockUuid = new HashMap<>(dto.getTransfers().size());
+            dto.getTransfers().forEach(transfer -> entryWantedByStockUuid.put(transfer.getStockUuid(), transfer.getQuantity()));
+
+            try {
+                if(!existingWarehouseUuids.contains(dto.getTo())) {
+                    throw new WarehouseNotFoundException(dto.getTo());
+                }
+                verifyStockExistenceAndWarehouse(entryWantedByStockUuid.keySet(), stockByUuid, dto.getTo());
+                entryWantedByStockUuid.forEach((uuid, wanted) -> {
+                    final int remaining = remainingByStockUuid.get(uuid);
+                    if(remaining < wanted) {
+                        throw new StockTooLowException(uuid, remaining, wanted);
+                    }
+                });
+            } catch (WarehouseNotFoundException | StockNotFoundException | SameWarehouseException | StockTooLowException e) {
+                log.info("Rejecting shipment {} of the batch: {}", entry.getIndex(), e.getMessage());
+                entry.setRejection(e);
+                continue;
+            }
+
+            entryWantedByStockUuid.forEach((uuid, wanted) -> {
+                remainingByStockUuid.merge(uuid, -wanted, Integer::sum);
+                wantedByStockUuid.merge(uuid, wanted, Integer::sum);
+            });
+            toCreate.add(entry);
+        }
+        log.info("{} shipments of the batch are valid, {} rejected", toCreate.size(), size - toCreate.size());
+
+        if(toCreate.isEmpty()) {
+            return entries;
+        }
+
+        log.info("Reserving stock quantities of the whole batch");
+        // Only fails when a stock went down since it was read, the whole batch is then rolled back
+        reserveStocks(wantedByStockUuid);
+
+        final List<Shipment> shipments = new ArrayList<>(toCreate.size());
+        final ZonedDateTime createdAt = ZonedDateTime.now();
+        for (ShipmentBatchEntry entry : toCreate) {
+            final Shipment shipment = shipmentMapper.toEntity(shipmentStatusLessUuidLessDTOs.get(entry.getIndex()));
+            shipment.setCreatedAt(createdAt);
+            shipments.add(shipment);
+        }
+
+        final List<Shipment> saved = shipmentRepo.saveAll(shipments);
+        entityManager.flush();
+        entityManager.clear();
+        log.info("Inserted {} shipments", saved.size());
+
+        final Map<UUID, Shipment> loadedByUuid = new HashMap<>(saved.size());
+        shipmentRepo.findAllByUuidInEagerLoad(saved.stream().map(Shipment::getUuid).collect(Collectors.toList()))
+                .forEach(shipment -> loadedByUuid.put(shipment.getUuid(), shipment));
+
+        final List<Shipment> created = new ArrayList<>(saved.size());
+        for (int i = 0; i < toCreate.size(); i++) {
+            final Shipment shipment = loadedByUuid.get(saved.get(i).getUuid());
+            toCreate.get(i).setShipment(shipment);
+            created.add(shipment);
+        }
+
+        log.info("Publishing batch created event");
+        applicationEventPublisher.publishEvent(new ShipmentBatchCreateEvent(this, created));
+
+        final Map<UUID, Stock> affectedByUuid = new LinkedHashMap<>();
+        created.forEach(shipment -> shipment.getTransfers()
+                .forEach(transfer -> affectedByUuid.put(transfer.getStock().getUuid(), transfer.getStock())));
+        stockStreamService.publish(affectedByUuid.values());
+
+        return entries;
+    }
+
+    private void verifyStockExistenceAndWarehouse(
             Set<UUID> dtoStockUuids,
             HashMap<UUID, Stock> stockByUuid,
             UUID to
@@ -101,17 +252,6 @@ public class ShipmentServiceImpl implements ShipmentService {
                 throw new StockNotFoundException(uuid);
             }
 
-            final int given = stock.getQuantity();
-            final int wanted = dtoTransfersByStockUuid.get(uuid).getQuantity();
-            if(given < wanted) {
-                log.info("Stock {} has {} items, but {} was requested", stock.getUuid(), given, wanted);
-                throw new StockTooLowException(stock.getUuid(), given, wanted);
-            }
-
-            final int newQuantity = given - wanted;
-            log.info("Updating Stock {} quantity from {} to {}", stock.getUuid(), given, newQuantity);
-            stock.setQuantity(newQuantity);
-
             if(stock.getWarehouse().getUuid().equals(to)) {
                 log.info("Impossible to ship from warehouse to itself for stock {}", stock.getUuid());
                 throw new SameWarehouseException(stock, to);
@@ -119,6 +259,28 @@ public class ShipmentServiceImpl implements ShipmentService {
         }
     }
 
+    private void reserveStocks(HashMap<UUID, TransferUuidLessDTO> dtoTransfersByStockUuid) {
+        final HashMap<UUID, Integer> wantedByStockUuid = new HashMap<>(dtoTransfersByStockUuid.size());
+        dtoTransfersByStockUuid.forEach((uuid, transfer) -> wantedByStockUuid.put(uuid, transfer.getQuantity()));
+
+        reserveStocks(wantedByStockUuid);
+    }
+
+    private void reserveStocks(Map<UUID, Integer> wantedByStockUuid) {
+        final Set<UUID> notReserved = stockService.reserve(wantedByStockUuid);
+        if(notReserved.isEmpty()) {
+            return;
+        }
+
+        // Rolling back the transaction undoes the reservations that did go through
+        final UUID uuid = notReserved.iterator().next();
+        // The stock read before reserving may have been drawn from since, the error reports what is left now
+        final int given = stockService.findQuantityByUuid(uuid).orElse(0);
+        final int wanted = wantedByStockUuid.get(uuid);
+        log.info("Stock {} has {} items, but {} was requested", uuid, given, wanted);
+        throw new StockTooLowException(uuid, given, wanted);
+    }
+
     private void verifyWarehouseExistence(ShipmentStatusLessUuidLessDTO shipmentStatusLessUUIDLessDTO) {
         final UUID to = shipmentStatusLessUUIDLessDTO.getTo();
         log.info("Checking for existence of target warehouse {}", to);
@@ -127,15 +289,17 @@ public class ShipmentServiceImpl implements ShipmentService {
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Shipment> findAll(PageRequest pageRequest) {
         log.info("Finding all shipments for page {}", pageRequest);
-        final Page<Shipment> all = shipmentRepo.findAll(pageRequest);
+        final Page<Shipment> all = shipmentRepo.findAllEagerLoad(pageRequest);
         log.info("Found {} shipments for page {}", all.getTotalElements(), pageRequest);
 
         return all;
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Shipment> findAllByUserUuid(UUID userUuid, PageRequest pageRequest) {
         log.info("Finding all shipments for user {} for page {}", userUuid, pageRequest);
         final Page<Shipment> all = shipmentRepo.findAllByCreatedBy(userUuid, pageRequest);
@@ -145,6 +309,7 @@ public class ShipmentServiceImpl implements ShipmentService {
     }
 
     @Override
+    @Transactional
     public Shipment update(UUID uuid, JsonPatch jsonPatch) {
         log.info("Applying patch {} to shipment {}", jsonPatch, uuid);
         final Shipment shipment = shipmentRepo.findById(uuid)
@@ -181,6 +346,7 @@ public class ShipmentServiceImpl implements ShipmentService {
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Shipment> findAllAccepted(PageRequest pageRequest) {
         log.info("Finding all accepted shipments for page {}", pageRequest);
         final Page<Shipment> all = shipmentRepo.findAllByStatus(ShipmentStatus.ACCEPTED, pageRequest);
@@ -190,6 +356,7 @@ public class ShipmentServiceImpl implements ShipmentService {
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Shipment> findAllFullyConfirmed(final PageRequest pageRequest) {
         log.info("Finding all fully confirmed shipments for page {}", pageRequest);
         final Page<Shipment> all = shipmentRepo.findAllFullyConfirmed(pageRequest);
@@ -199,6 +366,7 @@ public class ShipmentServiceImpl implements ShipmentService {
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Shipment> findAllFullyConfirmed(final ZonedDateTime from,
                                                 final ZonedDateTime to,
                                                 final PageRequest pageRequest
@@ -209,4 +377,43 @@ public class ShipmentServiceImpl implements ShipmentService {
 
         return all;
     }
+
+    @Override
+    @ReadOnlyTransactional
+    public Slice<Shipment> findAllAfter(Optional<Pair<ZonedDateTime, UUID>> after, int size) {
+        log.info("Finding {} shipments after {}", size, after);
+        final PageRequest pageRequest = PageRequest.of(0, size);
+        final Slice<UUID> uuids = after
+                .map(key -> shipmentRepo.findUuidsAfter(key.getValue0(), key.getValue1(), pageRequest))
+                .orElseGet(() -> shipmentRepo.findFirstUuids(pageRequest));
+        log.info("Found {} shipments after {}", uuids.getNumberOfElements(), after);
+
+        return shipmentRepo.eagerLoad(uuids);
+    }
+
+    @Override
+    @ReadOnlyTransactional
+    public Slice<Shipment> findAllByUserUuidAfter(UUID userUuid, Optional<Pair<ZonedDateTime, UUID>> after, int size) {
+        log.info("Finding {} shipments for user {} after {}", size, userUuid, after);
+        final PageRequest pageRequest = PageRequest.of(0, size);
+        final Slice<UUID> uuids = after
+                .map(key -> shipmentRepo.findUuidsByCreatedByAfter(userUuid, key.getValue0(), key.getValue1(), pageRequest))
+                .orElseGet(() -> shipmentRepo.findFirstUuidsByCreatedBy(userUuid, pageRequest));
+        log.info("Found {} shipments for user {} after {}", uuids.getNumberOfElements(), userUuid, after);
+
+        return shipmentRepo.eagerLoad(uuids);
+    }
+
+    @Override
+    @ReadOnlyTransactional
+    public Slice<Shipment> findAllAcceptedAfter(Optional<Pair<ZonedDateTime, UUID>> after, int size) {
+        log.info("Finding {} accepted shipments after {}", size, after);
+        final PageRequest pageRequest = PageRequest.of(0, size);
+        final Slice<UUID> uuids = after
+                .map(key -> shipmentRepo.findUuidsByStatusAfter(ShipmentStatus.ACCEPTED, key.getValue0(), key.getValue1(), pageRequest))
+                .orElseGet(() -> shipmentRepo.findFirstUuidsByStatus(ShipmentStatus.ACCEPTED, pageRequest));
+        log.info("Found {} accepted shipments after {}", uuids.getNumberOfElements(), after);
+
+        return shipmentRepo.eagerLoad(uuids);
+    }
 }
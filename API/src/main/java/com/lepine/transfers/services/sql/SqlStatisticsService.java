@@ -0,0 +1,22 @@
+package com.lepine.transfers.services.sql;
+
+import com.lepine.transfers.data.sql.EndpointSqlStats;
+import com.lepine.transfers.data.sql.SqlStatistics;
+
+import java.util.Map;
+
+public interface SqlStatisticsService {
+
+    /**
+     * Adds the statements of one request to the totals of its endpoint
+     * @param endpoint Method and path pattern of the handler, like "GET /shipments/{uuid}"
+     * @param statistics Statements run by the request and the time spent in them
+     */
+    void record(String endpoint, SqlStatistics statistics);
+
+    /**
+     * Statement counts and times of every endpoint called since startup, keyed by endpoint
+     * @return Totals and maximums of each endpoint
+     */
+    Map<String, EndpointSqlStats> getEndpointStats();
+}
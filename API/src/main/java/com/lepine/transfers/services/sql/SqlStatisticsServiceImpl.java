@@ -0,0 +1,68 @@
+package com.lepine.transfers.services.sql;
+
+import com.lepine.transfers.config.SqlStatisticsConfig;
+import com.lepine.transfers.data.sql.EndpointSqlStats;
+import com.lepine.transfers.data.sql.SqlStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SqlStatisticsServiceImpl implements SqlStatisticsService {
+
+    private final SqlStatisticsConfig sqlStatisticsConfig;
+
+    private final ConcurrentMap<String, Totals> totalsByEndpoint = new ConcurrentHashMap<>();
+
+    private static class Totals {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        final LongAdder nanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder overWarnThreshold = new LongAdder();
+    }
+
+    @Override
+    public void record(String endpoint, SqlStatistics statistics) {
+        final Totals totals = totalsByEndpoint.computeIfAbsent(endpoint, e -> new Totals());
+        totals.requests.increment();
+        totals.statements.add(statistics.getStatements());
+        totals.maxStatements.accumulate(statistics.getStatements());
+        totals.nanos.add(statistics.getNanos());
+        totals.maxNanos.accumulate(statistics.getNanos());
+
+        if(statistics.getStatements() > sqlStatisticsConfig.getWarnThreshold()) {
+            totals.overWarnThreshold.increment();
+            log.warn("{} ran {} SQL statements in {} ms, over the threshold of {}",
+                    endpoint, statistics.getStatements(), String.format("%.1f", statistics.getMillis()),
+                    sqlStatisticsConfig.getWarnThreshold());
+        }
+    }
+
+    @Override
+    public Map<String, EndpointSqlStats> getEndpointStats() {
+        log.info("Collecting SQL statistics of {} endpoints", totalsByEndpoint.size());
+
+        final Map<String, EndpointSqlStats> endpointStats = new TreeMap<>();
+        totalsByEndpoint.forEach((endpoint, totals) -> endpointStats.put(endpoint, EndpointSqlStats.builder()
+                .requests(totals.requests.sum())
+                .statements(totals.statements.sum())
+                .maxStatements(totals.maxStatements.get())
+                .millis(totals.nanos.sum() / 1e6)
+                .maxMillis(totals.maxNanos.get() / 1e6)
+                .overWarnThreshold(totals.overWarnThreshold.sum())
+                .build()));
+
+        return endpointStats;
+    }
+}
@@ -0,0 +1,104 @@
+package com.lepine.transfers.services.stock;
+
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.events.InPublishingTransaction;
+import com.lepine.transfers.events.item.ItemDeleteEvent;
+import com.lepine.transfers.events.item.ItemDeleteHandler;
+import com.lepine.transfers.events.item.ItemUpdateEvent;
+import com.lepine.transfers.events.item.ItemUpdateHandler;
+import com.lepine.transfers.events.shipment.ShipmentBatchCreateEvent;
+import com.lepine.transfers.events.shipment.ShipmentCreateEvent;
+import com.lepine.transfers.events.shipment.ShipmentCreateHandler;
+import com.lepine.transfers.events.stock.StockBatchReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveHandler;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.services.search.outbox.SearchOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_INDEX;
+
+/**
+ * Queues the stocks touched by an event in the search outbox, with the event. Only the stock uuids are queued,
+ * the stocks are read and mapped when the outbox is dispatched, so the publishing transaction pays for the
+ * outbox inserts alone.
+ */
+@Component
+@InPublishingTransaction
+@RequiredArgsConstructor
+@Slf4j
+public class StockSearchIndexer implements ItemUpdateHandler, ItemDeleteHandler, ShipmentCreateHandler, StockReceiveHandler {
+
+    private final SearchOutboxService searchOutboxService;
+    private final SearchService<StockSearchDTO, UUID> searchService;
+
+    @Override
+    public void onItemUpdate(ItemUpdateEvent event) {
+        log.info("Reacting to item update");
+        searchOutboxService.refreshStocksOfItem(event.getItem().getUuid());
+    }
+
+    @Override
+    public void onItemDelete(ItemDeleteEvent event) {
+        log.info("Reacting to item delete");
+
+        // The stocks are already gone by now, only their ids are left to remove them by
+        final List<StockSearchDTO> asSearchDTOs =
+                event.getStockUuids().stream()
+                                .map(stockUuid -> StockSearchDTO.builder().objectID(stockUuid).build())
+                                .collect(Collectors.toList());
+        log.info("Mapped to search DTOs");
+
+        searchService.deleteAllInBatch(asSearchDTOs);
+    }
+
+    @Override
+    public void onShipmentCreate(ShipmentCreateEvent event) {
+        log.info("Reacting to shipment create");
+        final Set<UUID> affected = event.getShipment()
+                .getTransfers()
+                .stream()
+                .map(transfer -> transfer.getStock().getUuid())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        log.info("Found {} affected stocks", affected.size());
+
+        searchOutboxService.refreshAll(STOCKS_INDEX, affected);
+    }
+
+    @Override
+    public void onShipmentBatchCreate(ShipmentBatchCreateEvent event) {
+        log.info("Reacting to batch of {} shipments created", event.getShipments().size());
+
+        // Shipments of a batch often draw from the same stocks, each is queued once
+        final Set<UUID> affected = event.getShipments()
+                .stream()
+                .flatMap(shipment -> shipment.getTransfers().stream())
+                .map(transfer -> transfer.getStock().getUuid())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        log.info("Found {} affected stocks", affected.size());
+
+        searchOutboxService.refreshAll(STOCKS_INDEX, affected);
+    }
+
+    @Override
+    public void onStockReceive(StockReceiveEvent event) {
+        log.info("Reacting to stock {} received", event.getStockUuid());
+        searchOutboxService.refreshAll(STOCKS_INDEX, List.of(event.getStockUuid()));
+    }
+
+    @Override
+    public void onStockBatchReceive(StockBatchReceiveEvent event) {
+        log.info("Reacting to {} stocks received together", event.getReceipts().size());
+
+        // Receipts only name their stocks by warehouse and item
+        searchOutboxService.refreshStocks(event.getReceipts());
+    }
+}
@@ -1,13 +1,14 @@
 package com.lepine.transfers.services.stock;
 
-import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.data.stock.Stock;
 import com.lepine.transfers.data.stock.StockUuidLessItemLessWarehouseLess;
 import com.lepine.transfers.data.stock.StockUuidLessItemUuidWarehouseUuid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
 import javax.validation.Valid;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -19,10 +20,15 @@ public interface StockService {
 
     Page<Stock> findAll(PageRequest pageRequest);
 
+    Slice<Stock> findAllAfter(Optional<UUID> after, int size);
+
     Stock update(UUID uuid, StockUuidLessItemLessWarehouseLess dto);
-    void updateSearchIndexFor(Item item);
 
     void delete(UUID dto);
 
     Set<Stock> findByUuidIn(Set<UUID> uuids);
+
+    Set<UUID> reserve(Map<UUID, Integer> quantitiesByStockUuid);
+
+    Optional<Integer> findQuantityByUuid(UUID uuid);
 }
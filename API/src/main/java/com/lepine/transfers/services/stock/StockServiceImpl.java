@@ -1,29 +1,30 @@
 package com.lepine.transfers.services.stock;
 
-import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.routing.ReadOnlyTransactional;
 import com.lepine.transfers.data.stock.*;
-import com.lepine.transfers.events.item.ItemDeleteEvent;
-import com.lepine.transfers.events.item.ItemDeleteHandler;
-import com.lepine.transfers.events.item.ItemUpdateEvent;
-import com.lepine.transfers.events.item.ItemUpdateHandler;
-import com.lepine.transfers.events.shipment.ShipmentCreateEvent;
-import com.lepine.transfers.events.shipment.ShipmentCreateHandler;
+import com.lepine.transfers.events.stock.StockBatchReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveHandler;
 import com.lepine.transfers.exceptions.item.ItemNotFoundException;
 import com.lepine.transfers.exceptions.stock.StockAlreadyExistsException;
 import com.lepine.transfers.exceptions.stock.StockNotFoundException;
 import com.lepine.transfers.exceptions.warehouse.WarehouseNotFoundException;
 import com.lepine.transfers.services.item.ItemService;
 import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.services.stock.stream.StockStreamService;
 import com.lepine.transfers.services.warehouse.WarehouseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.transaction.Transactional;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -33,15 +34,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Validated
-public class StockServiceImpl implements StockService, ItemUpdateHandler, ItemDeleteHandler, ShipmentCreateHandler {
+public class StockServiceImpl implements StockService, StockReceiveHandler {
 
     private final StockRepo stockRepo;
     private final StockMapper stockMapper;
     private final SearchService<StockSearchDTO, UUID> searchService;
     private final ItemService itemService;
     private final WarehouseService warehouseService;
+    private final StockStreamService stockStreamService;
 
     @Override
+    @Transactional
     public Stock create(StockUuidLessItemUuidWarehouseUuid dto) {
         log.info("Create stock {}", dto);
 
@@ -71,6 +74,7 @@ public class StockServiceImpl implements StockService, ItemUpdateHandler, ItemDe
         log.info("Mapped to search DTO {}", searchDTO);
         searchService.index(searchDTO);
         log.info("Stock indexed {}", stock);
+        stockStreamService.publish(List.of(stock));
 
         return stock;
     }
@@ -82,6 +86,7 @@ public class StockServiceImpl implements StockService, ItemUpdateHandler, ItemDe
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Stock> findAll(PageRequest pageRequest) {
         log.info("Retrieving for all stocks");
         final Page<Stock> all = stockRepo.findAll(pageRequest);
@@ -91,6 +96,20 @@ public class StockServiceImpl implements StockService, ItemUpdateHandler, ItemDe
     }
 
     @Override
+    @ReadOnlyTransactional
+    public Slice<Stock> findAllAfter(Optional<UUID> after, int size) {
+        log.info("Retrieving {} stocks after {}", size, after);
+        final PageRequest pageRequest = PageRequest.of(0, size);
+        final Slice<Stock> all = after
+                .map(uuid -> stockRepo.findAllByUuidGreaterThanOrderByUuidAsc(uuid, pageRequest))
+                .orElseGet(() -> stockRepo.findAllByOrderByUuidAsc(pageRequest));
+        log.info("Retrieved {} stocks", all.getNumberOfElements());
+
+        return all;
+    }
+
+    @Override
+    @Transactional
     public Stock update(UUID uuid, StockUuidLessItemLessWarehouseLess dto) {
         log.info("Updating stock with UUID {} with update request {}", uuid, dto);
         // NOTE: Might be able to use mapper here but eeeeeeeeeeeeeeeeeeeeeeeeeeeh it's easier like this for now
@@ -106,30 +125,11 @@ public class StockServiceImpl implements StockService, ItemUpdateHandler, ItemDe
         log.info("Mapped to search DTO {}", searchDTO);
         searchService.index(searchDTO);
         log.info("Stock indexed {}", updated);
+        stockStreamService.publish(List.of(updated));
 
         return updated;
     }
 
-    public void onItemUpdate(ItemUpdateEvent event) {
-        log.info("Reacting to item update");
-        updateSearchIndexFor(event.getItem());
-    }
-
-    @Override
-    public void updateSearchIndexFor(Item item) {
-        log.info("Updating search index for item with UUID {}", item.getUuid());
-
-        final List<Stock> affected = stockRepo.findByItemUuid(item.getUuid());
-
-        final List<StockSearchDTO> asSearchDTOs =
-                affected.parallelStream()
-                                .map(stockMapper::toSearchDTO)
-                                .collect(Collectors.toList());
-        log.info("Mapped to search DTOs");
-
-        searchService.partialUpdateAllInBatch(asSearchDTOs);
-    }
-
     @Override
     @Transactional
     public void delete(UUID dto) {
@@ -148,35 +148,57 @@ public class StockServiceImpl implements StockService, ItemUpdateHandler, ItemDe
     }
 
     @Override
-    public void onItemDelete(ItemDeleteEvent event) {
-        log.info("Reacting to item delete");
-        deleteSearchIndexFor(event.getUuid());
-    }
-
-    private void deleteSearchIndexFor(UUID uuid) {
-        log.info("Deleting search index for item with UUID {}", uuid);
+    public Set<UUID> reserve(Map<UUID, Integer> quantitiesByStockUuid) {
+        log.info("Reserving quantities for stocks {}", quantitiesByStockUuid.keySet());
+        final Set<UUID> notReserved = stockRepo.reserveAll(quantitiesByStockUuid);
+        log.info("Could not reserve {} stocks", notReserved.size());
 
-        final List<Stock> affected = stockRepo.findByItemUuid(uuid);
+        return notReserved;
+    }
 
-        final List<StockSearchDTO> asSearchDTOs =
-                affected.parallelStream()
-                                .map(stockMapper::toSearchDTO)
-                                .collect(Collectors.toList());
-        log.info("Mapped to search DTOs");
+    @Override
+    public Optional<Integer> findQuantityByUuid(UUID uuid) {
+        log.info("Reading current quantity of stock {}", uuid);
+        return stockRepo.findQuantityByUuid(uuid);
+    }
 
-        searchService.deleteAllInBatch(asSearchDTOs);
+    @Override
+    public void onStockReceive(StockReceiveEvent event) {
+        log.info("Reacting to stock {} received", event.getStockUuid());
+
+        // The search index entry was queued with the receipt, by the StockSearchIndexer
+        stockStreamService.publishChanges(List.of(StockChange.builder()
+                .stockUuid(event.getStockUuid())
+                .warehouseUuid(event.getWarehouseUuid())
+                .itemUuid(event.getItemUuid())
+                .quantity(event.getQuantity())
+                .build()));
+        log.info("Stock streamed");
     }
 
     @Override
-    public void onShipmentCreate(ShipmentCreateEvent event) {
-        log.info("Reacting to shipment create");
-        final List<StockSearchDTO> affected = event.getShipment()
-                .getTransfers()
-                .parallelStream()
-                .map(transfer -> stockMapper.toSearchDTO(transfer.getStock()))
+    public void onStockBatchReceive(StockBatchReceiveEvent event) {
+        log.info("Reacting to {} stocks received together", event.getReceipts().size());
+
+        // Stocks are looked up by warehouse and item, then narrowed down to the exact pairs received
+        final Set<String> pairs = new HashSet<>();
+        final Set<UUID> warehouseUuids = new HashSet<>();
+        final Set<UUID> itemUuids = new HashSet<>();
+        event.getReceipts().forEach(receipt -> {
+            pairs.add(receipt.getWarehouseUuid() + ":" + receipt.getItemUuid());
+            warehouseUuids.add(receipt.getWarehouseUuid());
+            itemUuids.add(receipt.getItemUuid());
+        });
+
+        final List<Stock> received = stockRepo.findAllByWarehouseUuidInAndItemUuidIn(warehouseUuids, itemUuids).stream()
+                .filter(stock -> pairs.contains(stock.getWarehouse().getUuid() + ":" + stock.getItem().getUuid()))
                 .collect(Collectors.toList());
-        log.info("Found {} affected stocks", affected.size());
+        log.info("Found {} received stocks", received.size());
+        if(received.isEmpty()) {
+            return;
+        }
 
-        searchService.partialUpdateAllInBatch(affected);
+        stockStreamService.publish(received);
+        log.info("Stocks streamed");
     }
 }
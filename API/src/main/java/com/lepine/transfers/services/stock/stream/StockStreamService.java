@@ -0,0 +1,28 @@
+package com.lepine.transfers.services.stock.stream;
+
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.stock.StockChange;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StockStreamService {
+
+    /**
+     * Pushes the current quantities of the given stocks, once the surrounding transaction, if any, commits
+     */
+    void publish(Collection<Stock> stocks);
+
+    /**
+     * Pushes changes like {@link #publish}, for callers that already have the quantities without the stocks
+     */
+    void publishChanges(Collection<StockChange> changes);
+
+    /**
+     * Opens a stream of stock changes, optionally limited to one warehouse, starting right after the given version
+     * when it is still buffered
+     */
+    SseEmitter subscribe(Optional<UUID> warehouseUuid, Optional<Long> lastEventId);
+}
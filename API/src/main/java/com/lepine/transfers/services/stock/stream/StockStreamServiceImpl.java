@@ -0,0 +1,188 @@
+package com.lepine.transfers.services.stock.stream;
+
+import com.lepine.transfers.config.StockStreamConfig;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.stock.StockChange;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Fans committed stock changes out to open SSE streams. A single thread owns the ring buffer of recent changes
+ * and the list of streams, so a reconnecting client is replayed the changes it missed and then added to the
+ * streams without any change slipping in between. Versions start from the boot time so that ids handed out before
+ * a restart are recognized as too old rather than mistaken for new ones.
+ */
+@Service
+@Slf4j
+public class StockStreamServiceImpl implements StockStreamService, Closeable {
+
+    private final static String
+            CHANGE_EVENT = "stock",
+            RESET_EVENT = "reset";
+
+    private final StockStreamConfig stockStreamConfig;
+    private final ScheduledExecutorService executor;
+    private final StockChange[] buffer;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final long firstVersion = System.currentTimeMillis() * 1000;
+
+    // Only touched on the executor's thread
+    private long lastVersion = firstVersion - 1;
+
+    public StockStreamServiceImpl(StockStreamConfig stockStreamConfig) {
+        this.stockStreamConfig = stockStreamConfig;
+        this.buffer = new StockChange[stockStreamConfig.getBufferSize()];
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("stock-stream-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        final long heartbeat = stockStreamConfig.getHeartbeat().toMillis();
+        this.executor.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(Collection<Stock> stocks) {
+        // Copied now, the entities may still change before the transaction commits
+        publishChanges(stocks.stream()
+                .map(stock -> StockChange.builder()
+                        .stockUuid(stock.getUuid())
+                        .warehouseUuid(stock.getWarehouse().getUuid())
+                        .itemUuid(stock.getItem().getUuid())
+                        .quantity(stock.getQuantity())
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public void publishChanges(Collection<StockChange> changes) {
+        if(changes.isEmpty()) {
+            return;
+        }
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> append(changes));
+                }
+            });
+        } else {
+            executor.execute(() -> append(changes));
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(Optional<UUID> warehouseUuid, Optional<Long> lastEventId) {
+        final SseEmitter emitter = new SseEmitter(stockStreamConfig.getTimeout().toMillis());
+        final Subscriber subscriber = new Subscriber(emitter, warehouseUuid);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        executor.execute(() -> {
+            lastEventId.ifPresent(lastId -> replay(subscriber, lastId));
+            subscribers.add(subscriber);
+            log.info("Stock stream opened, {} open", subscribers.size());
+        });
+
+        return emitter;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.getEmitter().complete());
+        subscribers.clear();
+    }
+
+    private void append(Collection<StockChange> changes) {
+        for(StockChange change : changes) {
+            final StockChange versioned = change.toBuilder()
+                    .version(++lastVersion)
+                    .build();
+            buffer[Math.floorMod(versioned.getVersion(), buffer.length)] = versioned;
+
+            for(Subscriber subscriber : subscribers) {
+                if(subscriber.wants(versioned)) {
+                    send(subscriber, SseEmitter.event()
+                            .id(String.valueOf(versioned.getVersion()))
+                            .name(CHANGE_EVENT)
+                            .data(versioned, MediaType.APPLICATION_JSON));
+                }
+            }
+        }
+    }
+
+    private void replay(Subscriber subscriber, long lastId) {
+        final long oldest = Math.max(firstVersion, lastVersion - buffer.length + 1);
+        if(lastId + 1 < oldest || lastId > lastVersion) {
+            // Changes were missed for good, the client has to reload the stocks before following the stream
+            log.info("Stock stream resumed from {} which is no longer buffered", lastId);
+            send(subscriber, SseEmitter.event()
+                    .id(String.valueOf(lastVersion))
+                    .name(RESET_EVENT)
+                    .data(lastVersion));
+            return;
+        }
+
+        log.info("Replaying stock changes {} to {}", lastId + 1, lastVersion);
+        for(long version = lastId + 1; version <= lastVersion; version++) {
+            final StockChange change = buffer[Math.floorMod(version, buffer.length)];
+            if(subscriber.wants(change)) {
+                send(subscriber, SseEmitter.event()
+                        .id(String.valueOf(version))
+                        .name(CHANGE_EVENT)
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for(Subscriber subscriber : subscribers) {
+            send(subscriber, SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.getEmitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.info("Stock stream closed by client");
+            subscribers.remove(subscriber);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Subscriber {
+        @Getter
+        private final SseEmitter emitter;
+        private final Optional<UUID> warehouseUuid;
+
+        boolean wants(StockChange change) {
+            return warehouseUuid.map(uuid -> uuid.equals(change.getWarehouseUuid())).orElse(true);
+        }
+    }
+}
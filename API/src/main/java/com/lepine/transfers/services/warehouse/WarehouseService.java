@@ -7,8 +7,11 @@ import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
 import javax.validation.Valid;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,5 +28,9 @@ public interface WarehouseService {
 
     Page<Warehouse> findAll(Example<Warehouse> example, PageRequest pageRequest);
 
+    Slice<Warehouse> findAllAfter(Optional<Boolean> active, Optional<UUID> after, int size);
+
     Optional<Warehouse> findByUuid(UUID uuid);
+
+    List<Warehouse> findAllByUuidIn(Collection<UUID> uuids);
 }
@@ -1,5 +1,6 @@
 package com.lepine.transfers.services.warehouse;
 
+import com.lepine.transfers.data.routing.ReadOnlyTransactional;
 import com.lepine.transfers.data.warehouse.*;
 import com.lepine.transfers.exceptions.warehouse.DuplicateZipCodeException;
 import com.lepine.transfers.exceptions.warehouse.WarehouseNotFoundException;
@@ -8,10 +9,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -72,26 +76,56 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Warehouse> findAll() {
         return findAll(PageRequest.of(0, 10));
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Warehouse> findAll(PageRequest pageRequest) {
         log.info("Finding all warehouses for page {} and size {}", pageRequest.getPageNumber(), pageRequest.getPageSize());
         return warehouseRepo.findAll(pageRequest);
     }
 
     @Override
+    @ReadOnlyTransactional
     public Page<Warehouse> findAll(Example<Warehouse> example, PageRequest pageRequest) {
         log.info("Finding all warehouses for page {} and size {}",
                 pageRequest.getPageNumber(), pageRequest.getPageSize());
         return warehouseRepo.findAll(example, pageRequest);
     }
 
+    @Override
+    @ReadOnlyTransactional
+    public Slice<Warehouse> findAllAfter(Optional<Boolean> active, Optional<UUID> after, int size) {
+        log.info("Finding {} warehouses after {} with active filter {}", size, after, active);
+        final PageRequest pageRequest = PageRequest.of(0, size);
+
+        if(active.isPresent()) {
+            final boolean isActive = active.get();
+            return after
+                    .map(uuid -> warehouseRepo.findAllByActiveAndUuidGreaterThanOrderByUuidAsc(isActive, uuid, pageRequest))
+                    .orElseGet(() -> warehouseRepo.findAllByActiveOrderByUuidAsc(isActive, pageRequest));
+        }
+
+        return after
+                .map(uuid -> warehouseRepo.findAllByUuidGreaterThanOrderByUuidAsc(uuid, pageRequest))
+                .orElseGet(() -> warehouseRepo.findAllByOrderByUuidAsc(pageRequest));
+    }
+
     @Override
     public Optional<Warehouse> findByUuid(UUID uuid) {
         log.info("Finding warehouse with uuid {}", uuid);
         return warehouseRepo.findByUuid(uuid);
     }
+
+    @Override
+    public List<Warehouse> findAllByUuidIn(Collection<UUID> uuids) {
+        log.info("Finding {} warehouses by uuid", uuids.size());
+        final List<Warehouse> warehouses = warehouseRepo.findAllById(uuids);
+        log.info("Found {} warehouses", warehouses.size());
+
+        return warehouses;
+    }
 }
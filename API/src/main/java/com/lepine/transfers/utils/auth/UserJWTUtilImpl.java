@@ -1,31 +1,55 @@
 package com.lepine.transfers.utils.auth;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.lepine.transfers.config.JWTConfig;
+import com.lepine.transfers.data.auth.Role;
 import com.lepine.transfers.data.user.User;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Verified tokens are cached by their SHA-256 digest until their expiration, so that a token seen before only
+ * costs a hash and a lookup instead of a signature check and a claims mapping.
+ */
 @Component
 public class UserJWTUtilImpl implements JWTUtil<User> {
 
+    private final static String ROLE_PREFIX = "ROLE_";
+
     private final Key key;
-    private final ObjectMapper objectMapper;
+    private final JwtParser parser;
     private final JWTConfig jwtConfig;
 
-    public UserJWTUtilImpl(JWTConfig jwtConfig, ObjectMapper objectMapper) {
+    private final Cache<ByteBuffer, CachedUser> cache;
+
+    public UserJWTUtilImpl(JWTConfig jwtConfig) {
         this.jwtConfig = jwtConfig;
         this.key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
-        this.objectMapper = objectMapper;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getCacheSize())
+                .expireAfter(new UntilTokenExpiration())
+                .build();
     }
 
     @Override
@@ -45,21 +69,89 @@ public class UserJWTUtilImpl implements JWTUtil<User> {
 
     @Override
     public User decode(String token) {
+        if(jwtConfig.getCacheSize() == 0) {
+            return toUser(parser.parseClaimsJws(token).getBody());
+        }
 
-        final Jws<Claims> claimsJws = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+        final ByteBuffer digest = digestOf(token);
+        final CachedUser cached = cache.getIfPresent(digest);
+        if(cached != null && cached.getExpiresAt() > System.currentTimeMillis()) {
+            return copyOf(cached.getUser());
+        }
 
-        final Claims body = claimsJws.getBody();
-        final User mappedUser = objectMapper.convertValue(body, User.class);
+        // Expired tokens end up here too, for the parser to reject them
+        final Claims body = parser.parseClaimsJws(token).getBody();
+        final User user = toUser(body);
+        if(body.getExpiration() != null) {
+            cache.put(digest, new CachedUser(copyOf(user), body.getExpiration().getTime()));
+        }
+
+        return user;
+    }
 
-        if(mappedUser.getRole().getName().startsWith("ROLE_")) {
-            mappedUser.getRole().setName(mappedUser.getRole().getName().substring(5));
+    private static User toUser(Claims body) {
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> role = body.get("role", Map.class);
+        final Object roleUuid = role.get("uuid");
+        String roleName = (String) role.get("name");
+        if(roleName.startsWith(ROLE_PREFIX)) {
+            roleName = roleName.substring(ROLE_PREFIX.length());
         }
 
-        return mappedUser.toBuilder()
+        return User.builder()
+                .uuid(UUID.fromString(body.get("uuid", String.class)))
                 .email(body.getSubject())
+                .role(Role.builder()
+                        .uuid(roleUuid == null ? null : UUID.fromString(roleUuid.toString()))
+                        .name(roleName)
+                        .build())
                 .build();
     }
+
+    // Principals are mutable entities, each request gets its own so that none can change the cached one
+    private static User copyOf(User user) {
+        return user.toBuilder()
+                .role(user.getRole().toBuilder().build())
+                .build();
+    }
+
+    private static ByteBuffer digestOf(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedUser {
+        private final User user;
+        private final long expiresAt;
+    }
+
+    /**
+     * Evicts each token when it expires, whether or not it was read since
+     */
+    private static class UntilTokenExpiration implements Expiry<ByteBuffer, CachedUser> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer digest, CachedUser cachedUser, long currentTime) {
+            return untilExpiration(cachedUser);
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer digest, CachedUser cachedUser, long currentTime, long currentDuration) {
+            return untilExpiration(cachedUser);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer digest, CachedUser cachedUser, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long untilExpiration(CachedUser cachedUser) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, cachedUser.getExpiresAt() - System.currentTimeMillis()));
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.lepine.transfers.utils.i18n;
+
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntryResult;
+import com.lepine.transfers.exceptions.I18nAble;
+import org.springframework.context.MessageSource;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+public class RejectionUtils {
+
+    /**
+     * Messages explaining why an entry of a batch was rejected, one per violated constraint when it failed validation
+     */
+    public static List<String> getMessages(RuntimeException rejection, MessageSource messageSource, Locale locale) {
+        if(rejection instanceof ConstraintViolationException) {
+            return ((ConstraintViolationException) rejection).getConstraintViolations().stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        if(rejection instanceof I18nAble) {
+            return List.of(((I18nAble) rejection).getLocalizedMessage(messageSource, locale));
+        }
+
+        return List.of(rejection.getMessage());
+    }
+
+    /**
+     * Results of a batch of confirmations in the order of its entries, with the messages of the rejected ones
+     */
+    public static List<ConfirmationBatchEntryResult> getConfirmationResults(
+            List<ConfirmationBatchEntry> entries, MessageSource messageSource, Locale locale) {
+        return entries.stream()
+                .map(entry -> entry.isConfirmed() ?
+                        ConfirmationBatchEntryResult.builder()
+                                .index(entry.getIndex())
+                                .status(ConfirmationBatchEntryResult.Status.CONFIRMED)
+                                .confirmation(entry.getConfirmation())
+                                .build() :
+                        ConfirmationBatchEntryResult.builder()
+                                .index(entry.getIndex())
+                                .status(ConfirmationBatchEntryResult.Status.REJECTED)
+                                .errors(getMessages(entry.getRejection(), messageSource, locale))
+                                .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,14 @@
+package com.lepine.transfers.utils.id;
+
+import java.util.UUID;
+
+/**
+ * Version 4 identifiers, fully random. Kept for comparison and as a fallback, new keys land anywhere in the index.
+ */
+public class RandomUUIDGenerator implements UUIDGenerator {
+
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,55 @@
+package com.lepine.transfers.utils.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Version 7 identifiers: 48 bits of Unix milliseconds, then a 12 bit sequence, then 62 random bits.
+ * Identifiers from one generator always increase, even within a millisecond or when the clock steps back,
+ * so new keys are appended at the right edge of the primary key index instead of splitting random pages.
+ */
+public class TimeOrderedUUIDGenerator implements UUIDGenerator {
+
+    private final static int SEQUENCE_BITS = 12;
+    private final static long VERSION = 0x7000L;
+    private final static long VARIANT = 0x8000_0000_0000_0000L;
+    private final static long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final LongSupplier clock;
+
+    // Millisecond timestamp followed by the sequence, the upper 60 bits of the next identifier
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public TimeOrderedUUIDGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    public TimeOrderedUUIDGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID generate() {
+        final long now = clock.getAsLong() << SEQUENCE_BITS;
+        // Running out of sequence simply borrows from the next millisecond
+        final long tick = lastTick.accumulateAndGet(now, (last, current) -> Math.max(last + 1, current));
+
+        final long timestamp = tick >>> SEQUENCE_BITS;
+        final long sequence = tick & ((1L << SEQUENCE_BITS) - 1);
+
+        final long mostSignificant = (timestamp << 16) | VERSION | sequence;
+        final long leastSignificant = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * @param uuid A version 7 identifier
+     * @return The Unix millisecond at which the identifier was generated
+     */
+    public static long getTimestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
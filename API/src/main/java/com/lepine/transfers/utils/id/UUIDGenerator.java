@@ -0,0 +1,13 @@
+package com.lepine.transfers.utils.id;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface UUIDGenerator {
+
+    /**
+     * Generates a new identifier, unique across the whole application
+     * @return The new identifier
+     */
+    UUID generate();
+}
@@ -0,0 +1,22 @@
+package com.lepine.transfers.utils.id;
+
+import java.util.UUID;
+
+/**
+ * Single source of identifiers for entities, both for builder defaults and for Hibernate.
+ * Identifiers are time-ordered unless another generator is installed, keys generated before are left as they are.
+ */
+public class UUIDs {
+
+    private static volatile UUIDGenerator generator = new TimeOrderedUUIDGenerator();
+
+    private UUIDs() {}
+
+    public static UUID next() {
+        return generator.generate();
+    }
+
+    public static void use(UUIDGenerator uuidGenerator) {
+        generator = uuidGenerator;
+    }
+}
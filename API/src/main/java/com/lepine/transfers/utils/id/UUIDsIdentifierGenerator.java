@@ -0,0 +1,17 @@
+package com.lepine.transfers.utils.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+
+/**
+ * Lets Hibernate assign identifiers from {@link UUIDs} to entities persisted without one
+ */
+public class UUIDsIdentifierGenerator implements IdentifierGenerator {
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return UUIDs.next();
+    }
+}
@@ -0,0 +1,73 @@
+package com.lepine.transfers.utils.pagination;
+
+import com.lepine.transfers.exceptions.pagination.InvalidCursorException;
+import org.javatuples.Pair;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque cursors for keyset pagination. A cursor is the URL-safe Base64 of the sort key of the last
+ * element of a page, an empty cursor meaning "start from the beginning".
+ */
+public class CursorUtils {
+
+    private final static String SEPARATOR = "\n";
+
+    public static String encode(Object... keys) {
+        final String joined = Arrays.stream(keys)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Optional<String[]> decode(String cursor, int keyCount) {
+        if(cursor == null || cursor.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            final String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final String[] keys = joined.split(SEPARATOR, -1);
+            if(keys.length != keyCount) {
+                throw new InvalidCursorException();
+            }
+
+            return Optional.of(keys);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public static Optional<String> decodeString(String cursor) {
+        return decode(cursor, 1).map(keys -> keys[0]);
+    }
+
+    public static Optional<UUID> decodeUuid(String cursor) {
+        return decode(cursor, 1).map(keys -> parseUuid(keys[0]));
+    }
+
+    public static Optional<Pair<ZonedDateTime, UUID>> decodeZonedDateTimeAndUuid(String cursor) {
+        return decode(cursor, 2).map(keys -> {
+            try {
+                return new Pair<>(ZonedDateTime.parse(keys[0]), parseUuid(keys[1]));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException();
+            }
+        });
+    }
+
+    private static UUID parseUuid(String key) {
+        try {
+            return UUID.fromString(key);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.lepine.transfers.utils.retry;
+
+import java.time.Duration;
+
+/**
+ * Delays between attempts of background work that failed, doubling from an initial delay up to a maximum.
+ */
+public class BackoffUtils {
+
+    /**
+     * @param attempts failed attempts so far, starting at 1
+     * @return the initial backoff doubled for each attempt after the first, capped at the max backoff
+     */
+    public static Duration capped(Duration initialBackoff, Duration maxBackoff, int attempts) {
+        // Compares against max / factor so that a long run of failures cannot overflow the multiplication
+        final long factor = 1L << Math.min(Math.max(attempts - 1, 0), 30);
+        return initialBackoff.compareTo(maxBackoff.dividedBy(factor)) > 0
+                ? maxBackoff
+                : initialBackoff.multipliedBy(factor);
+    }
+}
@@ -0,0 +1,80 @@
+package com.lepine.transfers.utils.sketch;
+
+import java.util.*;
+
+/**
+ * Space-Saving heavy-hitters summary (Metwally et al.) keeping at most {@code capacity} counters.
+ * Counts are upper bounds of the true weights, off by at most the total weight divided by the capacity,
+ * and any key whose weight is above that bound is guaranteed to be tracked. Not thread-safe.
+ */
+public class SpaceSaving<K> {
+
+    private static final class Counter<K> {
+        private final K key;
+        private final long sequence;
+        private long count;
+
+        private Counter(K key, long count, long sequence) {
+            this.key = key;
+            this.count = count;
+            this.sequence = sequence;
+        }
+    }
+
+    private final int capacity;
+    private final Map<K, Counter<K>> counters;
+    // Smallest count first, oldest counter first on ties
+    private final TreeSet<Counter<K>> byCount = new TreeSet<>(Comparator
+            .<Counter<K>>comparingLong(c -> c.count)
+            .thenComparingLong(c -> c.sequence));
+    private long sequence = 0;
+
+    public SpaceSaving(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(K key, long weight) {
+        Counter<K> counter = counters.get(key);
+
+        if(counter == null) {
+            if(counters.size() < capacity) {
+                counter = new Counter<>(key, 0, sequence++);
+            } else {
+                // The new key takes over the smallest counter, inheriting its count as potential error
+                final Counter<K> evicted = byCount.pollFirst();
+                counters.remove(evicted.key);
+                counter = new Counter<>(key, evicted.count, sequence++);
+            }
+            counters.put(key, counter);
+        } else {
+            byCount.remove(counter);
+        }
+
+        counter.count += weight;
+        byCount.add(counter);
+    }
+
+    public void remove(K key) {
+        final Counter<K> counter = counters.remove(key);
+        if(counter != null) {
+            byCount.remove(counter);
+        }
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    /**
+     * Adds the estimated count of every tracked key to {@code into}, so that summaries of several buckets
+     * can be merged.
+     */
+    public void addCountsTo(Map<K, Long> into) {
+        counters.forEach((key, counter) -> into.merge(key, counter.count, Long::sum));
+    }
+}
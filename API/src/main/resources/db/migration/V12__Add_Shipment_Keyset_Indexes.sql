@@ -0,0 +1,3 @@
+CREATE INDEX shipments_expected_date_uuid_idx ON lepine.shipments (expected_date, uuid);
+CREATE INDEX shipments_status_expected_date_uuid_idx ON lepine.shipments (status, expected_date, uuid);
+CREATE INDEX shipments_created_by_expected_date_uuid_idx ON lepine.shipments (created_by, expected_date, uuid);
@@ -0,0 +1,22 @@
+ALTER TABLE lepine.transfers ADD COLUMN confirmed_quantity integer DEFAULT 0 NOT NULL;
+ALTER TABLE lepine.shipments ADD COLUMN fully_confirmed boolean DEFAULT FALSE NOT NULL;
+ALTER TABLE lepine.shipments ADD COLUMN confirmed_at timestamp with time zone;
+
+UPDATE lepine.transfers t
+SET confirmed_quantity = COALESCE(
+        (SELECT SUM(c.quantity) FROM lepine.confirmations c WHERE c.transfer_uuid = t.uuid),
+        0
+    );
+
+UPDATE lepine.shipments s
+SET fully_confirmed = TRUE,
+    confirmed_at = CURRENT_TIMESTAMP
+WHERE EXISTS (SELECT 1 FROM lepine.transfers t WHERE t.shipment_uuid = s.uuid)
+  AND NOT EXISTS (
+        SELECT 1 FROM lepine.transfers t
+        WHERE t.shipment_uuid = s.uuid
+          AND t.confirmed_quantity < t.quantity
+    );
+
+CREATE INDEX transfers_shipment_uuid_idx ON lepine.transfers (shipment_uuid);
+CREATE INDEX shipments_fully_confirmed_expected_date_idx ON lepine.shipments (fully_confirmed, expected_date);
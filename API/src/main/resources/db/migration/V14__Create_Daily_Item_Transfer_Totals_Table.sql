@@ -0,0 +1,13 @@
+CREATE TABLE lepine.daily_item_transfer_totals (
+      "day" date NOT NULL,
+      item_uuid uuid NOT NULL REFERENCES lepine.items(uuid) ON DELETE CASCADE,
+      quantity bigint NOT NULL,
+      PRIMARY KEY ("day", item_uuid)
+);
+
+INSERT INTO lepine.daily_item_transfer_totals ("day", item_uuid, quantity)
+SELECT CAST(s.expected_date AT TIME ZONE 'UTC' AS date), st.item_uuid, SUM(t.quantity)
+FROM lepine.transfers t
+JOIN lepine.shipments s ON t.shipment_uuid = s.uuid
+JOIN lepine.stocks st ON t.stock_uuid = st.uuid
+GROUP BY CAST(s.expected_date AT TIME ZONE 'UTC' AS date), st.item_uuid;
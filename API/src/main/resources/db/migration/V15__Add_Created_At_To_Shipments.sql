@@ -0,0 +1,8 @@
+ALTER TABLE lepine.shipments ADD COLUMN created_at timestamp with time zone;
+
+-- Existing shipments were not stamped, a shipment is created no later than its expected date nor than now
+UPDATE lepine.shipments
+SET created_at = LEAST(expected_date, CURRENT_TIMESTAMP)
+WHERE created_at IS NULL;
+
+CREATE INDEX shipments_created_at_idx ON lepine.shipments (created_at);
@@ -0,0 +1,9 @@
+CREATE TABLE lepine.search_outbox (
+      id bigserial PRIMARY KEY,
+      index_name VARCHAR(63) NOT NULL,
+      object_id VARCHAR(63) NOT NULL,
+      operation VARCHAR(31) NOT NULL,
+      payload text NOT NULL,
+      created_at timestamp with time zone NOT NULL,
+      attempts integer DEFAULT 0 NOT NULL
+);
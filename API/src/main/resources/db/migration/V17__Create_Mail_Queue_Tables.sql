@@ -0,0 +1,22 @@
+CREATE TABLE lepine.mail_queue (
+      id bigserial PRIMARY KEY,
+      recipient VARCHAR(255) NOT NULL,
+      subject VARCHAR(255) NOT NULL,
+      content text NOT NULL,
+      created_at timestamp with time zone NOT NULL,
+      attempts integer DEFAULT 0 NOT NULL,
+      next_attempt_at timestamp with time zone NOT NULL
+);
+
+CREATE INDEX mail_queue_next_attempt_at_id_idx ON lepine.mail_queue (next_attempt_at, id);
+
+CREATE TABLE lepine.mail_dead_letters (
+      id bigserial PRIMARY KEY,
+      recipient VARCHAR(255) NOT NULL,
+      subject VARCHAR(255) NOT NULL,
+      content text NOT NULL,
+      created_at timestamp with time zone NOT NULL,
+      attempts integer NOT NULL,
+      last_error text,
+      failed_at timestamp with time zone NOT NULL
+);
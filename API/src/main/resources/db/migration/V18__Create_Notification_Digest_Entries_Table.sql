@@ -0,0 +1,10 @@
+CREATE TABLE lepine.notification_digest_entries (
+      id bigserial PRIMARY KEY,
+      user_uuid uuid NOT NULL,
+      recipient VARCHAR(255) NOT NULL,
+      shipment_uuid uuid NOT NULL,
+      status VARCHAR(31) NOT NULL,
+      created_at timestamp with time zone NOT NULL
+);
+
+CREATE INDEX notification_digest_entries_user_uuid_idx ON lepine.notification_digest_entries (user_uuid);
@@ -0,0 +1,100 @@
+package com.lepine.transfers.benchmark;
+
+import com.lepine.transfers.utils.id.RandomUUIDGenerator;
+import com.lepine.transfers.utils.id.TimeOrderedUUIDGenerator;
+import com.lepine.transfers.utils.id.UUIDGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts the same shipment-shaped rows keyed by random and by time-ordered identifiers, and reports throughput
+ * and primary key index size for each. Not part of the regular test run, use {@code ./gradlew benchmark}, with
+ * {@code -Dbenchmark.rows=...} for the table size and the {@code SPRING_DATASOURCE_*} variables to point it at Postgres.
+ */
+@JdbcTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+public class UUIDInsertBenchmark {
+
+    private final static Logger log = LoggerFactory.getLogger(UUIDInsertBenchmark.class);
+
+    private final static String TABLE = "lepine.uuid_insert_benchmark";
+    private final static int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private final static int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+    }
+
+    @Test
+    void randomKeys() {
+        run("random (v4)", new RandomUUIDGenerator());
+    }
+
+    @Test
+    void timeOrderedKeys() {
+        run("time-ordered (v7)", new TimeOrderedUUIDGenerator());
+    }
+
+    private void run(String name, UUIDGenerator generator) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (" +
+                "uuid uuid PRIMARY KEY, " +
+                "status varchar(255) NOT NULL, " +
+                "expected_date timestamp with time zone NOT NULL, " +
+                "order_number varchar(255) NOT NULL, " +
+                "created_by uuid NOT NULL)");
+
+        final UUID createdBy = generator.generate();
+        final Timestamp expectedDate = Timestamp.from(Instant.now());
+
+        final long start = System.nanoTime();
+        for (int inserted = 0; inserted < ROWS; inserted += BATCH_SIZE) {
+            final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = inserted; i < Math.min(ROWS, inserted + BATCH_SIZE); i++) {
+                batch.add(new Object[]{ generator.generate(), "PENDING", expectedDate, "ORDER-" + i, createdBy });
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO " + TABLE + " (uuid, status, expected_date, order_number, created_by) VALUES (?, ?, ?, ?, ?)",
+                    batch);
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("{}: inserted {} rows in {} s, {} rows/s, primary key index {}",
+                name, ROWS, String.format("%.2f", seconds), Math.round(ROWS / seconds), primaryKeySize());
+    }
+
+    private String primaryKeySize() {
+        final String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) return "size only reported on PostgreSQL";
+
+        return jdbcTemplate.queryForObject(
+                "SELECT pg_size_pretty(pg_relation_size(i.indexrelid)) " +
+                        "FROM pg_index i WHERE i.indrelid = '" + TABLE + "'::regclass AND i.indisprimary",
+                String.class);
+    }
+}
@@ -6,6 +6,8 @@ import com.lepine.transfers.config.MapperConfig;
 import com.lepine.transfers.config.ValidationConfig;
 import com.lepine.transfers.controllers.confirmation.ConfirmationController;
 import com.lepine.transfers.data.confirmation.Confirmation;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntryResult;
 import com.lepine.transfers.data.confirmation.ConfirmationUuidLessDTO;
 import com.lepine.transfers.data.shipment.ShipmentStatus;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotAcceptedException;
@@ -27,6 +29,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -189,4 +192,48 @@ public class ConfirmationHttpTests {
                 .andExpect(jsonPath("$.status").value(400))
                 .andExpect(jsonPath("$.timestamp").exists());
     }
+
+    @Test
+    @DisplayName("LwDzafRTHS: Given POST on /confirmations/batch as clerk, then return the outcome of each confirmation (200, results)")
+    @WithMockUser(username = "some-clerk", roles = "CLERK")
+    void createAll_AsClerk() throws Exception {
+
+        // Arrange
+        final QuantityExceededException expectedQuantityExceededException =
+                new QuantityExceededException(VALID_QUANTITY, EXCEEDING_QUANTITY);
+        final String givenAsString = objectMapper.writeValueAsString(List.of(
+                VALID_CONFIRMATION_UUID_LESS_DTO,
+                VALID_CONFIRMATION_UUID_LESS_DTO));
+
+        given(confirmationService.confirmAll(anyList())).willReturn(List.of(
+                ConfirmationBatchEntry.builder().index(0).confirmation(VALID_CONFIRMATION).build(),
+                ConfirmationBatchEntry.builder().index(1).rejection(expectedQuantityExceededException).build()));
+
+        // Act & Assert
+        mockMvc.perform(post("/confirmations/batch")
+                        .content(givenAsString).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value(ConfirmationBatchEntryResult.Status.CONFIRMED.name()))
+                .andExpect(jsonPath("$[0].confirmation.uuid").value(VALID_CONFIRMATION_UUID.toString()))
+                .andExpect(jsonPath("$[0].errors").doesNotExist())
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value(ConfirmationBatchEntryResult.Status.REJECTED.name()))
+                .andExpect(jsonPath("$[1].confirmation").doesNotExist())
+                .andExpect(jsonPath("$[1].errors[0]").value(expectedQuantityExceededException.getMessage()));
+    }
+
+    @Test
+    @DisplayName("dnBJMWKABr: Given POST on /confirmations/batch as salesperson, then deny access (403, error)")
+    @WithMockUser(username = "some-salesperson", roles = "SALESPERSON")
+    void createAll_AsSalesperson() throws Exception {
+
+        // Arrange
+        final String givenAsString = objectMapper.writeValueAsString(List.of(VALID_CONFIRMATION_UUID_LESS_DTO));
+
+        // Act & Assert
+        mockMvc.perform(post("/confirmations/batch")
+                        .content(givenAsString).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+    }
 }
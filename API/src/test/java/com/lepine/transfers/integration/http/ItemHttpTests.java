@@ -7,11 +7,13 @@ import com.lepine.transfers.config.ValidationConfig;
 import com.lepine.transfers.controllers.item.ItemController;
 import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.data.item.ItemMapper;
+import com.lepine.transfers.data.item.ItemQuantityTuple;
 import com.lepine.transfers.data.item.ItemUUIDLessDTO;
 import com.lepine.transfers.exceptions.item.DuplicateSkuException;
 import com.lepine.transfers.exceptions.item.ItemNotFoundException;
 import com.lepine.transfers.utils.matchers.ItemMatcher;
 import com.lepine.transfers.services.item.ItemService;
+import com.lepine.transfers.services.item.LiveBestsellerService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatcher;
@@ -28,6 +30,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.Duration;
 import java.util.*;
 
 
@@ -65,6 +68,9 @@ public class ItemHttpTests {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private LiveBestsellerService liveBestsellerService;
+
     @Test
     void contextLoads(){}
 
@@ -551,4 +557,34 @@ public class ItemHttpTests {
         verify(itemService, times(1)).update(any(Item.class));
         verify(itemController, times(1)).update(any(UUID.class), any(ItemUUIDLessDTO.class));
     }
+
+    @Test
+    @DisplayName("yNoEAsjBGl: Given GET on /items/bestseller/live with window and k, returns 200 OK and the live bestsellers")
+    @WithMockUser(username = "test-user")
+    void getLiveBestseller() throws Exception {
+        // Arrange
+        final Item item = Item.builder()
+                .uuid(UUID.randomUUID())
+                .name("Item")
+                .sku("SKU")
+                .description("Description")
+                .build();
+        given(liveBestsellerService.findTop(Duration.ofHours(6), 5))
+                .willReturn(List.of(new ItemQuantityTuple(item, 42L)));
+
+        // Act
+        final ResultActions resultActions = mvc.perform(get("/items/bestseller/live")
+                .param("window", "6h")
+                .param("k", "5"));
+
+        // Assert
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].item.uuid").value(item.getUuid().toString()))
+                .andExpect(jsonPath("$[0].quantity").value(42));
+
+        verify(liveBestsellerService, times(1)).findTop(Duration.ofHours(6), 5);
+    }
 }
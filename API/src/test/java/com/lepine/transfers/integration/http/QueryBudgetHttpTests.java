@@ -0,0 +1,466 @@
+package com.lepine.transfers.integration.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.data.auth.UserLogin;
+import com.lepine.transfers.data.confirmation.ConfirmationUuidLessDTO;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemSearchDTO;
+import com.lepine.transfers.data.item.ItemUUIDLessDTO;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.role.RoleRepo;
+import com.lepine.transfers.data.search.SearchOutboxRepo;
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.shipment.ShipmentRepo;
+import com.lepine.transfers.data.shipment.ShipmentStatus;
+import com.lepine.transfers.data.shipment.ShipmentStatusLessCreatedByLessUuidLessDTO;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.stock.StockRepo;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.data.stock.StockUuidLessItemLessWarehouseLess;
+import com.lepine.transfers.data.stock.StockUuidLessItemUuidWarehouseUuid;
+import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.data.transfer.TransferRepo;
+import com.lepine.transfers.data.transfer.TransferUuidLessDTO;
+import com.lepine.transfers.data.user.User;
+import com.lepine.transfers.data.user.UserRepo;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.data.warehouse.WarehouseActiveLessUUIDLessDTO;
+import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import com.lepine.transfers.data.warehouse.WarehouseUUIDLessDTO;
+import com.lepine.transfers.filters.SqlStatisticsFilter;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.utils.date.ZonedDateUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.lepine.transfers.utils.QueryBudget.atMost;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Every listing returns more rows than its budget, so loading an association row by row goes over it. Writes are
+ * counted with the handlers committing with them, as the bus runs them on the request thread.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test"})
+public class QueryBudgetHttpTests {
+
+    private final static int
+            ITEMS = 5,
+            PAGE_SIZE = 10;
+
+    private final static String
+            PASSWORD = "somePassword",
+            JSON_PATCH = "application/json-patch+json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WarehouseRepo warehouseRepo;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private StockRepo stockRepo;
+
+    @Autowired
+    private ShipmentRepo shipmentRepo;
+
+    @Autowired
+    private TransferRepo transferRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoleRepo roleRepo;
+
+    @Autowired
+    private SearchOutboxRepo searchOutboxRepo;
+
+    @MockBean
+    private SearchService<StockSearchDTO, UUID> stockSearchService;
+
+    @MockBean
+    private SearchService<ItemSearchDTO, UUID> itemSearchService;
+
+    private User manager;
+    private Warehouse warehouse;
+    private Warehouse destination;
+    private Item item;
+    private Stock stock;
+    private List<Stock> stocks;
+    private final List<Shipment> shipments = new ArrayList<>();
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private Shipment accept(Shipment shipment) {
+        final Shipment found = shipmentRepo.findById(shipment.getUuid()).get();
+        found.setStatus(ShipmentStatus.ACCEPTED);
+        shipmentRepo.save(found);
+        return shipment;
+    }
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepo.save(User.builder()
+                .email("budget@manager.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(roleRepo.findByName("MANAGER").get())
+                .build());
+
+        final List<Warehouse> warehouses = warehouseRepo.saveAll(List.of(
+                Warehouse.builder().zipCode("A1A1A1").city("City").province("QC").build(),
+                Warehouse.builder().zipCode("B2B2B2").city("City").province("QC").build()));
+        warehouse = warehouses.get(0);
+        destination = warehouses.get(1);
+
+        final List<Stock> toSave = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            final Item saved = itemRepo.save(Item.builder()
+                    .sku("BUDGET-" + i)
+                    .name("Item " + i)
+                    .description("Item " + i)
+                    .build());
+            for (Warehouse w : warehouses) {
+                toSave.add(Stock.builder().item(saved).warehouse(w).quantity(100).build());
+            }
+            item = saved;
+        }
+        stocks = stockRepo.saveAll(toSave);
+        stock = stocks.get(0);
+
+        shipments.clear();
+        for (int i = 0; i < ITEMS; i++) {
+            shipments.add(shipmentRepo.save(Shipment.builder()
+                    .expectedDate(ZonedDateUtils.businessDaysFromNow(4))
+                    .orderNumber("BUDGET-" + i)
+                    .createdBy(manager.getUuid())
+                    .to(warehouses.get(1).getUuid())
+                    .transfers(List.of(
+                            Transfer.builder().stock(stocks.get(2 * i)).quantity(1).build(),
+                            Transfer.builder().stock(stocks.get(2 * i + 1)).quantity(1).build()))
+                    .build()));
+        }
+
+        // Cached items and warehouses would hide their loads one by one
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transferRepo.deleteAll();
+        shipmentRepo.deleteAll();
+        stockRepo.deleteAll();
+        userRepo.deleteAll();
+        warehouseRepo.deleteAll();
+        itemRepo.deleteAll();
+        searchOutboxRepo.deleteAll();
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("cdyIVowfsF: Given a request, when answered, then its statement count and time are sent as headers")
+    void headers() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(get("/warehouses").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatisticsFilter.STATEMENTS_HEADER))
+                .andExpect(header().exists(SqlStatisticsFilter.TIME_HEADER));
+    }
+
+    @Test
+    @DisplayName("WLeNojmGNf: Given warehouses, when listed, then stay within budget")
+    void warehouses_WithinBudget() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(get("/warehouses").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+
+        mockMvc.perform(get("/warehouses/{uuid}", warehouse.getUuid()).with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    @DisplayName("PPeZgxGObl: Given items, when listed, then stay within budget")
+    void items_WithinBudget() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(get("/items").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+
+        mockMvc.perform(get("/items/{uuid}", item.getUuid()).with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    @DisplayName("LcKcvJThsg: Given stocks of many items and warehouses, when listed, then their items and warehouses come with them")
+    void stocks_WithinBudget() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(get("/stocks").param("size", String.valueOf(PAGE_SIZE)).with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2 * ITEMS))
+                .andExpect(atMost(2));
+
+        mockMvc.perform(get("/stocks/{uuid}", stock.getUuid()).with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    @DisplayName("AyXizDlrwG: Given shipments with transfers, when listed, then their transfers and stocks come with them")
+    void shipments_WithinBudget() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(get("/shipments").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(ITEMS))
+                .andExpect(atMost(3));
+    }
+
+    @Test
+    @DisplayName("FOCeJSWzYm: Given users, when listed, then stay within budget")
+    void users_WithinBudget() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(get("/users").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(3));
+    }
+
+    @Test
+    @DisplayName("QtwRmvnXcb: Given a warehouse, when created or updated, then stay within budget")
+    void warehouses_Write_WithinBudget() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(post("/warehouses").with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new WarehouseActiveLessUUIDLessDTO("C3C3C3", "City", "QC"))))
+                .andExpect(status().isCreated())
+                .andExpect(atMost(3));
+
+        mockMvc.perform(put("/warehouses/{uuid}", warehouse.getUuid()).with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new WarehouseUUIDLessDTO("A1A1A1", "Other City", "QC", true))))
+                .andExpect(status().isOk())
+                .andExpect(atMost(3));
+    }
+
+    @Test
+    @DisplayName("JbsXfkPnwe: Given an item, when created or updated, then stay within budget")
+    void items_Write_WithinBudget() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(post("/items").with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new ItemUUIDLessDTO("BUDGET-NEW", "New item", "New item"))))
+                .andExpect(status().isCreated())
+                .andExpect(atMost(3));
+
+        // Every stock of the item is queued for a refresh in the search index
+        mockMvc.perform(put("/items/{uuid}", item.getUuid()).with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new ItemUUIDLessDTO(item.getSku(), "Renamed", "Renamed"))))
+                .andExpect(status().isOk())
+                .andExpect(atMost(3));
+    }
+
+    @Test
+    @DisplayName("MzgKcqLhvT: Given a stock, when created or updated, then stay within budget")
+    void stocks_Write_WithinBudget() throws Exception {
+
+        // Arrange
+        final Warehouse empty = warehouseRepo.save(Warehouse.builder().zipCode("C3C3C3").city("City").province("QC").build());
+
+        // Act & Assert
+        mockMvc.perform(post("/stocks").with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new StockUuidLessItemUuidWarehouseUuid(10, item.getUuid(), empty.getUuid()))))
+                .andExpect(status().isCreated())
+                .andExpect(atMost(5));
+
+        mockMvc.perform(put("/stocks/{uuid}", stock.getUuid()).with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new StockUuidLessItemLessWarehouseLess(50))))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("VrHbnqWsGc: Given shipments of many transfers, when created or updated, then their stocks are read and written together")
+    void shipments_Write_WithinBudget() throws Exception {
+
+        // Arrange
+        final List<TransferUuidLessDTO> transfers = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            transfers.add(new TransferUuidLessDTO(stocks.get(2 * i).getUuid(), 1));
+        }
+        final ShipmentStatusLessCreatedByLessUuidLessDTO dto = ShipmentStatusLessCreatedByLessUuidLessDTO.builder()
+                .transfers(transfers)
+                .expectedDate(ZonedDateUtils.businessDaysFromNow(4))
+                .orderNumber("BUDGET-NEW")
+                .to(destination.getUuid())
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(post("/shipments").with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(atMost(8));
+
+        mockMvc.perform(post("/shipments/batch").with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(List.of(
+                                dto.toBuilder().orderNumber("BUDGET-BATCH-1").build(),
+                                dto.toBuilder().orderNumber("BUDGET-BATCH-2").build()))))
+                .andExpect(status().isOk())
+                .andExpect(atMost(8));
+
+        mockMvc.perform(patch("/shipments/{uuid}", shipments.get(0).getUuid()).with(user(manager))
+                        .contentType(JSON_PATCH)
+                        .content(json(List.of(Map.of(
+                                "op", "replace",
+                                "path", "/status",
+                                "value", ShipmentStatus.ACCEPTED.name())))))
+                .andExpect(status().isOk())
+                .andExpect(atMost(3));
+    }
+
+    @Test
+    @DisplayName("GnpLwKdtHe: Given ACCEPTED shipments, when confirmed alone, in batch or whole, then stay within budget")
+    void confirmations_WithinBudget() throws Exception {
+
+        // Arrange
+        final Shipment partly = accept(shipments.get(0));
+        final Shipment batched = accept(shipments.get(1));
+        final Shipment whole = accept(shipments.get(2));
+
+        // Act & Assert
+        mockMvc.perform(post("/confirmations").with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new ConfirmationUuidLessDTO(partly.getTransfers().get(0).getUuid(), 1))))
+                .andExpect(status().isCreated())
+                .andExpect(atMost(6));
+
+        mockMvc.perform(post("/confirmations/batch").with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(List.of(
+                                new ConfirmationUuidLessDTO(batched.getTransfers().get(0).getUuid(), 1),
+                                new ConfirmationUuidLessDTO(batched.getTransfers().get(1).getUuid(), 1),
+                                new ConfirmationUuidLessDTO(partly.getTransfers().get(1).getUuid(), 1)))))
+                .andExpect(status().isOk())
+                .andExpect(atMost(9));
+
+        mockMvc.perform(post("/shipments/{uuid}/confirm-all", whole.getUuid()).with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(8));
+    }
+
+    @Test
+    @DisplayName("SdkFwzRcMh: Given a user, when logging in, then stay within budget")
+    void login_WithinBudget() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new UserLogin(manager.getEmail(), PASSWORD))))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("PkvTnbRgzy: Given indexed items and stocks, when searched or rebuilt, then stay within budget")
+    void search_WithinBudget() throws Exception {
+
+        // Arrange
+        willAnswer(invocation -> {
+            invocation.<Iterator<?>>getArgument(0).forEachRemaining(batch -> {});
+            return null;
+        }).given(stockSearchService).replaceAll(any());
+        willAnswer(invocation -> {
+            invocation.<Iterator<?>>getArgument(0).forEachRemaining(batch -> {});
+            return null;
+        }).given(itemSearchService).replaceAll(any());
+
+        // Act & Assert
+        mockMvc.perform(get("/search/items").param("query", "Item").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(0));
+
+        mockMvc.perform(get("/search/stocks").param("query", "Item").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(0));
+
+        mockMvc.perform(get("/search/outbox").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+
+        mockMvc.perform(post("/search/reindex/items").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(ITEMS))
+                .andExpect(atMost(2));
+
+        // Stocks come with their items and warehouses, whatever their count
+        mockMvc.perform(post("/search/reindex/stocks").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(2 * ITEMS))
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("FchxGlhwLt: Given answered requests, when getting SQL status, then their endpoints are listed")
+    void sqlStatus() throws Exception {
+
+        // Arrange
+        mockMvc.perform(get("/warehouses/{uuid}", warehouse.getUuid()).with(user(manager)));
+
+        // Act & Assert
+        mockMvc.perform(get("/sql/status").with(user(manager)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['GET /warehouses/{uuid}'].requests").isNumber())
+                .andExpect(jsonPath("$['GET /warehouses/{uuid}'].statements").isNumber());
+    }
+}
@@ -6,8 +6,13 @@ import com.lepine.transfers.config.MapperConfig;
 import com.lepine.transfers.config.ValidationConfig;
 import com.lepine.transfers.controllers.shipment.ShipmentController;
 import com.lepine.transfers.data.auth.Role;
+import com.lepine.transfers.data.confirmation.Confirmation;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntryResult;
 import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.shipment.ShipmentBatchEntry;
+import com.lepine.transfers.data.shipment.ShipmentBatchEntryResult;
 import com.lepine.transfers.data.shipment.ShipmentStatus;
 import com.lepine.transfers.data.shipment.ShipmentStatusLessCreatedByLessUuidLessDTO;
 import com.lepine.transfers.data.shipment.ShipmentStatusLessUuidLessDTO;
@@ -18,11 +23,15 @@ import com.lepine.transfers.data.user.User;
 import com.lepine.transfers.data.user.UserRepo;
 import com.lepine.transfers.data.warehouse.Warehouse;
 import com.lepine.transfers.exceptions.auth.DefaultLoginNotAllowedException;
+import com.lepine.transfers.exceptions.shipment.ShipmentNotAcceptedException;
 import com.lepine.transfers.exceptions.stock.StockTooLowException;
 import com.lepine.transfers.exceptions.transfer.SameWarehouseException;
+import com.lepine.transfers.services.confirmation.ConfirmationService;
 import com.lepine.transfers.services.shipment.ShipmentService;
 import com.lepine.transfers.utils.MessageSourceUtils;
 import com.lepine.transfers.utils.date.ZonedDateUtils;
+import com.lepine.transfers.utils.pagination.CursorUtils;
+import org.javatuples.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,6 +41,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -157,6 +167,7 @@ public class ShipmentHttpTests {
             .build();
 
     private String
+            ERROR_MESSAGE_PAGINATION_CURSOR_INVALID,
             ERROR_MESSAGE_PAGINATION_PAGE_MIN,
             ERROR_MESSAGE_PAGINATION_SIZE_MIN,
             ERROR_MESSAGE_SHIPMENT_EXPECTED_DATE_TOO_EARLY,
@@ -184,9 +195,13 @@ public class ShipmentHttpTests {
     @MockBean
     private ShipmentService shipmentService;
 
+    @MockBean
+    private ConfirmationService confirmationService;
+
     @BeforeEach
     void setUp() {
         final MessageSourceUtils.ForLocaleWrapper w = wrapperFor(messageSource);
+        ERROR_MESSAGE_PAGINATION_CURSOR_INVALID = w.getMessage("pagination.cursor.invalid");
         ERROR_MESSAGE_PAGINATION_PAGE_MIN = w.getMessage("pagination.page.min");
         ERROR_MESSAGE_PAGINATION_SIZE_MIN = w.getMessage("pagination.size.min");
         ERROR_MESSAGE_SHIPMENT_EXPECTED_DATE_TOO_EARLY = w.getMessage("shipment.expected.date.too.early");
@@ -292,6 +307,43 @@ public class ShipmentHttpTests {
         verify(shipmentService, never()).findAllByUserUuid(any(), any());
     }
 
+    @Test
+    @DisplayName("tuGFiYCSph: Given GET on /shipments with a cursor as manager, then return the slice after it (200, slice)")
+    @WithUserDetails(value = VALID_MANAGER_EMAIL)
+    void findAllAfter_AsManager() throws Exception {
+
+        // Arrange
+        final UUID lastUuid = UUID.randomUUID();
+        final String cursor = CursorUtils.encode(VALID_SHIPMENT_EXPECTED_DATE, lastUuid);
+        final Optional<Pair<ZonedDateTime, UUID>> expectedKey = Optional.of(new Pair<>(VALID_SHIPMENT_EXPECTED_DATE, lastUuid));
+        given(shipmentService.findAllAfter(expectedKey, 10))
+                .willReturn(new SliceImpl<>(List.of(VALID_SHIPMENT), PageRequest.of(0, 10), true));
+
+        // Act & Assert
+        mockMvc.perform(get("/shipments").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].uuid").value(VALID_SHIPMENT_UUID.toString()))
+                .andExpect(jsonPath("$.next").value(CursorUtils.encode(VALID_SHIPMENT_EXPECTED_DATE, VALID_SHIPMENT_UUID)));
+
+        verify(shipmentService, times(1)).findAllAfter(expectedKey, 10);
+    }
+
+    @Test
+    @DisplayName("vibxDNzTfW: Given GET on /shipments with a tampered cursor, then deny listing (400, error)")
+    @WithUserDetails(value = VALID_MANAGER_EMAIL)
+    void findAllAfter_TamperedCursor() throws Exception {
+
+        // Arrange
+        final String cursor = CursorUtils.encode(VALID_SHIPMENT_EXPECTED_DATE, "not-a-uuid");
+
+        // Act & Assert
+        mockMvc.perform(get("/shipments").param("after", cursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ERROR_MESSAGE_PAGINATION_CURSOR_INVALID));
+
+        verify(shipmentService, never()).findAllAfter(any(), anyInt());
+    }
+
     @Test
     @DisplayName("IuFRRCKGwG: Given POST on /shipments as manager, then create shipment (201, shipment)")
     @WithUserDetails(value = VALID_MANAGER_EMAIL)
@@ -577,6 +629,116 @@ public class ShipmentHttpTests {
         verify(shipmentService, never()).create(any());
     }
 
+    @Test
+    @DisplayName("tMkeRTxhat: Given POST on /shipments/batch as manager, then return the outcome of each shipment (200, results)")
+    @WithUserDetails(value = VALID_MANAGER_EMAIL)
+    void createAll_AsManager() throws Exception {
+
+        // Arrange
+        final Shipment expectedShipment = VALID_SHIPMENT.toBuilder()
+                .transfers(List.of(VALID_TRANSFER))
+                .build();
+        final StockTooLowException expectedStockTooLowException =
+                new StockTooLowException(VALID_STOCK_UUID, 0, VALID_STOCK_QUANTITY);
+
+        final String givenAsString = objectMapper.writeValueAsString(List.of(
+                VALID_SHIPMENT_STATUS_LESS_CREATED_BY_LESS_UUID_LESS_DTO,
+                VALID_SHIPMENT_STATUS_LESS_CREATED_BY_LESS_UUID_LESS_DTO));
+
+        given(shipmentService.createAll(any())).willReturn(List.of(
+                ShipmentBatchEntry.builder().index(0).shipment(expectedShipment).build(),
+                ShipmentBatchEntry.builder().index(1).rejection(expectedStockTooLowException).build()));
+
+        // Act & Assert
+        mockMvc.perform(post("/shipments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(givenAsString))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value(ShipmentBatchEntryResult.Status.CREATED.name()))
+                .andExpect(jsonPath("$[0].shipment.uuid").value(VALID_SHIPMENT_UUID.toString()))
+                .andExpect(jsonPath("$[0].errors").doesNotExist())
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value(ShipmentBatchEntryResult.Status.REJECTED.name()))
+                .andExpect(jsonPath("$[1].shipment").doesNotExist())
+                .andExpect(jsonPath("$[1].errors[0]").value(expectedStockTooLowException.getMessage()));
+
+        verify(shipmentService, times(1)).createAll(argThat(dtos -> dtos.size() == 2 &&
+                dtos.stream().allMatch(dto -> VALID_MANAGER_UUID.equals(dto.getCreatedBy()))));
+    }
+
+    @Test
+    @DisplayName("JNDMILgSlq: Given POST on /shipments/batch as clerk, then deny access (403, error)")
+    @WithUserDetails(value = VALID_CLERK_EMAIL)
+    void createAll_AsClerk_DenyAccess() throws Exception {
+
+        // Arrange
+        final String givenAsString = objectMapper.writeValueAsString(List.of(
+                VALID_SHIPMENT_STATUS_LESS_CREATED_BY_LESS_UUID_LESS_DTO));
+
+        // Act & Assert
+        mockMvc.perform(post("/shipments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(givenAsString))
+                .andExpect(status().isForbidden());
+
+        verify(shipmentService, never()).createAll(any());
+    }
+
+    @Test
+    @DisplayName("fvtWZflvNZ: Given POST on /shipments/{uuid}/confirm-all as clerk, then return the outcome of each transfer (200, results)")
+    @WithUserDetails(value = VALID_CLERK_EMAIL)
+    void confirmAll_AsClerk() throws Exception {
+
+        // Arrange
+        final Confirmation expectedConfirmation = Confirmation.builder()
+                .uuid(UUID.randomUUID())
+                .transferUuid(VALID_TRANSFER.getUuid())
+                .quantity(VALID_STOCK_QUANTITY)
+                .build();
+
+        given(confirmationService.confirmShipment(VALID_SHIPMENT_UUID)).willReturn(List.of(
+                ConfirmationBatchEntry.builder().index(0).confirmation(expectedConfirmation).build()));
+
+        // Act & Assert
+        mockMvc.perform(post("/shipments/{uuid}/confirm-all", VALID_SHIPMENT_UUID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value(ConfirmationBatchEntryResult.Status.CONFIRMED.name()))
+                .andExpect(jsonPath("$[0].confirmation.uuid").value(expectedConfirmation.getUuid().toString()))
+                .andExpect(jsonPath("$[0].errors").doesNotExist());
+
+        verify(confirmationService, times(1)).confirmShipment(VALID_SHIPMENT_UUID);
+    }
+
+    @Test
+    @DisplayName("yRzwTSkxZO: Given POST on /shipments/{uuid}/confirm-all for non ACCEPTED shipment, then return error (400, error)")
+    @WithUserDetails(value = VALID_MANAGER_EMAIL)
+    void confirmAll_NotAccepted() throws Exception {
+
+        // Arrange
+        final ShipmentNotAcceptedException expectedException =
+                new ShipmentNotAcceptedException(VALID_SHIPMENT_UUID, ShipmentStatus.PENDING.name());
+        given(confirmationService.confirmShipment(VALID_SHIPMENT_UUID)).willThrow(expectedException);
+
+        // Act & Assert
+        mockMvc.perform(post("/shipments/{uuid}/confirm-all", VALID_SHIPMENT_UUID))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(expectedException.getMessage()));
+    }
+
+    @Test
+    @DisplayName("HXnBdDySEo: Given POST on /shipments/{uuid}/confirm-all as salesperson, then deny access (403, error)")
+    @WithUserDetails(value = VALID_SALESPERSON_EMAIL)
+    void confirmAll_AsSalesperson_DenyAccess() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(post("/shipments/{uuid}/confirm-all", VALID_SHIPMENT_UUID))
+                .andExpect(status().isForbidden());
+
+        verify(confirmationService, never()).confirmShipment(any());
+    }
+
     @Test
     @DisplayName("SJprQfZCVn: Given PATCH on /shipments/{uuid} with valid JsonPatch as manager, then update (200, success)")
     @WithUserDetails(value = VALID_MANAGER_EMAIL)
@@ -13,6 +13,8 @@ import com.lepine.transfers.data.warehouse.Warehouse;
 import com.lepine.transfers.exceptions.item.ItemNotFoundException;
 import com.lepine.transfers.exceptions.warehouse.WarehouseNotFoundException;
 import com.lepine.transfers.services.stock.StockService;
+import com.lepine.transfers.utils.pagination.CursorUtils;
+import com.lepine.transfers.services.stock.stream.StockStreamService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
@@ -21,6 +23,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
@@ -121,6 +124,9 @@ public class StockHttpTests {
     @MockBean
     private StockService stockService;
 
+    @MockBean
+    private StockStreamService stockStreamService;
+
     @Test
     void contextLoads() {}
 
@@ -378,4 +384,51 @@ public class StockHttpTests {
     void findOne_AsSalesperson() throws Exception {
         getOneStock();
     }
+
+    @Test
+    @DisplayName("MCSFTuxWLR: Given GET on /stocks with empty cursor as manager, then return first slice and next cursor (200, stocks)")
+    @WithMockUser(username = "some-manager", roles = {"MANAGER"})
+    void findAllAfter_FirstSlice() throws Exception {
+
+        // Arrange
+        final Stock stock = VALID_STOCK.toBuilder().uuid(VALID_STOCK_UUID).build();
+        given(stockService.findAllAfter(Optional.empty(), DEFAULT_SIZE))
+                .willReturn(new SliceImpl<>(List.of(stock), PageRequest.of(0, DEFAULT_SIZE), true));
+
+        // Act
+        final ResultActions perform = mockMvc.perform(get("/stocks").param("after", ""));
+
+        // Assert
+        perform.andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_JSON))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].uuid").value(VALID_STOCK_UUID.toString()))
+                .andExpect(jsonPath("$.size").value(DEFAULT_SIZE))
+                .andExpect(jsonPath("$.next").value(CursorUtils.encode(VALID_STOCK_UUID)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(stockService, times(1)).findAllAfter(Optional.empty(), DEFAULT_SIZE);
+        verify(stockService, times(0)).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("VNqNyryvWJ: Given GET on /stocks with cursor of last slice as clerk, then return slice without next cursor (200, stocks)")
+    @WithMockUser(username = "some-clerk", roles = {"CLERK"})
+    void findAllAfter_LastSlice() throws Exception {
+
+        // Arrange
+        given(stockService.findAllAfter(Optional.of(VALID_STOCK_UUID), DEFAULT_SIZE))
+                .willReturn(new SliceImpl<>(List.of(VALID_STOCK), PageRequest.of(0, DEFAULT_SIZE), false));
+
+        // Act
+        final ResultActions perform = mockMvc.perform(get("/stocks")
+                .param("after", CursorUtils.encode(VALID_STOCK_UUID)));
+
+        // Assert
+        perform.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        verify(stockService, times(1)).findAllAfter(Optional.of(VALID_STOCK_UUID), DEFAULT_SIZE);
+    }
 }
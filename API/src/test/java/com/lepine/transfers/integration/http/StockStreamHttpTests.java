@@ -0,0 +1,156 @@
+package com.lepine.transfers.integration.http;
+
+import com.lepine.transfers.config.AuthConfig;
+import com.lepine.transfers.config.MapperConfig;
+import com.lepine.transfers.config.StockStreamConfig;
+import com.lepine.transfers.config.ValidationConfig;
+import com.lepine.transfers.controllers.StockController;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.services.stock.StockService;
+import com.lepine.transfers.services.stock.stream.StockStreamService;
+import com.lepine.transfers.services.stock.stream.StockStreamServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(controllers = { StockController.class })
+@ContextConfiguration(classes = { MapperConfig.class, ValidationConfig.class, AuthConfig.class })
+@Import({ StockStreamServiceImpl.class, StockStreamConfig.class })
+@ActiveProfiles("test")
+public class StockStreamHttpTests {
+
+    private final static Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    private final static Warehouse
+            VALID_WAREHOUSE = Warehouse.builder().uuid(UUID.randomUUID()).build(),
+            OTHER_WAREHOUSE = Warehouse.builder().uuid(UUID.randomUUID()).build();
+
+    private final static Item VALID_ITEM = Item.builder().uuid(UUID.randomUUID()).build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockStreamService stockStreamService;
+
+    @MockBean
+    private StockService stockService;
+
+    private Stock stockIn(Warehouse warehouse, int quantity) {
+        return Stock.builder()
+                .item(VALID_ITEM)
+                .warehouse(warehouse)
+                .quantity(quantity)
+                .build();
+    }
+
+    private String awaitContent(MvcResult result, Predicate<String> until) throws Exception {
+        final MockHttpServletResponse response = result.getResponse();
+        final long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while(!until.test(content) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("bsNZqJaEFe: Given an open stream, when stocks change, then each change is pushed with its version")
+    void valid_PushesChanges() throws Exception {
+
+        // Arrange
+        final MvcResult result = mockMvc.perform(get("/stocks/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final Stock first = stockIn(VALID_WAREHOUSE, 5);
+        final Stock second = stockIn(OTHER_WAREHOUSE, 7);
+
+        // Act
+        stockStreamService.publish(List.of(first, second));
+
+        // Assert
+        final String content = awaitContent(result, body -> body.contains(second.getUuid().toString()));
+        assertThat(content)
+                .contains("event:stock")
+                .contains(first.getUuid().toString())
+                .contains(second.getUuid().toString())
+                .contains("\"quantity\":7");
+
+        final Matcher ids = EVENT_ID.matcher(content);
+        assertThat(ids.find()).isTrue();
+        final long firstId = Long.parseLong(ids.group(1));
+        assertThat(ids.find()).isTrue();
+        assertThat(Long.parseLong(ids.group(1))).isEqualTo(firstId + 1);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("RTMxaXgMtU: Given a reconnect with a buffered Last-Event-ID and a warehouse, then only missed changes of that warehouse are replayed")
+    void valid_ResumesFromLastEventId() throws Exception {
+
+        // Arrange
+        final MvcResult live = mockMvc.perform(get("/stocks/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final Stock seen = stockIn(VALID_WAREHOUSE, 1);
+        stockStreamService.publish(List.of(seen));
+        final Matcher seenId = EVENT_ID.matcher(awaitContent(live, body -> body.contains(seen.getUuid().toString())));
+        assertThat(seenId.find()).isTrue();
+
+        final Stock missed = stockIn(VALID_WAREHOUSE, 2);
+        final Stock elsewhere = stockIn(OTHER_WAREHOUSE, 3);
+        stockStreamService.publish(List.of(missed, elsewhere));
+        awaitContent(live, body -> body.contains(elsewhere.getUuid().toString()));
+
+        // Act
+        final MvcResult resumed = mockMvc.perform(get("/stocks/stream")
+                        .param("warehouseUuid", VALID_WAREHOUSE.getUuid().toString())
+                        .header("Last-Event-ID", seenId.group(1)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        final String content = awaitContent(resumed, body -> body.contains(missed.getUuid().toString()));
+        assertThat(content)
+                .contains(missed.getUuid().toString())
+                .doesNotContain(seen.getUuid().toString())
+                .doesNotContain(elsewhere.getUuid().toString());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("MHVWrUqigy: Given a reconnect with a Last-Event-ID no longer buffered, then a reset is sent")
+    void invalid_ResetsOnUnknownLastEventId() throws Exception {
+
+        // Act
+        final MvcResult result = mockMvc.perform(get("/stocks/stream").header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        assertThat(awaitContent(result, body -> body.contains("event:reset"))).contains("event:reset");
+    }
+}
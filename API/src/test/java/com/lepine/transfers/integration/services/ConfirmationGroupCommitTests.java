@@ -0,0 +1,164 @@
+package com.lepine.transfers.integration.services;
+
+import com.lepine.transfers.data.confirmation.ConfirmationRepo;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.role.RoleRepo;
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.shipment.ShipmentRepo;
+import com.lepine.transfers.data.shipment.ShipmentStatus;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.stock.StockRepo;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.data.transfer.TransferRepo;
+import com.lepine.transfers.data.user.User;
+import com.lepine.transfers.data.user.UserRepo;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import com.lepine.transfers.exceptions.transfer.QuantityExceededException;
+import com.lepine.transfers.services.confirmation.ConfirmationService;
+import com.lepine.transfers.services.confirmation.GroupCommitConfirmationService;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.utils.date.ZonedDateUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "confirmation.group-commit.enabled=true",
+        "confirmation.group-commit.max-delay=50ms",
+})
+@ActiveProfiles({"test"})
+public class ConfirmationGroupCommitTests {
+
+    private final static int
+            TRANSFER_QUANTITY = 10,
+            SCANS = 2 * TRANSFER_QUANTITY;
+
+    @Autowired
+    private ConfirmationService confirmationService;
+
+    @Autowired
+    private ConfirmationRepo confirmationRepo;
+
+    @Autowired
+    private WarehouseRepo warehouseRepo;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private StockRepo stockRepo;
+
+    @Autowired
+    private ShipmentRepo shipmentRepo;
+
+    @Autowired
+    private TransferRepo transferRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoleRepo roleRepo;
+
+    @MockBean
+    private SearchService<StockSearchDTO, UUID> stockSearchService;
+
+    private Warehouse to;
+    private Item item;
+    private UUID transferUuid;
+
+    @BeforeEach
+    void setUp() {
+        final User manager = userRepo.save(User.builder()
+                .email("group-commit@manager.com")
+                .password("somePassword")
+                .role(roleRepo.findByName("MANAGER").get())
+                .build());
+
+        final Warehouse from = warehouseRepo.save(Warehouse.builder().zipCode("A1A1A1").city("City").province("QC").build());
+        to = warehouseRepo.save(Warehouse.builder().zipCode("B2B2B2").city("City").province("QC").build());
+        item = itemRepo.save(Item.builder().sku("GROUP-SKU").name("Item").description("Item").build());
+
+        final Stock stock = stockRepo.save(Stock.builder().item(item).warehouse(from).quantity(100).build());
+
+        final Shipment shipment = shipmentRepo.save(Shipment.builder()
+                .status(ShipmentStatus.ACCEPTED)
+                .expectedDate(ZonedDateUtils.businessDaysFromNow(4))
+                .orderNumber("GROUP-ORDER")
+                .createdBy(manager.getUuid())
+                .to(to.getUuid())
+                .transfers(List.of(Transfer.builder().stock(stock).quantity(TRANSFER_QUANTITY).build()))
+                .build());
+        transferUuid = shipment.getTransfers().get(0).getUuid();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        confirmationRepo.deleteAll();
+        transferRepo.deleteAll();
+        shipmentRepo.deleteAll();
+        stockRepo.deleteAll();
+        userRepo.deleteAll();
+        warehouseRepo.deleteAll();
+        itemRepo.deleteAll();
+    }
+
+    @Test
+    void contextLoads() {
+        assertThat(confirmationService).isInstanceOf(GroupCommitConfirmationService.class);
+    }
+
+    @Test
+    @DisplayName("uQPxpLCtWk: Given more single-unit scans than the transfer holds when confirm at once, then confirm exactly the transfer and refuse the rest")
+    void confirm_ConcurrentScans() throws Exception {
+
+        // Arrange
+        final ExecutorService scanners = Executors.newFixedThreadPool(SCANS);
+        final List<Future<?>> scans = new ArrayList<>(SCANS);
+
+        // Act
+        try {
+            for (int i = 0; i < SCANS; i++) {
+                scans.add(scanners.submit(() -> confirmationService.confirm(transferUuid, 1)));
+            }
+
+            int confirmed = 0, exceeded = 0;
+            for (Future<?> scan : scans) {
+                try {
+                    scan.get(30, TimeUnit.SECONDS);
+                    confirmed++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(QuantityExceededException.class);
+                    exceeded++;
+                }
+            }
+
+            // Assert
+            assertThat(confirmed).isEqualTo(TRANSFER_QUANTITY);
+            assertThat(exceeded).isEqualTo(SCANS - TRANSFER_QUANTITY);
+        } finally {
+            scanners.shutdownNow();
+        }
+
+        assertThat(confirmationRepo.count()).isEqualTo(TRANSFER_QUANTITY);
+        assertThat(transferRepo.findById(transferUuid).get().getConfirmedQuantity()).isEqualTo(TRANSFER_QUANTITY);
+        assertThat(stockRepo.findByWarehouseUuidAndItemUuid(to.getUuid(), item.getUuid()).get().getQuantity())
+                .isEqualTo(TRANSFER_QUANTITY);
+        assertThat(shipmentRepo.findAll()).allMatch(Shipment::isFullyConfirmed);
+    }
+}
@@ -0,0 +1,254 @@
+package com.lepine.transfers.integration.services;
+
+import com.lepine.transfers.data.confirmation.ConfirmationRepo;
+import com.lepine.transfers.data.confirmation.ConfirmationUuidLessDTO;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.role.RoleRepo;
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.shipment.ShipmentRepo;
+import com.lepine.transfers.data.shipment.ShipmentStatus;
+import com.lepine.transfers.data.sql.SqlStatementCounter;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.stock.StockRepo;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.data.transfer.TransferRepo;
+import com.lepine.transfers.data.user.User;
+import com.lepine.transfers.data.user.UserRepo;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import com.lepine.transfers.services.confirmation.ConfirmationService;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.utils.date.ZonedDateUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Handlers run on the bus' threads here, so that only the statements of the confirmation and of the handlers
+ * writing in its transaction are counted
+ */
+@SpringBootTest(properties = "events.bus.async=true")
+@ActiveProfiles({"test"})
+public class ConfirmationServiceTests {
+
+    private final static int TRANSFER_QUANTITY = 10;
+
+    @Autowired
+    private ConfirmationService confirmationService;
+
+    @Autowired
+    private ConfirmationRepo confirmationRepo;
+
+    @Autowired
+    private WarehouseRepo warehouseRepo;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private StockRepo stockRepo;
+
+    @Autowired
+    private ShipmentRepo shipmentRepo;
+
+    @Autowired
+    private TransferRepo transferRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoleRepo roleRepo;
+
+    @MockBean
+    private SearchService<StockSearchDTO, UUID> stockSearchService;
+
+    private Warehouse to;
+    private Item item;
+    private Stock stock;
+    private User manager;
+    private UUID transferUuid;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepo.save(User.builder()
+                .email("confirmation@manager.com")
+                .password("somePassword")
+                .role(roleRepo.findByName("MANAGER").get())
+                .build());
+
+        final Warehouse from = warehouseRepo.save(Warehouse.builder().zipCode("A1A1A1").city("City").province("QC").build());
+        to = warehouseRepo.save(Warehouse.builder().zipCode("B2B2B2").city("City").province("QC").build());
+        item = itemRepo.save(Item.builder().sku("CONFIRM-SKU").name("Item").description("Item").build());
+
+        stock = stockRepo.save(Stock.builder().item(item).warehouse(from).quantity(100).build());
+
+        final Shipment shipment = shipmentRepo.save(Shipment.builder()
+                .status(ShipmentStatus.ACCEPTED)
+                .expectedDate(ZonedDateUtils.businessDaysFromNow(4))
+                .orderNumber("CONFIRM-ORDER")
+                .createdBy(manager.getUuid())
+                .to(to.getUuid())
+                .transfers(List.of(Transfer.builder().stock(stock).quantity(TRANSFER_QUANTITY).build()))
+                .build());
+        transferUuid = shipment.getTransfers().get(0).getUuid();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        confirmationRepo.deleteAll();
+        transferRepo.deleteAll();
+        shipmentRepo.deleteAll();
+        stockRepo.deleteAll();
+        userRepo.deleteAll();
+        warehouseRepo.deleteAll();
+        itemRepo.deleteAll();
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("LwPzdjqrut: Given stock of the item in the destination when confirm part of a transfer, then read once and write in place")
+    void confirm_ExistingStock_WithinBudget() {
+
+        // Arrange
+        stockRepo.save(Stock.builder().item(item).warehouse(to).quantity(5).build());
+
+        // Act
+        SqlStatementCounter.start();
+        confirmationService.confirm(transferUuid, 1);
+        final long statements = SqlStatementCounter.stop().getStatements();
+
+        // Assert
+        // The guarded confirmed quantity reading the transfer back, the confirmation insert, the stock upsert
+        // reading the stock back and its search outbox entry
+        assertThat(statements).isLessThanOrEqualTo(4);
+        assertThat(stockRepo.findByWarehouseUuidAndItemUuid(to.getUuid(), item.getUuid()).get().getQuantity()).isEqualTo(6);
+        assertThat(transferRepo.findById(transferUuid).get().getConfirmedQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("oobnDrDuuc: Given no stock of the item in the destination when confirm the whole transfer, then create it and complete the shipment")
+    void confirm_NewStock_CompletesShipment() {
+
+        // Act
+        confirmationService.confirm(transferUuid, TRANSFER_QUANTITY);
+
+        // Assert
+        assertThat(stockRepo.findByWarehouseUuidAndItemUuid(to.getUuid(), item.getUuid()).get().getQuantity())
+                .isEqualTo(TRANSFER_QUANTITY);
+        assertThat(shipmentRepo.findAll()).allMatch(Shipment::isFullyConfirmed);
+    }
+
+    @Test
+    @DisplayName("JtxWcRbmvQ: Given transfers of a shipment completed concurrently when confirm, then complete the shipment")
+    void confirm_Concurrent_CompletesShipment() throws Exception {
+
+        // Arrange
+        final int transfers = 8;
+        final Shipment shipment = shipmentRepo.save(Shipment.builder()
+                .status(ShipmentStatus.ACCEPTED)
+                .expectedDate(ZonedDateUtils.businessDaysFromNow(4))
+                .orderNumber("CONCURRENT-ORDER")
+                .createdBy(manager.getUuid())
+                .to(to.getUuid())
+                .transfers(IntStream.range(0, transfers)
+                        .mapToObj(i -> Transfer.builder().stock(stock).quantity(1).build())
+                        .collect(Collectors.toList()))
+                .build());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(transfers);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>(transfers);
+        for (Transfer transfer : shipment.getTransfers()) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return confirmationService.confirm(transfer.getUuid(), 1);
+            }));
+        }
+
+        // Act
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(shipmentRepo.findById(shipment.getUuid()).get().isFullyConfirmed()).isTrue();
+        assertThat(stockRepo.findByWarehouseUuidAndItemUuid(to.getUuid(), item.getUuid()).get().getQuantity())
+                .isEqualTo(transfers);
+    }
+
+    @Test
+    @DisplayName("RbfWqmTzKs: Given transfers of a shipment completed concurrently by single and batch confirmations, then complete the shipment")
+    void confirmAll_Concurrent_CompletesShipment() throws Exception {
+
+        // Arrange
+        final int transfers = 8;
+        final Shipment shipment = shipmentRepo.save(Shipment.builder()
+                .status(ShipmentStatus.ACCEPTED)
+                .expectedDate(ZonedDateUtils.businessDaysFromNow(4))
+                .orderNumber("CONCURRENT-BATCH-ORDER")
+                .createdBy(manager.getUuid())
+                .to(to.getUuid())
+                .transfers(IntStream.range(0, transfers)
+                        .mapToObj(i -> Transfer.builder().stock(stock).quantity(2).build())
+                        .collect(Collectors.toList()))
+                .build());
+
+        // Each transfer is half confirmed alone and half in a batch, whichever comes last completes it
+        final ExecutorService executor = Executors.newFixedThreadPool(transfers * 2);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>(transfers * 2);
+        for (Transfer transfer : shipment.getTransfers()) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return confirmationService.confirm(transfer.getUuid(), 1);
+            }));
+            futures.add(executor.submit(() -> {
+                start.await();
+                return confirmationService.confirmAll(List.of(new ConfirmationUuidLessDTO(transfer.getUuid(), 1)));
+            }));
+        }
+
+        // Act
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(shipmentRepo.findById(shipment.getUuid()).get().isFullyConfirmed()).isTrue();
+        assertThat(stockRepo.findByWarehouseUuidAndItemUuid(to.getUuid(), item.getUuid()).get().getQuantity())
+                .isEqualTo(transfers * 2);
+    }
+}
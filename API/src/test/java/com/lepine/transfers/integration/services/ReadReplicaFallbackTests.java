@@ -0,0 +1,74 @@
+package com.lepine.transfers.integration.services;
+
+import com.lepine.transfers.data.routing.DataSourceRoute;
+import com.lepine.transfers.data.routing.ReadReplicaRoutingDataSource;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.services.warehouse.WarehouseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "datasource.replica.enabled=true",
+        // Nothing listens there
+        "datasource.replica.url=jdbc:h2:tcp://localhost:1/mem:lepine_replica",
+        "datasource.replica.username=sa",
+        "datasource.replica.password=",
+        "datasource.replica.connection-timeout=250ms",
+})
+@ActiveProfiles({"test"})
+public class ReadReplicaFallbackTests {
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private WarehouseRepo warehouseRepo;
+
+    @Autowired
+    private ReadReplicaRoutingDataSource readReplicaRoutingDataSource;
+
+    @MockBean
+    private SearchService<StockSearchDTO, UUID> stockSearchService;
+
+    @AfterEach
+    void cleanUp() {
+        warehouseRepo.deleteAll();
+    }
+
+    @Test
+    @DisplayName("rydSVytfAt: Given an unreachable replica, when listing read-only, then read from the primary and report the replica unhealthy")
+    void unreachableReplica_FallsBackToPrimary() {
+
+        // Arrange
+        final Warehouse saved = warehouseRepo.save(Warehouse.builder()
+                .zipCode("P1P1P1")
+                .city("Primary City")
+                .province("QC")
+                .build());
+
+        // Act
+        final Page<Warehouse> warehouses = warehouseService.findAll(PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(warehouses.getContent())
+                .extracting(Warehouse::getUuid)
+                .contains(saved.getUuid());
+        assertThat(readReplicaRoutingDataSource.isReplicaHealthy()).isFalse();
+        assertThat(readReplicaRoutingDataSource.getStatus().getPools().get(DataSourceRoute.REPLICA).getRoutedConnections())
+                .isZero();
+    }
+}
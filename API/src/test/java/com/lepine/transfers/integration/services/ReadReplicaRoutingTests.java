@@ -0,0 +1,139 @@
+package com.lepine.transfers.integration.services;
+
+import com.lepine.transfers.data.routing.DataSourceRoute;
+import com.lepine.transfers.data.routing.DataSourceStatus;
+import com.lepine.transfers.data.routing.ReadReplicaRoutingDataSource;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.services.warehouse.WarehouseService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "datasource.replica.username=sa",
+        "datasource.replica.password=",
+})
+@ActiveProfiles({"test"})
+public class ReadReplicaRoutingTests {
+
+    final static String REPLICA_URL =
+            "jdbc:h2:mem:lepine_replica;DATABASE_TO_UPPER=false;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    private final static JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    private final static UUID REPLICA_ONLY_WAREHOUSE_UUID = UUID.randomUUID();
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ReadReplicaRoutingDataSource readReplicaRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private SearchService<StockSearchDTO, UUID> stockSearchService;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Only the replica has this row, finding it proves the read went there
+        REPLICA.update("INSERT INTO lepine.warehouses (uuid, zip_code, city, province, active) VALUES (?, ?, ?, ?, ?)",
+                REPLICA_ONLY_WAREHOUSE_UUID, "R1R1R1", "Replica City", "QC", true);
+        readReplicaRoutingDataSource.checkReplicaHealth();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        REPLICA.update("DELETE FROM lepine.warehouses");
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("djrWdxxaAL: Given a row only on the replica, when listing read-only, then it is read from the replica")
+    void readOnly_ReadsReplica() {
+
+        // Arrange
+        final long replicaConnectionsBefore = routedConnections(DataSourceRoute.REPLICA);
+
+        // Act
+        final Page<Warehouse> warehouses = warehouseService.findAll(PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(warehouses.getContent())
+                .extracting(Warehouse::getUuid)
+                .contains(REPLICA_ONLY_WAREHOUSE_UUID);
+        assertThat(routedConnections(DataSourceRoute.REPLICA)).isGreaterThan(replicaConnectionsBefore);
+    }
+
+    @Test
+    @DisplayName("FUKQmRWkqg: Given a row only on the replica, when looked up outside a read-only method, then it is not found on the primary")
+    void notReadOnly_ReadsPrimary() {
+
+        // Act & Assert
+        assertThat(warehouseService.findByUuid(REPLICA_ONLY_WAREHOUSE_UUID)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("odNrqKlUIG: Given a write transaction, when listing read-only inside it, then it stays on the primary")
+    void readOnlyInsideWrite_ReadsPrimary() {
+
+        // Act
+        final Page<Warehouse> warehouses = new TransactionTemplate(transactionManager)
+                .execute(status -> warehouseService.findAll(PageRequest.of(0, 10)));
+
+        // Assert
+        assertThat(warehouses.getContent())
+                .extracting(Warehouse::getUuid)
+                .doesNotContain(REPLICA_ONLY_WAREHOUSE_UUID);
+    }
+
+    @Test
+    @DisplayName("aSfhCvGODR: Given a healthy replica, when getting status, then both pools are reported")
+    void status() {
+
+        // Act
+        final DataSourceStatus status = readReplicaRoutingDataSource.getStatus();
+
+        // Assert
+        assertThat(status.isReplicaHealthy()).isTrue();
+        assertThat(status.getPools()).containsOnlyKeys(DataSourceRoute.PRIMARY, DataSourceRoute.REPLICA);
+        assertThat(status.getPools().get(DataSourceRoute.PRIMARY).getRoutedConnections()).isPositive();
+    }
+
+    private long routedConnections(DataSourceRoute route) {
+        return readReplicaRoutingDataSource.getStatus().getPools().get(route).getRoutedConnections();
+    }
+}
@@ -3,7 +3,6 @@ package com.lepine.transfers.integration.services;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lepine.transfers.data.auth.Role;
-import com.lepine.transfers.data.confirmation.Confirmation;
 import com.lepine.transfers.data.confirmation.ConfirmationRepo;
 import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.data.item.ItemRepo;
@@ -24,7 +23,9 @@ import com.lepine.transfers.data.warehouse.Warehouse;
 import com.lepine.transfers.data.warehouse.WarehouseRepo;
 import com.lepine.transfers.exceptions.stock.StockNotFoundException;
 import com.lepine.transfers.exceptions.stock.StockTooLowException;
+import com.lepine.transfers.services.confirmation.ConfirmationService;
 import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.services.search.outbox.SearchOutboxService;
 import com.lepine.transfers.services.shipment.ShipmentService;
 import com.lepine.transfers.utils.date.ZonedDateUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -34,18 +35,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.UUID;
 
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_INDEX;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -65,7 +71,8 @@ public class ShipmentServiceTests {
 
     private final static ShipmentStatus VALID_SHIPMENT_STATUS = ShipmentStatus.PENDING;
 
-    private final static ZonedDateTime VALID_SHIPMENT_EXPECTED_DATE = ZonedDateUtils.businessDaysFromNow(4);
+    // The database keeps microseconds, and the created shipment is read back from it
+    private final static ZonedDateTime VALID_SHIPMENT_EXPECTED_DATE = ZonedDateUtils.businessDaysFromNow(4).truncatedTo(ChronoUnit.MICROS);
 
     private final static int VALID_STOCK_QUANTITY = 10;
 
@@ -155,6 +162,9 @@ public class ShipmentServiceTests {
     @Autowired
     private ConfirmationRepo confirmationRepo;
 
+    @Autowired
+    private ConfirmationService confirmationService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -164,6 +174,9 @@ public class ShipmentServiceTests {
     @MockBean
     private SearchService<StockSearchDTO, UUID> stockSearchService;
 
+    @SpyBean
+    private SearchOutboxService searchOutboxService;
+
     private Shipment acceptDefaultShipment() {
         var shipment = shipmentRepo.findById(VALID_SHIPMENT_UUID).get();
         shipment.setStatus(ShipmentStatus.ACCEPTED);
@@ -250,7 +263,7 @@ public class ShipmentServiceTests {
         assertThat(stockRepo.findById(VALID_STOCK_UUID).get().getQuantity()).isEqualTo(
                 VALID_STOCK_QUANTITY - VALID_SHIPMENT_STATUS_LESS_UUID_LESS_DTO.getTransfers().get(0).getQuantity());
 
-        verify(stockSearchService, times(1)).partialUpdateAllInBatch(any());
+        verify(searchOutboxService, times(1)).refreshAll(eq(STOCKS_INDEX), argThat(uuids -> uuids.contains(VALID_STOCK_UUID)));
     }
 
     @Test
@@ -321,6 +334,34 @@ public class ShipmentServiceTests {
                 .isEqualTo(expected);
     }
 
+    @Test
+    @DisplayName("KyVmdKlKRN: Given more shipments than page size when get, then return requested page with eagerly loaded transfers")
+    void valid_findAll_Paged() {
+
+        // Arrange
+        for (int i = 1; i <= 2; i++) {
+            shipmentRepo.save(VALID_SHIPMENT.toBuilder()
+                    .uuid(UUID.randomUUID())
+                    .expectedDate(VALID_SHIPMENT_EXPECTED_DATE.plusDays(i))
+                    .transfers(List.of(Transfer.builder()
+                            .stock(VALID_STOCK)
+                            .quantity(1)
+                            .build()))
+                    .build());
+        }
+        final PageRequest of = PageRequest.of(1, 2, Sort.by("expectedDate").descending());
+
+        // Act
+        Page<Shipment> shipments = shipmentService.findAll(of);
+
+        // Assert
+        assertThat(shipments.getTotalElements()).isEqualTo(3);
+        assertThat(shipments.getContent()).hasSize(1);
+        assertThat(shipments.getContent().get(0).getUuid()).isEqualTo(VALID_SHIPMENT_UUID);
+        assertThat(shipments.getContent().get(0).getTransfers().get(0).getStock().getItem().getUuid())
+                .isEqualTo(VALID_ITEM_UUID);
+    }
+
     @Test
     @DisplayName("SrmPceFkyg: Given PageRequest when get, check result is Jackson serializable")
     void valid_findAll_JacksonSerializable() throws JsonProcessingException {
@@ -380,14 +421,9 @@ public class ShipmentServiceTests {
         final PageRequest of = PageRequest.of(0, 10);
 
         acceptDefaultShipment();
+        confirmationService.confirm(VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY);
         final Shipment expected = shipmentRepo.findOneByUuidEagerLoad(VALID_SHIPMENT_UUID);
 
-        confirmationRepo.save(
-                Confirmation.builder()
-                        .transferUuid(VALID_TRANSFER_UUID)
-                        .quantity(VALID_STOCK_QUANTITY)
-                        .build());
-
         // Act
         Page<Shipment> shipments = shipmentService.findAllFullyConfirmed(of);
 
@@ -404,15 +440,12 @@ public class ShipmentServiceTests {
 
         // Arrange
         final PageRequest of = PageRequest.of(0, 10);
-        final Shipment saved = acceptDefaultShipment();
+        acceptDefaultShipment();
         final ZonedDateTime from = ZonedDateTime.now().minusYears(100);
         final ZonedDateTime to = ZonedDateTime.now().plusYears(100);
 
-        confirmationRepo.save(
-                Confirmation.builder()
-                        .transferUuid(VALID_TRANSFER_UUID)
-                        .quantity(VALID_STOCK_QUANTITY)
-                        .build());
+        confirmationService.confirm(VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY);
+        final Shipment saved = shipmentRepo.findOneByUuidEagerLoad(VALID_SHIPMENT_UUID);
 
         // Act
         Page<Shipment> shipments = shipmentService.findAllFullyConfirmed(from, to, of);
@@ -10,6 +10,7 @@ import com.lepine.transfers.data.item.ItemUUIDLessDTO;
 import com.lepine.transfers.exceptions.item.DuplicateSkuException;
 import com.lepine.transfers.exceptions.item.ItemNotFoundException;
 import com.lepine.transfers.services.item.ItemService;
+import com.lepine.transfers.services.item.LiveBestsellerService;
 import com.lepine.transfers.utils.ConstraintViolationExceptionUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -45,6 +46,9 @@ public class ItemControllerTests {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private LiveBestsellerService liveBestsellerService;
+
     @Autowired
     private ItemMapper itemMapper;
 
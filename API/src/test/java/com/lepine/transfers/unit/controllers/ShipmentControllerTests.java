@@ -10,6 +10,7 @@ import com.lepine.transfers.data.shipment.*;
 import com.lepine.transfers.data.transfer.TransferUuidLessDTO;
 import com.lepine.transfers.data.user.User;
 import com.lepine.transfers.exceptions.auth.DefaultLoginNotAllowedException;
+import com.lepine.transfers.services.confirmation.ConfirmationService;
 import com.lepine.transfers.services.shipment.ShipmentService;
 import com.lepine.transfers.utils.ConstraintViolationExceptionUtils;
 import com.lepine.transfers.utils.MessageSourceUtils;
@@ -131,6 +132,9 @@ public class ShipmentControllerTests {
     @MockBean
     private ShipmentService shipmentService;
 
+    @MockBean
+    private ConfirmationService confirmationService;
+
     @BeforeEach
     void setUp() {
         final MessageSourceUtils.ForLocaleWrapper w = wrapperFor(messageSource);
@@ -11,6 +11,7 @@ import com.lepine.transfers.exceptions.stock.StockNotFoundException;
 import com.lepine.transfers.services.stock.StockService;
 import com.lepine.transfers.utils.ConstraintViolationExceptionUtils;
 import com.lepine.transfers.utils.MessageSourceUtils;
+import com.lepine.transfers.services.stock.stream.StockStreamService;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -124,6 +125,9 @@ public class StockControllerTests {
     @MockBean
     private StockService stockService;
 
+    @MockBean
+    private StockStreamService stockStreamService;
+
     @Test
     void contextLoads(){}
 
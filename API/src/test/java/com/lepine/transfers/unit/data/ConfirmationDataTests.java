@@ -9,14 +9,18 @@ import com.lepine.transfers.data.role.RoleRepo;
 import com.lepine.transfers.data.shipment.Shipment;
 import com.lepine.transfers.data.shipment.ShipmentRepo;
 import com.lepine.transfers.data.shipment.ShipmentStatus;
+import com.lepine.transfers.data.stock.ReceivedStock;
 import com.lepine.transfers.data.stock.Stock;
 import com.lepine.transfers.data.stock.StockRepo;
+import com.lepine.transfers.data.transfer.ConfirmedTransfer;
 import com.lepine.transfers.data.transfer.Transfer;
 import com.lepine.transfers.data.transfer.TransferRepo;
 import com.lepine.transfers.data.user.User;
 import com.lepine.transfers.data.user.UserRepo;
 import com.lepine.transfers.data.warehouse.Warehouse;
 import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -35,6 +39,8 @@ import org.springframework.test.context.ActiveProfiles;
 import javax.persistence.EntityManager;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -176,7 +182,9 @@ public class ConfirmationDataTests {
         VALID_SHIPMENT.setCreatedBy(VALID_USER_UUID);
         VALID_SHIPMENT.setTo(VALID_TARGET_WAREHOUSE_UUID);
 
-        VALID_SHIPMENT_UUID = shipmentRepo.save(VALID_SHIPMENT.toBuilder().build()).getUuid();
+        VALID_SHIPMENT_UUID = shipmentRepo.save(VALID_SHIPMENT.toBuilder()
+                .transfers(List.of(VALID_TRANSFER.toBuilder().build()))
+                .build()).getUuid();
         entityManager.flush();
 
         VALID_SHIPMENT.setUuid(VALID_SHIPMENT_UUID);
@@ -186,6 +194,22 @@ public class ConfirmationDataTests {
         // End of Shipment persist
     }
 
+    private void confirm(final int quantity) {
+        confirmationRepo.save(Confirmation.builder()
+                .transferUuid(VALID_TRANSFER_UUID)
+                .quantity(quantity)
+                .build());
+        transferRepo.addConfirmedQuantity(VALID_TRANSFER_UUID, quantity);
+        shipmentRepo.markFullyConfirmed(VALID_SHIPMENT_UUID, ZonedDateTime.now());
+        entityManager.flush();
+    }
+
+    private void accept() {
+        final Shipment shipment = shipmentRepo.findById(VALID_SHIPMENT_UUID).get();
+        shipment.setStatus(ShipmentStatus.ACCEPTED);
+        entityManager.flush();
+    }
+
     @AfterEach
     void cleanUp() {
         entityManager.clear();
@@ -222,26 +246,44 @@ public class ConfirmationDataTests {
     }
 
     @Test
-    @DisplayName("BEzvsXbzvO: Given fully confirmed transfer when findAllFullyConfirmed, then return all fully confirmed transfers")
-    void testFindAllFullyConfirmed() {
+    @DisplayName("CdqJIbojUG: Given a new confirmation when saved, then insert it without looking it up first")
+    void testConfirmTransfer_NoLookup() {
 
         // Arrange
-        final Confirmation confirmation = Confirmation.builder()
-                .transferUuid(VALID_TRANSFER.getUuid())
-                .quantity(VALID_STOCK_QUANTITY) // Fully confirm
-                .build();
+        final Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
 
-        confirmationRepo.save(confirmation);
+        // Act
+        confirmationRepo.save(Confirmation.builder()
+                .transferUuid(VALID_TRANSFER_UUID)
+                .quantity(1)
+                .build());
         entityManager.flush();
 
+        // Assert
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("BEzvsXbzvO: Given fully confirmed transfer when findAllFullyConfirmed, then return all fully confirmed transfers")
+    void testFindAllFullyConfirmed() {
+
+        // Arrange
+        confirm(VALID_STOCK_QUANTITY); // Fully confirm
+
         // Act
         final List<Transfer> confirmations = transferRepo.findAllFullyConfirmed();
 
         // Assert
         assertThat(confirmations).isNotEmpty();
         assertThat(confirmations)
-                .usingRecursiveFieldByFieldElementComparator()
-                .containsExactlyInAnyOrder(VALID_TRANSFER);
+                .usingRecursiveComparison()
+                .ignoringFieldsMatchingRegexes(".*persisted")
+                .isEqualTo(List.of(VALID_TRANSFER));
     }
 
     @Test
@@ -249,13 +291,7 @@ public class ConfirmationDataTests {
     void testFindAllFullyConfirmedEmpty() {
 
         // Arrange
-        final Confirmation confirmation = Confirmation.builder()
-                .transferUuid(VALID_TRANSFER.getUuid())
-                .quantity(VALID_STOCK_QUANTITY / 2) // Partially confirm
-                .build();
-
-        confirmationRepo.save(confirmation);
-        entityManager.flush();
+        confirm(VALID_STOCK_QUANTITY / 2); // Partially confirm
 
         // Act
         final List<Transfer> confirmations = transferRepo.findAllFullyConfirmed();
@@ -269,13 +305,7 @@ public class ConfirmationDataTests {
     void testFindAllFullyConfirmedShipment() {
 
         // Arrange
-        final Confirmation confirmation = Confirmation.builder()
-                .transferUuid(VALID_TRANSFER.getUuid())
-                .quantity(VALID_STOCK_QUANTITY) // Fully confirm
-                .build();
-
-        confirmationRepo.save(confirmation);
-        entityManager.flush();
+        confirm(VALID_STOCK_QUANTITY); // Fully confirm
 
         // Act
         final List<Shipment> confirmations = shipmentRepo.findAllFullyConfirmed(PageRequest.of(0, 10)).getContent();
@@ -283,8 +313,9 @@ public class ConfirmationDataTests {
         // Assert
         assertThat(confirmations).isNotEmpty();
         assertThat(confirmations)
-                .usingRecursiveFieldByFieldElementComparator()
-                .containsExactlyInAnyOrder(VALID_SHIPMENT);
+                .usingRecursiveComparison()
+                .ignoringFieldsMatchingRegexes(".*persisted")
+                .isEqualTo(List.of(VALID_SHIPMENT));
     }
 
     @ParameterizedTest(name = "{displayName} - {0}")
@@ -293,13 +324,7 @@ public class ConfirmationDataTests {
     void testFindAllFullyConfirmedShipmentEmpty(final int quantity) {
 
         // Arrange
-        final Confirmation confirmation = Confirmation.builder()
-                .transferUuid(VALID_TRANSFER.getUuid())
-                .quantity(quantity) // Partially confirm
-                .build();
-
-        confirmationRepo.save(confirmation);
-        entityManager.flush();
+        confirm(quantity); // Partially confirm
 
         // Act
         final List<Shipment> confirmations = shipmentRepo.findAllFullyConfirmed(PageRequest.of(0, 10)).getContent();
@@ -318,13 +343,7 @@ public class ConfirmationDataTests {
     void testFindAllFullyConfirmedInTimeRange() {
 
         // Arrange
-        final Confirmation confirmation = Confirmation.builder()
-                .transferUuid(VALID_TRANSFER.getUuid())
-                .quantity(VALID_STOCK_QUANTITY) // Fully confirm
-                .build();
-
-        confirmationRepo.save(confirmation);
-        entityManager.flush();
+        confirm(VALID_STOCK_QUANTITY); // Fully confirm
 
         // Act
         final List<Shipment> confirmations = shipmentRepo.findAllFullyConfirmedInTimeRange(
@@ -336,8 +355,9 @@ public class ConfirmationDataTests {
         // Assert
         assertThat(confirmations).isNotEmpty();
         assertThat(confirmations)
-                .usingRecursiveFieldByFieldElementComparator()
-                .containsExactlyInAnyOrder(VALID_SHIPMENT);
+                .usingRecursiveComparison()
+                .ignoringFieldsMatchingRegexes(".*persisted")
+                .isEqualTo(List.of(VALID_SHIPMENT));
     }
 
     @ParameterizedTest(name = "{displayName} - {0}")
@@ -346,13 +366,7 @@ public class ConfirmationDataTests {
     void testFindAllFullyConfirmedInTimeRangeEmpty(final int quantity) {
 
         // Arrange
-        final Confirmation confirmation = Confirmation.builder()
-                .transferUuid(VALID_TRANSFER.getUuid())
-                .quantity(quantity) // Partially confirm
-                .build();
-
-        confirmationRepo.save(confirmation);
-        entityManager.flush();
+        confirm(quantity); // Partially confirm
 
         // Act
         final List<Shipment> confirmations = shipmentRepo.findAllFullyConfirmedInTimeRange(
@@ -365,4 +379,135 @@ public class ConfirmationDataTests {
         assertThat(confirmations).isEmpty();
     }
 
+    @Test
+    @DisplayName("vjnAXOIoyK: Given confirmation over transfer quantity when addConfirmedQuantity, then update nothing")
+    void testAddConfirmedQuantityExceeded() {
+
+        // Arrange
+        transferRepo.addConfirmedQuantity(VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY / 2);
+
+        // Act
+        final int updated = transferRepo.addConfirmedQuantity(VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY);
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).isZero();
+        assertThat(transferRepo.findById(VALID_TRANSFER_UUID).get().getConfirmedQuantity())
+                .isEqualTo(VALID_STOCK_QUANTITY / 2);
+    }
+
+    @Test
+    @DisplayName("HtcQeNVrWa: Given transfer of an ACCEPTED shipment when confirm, then add to it and read it back")
+    void testConfirm_Accepted() {
+
+        // Arrange
+        accept();
+
+        // Act
+        final Optional<ConfirmedTransfer> first = transferRepo.confirm(VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY / 2);
+        final Optional<ConfirmedTransfer> second = transferRepo.confirm(VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY / 2);
+
+        // Assert
+        assertThat(first).contains(new ConfirmedTransfer(
+                VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY, VALID_STOCK_QUANTITY / 2, VALID_SHIPMENT_UUID));
+        assertThat(second).contains(new ConfirmedTransfer(
+                VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY, VALID_STOCK_QUANTITY, VALID_SHIPMENT_UUID));
+        assertThat(transferRepo.findById(VALID_TRANSFER_UUID).get().getConfirmedQuantity()).isEqualTo(VALID_STOCK_QUANTITY);
+    }
+
+    @Test
+    @DisplayName("bPzLkRwEuc: Given confirmation over transfer quantity when confirm, then update nothing")
+    void testConfirm_Exceeded() {
+
+        // Arrange
+        accept();
+
+        // Act
+        final Optional<ConfirmedTransfer> confirmed = transferRepo.confirm(VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY + 1);
+
+        // Assert
+        assertThat(confirmed).isEmpty();
+        assertThat(transferRepo.findById(VALID_TRANSFER_UUID).get().getConfirmedQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("TmkVJyhsXo: Given transfer of a PENDING shipment when confirm, then update nothing")
+    void testConfirm_NotAccepted() {
+
+        // Act
+        final Optional<ConfirmedTransfer> confirmed = transferRepo.confirm(VALID_TRANSFER_UUID, 1);
+
+        // Assert
+        assertThat(confirmed).isEmpty();
+        assertThat(transferRepo.findById(VALID_TRANSFER_UUID).get().getConfirmedQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("gQxWnsPeTy: Given transfer when receiveTransferred, then add to the stock of its item in the destination and read it back")
+    void testReceiveTransferred() {
+
+        // Act
+        final ReceivedStock created = stockRepo.receiveTransferred(VALID_TRANSFER_UUID, 3).get();
+        final ReceivedStock added = stockRepo.receiveTransferred(VALID_TRANSFER_UUID, 4).get();
+
+        // Assert
+        assertThat(created.getWarehouseUuid()).isEqualTo(VALID_TARGET_WAREHOUSE_UUID);
+        assertThat(created.getItemUuid()).isEqualTo(VALID_ITEM_UUID);
+        assertThat(created.getQuantity()).isEqualTo(3);
+        assertThat(added).isEqualTo(created.toBuilder().quantity(7).build());
+        assertThat(stockRepo.findById(created.getStockUuid()).get().getQuantity()).isEqualTo(7);
+        assertThat(stockRepo.receiveTransferred(UUID.randomUUID(), 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("VnJdYkoLrb: Given shipments when lockAllByUuidIn, then return the existing ones in uuid order")
+    void testLockAllByUuidIn() {
+
+        // Act
+        final List<UUID> locked = shipmentRepo.lockAllByUuidIn(List.of(UUID.randomUUID(), VALID_SHIPMENT_UUID));
+
+        // Assert
+        assertThat(locked).containsExactly(VALID_SHIPMENT_UUID);
+    }
+
+    @Test
+    @DisplayName("NRdcKTfaQW: Given fully confirmed transfers when markFullyConfirmed, then set fully confirmed state once")
+    void testMarkFullyConfirmed() {
+
+        // Arrange
+        final ZonedDateTime confirmedAt = ZonedDateTime.now();
+        transferRepo.addConfirmedQuantity(VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY);
+
+        // Act
+        final int first = shipmentRepo.markFullyConfirmed(VALID_SHIPMENT_UUID, confirmedAt);
+        final int second = shipmentRepo.markFullyConfirmed(VALID_SHIPMENT_UUID, confirmedAt.plusDays(1));
+        entityManager.clear();
+
+        // Assert
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+
+        final Shipment shipment = shipmentRepo.findById(VALID_SHIPMENT_UUID).get();
+        assertThat(shipment.isFullyConfirmed()).isTrue();
+        assertThat(shipment.getConfirmedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("ZmqTcWvXhe: Given shipments when markAllFullyConfirmed, then only mark the ones with every transfer confirmed")
+    void testMarkAllFullyConfirmed() {
+
+        // Arrange
+        final ZonedDateTime confirmedAt = ZonedDateTime.now();
+
+        // Act
+        final int notConfirmed = shipmentRepo.markAllFullyConfirmed(Set.of(VALID_SHIPMENT_UUID, UUID.randomUUID()), confirmedAt);
+        transferRepo.addConfirmedQuantity(VALID_TRANSFER_UUID, VALID_STOCK_QUANTITY);
+        final int confirmed = shipmentRepo.markAllFullyConfirmed(Set.of(VALID_SHIPMENT_UUID, UUID.randomUUID()), confirmedAt);
+        entityManager.clear();
+
+        // Assert
+        assertThat(notConfirmed).isZero();
+        assertThat(confirmed).isEqualTo(1);
+        assertThat(shipmentRepo.findById(VALID_SHIPMENT_UUID).get().isFullyConfirmed()).isTrue();
+    }
 }
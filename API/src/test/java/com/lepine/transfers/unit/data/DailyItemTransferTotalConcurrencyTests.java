@@ -0,0 +1,101 @@
+package com.lepine.transfers.unit.data;
+
+import com.lepine.transfers.data.item.DailyItemTransferTotal;
+import com.lepine.transfers.data.item.DailyItemTransferTotalRepo;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles({"test"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Every increment commits on its own, like concurrent shipments do
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DailyItemTransferTotalConcurrencyTests {
+
+    private final static int
+            THREADS = 8,
+            DAYS = 10,
+            INCREMENTS_PER_THREAD = 50;
+
+    private final static LocalDate FIRST_DAY = LocalDate.of(2022, 4, 1);
+
+    @Autowired
+    private DailyItemTransferTotalRepo dailyItemTransferTotalRepo;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID ITEM_UUID;
+
+    @BeforeEach
+    void setUp() {
+        ITEM_UUID = itemRepo.save(Item.builder().sku("TOTAL-SKU").name("Item").description("Item").build()).getUuid();
+    }
+
+    @AfterEach
+    void cleanup() {
+        dailyItemTransferTotalRepo.deleteAll();
+        itemRepo.deleteAll();
+    }
+
+    @Test
+    @DisplayName("nTUQzHbCug: Given many threads adding to totals of days that have none yet, when increment, then no increment is lost")
+    void increment_Concurrent_NoLostIncrement() throws Exception {
+
+        // Arrange
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Future<?>> futures = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < INCREMENTS_PER_THREAD; j++) {
+                    final LocalDate day = FIRST_DAY.plusDays(j % DAYS);
+                    transactionTemplate.executeWithoutResult(status -> dailyItemTransferTotalRepo.increment(day, ITEM_UUID, 1));
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        final List<DailyItemTransferTotal> totals = dailyItemTransferTotalRepo.findAll();
+        assertThat(totals).hasSize(DAYS);
+        assertThat(totals)
+                .allSatisfy(total -> assertThat(total.getQuantity()).isEqualTo((long) THREADS * INCREMENTS_PER_THREAD / DAYS));
+    }
+}
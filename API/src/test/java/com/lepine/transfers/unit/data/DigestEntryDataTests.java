@@ -0,0 +1,133 @@
+package com.lepine.transfers.unit.data;
+
+import com.lepine.transfers.data.notification.DigestEntry;
+import com.lepine.transfers.data.notification.DigestEntryRepo;
+import com.lepine.transfers.data.role.RoleRepo;
+import com.lepine.transfers.data.user.User;
+import com.lepine.transfers.data.user.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles({"test"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class DigestEntryDataTests {
+
+    private final static UUID
+            VALID_USER_UUID = UUID.randomUUID(),
+            OTHER_USER_UUID = UUID.randomUUID();
+
+    @Autowired
+    private DigestEntryRepo digestEntryRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoleRepo roleRepo;
+
+    private DigestEntry entry(UUID userUuid, String status) {
+        return DigestEntry.builder()
+                .userUuid(userUuid)
+                .recipient("valid@email.com")
+                .shipmentUuid(UUID.randomUUID())
+                .status(status)
+                .createdAt(ZonedDateTime.now())
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        digestEntryRepo.deleteAll();
+    }
+
+    @Test
+    @DisplayName("mSWpcrDjUe: Given entries of two users, when lockAllByUserUuid, then return the user's entries in order")
+    void lockAllByUserUuid() {
+
+        // Arrange
+        final List<DigestEntry> saved = digestEntryRepo.saveAll(List.of(
+                entry(VALID_USER_UUID, "accepted"),
+                entry(OTHER_USER_UUID, "denied"),
+                entry(VALID_USER_UUID, "denied")));
+
+        // Act
+        final List<DigestEntry> locked = digestEntryRepo.lockAllByUserUuid(VALID_USER_UUID);
+
+        // Assert
+        assertThat(locked).extracting(DigestEntry::getId)
+                .containsExactly(saved.get(0).getId(), saved.get(2).getId());
+    }
+
+    @Test
+    @DisplayName("AoyvKHbmzp: Given locked entries, when deleteAllByIdIn, then return how many were deleted")
+    void deleteAllByIdIn_Locked() {
+
+        // Arrange
+        digestEntryRepo.saveAll(List.of(
+                entry(VALID_USER_UUID, "accepted"),
+                entry(VALID_USER_UUID, "denied")));
+        final List<Long> ids = digestEntryRepo.lockAllByUserUuid(VALID_USER_UUID).stream()
+                .map(DigestEntry::getId)
+                .collect(Collectors.toList());
+
+        // Act
+        final int deleted = digestEntryRepo.deleteAllByIdIn(ids);
+
+        // Assert
+        assertThat(deleted).isEqualTo(2);
+        assertThat(digestEntryRepo.lockAllByUserUuid(VALID_USER_UUID)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("TbwXgRuJmo: Given a user, when insertForUser, then add an entry addressed to the user's email")
+    void insertForUser() {
+
+        // Arrange
+        final User user = userRepo.save(User.builder()
+                .email(UUID.randomUUID() + "@email.com")
+                .password("somepassword")
+                .role(roleRepo.findByName("MANAGER").get())
+                .build());
+        userRepo.flush();
+        final UUID shipmentUuid = UUID.randomUUID();
+
+        // Act
+        final int inserted = digestEntryRepo.insertForUser(user.getUuid(), shipmentUuid, "accepted");
+
+        // Assert
+        assertThat(inserted).isEqualTo(1);
+        assertThat(digestEntryRepo.lockAllByUserUuid(user.getUuid()))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getRecipient()).isEqualTo(user.getEmail());
+                    assertThat(entry.getShipmentUuid()).isEqualTo(shipmentUuid);
+                    assertThat(entry.getStatus()).isEqualTo("accepted");
+                    assertThat(entry.getCreatedAt()).isNotNull();
+                });
+    }
+
+    @Test
+    @DisplayName("MdQkzVfPyn: Given no such user, when insertForUser, then add nothing")
+    void insertForUser_NoUser() {
+
+        // Act
+        final int inserted = digestEntryRepo.insertForUser(UUID.randomUUID(), UUID.randomUUID(), "accepted");
+
+        // Assert
+        assertThat(inserted).isZero();
+        assertThat(digestEntryRepo.count()).isZero();
+    }
+}
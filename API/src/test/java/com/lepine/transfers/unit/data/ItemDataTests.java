@@ -1,7 +1,10 @@
 package com.lepine.transfers.unit.data;
 
+import com.lepine.transfers.data.item.DailyItemTransferTotalRepo;
 import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemQuantityTuple;
 import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.utils.pagination.CursorUtils;
 import org.assertj.core.util.Throwables;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,10 +12,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
@@ -35,6 +45,9 @@ class ItemDataTests {
     @Autowired
     private ItemRepo itemRepo;
 
+    @Autowired
+    private DailyItemTransferTotalRepo dailyItemTransferTotalRepo;
+
     @Autowired
     private EntityManager entityManager;
 
@@ -162,4 +175,93 @@ class ItemDataTests {
         entityManager.clear(); // So that count does not throw an exception
         assertEquals(1, itemRepo.count());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("MiVKWObCgO: Given daily totals when mostTransferredItemsInDays, then sum totals of days in range per item")
+    void mostTransferredItemsInDays() {
+
+        // Arrange
+        final LocalDate day = LocalDate.of(2021, 12, 1);
+        final Item item = itemRepo.save(Item.builder().name("a").description("a").sku("a").build());
+        final Item otherItem = itemRepo.save(Item.builder().name("b").description("b").sku("b").build());
+        entityManager.flush();
+
+        dailyItemTransferTotalRepo.increment(day, item.getUuid(), 2);
+        entityManager.flush();
+        dailyItemTransferTotalRepo.increment(day, item.getUuid(), 3); // Same day, added to existing row
+        dailyItemTransferTotalRepo.increment(day.plusDays(1), item.getUuid(), 4);
+        dailyItemTransferTotalRepo.increment(day.plusDays(1), otherItem.getUuid(), 10);
+        dailyItemTransferTotalRepo.increment(day.plusDays(2), otherItem.getUuid(), 100); // Out of range
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        final Page<ItemQuantityTuple> page =
+                itemRepo.mostTransferredItemsInDays(day, day.plusDays(1), PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(2, page.getTotalElements());
+        assertEquals(otherItem.getUuid(), page.getContent().get(0).getItem().getUuid());
+        assertEquals(10L, page.getContent().get(0).getQuantity());
+        assertEquals(item.getUuid(), page.getContent().get(1).getItem().getUuid());
+        assertEquals(9L, page.getContent().get(1).getQuantity());
+    }
+
+    @Test
+    @DisplayName("KxqPdmVhWr: Given totals of many days and items when incrementAll, then add to existing totals and create the others")
+    void incrementAll() {
+
+        // Arrange
+        final LocalDate day = LocalDate.of(2021, 12, 1);
+        final Item item = itemRepo.save(Item.builder().name("a").description("a").sku("a").build());
+        final Item otherItem = itemRepo.save(Item.builder().name("b").description("b").sku("b").build());
+        entityManager.flush();
+        dailyItemTransferTotalRepo.increment(day, item.getUuid(), 2);
+
+        // Act
+        dailyItemTransferTotalRepo.incrementAll(Map.of(
+                day, Map.of(item.getUuid(), 3L, otherItem.getUuid(), 10L),
+                day.plusDays(1), Map.of(item.getUuid(), 4L)));
+        entityManager.clear();
+
+        // Assert
+        final Page<ItemQuantityTuple> page =
+                itemRepo.mostTransferredItemsInDays(day, day.plusDays(1), PageRequest.of(0, 10));
+        assertEquals(2, page.getTotalElements());
+        assertEquals(otherItem.getUuid(), page.getContent().get(0).getItem().getUuid());
+        assertEquals(10L, page.getContent().get(0).getQuantity());
+        assertEquals(item.getUuid(), page.getContent().get(1).getItem().getUuid());
+        assertEquals(9L, page.getContent().get(1).getQuantity());
+    }
+
+    @Test
+    @DisplayName("SIabtbduMz: Given items when sought slice by slice after a sku cursor, then each is read once by sku")
+    void findAllBySkuGreaterThan_Cursor() {
+
+        // Arrange
+        List.of("SKU-04", "SKU-01", "SKU-05", "SKU-03", "SKU-02").forEach(sku -> itemRepo.save(Item.builder()
+                .name(VALID_ITEM_NAME)
+                .description(VALID_ITEM_DESCRIPTION)
+                .sku(sku)
+                .build()));
+        entityManager.flush();
+
+        final PageRequest pageRequest = PageRequest.of(0, 2);
+
+        // Act
+        final List<String> sought = new ArrayList<>();
+        Slice<Item> slice = itemRepo.findAllByOrderBySkuAsc(pageRequest);
+        slice.forEach(item -> sought.add(item.getSku()));
+        int slices = 1;
+        while(slice.hasNext()) {
+            final String afterSku = CursorUtils.decodeString(CursorUtils.encode(sought.get(sought.size() - 1))).get();
+            slice = itemRepo.findAllBySkuGreaterThanOrderBySkuAsc(afterSku, pageRequest);
+            slice.forEach(item -> sought.add(item.getSku()));
+            slices++;
+        }
+
+        // Assert
+        assertThat(sought).containsExactly("SKU-01", "SKU-02", "SKU-03", "SKU-04", "SKU-05");
+        assertThat(slices).isEqualTo(3);
+    }
+}
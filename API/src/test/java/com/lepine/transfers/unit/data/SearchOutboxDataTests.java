@@ -0,0 +1,96 @@
+package com.lepine.transfers.unit.data;
+
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.search.SearchOutboxEntry;
+import com.lepine.transfers.data.search.SearchOutboxOperation;
+import com.lepine.transfers.data.search.SearchOutboxRepo;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.stock.StockReceipt;
+import com.lepine.transfers.data.stock.StockRepo;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles({"test"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class SearchOutboxDataTests {
+
+    private final static String INDEX_NAME = "stocks";
+
+    @Autowired
+    private SearchOutboxRepo searchOutboxRepo;
+
+    @Autowired
+    private StockRepo stockRepo;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private WarehouseRepo warehouseRepo;
+
+    @BeforeEach
+    void setUp() {
+        searchOutboxRepo.deleteAll();
+    }
+
+    @Test
+    @DisplayName("BwkRtzNqLc: Given objects when insertRefreshes, then queue a refresh of each in order")
+    void insertRefreshes() {
+
+        // Arrange
+        final UUID first = UUID.randomUUID(), second = UUID.randomUUID();
+
+        // Act
+        searchOutboxRepo.insertRefreshes(INDEX_NAME, List.of(first, second));
+
+        // Assert
+        final List<SearchOutboxEntry> entries = searchOutboxRepo.findAllByOrderByIdAsc(Pageable.unpaged());
+        assertThat(entries).extracting(SearchOutboxEntry::getObjectId)
+                .containsExactly(first.toString(), second.toString());
+        assertThat(entries).allSatisfy(entry -> {
+            assertThat(entry.getIndexName()).isEqualTo(INDEX_NAME);
+            assertThat(entry.getOperation()).isEqualTo(SearchOutboxOperation.REFRESH);
+            assertThat(entry.getPayload()).isEqualTo("{\"objectID\":\"" + entry.getObjectId() + "\"}");
+            assertThat(entry.getCreatedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    @DisplayName("XcnMvhTpLs: Given receipts of a stock there and of one missing when insertStockRefreshes, then queue only the existing stock")
+    void insertStockRefreshes() {
+
+        // Arrange
+        final Item item = itemRepo.save(Item.builder().sku("OUTBOX-SKU").name("Item").description("Item").build());
+        final Warehouse warehouse = warehouseRepo.save(Warehouse.builder().zipCode("A1A1A1").city("City").province("QC").build());
+        final Stock stock = stockRepo.saveAndFlush(Stock.builder().item(item).warehouse(warehouse).quantity(10).build());
+
+        // Act
+        searchOutboxRepo.insertStockRefreshes(INDEX_NAME, List.of(
+                new StockReceipt(warehouse.getUuid(), item.getUuid(), 3),
+                new StockReceipt(UUID.randomUUID(), item.getUuid(), 4)));
+
+        // Assert
+        assertThat(searchOutboxRepo.findAllByOrderByIdAsc(Pageable.unpaged()))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getObjectId()).isEqualTo(stock.getUuid().toString());
+                    assertThat(entry.getOperation()).isEqualTo(SearchOutboxOperation.REFRESH);
+                    assertThat(entry.getPayload()).isEqualTo("{\"objectID\":\"" + stock.getUuid() + "\"}");
+                });
+    }
+}
@@ -0,0 +1,130 @@
+package com.lepine.transfers.unit.data;
+
+import com.lepine.transfers.config.SecondLevelCacheConfig;
+import com.lepine.transfers.data.auth.Role;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.role.RoleRepo;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles({"test"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SecondLevelCacheConfig.class)
+// Every repository call gets its own persistence context, so repeated loads can only be served by the shared cache
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheDataTests {
+
+    private final static Warehouse VALID_WAREHOUSE = Warehouse.builder()
+            .zipCode("A1B2C3")
+            .city("Montreal")
+            .province("QC")
+            .build();
+
+    private final static Item VALID_ITEM = Item.builder()
+            .sku("CACHE-SKU")
+            .name("Cached item")
+            .description("An item which should be served from the second-level cache")
+            .build();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RoleRepo roleRepo;
+
+    @Autowired
+    private WarehouseRepo warehouseRepo;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        itemRepo.deleteAll();
+        warehouseRepo.deleteAll();
+    }
+
+    @Test
+    void contextLoads(){}
+
+    @Test
+    @DisplayName("pnkPgJtiMu: Given role already looked up by name, when looked up again, then no statement is prepared")
+    void roleByName_QueryCached() {
+        // Arrange
+        roleRepo.findByName("MANAGER");
+        final long statementsBefore = statistics.getPrepareStatementCount();
+
+        // Act
+        final Optional<Role> role = roleRepo.findByName("MANAGER");
+
+        // Assert
+        assertTrue(role.isPresent());
+        assertEquals("MANAGER", role.get().getName());
+        assertEquals(statementsBefore, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("HmaRmJLCLF: Given saved warehouse, when found by uuid twice, then both loads are served from the cache")
+    void warehouseByUuid_EntityCached() {
+        // Arrange
+        final Warehouse saved = warehouseRepo.save(VALID_WAREHOUSE.toBuilder().build());
+        final long statementsBefore = statistics.getPrepareStatementCount();
+
+        // Act
+        final Optional<Warehouse> first = warehouseRepo.findById(saved.getUuid());
+        final Optional<Warehouse> second = warehouseRepo.findById(saved.getUuid());
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        assertEquals(saved.getZipCode(), second.get().getZipCode());
+        assertEquals(statementsBefore, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.WAREHOUSES_REGION).getHitCount());
+    }
+
+    @Test
+    @DisplayName("IWAyGoYwgJ: Given cached item, when updated, then the next load sees the update")
+    void item_UpdateRefreshesCache() {
+        // Arrange
+        final Item saved = itemRepo.save(VALID_ITEM.toBuilder().build());
+        itemRepo.findById(saved.getUuid());
+
+        // Act
+        itemRepo.save(saved.toBuilder().name("Renamed item").build());
+        final Optional<Item> found = itemRepo.findById(saved.getUuid());
+
+        // Assert
+        assertTrue(found.isPresent());
+        assertEquals("Renamed item", found.get().getName());
+    }
+}
@@ -15,6 +15,10 @@ import com.lepine.transfers.data.user.User;
 import com.lepine.transfers.data.user.UserRepo;
 import com.lepine.transfers.data.warehouse.Warehouse;
 import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import com.lepine.transfers.utils.pagination.CursorUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.javatuples.Pair;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -22,12 +26,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import javax.persistence.EntityManager;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -275,4 +288,102 @@ public class ShipmentTransferDataTests {
         // Assert
         assertThat(foundShipment.getTransfers()).isEqualTo(savedShipment.getTransfers());
     }
+
+    @Test
+    @DisplayName("aagpfBvbxO: Given shipment with many transfers when saved, then insert each table in one batch")
+    void save_ManyTransfers_Batched() {
+
+        // Arrange
+        final List<Transfer> transfers = IntStream.rangeClosed(1, 40)
+                .mapToObj(quantity -> VALID_TRANSFER.toBuilder().quantity(quantity).build())
+                .collect(Collectors.toList());
+        final Shipment shipment = VALID_SHIPMENT.toBuilder()
+                .transfers(transfers)
+                .build();
+
+        final Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Act
+        shipmentRepo.save(shipment);
+        entityManager.flush();
+
+        // Assert
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(41);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("CDmCDAEafe: Given shipments sharing expected dates when sought slice by slice, then each is read once in listing order")
+    void findUuidsAfter_EqualDates() {
+
+        // Arrange
+        final ZonedDateTime day = ZonedDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(3);
+        final List<ZonedDateTime> expectedDates = List.of(
+                day.plusDays(2), day.plusDays(2),
+                day.plusDays(1), day.plusDays(1), day.plusDays(1),
+                day);
+        final List<UUID> saved = expectedDates.stream()
+                .map(expectedDate -> shipmentRepo.save(VALID_SHIPMENT.toBuilder()
+                        .expectedDate(expectedDate)
+                        .transfers(List.of(VALID_TRANSFER.toBuilder().build()))
+                        .build()).getUuid())
+                .collect(Collectors.toList());
+        entityManager.flush();
+        entityManager.clear();
+
+        final PageRequest pageRequest = PageRequest.of(0, 2);
+
+        // Act
+        final List<Shipment> sought = new ArrayList<>();
+        Slice<Shipment> slice = shipmentRepo.eagerLoad(shipmentRepo.findFirstUuids(pageRequest));
+        sought.addAll(slice.getContent());
+        while(slice.hasNext()) {
+            final Shipment last = sought.get(sought.size() - 1);
+            final Pair<ZonedDateTime, UUID> key = CursorUtils.decodeZonedDateTimeAndUuid(
+                    CursorUtils.encode(last.getExpectedDate(), last.getUuid())).get();
+            slice = shipmentRepo.eagerLoad(shipmentRepo.findUuidsAfter(key.getValue0(), key.getValue1(), pageRequest));
+            sought.addAll(slice.getContent());
+        }
+
+        // Assert
+        final List<UUID> soughtUuids = sought.stream().map(Shipment::getUuid).collect(Collectors.toList());
+        assertThat(soughtUuids).containsExactlyInAnyOrderElementsOf(saved);
+        assertThat(soughtUuids).isEqualTo(shipmentRepo.findFirstUuids(PageRequest.of(0, saved.size())).getContent());
+        assertThat(sought)
+                .extracting(shipment -> shipment.getExpectedDate().toInstant())
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("qWzKRbnLxe: Given page of uuids with a shipment deleted since, when eagerLoad, then leave it out and keep the page order")
+    void eagerLoad_DeletedShipment() {
+
+        // Arrange
+        final List<UUID> saved = IntStream.range(0, 3)
+                .mapToObj(i -> shipmentRepo.save(VALID_SHIPMENT.toBuilder()
+                        .transfers(List.of(VALID_TRANSFER.toBuilder().build()))
+                        .build()).getUuid())
+                .collect(Collectors.toList());
+        entityManager.flush();
+        entityManager.clear();
+
+        final UUID deleted = UUID.randomUUID();
+        final PageRequest pageRequest = PageRequest.of(0, 4);
+        final Page<UUID> uuids = new PageImpl<>(
+                List.of(saved.get(2), deleted, saved.get(0), saved.get(1)), pageRequest, 4);
+
+        // Act
+        final Page<Shipment> page = shipmentRepo.eagerLoad(uuids);
+
+        // Assert
+        assertThat(page.getContent())
+                .extracting(Shipment::getUuid)
+                .containsExactly(saved.get(2), saved.get(0), saved.get(1));
+        assertThat(page.getPageable()).isEqualTo(pageRequest);
+    }
 }
@@ -11,10 +11,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import javax.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -141,4 +148,128 @@ public class StockDataTests {
         // Assert
         assertThat(stockRepo.count()).isEqualTo(0);
     }
+
+    @Test
+    @DisplayName("JSebNigEmr: Given stock with enough quantity when reserveAll, then decrement stock")
+    void reserveAll_Enough() {
+        // Arrange
+        final Stock stock = saveStock(10);
+
+        // Act
+        final Set<UUID> notReserved = stockRepo.reserveAll(Map.of(stock.getUuid(), 4));
+
+        // Assert
+        assertThat(notReserved).isEqualTo(Set.of());
+        assertThat(stockRepo.findById(stock.getUuid()).get().getQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("RarWsQUTBs: Given stock with too low quantity when reserveAll, then return its UUID and leave stock untouched")
+    void reserveAll_TooLow() {
+        // Arrange
+        final Stock stock = saveStock(3);
+
+        // Act
+        final Set<UUID> notReserved = stockRepo.reserveAll(Map.of(stock.getUuid(), 4));
+
+        // Assert
+        assertThat(notReserved).isEqualTo(Set.of(stock.getUuid()));
+        assertThat(stockRepo.findById(stock.getUuid()).get().getQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("HRwKRnAGzl: Given non-existent stock when reserveAll, then return its UUID")
+    void reserveAll_NonExistent() {
+        // Arrange
+        final UUID nonExistent = UUID.randomUUID();
+
+        // Act
+        final Set<UUID> notReserved = stockRepo.reserveAll(Map.of(nonExistent, 1));
+
+        // Assert
+        assertThat(notReserved).isEqualTo(Set.of(nonExistent));
+    }
+
+    @Test
+    @DisplayName("MWnJGeVgRR: Given existing stock when receive, then add to it and return the new quantity")
+    void receive_Existing() {
+        // Arrange
+        final Stock stock = saveStock(10);
+
+        // Act
+        final int received = stockRepo.receive(WAREHOUSE_UUID, ITEM_UUID, 4);
+
+        // Assert
+        assertThat(received).isEqualTo(14);
+        assertThat(stockRepo.findById(stock.getUuid()).get().getQuantity()).isEqualTo(14);
+        assertThat(stockRepo.count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("yUXlXJYOTi: Given no stock of the item in the warehouse when receive, then create it with the quantity")
+    void receive_NonExistent() {
+        // Act
+        final int received = stockRepo.receive(WAREHOUSE_UUID, ITEM_UUID, 4);
+
+        // Assert
+        assertThat(received).isEqualTo(4);
+        assertThat(stockRepo.findByWarehouseUuidAndItemUuid(WAREHOUSE_UUID, ITEM_UUID).get().getQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("uYvIuozbaW: Given stocks in many warehouses when seeking by uuid, then return every stock once across slices")
+    void findAllByUuidGreaterThan_Seek() {
+        // Arrange
+        final Set<UUID> expected = new HashSet<>();
+        expected.add(saveStock().getUuid());
+        for (int i = 0; i < 2; i++) {
+            final Warehouse warehouse = warehouseRepo.save(
+                    new Warehouse(null, "Zip" + i, "City", "Province", true));
+            final Stock stock = stockRepo.save(Stock.builder()
+                    .item(itemRepo.getById(ITEM_UUID))
+                    .warehouse(warehouse)
+                    .quantity(10)
+                    .build());
+            expected.add(stock.getUuid());
+        }
+        entityManager.flush();
+        final PageRequest pageRequest = PageRequest.of(0, 2);
+
+        // Act
+        final Slice<Stock> first = stockRepo.findAllByOrderByUuidAsc(pageRequest);
+        final UUID cursor = first.getContent().get(first.getNumberOfElements() - 1).getUuid();
+        final Slice<Stock> second = stockRepo.findAllByUuidGreaterThanOrderByUuidAsc(cursor, pageRequest);
+
+        // Assert
+        assertThat(first.getNumberOfElements()).isEqualTo(2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getNumberOfElements()).isEqualTo(1);
+        assertThat(second.hasNext()).isFalse();
+
+        final Set<UUID> seen = new HashSet<>();
+        first.forEach(s -> seen.add(s.getUuid()));
+        second.forEach(s -> seen.add(s.getUuid()));
+        assertThat(seen).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("FaeJgSkYfO: Given stocks when streamAllWithItemAndWarehouse, then stream every stock with its item and warehouse")
+    void streamAllWithItemAndWarehouse() {
+        // Arrange
+        final Stock saved = saveStock();
+        entityManager.clear();
+
+        // Act
+        final Set<Stock> streamed;
+        try(Stream<Stock> stream = stockRepo.streamAllWithItemAndWarehouse()) {
+            streamed = stream.collect(Collectors.toSet());
+        }
+
+        // Assert
+        assertThat(streamed.size()).isEqualTo(1);
+        final Stock stock = streamed.iterator().next();
+        assertThat(stock.getUuid()).isEqualTo(saved.getUuid());
+        assertThat(stock.getItem().getSku()).isEqualTo("Sku");
+        assertThat(stock.getWarehouse().getZipCode()).isEqualTo("Zip");
+    }
 }
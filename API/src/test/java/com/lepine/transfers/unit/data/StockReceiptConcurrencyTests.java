@@ -0,0 +1,155 @@
+package com.lepine.transfers.unit.data;
+
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.stock.StockReceipt;
+import com.lepine.transfers.data.stock.StockRepo;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles({"test"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Every receipt commits on its own, like concurrent confirmations do
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StockReceiptConcurrencyTests {
+
+    private final static int
+            THREADS = 8,
+            RECEIPTS_PER_THREAD = 50,
+            WAREHOUSES = 20;
+
+    @Autowired
+    private StockRepo stockRepo;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private WarehouseRepo warehouseRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID
+            ITEM_UUID,
+            WAREHOUSE_UUID;
+
+    @BeforeEach
+    void setUp() {
+        ITEM_UUID = itemRepo.save(Item.builder().sku("RECEIPT-SKU").name("Item").description("Item").build()).getUuid();
+        WAREHOUSE_UUID = warehouseRepo.save(Warehouse.builder().zipCode("A1A1A1").city("City").province("QC").build()).getUuid();
+    }
+
+    @AfterEach
+    void cleanup() {
+        stockRepo.deleteAll();
+        itemRepo.deleteAll();
+        warehouseRepo.deleteAll();
+    }
+
+    @Test
+    @DisplayName("FGBHmbVTFK: Given many threads receiving into a stock that does not exist yet, when receive, then no increment is lost")
+    void receive_Concurrent_NoLostIncrement() throws Exception {
+
+        // Arrange
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Set<Integer> returned = ConcurrentHashMap.newKeySet();
+
+        final List<Future<?>> futures = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < RECEIPTS_PER_THREAD; j++) {
+                    returned.add(transactionTemplate.execute(status -> stockRepo.receive(WAREHOUSE_UUID, ITEM_UUID, 1)));
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        final int expected = THREADS * RECEIPTS_PER_THREAD;
+        assertThat(stockRepo.count()).isEqualTo(1L);
+        assertThat(stockRepo.findByWarehouseUuidAndItemUuid(WAREHOUSE_UUID, ITEM_UUID).get().getQuantity()).isEqualTo(expected);
+        // Each receipt saw its own increment on top of all the ones before
+        assertThat(returned).isEqualTo(IntStream.rangeClosed(1, expected).boxed().collect(Collectors.toSet()));
+    }
+
+    @Test
+    @DisplayName("QhzKwTnXpa: Given many threads receiving batches into stocks that do not exist yet, when receiveAll, then every stock is created once and no increment is lost")
+    void receiveAll_Concurrent_NoLostIncrement() throws Exception {
+
+        // Arrange
+        final List<StockReceipt> receipts = IntStream.range(0, WAREHOUSES)
+                .mapToObj(i -> warehouseRepo.save(Warehouse.builder().zipCode(String.format("B2B%03d", i)).city("City").province("QC").build()))
+                .map(warehouse -> StockReceipt.builder()
+                        .warehouseUuid(warehouse.getUuid())
+                        .itemUuid(ITEM_UUID)
+                        .quantity(1)
+                        .build())
+                .collect(Collectors.toList());
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Future<?>> futures = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < RECEIPTS_PER_THREAD; j++) {
+                    transactionTemplate.executeWithoutResult(status -> stockRepo.receiveAll(receipts));
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(stockRepo.count()).isEqualTo(WAREHOUSES);
+        receipts.forEach(receipt -> assertThat(stockRepo.findByWarehouseUuidAndItemUuid(receipt.getWarehouseUuid(), ITEM_UUID).get().getQuantity())
+                .isEqualTo(THREADS * RECEIPTS_PER_THREAD));
+    }
+}
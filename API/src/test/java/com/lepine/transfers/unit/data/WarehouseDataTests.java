@@ -2,6 +2,7 @@ package com.lepine.transfers.unit.data;
 
 import com.lepine.transfers.data.warehouse.Warehouse;
 import com.lepine.transfers.data.warehouse.WarehouseRepo;
+import com.lepine.transfers.utils.pagination.CursorUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,13 +10,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -215,4 +222,71 @@ public class WarehouseDataTests {
         // Assert
         assertThat(deleted).isEqualTo(0);
     }
+
+    @Test
+    @DisplayName("GrdEIFLYEj: Given warehouses when sought slice by slice after a uuid cursor, then each is read once in uuid order")
+    void findAllByUuidGreaterThan_Cursor() {
+
+        // Arrange
+        final List<UUID> saved = IntStream.range(0, 5)
+                .mapToObj(i -> warehouseRepo.save(Warehouse.builder()
+                        .zipCode("A1B2C" + i)
+                        .city(VALID_CITY)
+                        .province(VALID_PROVINCE)
+                        .build()).getUuid())
+                .collect(Collectors.toList());
+        entityManager.flush();
+
+        final PageRequest pageRequest = PageRequest.of(0, 2);
+
+        // Act
+        final List<UUID> sought = new ArrayList<>();
+        Slice<Warehouse> slice = warehouseRepo.findAllByOrderByUuidAsc(pageRequest);
+        slice.forEach(warehouse -> sought.add(warehouse.getUuid()));
+        while(slice.hasNext()) {
+            final UUID after = CursorUtils.decodeUuid(CursorUtils.encode(sought.get(sought.size() - 1))).get();
+            slice = warehouseRepo.findAllByUuidGreaterThanOrderByUuidAsc(after, pageRequest);
+            slice.forEach(warehouse -> sought.add(warehouse.getUuid()));
+        }
+
+        // Assert
+        assertThat(sought).containsExactlyInAnyOrderElementsOf(saved);
+        assertThat(sought).isEqualTo(warehouseRepo.findAllByOrderByUuidAsc(PageRequest.of(0, saved.size()))
+                .map(Warehouse::getUuid)
+                .getContent());
+    }
+
+    @Test
+    @DisplayName("OSHuhgKQaE: Given active and inactive warehouses when sought after a uuid cursor, then only active ones are read")
+    void findAllByActiveAndUuidGreaterThan_Cursor() {
+
+        // Arrange
+        final List<Warehouse> saved = IntStream.range(0, 5)
+                .mapToObj(i -> warehouseRepo.save(Warehouse.builder()
+                        .zipCode("A1B2C" + i)
+                        .city(VALID_CITY)
+                        .province(VALID_PROVINCE)
+                        .active(i % 2 == 0)
+                        .build()))
+                .collect(Collectors.toList());
+        entityManager.flush();
+
+        final PageRequest pageRequest = PageRequest.of(0, 1);
+
+        // Act
+        final List<UUID> sought = new ArrayList<>();
+        Slice<Warehouse> slice = warehouseRepo.findAllByActiveOrderByUuidAsc(true, pageRequest);
+        slice.forEach(warehouse -> sought.add(warehouse.getUuid()));
+        while(slice.hasNext()) {
+            final UUID after = CursorUtils.decodeUuid(CursorUtils.encode(sought.get(sought.size() - 1))).get();
+            slice = warehouseRepo.findAllByActiveAndUuidGreaterThanOrderByUuidAsc(true, after, pageRequest);
+            slice.forEach(warehouse -> sought.add(warehouse.getUuid()));
+        }
+
+        // Assert
+        assertThat(sought).containsExactlyInAnyOrderElementsOf(saved.stream()
+                .filter(Warehouse::isActive)
+                .map(Warehouse::getUuid)
+                .collect(Collectors.toList()));
+    }
 }
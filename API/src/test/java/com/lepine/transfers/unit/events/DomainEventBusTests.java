@@ -0,0 +1,217 @@
+package com.lepine.transfers.unit.events;
+
+import com.lepine.transfers.config.EventBusConfig;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.events.DomainEventBus;
+import com.lepine.transfers.events.InPublishingTransaction;
+import com.lepine.transfers.events.item.ItemUpdateEvent;
+import com.lepine.transfers.events.item.ItemUpdateHandler;
+import com.lepine.transfers.events.stock.StockBatchReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {
+        DomainEventBus.class,
+        EventBusConfig.class,
+        TransactionalEventListenerFactory.class,
+        DomainEventBusTests.RecordingStockReceiveHandler.class,
+}, properties = "events.bus.async=true")
+@ActiveProfiles({"test"})
+public class DomainEventBusTests {
+
+    private final static UUID
+            VALID_ITEM_UUID = UUID.randomUUID(),
+            VALID_WAREHOUSE_UUID = UUID.randomUUID(),
+            VALID_STOCK_UUID = UUID.randomUUID();
+
+    @InPublishingTransaction
+    static class RecordingStockReceiveHandler implements StockReceiveHandler {
+
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private RuntimeException failure;
+
+        @Override
+        public void onStockReceive(StockReceiveEvent event) {
+            threads.add(Thread.currentThread());
+            if(failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public void onStockBatchReceive(StockBatchReceiveEvent event) {
+            threads.add(Thread.currentThread());
+        }
+    }
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @MockBean
+    private ItemUpdateHandler itemUpdateHandler;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecordingStockReceiveHandler stockReceiveHandler;
+
+    @BeforeEach
+    void setUp() {
+        stockReceiveHandler.threads.clear();
+        stockReceiveHandler.failure = null;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private ItemUpdateEvent updateOf(int version) {
+        return new ItemUpdateEvent(this, Item.builder()
+                .uuid(VALID_ITEM_UUID)
+                .name("Item " + version)
+                .build());
+    }
+
+    private long itemUpdateCalls() {
+        return domainEventBus.getStatus().getHandlers().entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith(".onItemUpdate"))
+                .mapToLong(entry -> entry.getValue().getCalls())
+                .sum();
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("cHPeOMwkuC: Given many events of one aggregate, when published, then handled in order on the bus' threads")
+    void valid_KeepsAggregateOrder() {
+
+        // Arrange
+        final List<ItemUpdateEvent> events = IntStream.range(0, 200)
+                .mapToObj(this::updateOf)
+                .collect(Collectors.toList());
+        final Thread publisher = Thread.currentThread();
+        final List<Thread> handlerThreads = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> handlerThreads.add(Thread.currentThread()))
+                .when(itemUpdateHandler).onItemUpdate(any());
+        final long callsBefore = itemUpdateCalls();
+
+        // Act
+        events.forEach(applicationEventPublisher::publishEvent);
+
+        // Assert
+        final ArgumentCaptor<ItemUpdateEvent> captor = ArgumentCaptor.forClass(ItemUpdateEvent.class);
+        verify(itemUpdateHandler, timeout(5000).times(events.size())).onItemUpdate(captor.capture());
+        assertThat(captor.getAllValues()).containsExactlyElementsOf(events);
+        assertThat(handlerThreads).doesNotContain(publisher);
+
+        assertThat(itemUpdateCalls() - callsBefore).isEqualTo(events.size());
+    }
+
+    @Test
+    @DisplayName("yERBNeGQiA: Given an open transaction, when published, then handled only once it commits")
+    void valid_WaitsForCommit() {
+
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        final ItemUpdateEvent event = updateOf(1);
+
+        // Act
+        applicationEventPublisher.publishEvent(event);
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        // Assert
+        verify(itemUpdateHandler, after(200).never()).onItemUpdate(any());
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        verify(itemUpdateHandler, timeout(5000).times(1)).onItemUpdate(event);
+    }
+
+    @Test
+    @DisplayName("uUirycFXIz: Given a rolled back transaction, when published, then never handled")
+    void valid_DropsOnRollback() {
+
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act
+        applicationEventPublisher.publishEvent(updateOf(1));
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        verify(itemUpdateHandler, after(200).never()).onItemUpdate(any());
+    }
+
+    @Test
+    @DisplayName("rBJhtgEmWq: Given a handler in the publishing transaction, when published, then handled on the publisher's thread before commit")
+    void valid_InPublishingTransaction() {
+
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        final StockReceiveEvent event = new StockReceiveEvent(this, VALID_STOCK_UUID, VALID_WAREHOUSE_UUID, VALID_ITEM_UUID, 1);
+
+        // Act
+        applicationEventPublisher.publishEvent(event);
+        final List<Thread> beforeCommit = List.copyOf(stockReceiveHandler.threads);
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        // Assert
+        assertThat(beforeCommit).isEmpty();
+        assertThat(stockReceiveHandler.threads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("kNfuLqzXAo: Given a failing handler in the publishing transaction, when it commits, then the failure reaches the publisher")
+    void invalid_InPublishingTransaction_Fails() {
+
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        stockReceiveHandler.failure = new IllegalStateException("Outbox unavailable");
+        applicationEventPublisher.publishEvent(new StockReceiveEvent(this, VALID_STOCK_UUID, VALID_WAREHOUSE_UUID, VALID_ITEM_UUID, 1));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> TransactionSynchronizationUtils.triggerBeforeCommit(false));
+        assertThat(domainEventBus.getStatus().getHandlers().get("RecordingStockReceiveHandler.onStockReceive").getFailures())
+                .isPositive();
+    }
+}
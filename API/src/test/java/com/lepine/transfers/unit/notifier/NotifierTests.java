@@ -1,12 +1,14 @@
 package com.lepine.transfers.unit.notifier;
 
+import com.lepine.transfers.config.EventBusConfig;
+import com.lepine.transfers.config.NotificationDigestConfig;
 import com.lepine.transfers.data.shipment.Shipment;
 import com.lepine.transfers.data.shipment.ShipmentStatus;
-import com.lepine.transfers.data.user.User;
+import com.lepine.transfers.events.DomainEventBus;
 import com.lepine.transfers.events.shipment.ShipmentUpdateEvent;
 import com.lepine.transfers.notification.Notifier;
-import com.lepine.transfers.services.mailer.MailerService;
-import com.lepine.transfers.services.user.UserService;
+import com.lepine.transfers.notification.digest.NotificationDigestService;
+import com.lepine.transfers.services.mailer.queue.MailQueueService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,15 +17,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import java.util.Optional;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest(classes= {
         Notifier.class,
+        NotificationDigestConfig.class,
+        DomainEventBus.class,
+        EventBusConfig.class,
 })
 @ActiveProfiles({"test"})
 public class NotifierTests {
@@ -31,15 +37,6 @@ public class NotifierTests {
     private final static UUID
         VALID_USER_UUID =  UUID.randomUUID();
 
-    private final static String
-        VALID_USER_EMAIL = "valid@email.com";
-
-    private final static User
-        VALID_USER = User.builder()
-            .uuid(VALID_USER_UUID)
-            .email(VALID_USER_EMAIL)
-            .build();
-
     @SpyBean
     private Notifier notifier;
 
@@ -47,10 +44,13 @@ public class NotifierTests {
     private ApplicationEventPublisher applicationEventPublisher;
 
     @MockBean
-    private UserService userService;
+    private MailQueueService mailQueueService;
+
+    @MockBean
+    private NotificationDigestService notificationDigestService;
 
     @MockBean
-    private MailerService mailerService;
+    private PlatformTransactionManager transactionManager;
 
     @Test
     void contextLoads(){}
@@ -76,18 +76,16 @@ public class NotifierTests {
         final String expectedSubject = "Shipment status update";
         final String expectedBody = "Your shipment has been accepted";
 
-        given(userService.findByUuid(VALID_USER_UUID)).willReturn(Optional.of(VALID_USER));
-        given(mailerService.sendHTML(VALID_USER_EMAIL, expectedSubject, expectedBody))
-                .willReturn(true);
+        given(mailQueueService.enqueueForUser(VALID_USER_UUID, expectedSubject, expectedBody)).willReturn(true);
 
         // Act
         applicationEventPublisher.publishEvent(expectedUpdateShipmentEvent);
 
         // Assert
         verify(notifier, times(1)).onShipmentUpdate(expectedUpdateShipmentEvent);
-        verify(userService, times(1)).findByUuid(VALID_USER_UUID);
-        verify(mailerService, times(1))
-                .sendHTML(VALID_USER_EMAIL, expectedSubject, expectedBody);
+        verify(mailQueueService, times(1))
+                .enqueueForUser(VALID_USER_UUID, expectedSubject, expectedBody);
+        verify(mailQueueService, never()).enqueue(any(), any(), any());
     }
 
     @Test
@@ -113,8 +111,8 @@ public class NotifierTests {
 
         // Assert
         verify(notifier, times(1)).onShipmentUpdate(expectedUpdateShipmentEvent);
-        verify(userService, never()).findByUuid(any());
-        verify(mailerService, never()).sendHTML(any(), any(), any());
+        verify(mailQueueService, never()).enqueueForUser(any(), any(), any());
+        verify(notificationDigestService, never()).add(any(), any(), any());
     }
 
     @Test
@@ -135,14 +133,14 @@ public class NotifierTests {
         final ShipmentUpdateEvent expectedUpdateShipmentEvent =
                 new ShipmentUpdateEvent(this, expectedOldShipment, expectedNewShipment);
 
-        given(userService.findByUuid(VALID_USER_UUID)).willReturn(Optional.empty());
+        given(mailQueueService.enqueueForUser(eq(VALID_USER_UUID), any(), any())).willReturn(false);
 
         // Act
         applicationEventPublisher.publishEvent(expectedUpdateShipmentEvent);
 
         // Assert
         verify(notifier, times(1)).onShipmentUpdate(expectedUpdateShipmentEvent);
-        verify(userService, times(1)).findByUuid(VALID_USER_UUID);
-        verify(mailerService, never()).sendHTML(any(), any(), any());
+        verify(mailQueueService, times(1)).enqueueForUser(eq(VALID_USER_UUID), any(), any());
+        verify(mailQueueService, never()).enqueue(any(), any(), any());
     }
 }
@@ -1,25 +1,29 @@
 package com.lepine.transfers.unit.services;
 
+import com.lepine.transfers.config.ApplicationEventPublisherConfig;
+import com.lepine.transfers.config.ConfirmationBatchConfig;
 import com.lepine.transfers.config.ValidationConfig;
 import com.lepine.transfers.data.confirmation.Confirmation;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
 import com.lepine.transfers.data.confirmation.ConfirmationRepo;
-import com.lepine.transfers.data.item.Item;
-import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.confirmation.ConfirmationTarget;
+import com.lepine.transfers.data.confirmation.ConfirmationUuidLessDTO;
 import com.lepine.transfers.data.shipment.ShipmentRepo;
 import com.lepine.transfers.data.shipment.ShipmentStatus;
-import com.lepine.transfers.data.stock.Stock;
-import com.lepine.transfers.data.stock.StockMapper;
+import com.lepine.transfers.data.stock.ReceivedStock;
+import com.lepine.transfers.data.stock.StockReceipt;
 import com.lepine.transfers.data.stock.StockRepo;
-import com.lepine.transfers.data.stock.StockSearchDTO;
-import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.data.transfer.ConfirmedTransfer;
 import com.lepine.transfers.data.transfer.TransferRepo;
+import com.lepine.transfers.events.stock.StockBatchReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveEvent;
+import com.lepine.transfers.exceptions.confirmation.ConfirmationBatchSizeException;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotAcceptedException;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotFoundException;
 import com.lepine.transfers.exceptions.transfer.QuantityExceededException;
 import com.lepine.transfers.exceptions.transfer.TransferNotFoundException;
 import com.lepine.transfers.services.confirmation.ConfirmationService;
 import com.lepine.transfers.services.confirmation.ConfirmationServiceImpl;
-import com.lepine.transfers.services.search.SearchService;
 import com.lepine.transfers.utils.ConstraintViolationExceptionUtils;
 import com.lepine.transfers.utils.MessageSourceUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,12 +34,16 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 
 import javax.validation.ConstraintViolationException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -46,13 +54,20 @@ import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @SpringBootTest(classes = {
         ConfirmationServiceImpl.class,
         ValidationConfig.class,
+        ApplicationEventPublisherConfig.class,
+        ConfirmationBatchConfig.class,
 })
 public class ConfirmationServiceTests {
 
@@ -61,19 +76,24 @@ public class ConfirmationServiceTests {
         NOT_ACCEPTED_SHIPMENT_UUID = UUID.randomUUID(),
         VALID_TO_UUID = UUID.randomUUID(),
         VALID_ITEM_UUID = UUID.randomUUID(),
+        VALID_SHIPMENT_UUID = UUID.randomUUID(),
+        VALID_STOCK_UUID = UUID.randomUUID(),
         NOT_FOUND_SHIPMENT_UUID = UUID.randomUUID();
 
     private final static int VALID_QUANTITY = 10;
 
-    private final static Stock VALID_STOCK = Stock.builder()
-            .item(Item.builder().uuid(VALID_ITEM_UUID).build())
-            .build();
-
-    private final static Transfer VALID_TRANSFER = Transfer.builder()
-            .uuid(VALID_TRANSFER_UUID)
-            .quantity(VALID_QUANTITY)
-            .stock(VALID_STOCK)
-            .build();
+    private final static ConfirmationTarget VALID_TARGET = new ConfirmationTarget(
+            VALID_TRANSFER_UUID,
+            VALID_QUANTITY,
+            0,
+            VALID_SHIPMENT_UUID,
+            ShipmentStatus.ACCEPTED,
+            VALID_TO_UUID,
+            VALID_ITEM_UUID);
+
+    private static ConfirmedTransfer confirmedTransfer(final int confirmedQuantity) {
+        return new ConfirmedTransfer(VALID_TRANSFER_UUID, VALID_QUANTITY, confirmedQuantity, VALID_SHIPMENT_UUID);
+    }
 
     private String
             TRANSFER_UUID_NOT_NULL_MESSAGE,
@@ -97,11 +117,8 @@ public class ConfirmationServiceTests {
     @MockBean
     private StockRepo stockRepo;
 
-    @MockBean
-    private SearchService<StockSearchDTO, UUID> searchService;
-
-    @MockBean
-    private StockMapper stockMapper;
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @BeforeEach
     void setUp() {
@@ -110,8 +127,8 @@ public class ConfirmationServiceTests {
         TRANSFER_UUID_NOT_NULL_MESSAGE = wrapper.getMessage("transfer.uuid.not_null");
         TRANSFER_MIN_MESSAGE = wrapper.getMessage("transfer.quantity.min");
 
-        given(transferRepo.findById(VALID_TRANSFER_UUID))
-                .willReturn(Optional.of(VALID_TRANSFER));
+        given(transferRepo.findConfirmationTarget(VALID_TRANSFER_UUID))
+                .willReturn(Optional.of(VALID_TARGET));
 
         given(confirmationRepo.save(any()))
                 .willAnswer(invocation -> {
@@ -120,14 +137,12 @@ public class ConfirmationServiceTests {
                     return argument;
                 });
 
-        given(transferRepo.save(any()))
-                .willAnswer(invocation -> invocation.getArgument(0));
+        given(transferRepo.confirm(eq(VALID_TRANSFER_UUID), anyInt()))
+                .willAnswer(invocation -> Optional.of(confirmedTransfer(invocation.getArgument(1))));
 
-        given(shipmentRepo.findByTransferUuid(VALID_TRANSFER_UUID))
-                .willReturn(Optional.of(Shipment.builder()
-                        .status(ShipmentStatus.ACCEPTED)
-                        .to(VALID_TO_UUID)
-                        .build()));
+        given(stockRepo.receiveTransferred(eq(VALID_TRANSFER_UUID), anyInt()))
+                .willAnswer(invocation -> Optional.of(
+                        new ReceivedStock(VALID_STOCK_UUID, VALID_TO_UUID, VALID_ITEM_UUID, invocation.getArgument(1))));
     }
 
     @Test
@@ -139,9 +154,8 @@ public class ConfirmationServiceTests {
     void valid_Confirm(final int alreadyConfirmed, final int confirming) {
 
         // Arrange
-        given(confirmationRepo.sumQuantityByTransferUuid(VALID_TRANSFER_UUID)).willReturn(alreadyConfirmed);
-        given(stockRepo.findByWarehouseUuidAndItemUuid(VALID_TO_UUID, VALID_ITEM_UUID))
-                .willReturn(Optional.of(VALID_STOCK.toBuilder().quantity(alreadyConfirmed).build()));
+        given(transferRepo.confirm(VALID_TRANSFER_UUID, confirming))
+                .willReturn(Optional.of(confirmedTransfer(alreadyConfirmed + confirming)));
 
         // Act
         final Confirmation confirmation = confirmationService.confirm(VALID_TRANSFER_UUID, confirming);
@@ -151,11 +165,15 @@ public class ConfirmationServiceTests {
         assertThat(confirmation.getTransferUuid()).isEqualTo(VALID_TRANSFER_UUID);
         assertThat(confirmation.getQuantity()).isEqualTo(confirming);
 
-        verify(transferRepo, times(1)).findById(VALID_TRANSFER_UUID);
-        verify(confirmationRepo, times(1)).sumQuantityByTransferUuid(VALID_TRANSFER_UUID);
+        verify(transferRepo, times(1)).confirm(VALID_TRANSFER_UUID, confirming);
+        verify(transferRepo, never()).findConfirmationTarget(any());
         verify(confirmationRepo, times(1)).save(confirmation);
-        verify(stockRepo, times(1))
-                .findByWarehouseUuidAndItemUuid(VALID_TO_UUID, VALID_ITEM_UUID);
+        verify(stockRepo, times(1)).receiveTransferred(VALID_TRANSFER_UUID, confirming);
+        verify(applicationEventPublisher, times(1)).publishEvent(argThat((StockReceiveEvent event) ->
+                event.getStockUuid().equals(VALID_STOCK_UUID)
+                        && event.getWarehouseUuid().equals(VALID_TO_UUID)
+                        && event.getItemUuid().equals(VALID_ITEM_UUID)
+                        && event.getQuantity() == confirming));
     }
 
     private static Stream<Arguments> validConfirmations() {
@@ -228,6 +246,9 @@ public class ConfirmationServiceTests {
         // Arrange
         final int toConfirm = VALID_QUANTITY + 1;
 
+        given(transferRepo.confirm(VALID_TRANSFER_UUID, toConfirm))
+                .willReturn(Optional.empty());
+
         // Act
         final QuantityExceededException quantityExceededException =
                 catchThrowableOfType(
@@ -248,14 +269,11 @@ public class ConfirmationServiceTests {
         // Arrange
         final int toConfirm = VALID_QUANTITY / 2;
 
-        given(transferRepo.findById(NOT_ACCEPTED_SHIPMENT_UUID))
-                .willReturn(Optional.ofNullable(VALID_TRANSFER));
-
-        given(shipmentRepo.findByTransferUuid(NOT_ACCEPTED_SHIPMENT_UUID)).willReturn(Optional.of(Shipment.builder()
-                .uuid(NOT_ACCEPTED_SHIPMENT_UUID)
-                .status(status)
-                .build()));
-
+        given(transferRepo.findConfirmationTarget(NOT_ACCEPTED_SHIPMENT_UUID))
+                .willReturn(Optional.of(VALID_TARGET.toBuilder()
+                        .transferUuid(NOT_ACCEPTED_SHIPMENT_UUID)
+                        .shipmentStatus(status)
+                        .build()));
 
         // Act
         final ShipmentNotAcceptedException shipmentNotAcceptedException =
@@ -276,10 +294,13 @@ public class ConfirmationServiceTests {
         // Arrange
         final int toConfirm = VALID_QUANTITY / 2;
 
-        given(transferRepo.findById(NOT_FOUND_SHIPMENT_UUID))
-                .willReturn(Optional.ofNullable(VALID_TRANSFER));
-
-        given(shipmentRepo.findByTransferUuid(NOT_FOUND_SHIPMENT_UUID)).willReturn(Optional.empty());
+        given(transferRepo.findConfirmationTarget(NOT_FOUND_SHIPMENT_UUID))
+                .willReturn(Optional.of(VALID_TARGET.toBuilder()
+                        .transferUuid(NOT_FOUND_SHIPMENT_UUID)
+                        .shipmentUuid(null)
+                        .shipmentStatus(null)
+                        .to(null)
+                        .build()));
 
         // Act
         final ShipmentNotFoundException shipmentNotFoundException =
@@ -292,39 +313,243 @@ public class ConfirmationServiceTests {
         assertThat(shipmentNotFoundException)
                 .hasMessage(new ShipmentNotFoundException().getMessage());
 
-        verify(transferRepo, times(1)).findById(NOT_FOUND_SHIPMENT_UUID);
-        verify(shipmentRepo, times(1)).findByTransferUuid(NOT_FOUND_SHIPMENT_UUID);
+        verify(transferRepo, times(1)).findConfirmationTarget(NOT_FOUND_SHIPMENT_UUID);
+        verify(confirmationRepo, never()).save(any());
     }
 
     @Test
-    @DisplayName("sOvUBacHTt: Given sumQuantityByTransferUuid is null, set quantity to 0, then return confirmation")
-    void sumQuantityByTransferUuid_null_Confirm() {
+    @DisplayName("ZuebopcGKJ: Given confirmation completing the shipment when confirm, then lock the shipment and mark it fully confirmed")
+    void completing_Confirm() {
 
         // Arrange
-        final int toConfirm = VALID_QUANTITY / 2;
-
-        given(transferRepo.findById(VALID_TRANSFER_UUID))
-                .willReturn(Optional.ofNullable(VALID_TRANSFER));
+        final int toConfirm = VALID_QUANTITY;
 
-        given(shipmentRepo.findByTransferUuid(VALID_TRANSFER_UUID)).willReturn(Optional.of(Shipment.builder()
-                .uuid(VALID_TRANSFER_UUID)
-                .status(ShipmentStatus.ACCEPTED)
-                .build()));
-
-        given(confirmationRepo.sumQuantityByTransferUuid(VALID_TRANSFER_UUID))
-                .willReturn(null);
+        given(shipmentRepo.markFullyConfirmed(eq(VALID_SHIPMENT_UUID), any()))
+                .willReturn(1);
 
         // Act
         final Confirmation confirmation = confirmationService.confirm(VALID_TRANSFER_UUID, toConfirm);
 
         // Assert
         assertThat(confirmation).isNotNull();
-        assertThat(confirmation.getTransferUuid()).isEqualTo(VALID_TRANSFER_UUID);
         assertThat(confirmation.getQuantity()).isEqualTo(toConfirm);
 
-        verify(transferRepo, times(1)).findById(VALID_TRANSFER_UUID);
-        verify(shipmentRepo, times(1)).findByTransferUuid(VALID_TRANSFER_UUID);
-        verify(confirmationRepo, times(1))
-                .sumQuantityByTransferUuid(VALID_TRANSFER_UUID);
+        verify(transferRepo, times(1)).confirm(VALID_TRANSFER_UUID, toConfirm);
+        verify(confirmationRepo, times(1)).save(confirmation);
+
+        final InOrder inOrder = inOrder(shipmentRepo);
+        inOrder.verify(shipmentRepo, times(1)).lockAllByUuidIn(List.of(VALID_SHIPMENT_UUID));
+        inOrder.verify(shipmentRepo, times(1)).markFullyConfirmed(eq(VALID_SHIPMENT_UUID), any());
+    }
+
+    @Test
+    @DisplayName("rENaUsjIYq: Given confirmation leaving some of the transfer when confirm, then do not check the shipment for completion")
+    void not_completing_Confirm() {
+
+        // Act
+        confirmationService.confirm(VALID_TRANSFER_UUID, VALID_QUANTITY / 2);
+
+        // Assert
+        verify(shipmentRepo, never()).lockAllByUuidIn(any());
+        verify(shipmentRepo, never()).markFullyConfirmed(any(), any());
+    }
+
+    @Test
+    @DisplayName("UiKnFNNick: Given confirmation over remaining quantity when confirm, then throw QuantityExceededException and save nothing")
+    void remaining_quantity_exceeded_Confirm() {
+
+        // Arrange
+        final int toConfirm = VALID_QUANTITY / 2;
+
+        given(transferRepo.confirm(VALID_TRANSFER_UUID, toConfirm))
+                .willReturn(Optional.empty());
+
+        // Act
+        final QuantityExceededException quantityExceededException =
+                catchThrowableOfType(
+                        () -> confirmationService.confirm(VALID_TRANSFER_UUID, toConfirm),
+                        QuantityExceededException.class);
+
+        // Assert
+        assertThat(quantityExceededException).isNotNull();
+
+        verify(confirmationRepo, times(0)).save(any());
+        verify(shipmentRepo, times(0)).markFullyConfirmed(any(), any());
+    }
+
+    @Test
+    @DisplayName("gYyNTTckrj: Given batch going over a transfer when confirmAll, then confirm what fits in one go and reject the rest")
+    void confirmAll_PartiallyValid() {
+
+        // Arrange
+        final UUID unknownTransferUuid = UUID.randomUUID();
+
+        given(transferRepo.findAllConfirmationTargets(any()))
+                .willReturn(List.of(VALID_TARGET));
+        given(confirmationRepo.saveAll(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        final List<ConfirmationBatchEntry> entries = confirmationService.confirmAll(List.of(
+                new ConfirmationUuidLessDTO(VALID_TRANSFER_UUID, VALID_QUANTITY / 2),
+                new ConfirmationUuidLessDTO(VALID_TRANSFER_UUID, VALID_QUANTITY / 2),
+                new ConfirmationUuidLessDTO(VALID_TRANSFER_UUID, 1),
+                new ConfirmationUuidLessDTO(unknownTransferUuid, 1),
+                new ConfirmationUuidLessDTO(VALID_TRANSFER_UUID, 0)));
+
+        // Assert
+        assertThat(entries).extracting(ConfirmationBatchEntry::isConfirmed).containsExactly(true, true, false, false, false);
+        assertThat(entries.get(2).getRejection()).isInstanceOf(QuantityExceededException.class);
+        assertThat(entries.get(3).getRejection())
+                .isInstanceOf(TransferNotFoundException.class)
+                .hasMessage(new TransferNotFoundException(unknownTransferUuid).getMessage());
+        assertThat(entries.get(4).getRejection()).isInstanceOf(ConstraintViolationException.class);
+
+        verify(transferRepo, times(1)).findAllConfirmationTargets(Set.of(VALID_TRANSFER_UUID, unknownTransferUuid));
+        verify(transferRepo, times(1)).addConfirmedQuantities(Map.of(VALID_TRANSFER_UUID, VALID_QUANTITY));
+        verify(transferRepo, never()).confirm(any(), anyInt());
+        verify(stockRepo, times(1)).receiveAll(List.of(new StockReceipt(VALID_TO_UUID, VALID_ITEM_UUID, VALID_QUANTITY)));
+        final InOrder inOrder = inOrder(shipmentRepo);
+        inOrder.verify(shipmentRepo, times(1)).lockAllByUuidIn(Set.of(VALID_SHIPMENT_UUID));
+        inOrder.verify(shipmentRepo, times(1)).markAllFullyConfirmed(eq(Set.of(VALID_SHIPMENT_UUID)), any());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(StockBatchReceiveEvent.class));
+    }
+
+    @Test
+    @DisplayName("PwLcvRzYbd: Given batch leaving a transfer partly confirmed when confirmAll, then still check its shipment under lock")
+    void confirmAll_PartlyConfirmed_ChecksShipment() {
+
+        // Arrange
+        given(transferRepo.findAllConfirmationTargets(any()))
+                .willReturn(List.of(VALID_TARGET));
+        given(confirmationRepo.saveAll(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        final List<ConfirmationBatchEntry> entries = confirmationService.confirmAll(List.of(
+                new ConfirmationUuidLessDTO(VALID_TRANSFER_UUID, 1)));
+
+        // Assert
+        assertThat(entries).extracting(ConfirmationBatchEntry::isConfirmed).containsExactly(true);
+
+        // Another confirmation may have committed the rest of the transfer since it was read
+        final InOrder inOrder = inOrder(shipmentRepo);
+        inOrder.verify(shipmentRepo, times(1)).lockAllByUuidIn(Set.of(VALID_SHIPMENT_UUID));
+        inOrder.verify(shipmentRepo, times(1)).markAllFullyConfirmed(eq(Set.of(VALID_SHIPMENT_UUID)), any());
+    }
+
+    @Test
+    @DisplayName("MDCmZJqPyE: Given transfer confirmed elsewhere since it was read when confirmAll, then throw QuantityExceededException")
+    void confirmAll_ConfirmedConcurrently() {
+
+        // Arrange
+        given(transferRepo.findAllConfirmationTargets(any()))
+                .willReturn(List.of(VALID_TARGET));
+        given(transferRepo.addConfirmedQuantities(any()))
+                .willReturn(Set.of(VALID_TRANSFER_UUID));
+
+        // Act
+        final QuantityExceededException quantityExceededException =
+                catchThrowableOfType(
+                        () -> confirmationService.confirmAll(List.of(new ConfirmationUuidLessDTO(VALID_TRANSFER_UUID, 1))),
+                        QuantityExceededException.class);
+
+        // Assert
+        assertThat(quantityExceededException).isNotNull();
+        verify(confirmationRepo, never()).saveAll(any());
+        verify(stockRepo, never()).receiveAll(any());
+    }
+
+    @Test
+    @DisplayName("KdfTXDHoVE: Given empty batch when confirmAll, then throw ConfirmationBatchSizeException")
+    void confirmAll_Empty() {
+
+        // Act
+        final ConfirmationBatchSizeException confirmationBatchSizeException =
+                catchThrowableOfType(
+                        () -> confirmationService.confirmAll(List.of()),
+                        ConfirmationBatchSizeException.class);
+
+        // Assert
+        assertThat(confirmationBatchSizeException).isNotNull();
+        verify(transferRepo, never()).findAllConfirmationTargets(any());
+    }
+
+    @Test
+    @DisplayName("HaFnnjpqaW: Given ACCEPTED shipment partly confirmed when confirmShipment, then confirm what is left of each transfer in one go")
+    void confirmShipment_PartlyConfirmed() {
+
+        // Arrange
+        final UUID confirmedTransferUuid = UUID.randomUUID();
+        final ConfirmationTarget partlyConfirmed = VALID_TARGET.toBuilder().confirmedQuantity(4).build();
+        final ConfirmationTarget confirmed = VALID_TARGET.toBuilder()
+                .transferUuid(confirmedTransferUuid)
+                .confirmedQuantity(VALID_QUANTITY)
+                .build();
+
+        given(transferRepo.findAllConfirmationTargetsByShipmentUuid(VALID_SHIPMENT_UUID))
+                .willReturn(List.of(partlyConfirmed, confirmed));
+        given(confirmationRepo.saveAll(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        final List<ConfirmationBatchEntry> entries = confirmationService.confirmShipment(VALID_SHIPMENT_UUID);
+
+        // Assert
+        assertThat(entries).hasSize(1);
+        assertThat(entries.get(0).isConfirmed()).isTrue();
+        assertThat(entries.get(0).getConfirmation().getTransferUuid()).isEqualTo(VALID_TRANSFER_UUID);
+        assertThat(entries.get(0).getConfirmation().getQuantity()).isEqualTo(VALID_QUANTITY - 4);
+
+        verify(transferRepo, times(1)).addConfirmedQuantities(Map.of(VALID_TRANSFER_UUID, VALID_QUANTITY - 4));
+        verify(stockRepo, times(1)).receiveAll(List.of(new StockReceipt(VALID_TO_UUID, VALID_ITEM_UUID, VALID_QUANTITY - 4)));
+        final InOrder inOrder = inOrder(shipmentRepo);
+        inOrder.verify(shipmentRepo, times(1)).lockAllByUuidIn(Set.of(VALID_SHIPMENT_UUID));
+        inOrder.verify(shipmentRepo, times(1)).markAllFullyConfirmed(eq(Set.of(VALID_SHIPMENT_UUID)), any());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(StockBatchReceiveEvent.class));
+    }
+
+    @ParameterizedTest(name = "{displayName} - Status: {0}")
+    @DisplayName("CojigBmjkY: Given not ACCEPTED shipment when confirmShipment, then throw ShipmentNotAcceptedException and confirm nothing")
+    @EnumSource(value = ShipmentStatus.class, names = {"DENIED", "PENDING"})
+    void confirmShipment_NotAccepted(final ShipmentStatus status) {
+
+        // Arrange
+        given(transferRepo.findAllConfirmationTargetsByShipmentUuid(NOT_ACCEPTED_SHIPMENT_UUID))
+                .willReturn(List.of(VALID_TARGET.toBuilder()
+                        .shipmentUuid(NOT_ACCEPTED_SHIPMENT_UUID)
+                        .shipmentStatus(status)
+                        .build()));
+
+        // Act
+        final ShipmentNotAcceptedException shipmentNotAcceptedException =
+                catchThrowableOfType(
+                        () -> confirmationService.confirmShipment(NOT_ACCEPTED_SHIPMENT_UUID),
+                        ShipmentNotAcceptedException.class);
+
+        // Assert
+        assertThat(shipmentNotAcceptedException)
+                .hasMessage(new ShipmentNotAcceptedException(NOT_ACCEPTED_SHIPMENT_UUID, status.name()).getMessage());
+        verify(transferRepo, never()).addConfirmedQuantities(any());
+        verify(confirmationRepo, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("ISUCgTlozg: Given shipment with no transfers when confirmShipment, then throw ShipmentNotFoundException")
+    void confirmShipment_NotFound() {
+
+        // Arrange
+        given(transferRepo.findAllConfirmationTargetsByShipmentUuid(NOT_FOUND_SHIPMENT_UUID))
+                .willReturn(List.of());
+
+        // Act
+        final ShipmentNotFoundException shipmentNotFoundException =
+                catchThrowableOfType(
+                        () -> confirmationService.confirmShipment(NOT_FOUND_SHIPMENT_UUID),
+                        ShipmentNotFoundException.class);
+
+        // Assert
+        assertThat(shipmentNotFoundException)
+                .hasMessage(new ShipmentNotFoundException(NOT_FOUND_SHIPMENT_UUID).getMessage());
     }
 }
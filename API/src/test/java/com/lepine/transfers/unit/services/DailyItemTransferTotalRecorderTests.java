@@ -0,0 +1,65 @@
+package com.lepine.transfers.unit.services;
+
+import com.lepine.transfers.data.item.DailyItemTransferTotalRepo;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.events.shipment.ShipmentCreateEvent;
+import com.lepine.transfers.services.item.DailyItemTransferTotalRecorder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {DailyItemTransferTotalRecorder.class})
+@ActiveProfiles({"test"})
+public class DailyItemTransferTotalRecorderTests {
+
+    @Autowired
+    private DailyItemTransferTotalRecorder dailyItemTransferTotalRecorder;
+
+    @MockBean
+    private DailyItemTransferTotalRepo dailyItemTransferTotalRepo;
+
+    @Test
+    void contextLoads(){}
+
+    @Test
+    @DisplayName("uNXscRHuUX: Given ShipmentCreateEvent when onShipmentCreate, then add transfer quantities to daily totals per item")
+    void onShipmentCreate_DailyTotals() {
+
+        // Arrange
+        final Item item = Item.builder().build();
+        final Item otherItem = Item.builder().build();
+        final ZonedDateTime expectedDate = ZonedDateTime.of(2021, 11, 30, 23, 0, 0, 0, ZoneOffset.ofHours(-5));
+        final LocalDate expectedDay = LocalDate.of(2021, 12, 1); // UTC
+
+        final Shipment shipment = Shipment.builder()
+                .expectedDate(expectedDate)
+                .transfers(List.of(
+                        Transfer.builder().stock(Stock.builder().item(item).build()).quantity(2).build(),
+                        Transfer.builder().stock(Stock.builder().item(item).build()).quantity(3).build(),
+                        Transfer.builder().stock(Stock.builder().item(otherItem).build()).quantity(7).build()))
+                .build();
+
+        // Act
+        dailyItemTransferTotalRecorder.onShipmentCreate(new ShipmentCreateEvent(this, shipment));
+
+        // Assert
+        verify(dailyItemTransferTotalRepo, times(1)).incrementAll(Map.of(expectedDay, Map.of(
+                item.getUuid(), 5L,
+                otherItem.getUuid(), 7L)));
+        verifyNoMoreInteractions(dailyItemTransferTotalRepo);
+    }
+}
@@ -0,0 +1,133 @@
+package com.lepine.transfers.unit.services;
+
+import com.lepine.transfers.config.ConfirmationGroupCommitConfig;
+import com.lepine.transfers.data.confirmation.Confirmation;
+import com.lepine.transfers.data.confirmation.ConfirmationBatchEntry;
+import com.lepine.transfers.data.confirmation.ConfirmationUuidLessDTO;
+import com.lepine.transfers.exceptions.transfer.QuantityExceededException;
+import com.lepine.transfers.services.confirmation.ConfirmationService;
+import com.lepine.transfers.services.confirmation.GroupCommitConfirmationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+public class GroupCommitConfirmationServiceTests {
+
+    private final static int CALLERS = 20;
+
+    private ConfirmationService delegate;
+    private GroupCommitConfirmationService groupCommitConfirmationService;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        final ConfirmationGroupCommitConfig config = new ConfirmationGroupCommitConfig();
+        config.setEnabled(true);
+        config.setMaxBatchSize(CALLERS);
+        // Long enough for every caller to make it into the first batch
+        config.setMaxDelay(Duration.ofMillis(500));
+
+        delegate = mock(ConfirmationService.class);
+        groupCommitConfirmationService = new GroupCommitConfirmationService(config, delegate);
+        callers = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void cleanup() {
+        callers.shutdownNow();
+        groupCommitConfirmationService.close();
+    }
+
+    @Test
+    @DisplayName("CbLCQPajVI: Given many callers confirming at once when confirm, then commit them together and answer each with its own confirmation")
+    void confirm_Concurrent_Grouped() throws Exception {
+
+        // Arrange
+        given(delegate.confirmAll(anyList())).willAnswer(invocation -> confirmEvery(invocation.getArgument(0)));
+
+        final List<UUID> transferUuids = new ArrayList<>(CALLERS);
+        final List<Future<Confirmation>> futures = new ArrayList<>(CALLERS);
+
+        // Act
+        for (int i = 0; i < CALLERS; i++) {
+            final UUID transferUuid = UUID.randomUUID();
+            transferUuids.add(transferUuid);
+            futures.add(callers.submit(() -> groupCommitConfirmationService.confirm(transferUuid, 1)));
+        }
+
+        // Assert
+        for (int i = 0; i < CALLERS; i++) {
+            assertThat(futures.get(i).get(10, TimeUnit.SECONDS).getTransferUuid()).isEqualTo(transferUuids.get(i));
+        }
+        verify(delegate, atMost(CALLERS - 1)).confirmAll(anyList());
+        verify(delegate, never()).confirm(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("MRLhbkoZhj: Given a confirmation rejected in its batch when confirm, then throw its own rejection")
+    void confirm_Rejected() {
+
+        // Arrange
+        final QuantityExceededException rejection = new QuantityExceededException(1, 2);
+        given(delegate.confirmAll(anyList())).willAnswer(invocation -> List.of(ConfirmationBatchEntry.builder()
+                .index(0)
+                .rejection(rejection)
+                .build()));
+
+        // Act
+        final QuantityExceededException thrown = catchThrowableOfType(
+                () -> groupCommitConfirmationService.confirm(UUID.randomUUID(), 2),
+                QuantityExceededException.class);
+
+        // Assert
+        assertThat(thrown).isSameAs(rejection);
+    }
+
+    @Test
+    @DisplayName("NcLdMTzkrN: Given a batch failing as a whole when confirm, then confirm each one on its own")
+    void confirm_BatchFailed_OneByOne() {
+
+        // Arrange
+        final UUID transferUuid = UUID.randomUUID();
+        final Confirmation confirmation = Confirmation.builder().transferUuid(transferUuid).quantity(1).build();
+
+        given(delegate.confirmAll(anyList())).willThrow(new QuantityExceededException(1, 1));
+        given(delegate.confirm(transferUuid, 1)).willReturn(confirmation);
+
+        // Act
+        final Confirmation confirmed = groupCommitConfirmationService.confirm(transferUuid, 1);
+
+        // Assert
+        assertThat(confirmed).isSameAs(confirmation);
+        verify(delegate, times(1)).confirm(transferUuid, 1);
+    }
+
+    private static List<ConfirmationBatchEntry> confirmEvery(List<ConfirmationUuidLessDTO> dtos) {
+        final List<ConfirmationBatchEntry> entries = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            entries.add(ConfirmationBatchEntry.builder()
+                    .index(i)
+                    .confirmation(Confirmation.builder()
+                            .transferUuid(dtos.get(i).getTransferUuid())
+                            .quantity(dtos.get(i).getQuantity())
+                            .build())
+                    .build());
+        }
+        return entries;
+    }
+}
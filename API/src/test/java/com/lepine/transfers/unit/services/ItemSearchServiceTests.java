@@ -1,11 +1,16 @@
 package com.lepine.transfers.unit.services;
 
 import com.lepine.transfers.config.AlgoliaConfig;
+import com.lepine.transfers.config.SearchBatchConfig;
 import com.lepine.transfers.data.item.ItemSearchDTO;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 
+import java.time.Duration;
+
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +22,9 @@ import static org.mockito.Mockito.verify;
 @ContextConfiguration(classes = { AlgoliaConfig.class })
 public class ItemSearchServiceTests extends SearchServiceTests<ItemSearchDTO, UUID>{
 
+    @Autowired
+    private SearchBatchConfig searchBatchConfig;
+
     @Override
     @Test
     @DisplayName("Given item, index it")
@@ -95,4 +103,28 @@ public class ItemSearchServiceTests extends SearchServiceTests<ItemSearchDTO, UU
         // Assert
         verify(searchIndex, times(1)).batch(any());
     }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("yuGtmGWUPS: Given more items than fit in one request and a failing request, issue one batch per chunk and retry")
+    public void testPartialUpdateAllInBatch_Chunked() {
+
+        // Arrange
+        searchBatchConfig.setMaxOperations(2);
+        searchBatchConfig.setInitialBackoff(Duration.ZERO);
+        final List<ItemSearchDTO> given = List.of(
+                ItemSearchDTO.builder().objectID(UUID.randomUUID()).build(),
+                ItemSearchDTO.builder().objectID(UUID.randomUUID()).build(),
+                ItemSearchDTO.builder().objectID(UUID.randomUUID()).build());
+
+        given(searchIndex.batch(any()))
+                .willThrow(new RuntimeException("Algolia hiccup"))
+                .willReturn(null);
+
+        // Act
+        searchService.partialUpdateAllInBatch(given);
+
+        // Assert
+        verify(searchIndex, times(3)).batch(any());
+    }
 }
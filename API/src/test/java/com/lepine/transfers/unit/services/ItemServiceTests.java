@@ -210,7 +210,7 @@ public class ItemServiceTests {
         // Assert
         verify(searchService, never())
                 .delete(uuid);
-        verify(applicationEventPublisher, times(1)).publishEvent(any(ItemDeleteEvent.class));
+        verify(applicationEventPublisher, never()).publishEvent(any(ItemDeleteEvent.class));
     }
 
     @Test
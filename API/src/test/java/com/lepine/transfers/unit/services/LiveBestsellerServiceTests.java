@@ -0,0 +1,153 @@
+package com.lepine.transfers.unit.services;
+
+import com.lepine.transfers.config.LiveBestsellerConfig;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemQuantityTuple;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.transfer.ItemMovement;
+import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.data.transfer.TransferRepo;
+import com.lepine.transfers.events.item.ItemDeleteEvent;
+import com.lepine.transfers.events.shipment.ShipmentCreateEvent;
+import com.lepine.transfers.exceptions.item.InvalidBestsellerWindowException;
+import com.lepine.transfers.services.item.LiveBestsellerServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest(classes = { LiveBestsellerServiceImpl.class, LiveBestsellerConfig.class })
+public class LiveBestsellerServiceTests {
+
+    private final static Item
+            VALID_ITEM = Item.builder().sku("A").build(),
+            OTHER_ITEM = Item.builder().sku("B").build(),
+            ANOTHER_ITEM = Item.builder().sku("C").build();
+
+    @Autowired
+    private LiveBestsellerServiceImpl liveBestsellerService;
+
+    @MockBean
+    private TransferRepo transferRepo;
+
+    @MockBean
+    private ItemRepo itemRepo;
+
+    @BeforeEach
+    void setUp() {
+        liveBestsellerService.rebuild(); // Start every test from an empty tracker
+    }
+
+    private void createShipment(ZonedDateTime createdAt, Item item, int quantity) {
+        final Shipment shipment = Shipment.builder()
+                .createdAt(createdAt)
+                .transfers(List.of(Transfer.builder()
+                        .stock(Stock.builder().item(item).build())
+                        .quantity(quantity)
+                        .build()))
+                .build();
+
+        liveBestsellerService.onShipmentCreate(new ShipmentCreateEvent(this, shipment));
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("jCPQffXcaX: Given shipments created in window when findTop, then return top k items by transferred quantity")
+    void findTop_InWindow() {
+
+        // Arrange
+        final ZonedDateTime now = ZonedDateTime.now();
+        createShipment(now, VALID_ITEM, 5);
+        createShipment(now.minusHours(3), VALID_ITEM, 5);
+        createShipment(now.minusHours(1), OTHER_ITEM, 20);
+        createShipment(now, ANOTHER_ITEM, 1);
+
+        // Act
+        final List<ItemQuantityTuple> top = liveBestsellerService.findTop(Duration.ofHours(24), 2);
+
+        // Assert
+        assertThat(top).extracting(ItemQuantityTuple::getItem).containsExactly(OTHER_ITEM, VALID_ITEM);
+        assertThat(top).extracting(ItemQuantityTuple::getQuantity).containsExactly(20L, 10L);
+    }
+
+    @Test
+    @DisplayName("YoCuZxtpcb: Given shipments created before window when findTop, then leave them out")
+    void findTop_OutOfWindow() {
+
+        // Arrange
+        final ZonedDateTime now = ZonedDateTime.now();
+        createShipment(now, VALID_ITEM, 5);
+        createShipment(now.minusHours(30), OTHER_ITEM, 20);
+
+        // Act
+        final List<ItemQuantityTuple> top = liveBestsellerService.findTop(Duration.ofHours(24), 10);
+
+        // Assert
+        assertThat(top).extracting(ItemQuantityTuple::getItem).containsExactly(VALID_ITEM);
+    }
+
+    @Test
+    @DisplayName("RmmUbiHhtz: Given transfers in database when rebuild, then findTop counts them")
+    void rebuild_FromTransfers() {
+
+        // Arrange
+        final ZonedDateTime now = ZonedDateTime.now();
+        given(transferRepo.findAllItemMovementsSince(any())).willReturn(List.of(
+                new ItemMovement(VALID_ITEM.getUuid(), 3, now),
+                new ItemMovement(OTHER_ITEM.getUuid(), 7, now.minusHours(2))));
+        given(itemRepo.findAllById(any())).willReturn(List.of(VALID_ITEM, OTHER_ITEM));
+
+        // Act
+        liveBestsellerService.rebuild();
+        final List<ItemQuantityTuple> top = liveBestsellerService.findTop(Duration.ofHours(24), 10);
+
+        // Assert
+        assertThat(top).extracting(ItemQuantityTuple::getItem).containsExactly(OTHER_ITEM, VALID_ITEM);
+        assertThat(top).extracting(ItemQuantityTuple::getQuantity).containsExactly(7L, 3L);
+    }
+
+    @Test
+    @DisplayName("bHxYYnaVbt: Given deleted item when findTop, then leave it out")
+    void findTop_DeletedItem() {
+
+        // Arrange
+        final ZonedDateTime now = ZonedDateTime.now();
+        createShipment(now, VALID_ITEM, 5);
+        createShipment(now, OTHER_ITEM, 20);
+
+        // Act
+        liveBestsellerService.onItemDelete(new ItemDeleteEvent(this, OTHER_ITEM.getUuid(), List.of()));
+        final List<ItemQuantityTuple> top = liveBestsellerService.findTop(Duration.ofHours(24), 10);
+
+        // Assert
+        assertThat(top).extracting(ItemQuantityTuple::getItem).containsExactly(VALID_ITEM);
+    }
+
+    @Test
+    @DisplayName("ahpbeiKqzU: Given window longer than retention when findTop, then throw InvalidBestsellerWindowException")
+    void findTop_WindowTooLong() {
+
+        // Act
+        final InvalidBestsellerWindowException exception = catchThrowableOfType(
+                () -> liveBestsellerService.findTop(Duration.ofDays(8), 10),
+                InvalidBestsellerWindowException.class);
+
+        // Assert
+        assertThat(exception).isNotNull();
+    }
+}
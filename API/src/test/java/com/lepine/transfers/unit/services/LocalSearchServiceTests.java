@@ -0,0 +1,152 @@
+package com.lepine.transfers.unit.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.config.JacksonConfig;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.services.search.local.LocalSearchIndex;
+import com.lepine.transfers.services.search.local.LocalSearchServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_FACET_ATTRIBUTES;
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_SEARCHABLE_ATTRIBUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = { JacksonAutoConfiguration.class, JacksonConfig.class })
+public class LocalSearchServiceTests {
+
+    private final static UUID
+            VALID_WAREHOUSE_UUID = UUID.randomUUID(),
+            OTHER_WAREHOUSE_UUID = UUID.randomUUID();
+
+    private final static StockSearchDTO
+            VALID_STOCK = StockSearchDTO.builder()
+                    .objectID(UUID.randomUUID())
+                    .quantity(10)
+                    .sku("SKU-123")
+                    .name("Red Chair")
+                    .description("Wooden chair")
+                    .warehouseUuid(VALID_WAREHOUSE_UUID)
+                    .zipCode("A1B2C3")
+                    .build(),
+            OTHER_STOCK = VALID_STOCK.toBuilder()
+                    .objectID(UUID.randomUUID())
+                    .name("Blue Table")
+                    .description("Goes well with a chair")
+                    .warehouseUuid(OTHER_WAREHOUSE_UUID)
+                    .zipCode("D4E5F6")
+                    .build();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path directory;
+
+    private LocalSearchServiceImpl<StockSearchDTO> searchService;
+
+    private LocalSearchServiceImpl<StockSearchDTO> open() throws IOException {
+        return new LocalSearchServiceImpl<>(
+                new LocalSearchIndex<>(
+                        directory.resolve("stocks.segment"),
+                        StockSearchDTO.class,
+                        objectMapper,
+                        STOCKS_SEARCHABLE_ATTRIBUTES,
+                        STOCKS_FACET_ATTRIBUTES,
+                        0.5),
+                StockSearchDTO::getObjectID);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        searchService = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchService.close();
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("dDSmnioTPS: Given indexed stocks when search by prefix, then rank name matches before description matches")
+    void search_Prefix() {
+
+        // Arrange
+        searchService.indexAllInBatch(List.of(VALID_STOCK, OTHER_STOCK));
+
+        // Act
+        final List<StockSearchDTO> hits = searchService.search("cha", Map.of(), 10);
+
+        // Assert
+        assertThat(hits).containsExactly(VALID_STOCK, OTHER_STOCK);
+    }
+
+    @Test
+    @DisplayName("NjsuQNdkla: Given indexed stocks when search with facet filter, then only return stocks of that facet")
+    void search_Facet() {
+
+        // Arrange
+        searchService.indexAllInBatch(List.of(VALID_STOCK, OTHER_STOCK));
+
+        // Act
+        final List<StockSearchDTO> hits = searchService.search(
+                "chair", Map.of("warehouseUuid", OTHER_WAREHOUSE_UUID.toString()), 10);
+
+        // Assert
+        assertThat(hits).containsExactly(OTHER_STOCK);
+    }
+
+    @Test
+    @DisplayName("MzzNlVRjnI: Given partial update and delete when reopened, then serve the persisted state")
+    void reopen_Persisted() throws IOException {
+
+        // Arrange
+        final StockSearchDTO updated = VALID_STOCK.toBuilder().quantity(3).build();
+        searchService.indexAllInBatch(List.of(VALID_STOCK, OTHER_STOCK));
+        searchService.partialUpdateAllInBatch(List.of(updated));
+        searchService.delete(OTHER_STOCK.getObjectID());
+
+        // Act
+        searchService.close();
+        searchService = open();
+        final List<StockSearchDTO> hits = searchService.search("", Map.of(), 10);
+
+        // Assert
+        assertThat(hits).containsExactly(updated);
+    }
+
+    @Test
+    @DisplayName("OjMCneFWNJ: Given indexed stocks when replaceAll, then only serve the rebuilt stocks, also once reopened")
+    void replaceAll() throws IOException {
+
+        // Arrange
+        searchService.indexAllInBatch(List.of(VALID_STOCK, OTHER_STOCK));
+        final StockSearchDTO rebuilt = VALID_STOCK.toBuilder().quantity(7).build();
+
+        // Act
+        searchService.replaceAll(List.of(List.of(rebuilt)).iterator());
+        final List<StockSearchDTO> hits = searchService.search("", Map.of(), 10);
+        searchService.close();
+        searchService = open();
+        final List<StockSearchDTO> reopenedHits = searchService.search("", Map.of(), 10);
+
+        // Assert
+        assertThat(hits).containsExactly(rebuilt);
+        assertThat(reopenedHits).containsExactly(rebuilt);
+    }
+}
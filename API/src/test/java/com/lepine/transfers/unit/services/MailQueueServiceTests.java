@@ -0,0 +1,229 @@
+package com.lepine.transfers.unit.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.config.MailQueueConfig;
+import com.lepine.transfers.config.SendGridConfig;
+import com.lepine.transfers.data.mail.MailDeadLetter;
+import com.lepine.transfers.data.mail.MailDeadLetterRepo;
+import com.lepine.transfers.data.mail.MailQueueEntry;
+import com.lepine.transfers.data.mail.MailQueueRepo;
+import com.lepine.transfers.services.mailer.SendgridMailer;
+import com.lepine.transfers.services.mailer.queue.MailQueueServiceImpl;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {
+        MailQueueServiceImpl.class,
+        MailQueueConfig.class,
+        SendgridMailer.class,
+        SendGridConfig.class,
+})
+@ActiveProfiles({"test"})
+public class MailQueueServiceTests {
+
+    private final static String
+            VALID_SUBJECT = "Shipment status update",
+            VALID_CONTENT = "Your shipment has been accepted",
+            OTHER_CONTENT = "Your shipment has been denied";
+
+    private final static FakeSendGrid FAKE_SEND_GRID = new FakeSendGrid();
+
+    @Autowired
+    private MailQueueServiceImpl mailQueueService;
+
+    @Autowired
+    private MailQueueConfig mailQueueConfig;
+
+    @MockBean
+    private MailQueueRepo mailQueueRepo;
+
+    @MockBean
+    private MailDeadLetterRepo mailDeadLetterRepo;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void sendGridProperties(DynamicPropertyRegistry registry) {
+        registry.add("sendgrid.host", FAKE_SEND_GRID::getHost);
+        registry.add("sendgrid.secure", () -> false);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        FAKE_SEND_GRID.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        FAKE_SEND_GRID.reset();
+    }
+
+    private MailQueueEntry entry(long id, String recipient, String content, int attempts) {
+        return MailQueueEntry.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject(VALID_SUBJECT)
+                .content(content)
+                .createdAt(ZonedDateTime.now())
+                .nextAttemptAt(ZonedDateTime.now())
+                .attempts(attempts)
+                .build();
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("QglEylUVgt: Given queued mails sharing content, when dispatch, then one request per content with a personalization per recipient")
+    void valid_GroupsRecipients() {
+
+        // Arrange
+        given(mailQueueRepo.findAllByNextAttemptAtLessThanEqualOrderByIdAsc(any(), any()))
+                .willReturn(List.of(
+                        entry(1, "a@email.com", VALID_CONTENT, 0),
+                        entry(2, "b@email.com", VALID_CONTENT, 0),
+                        entry(3, "c@email.com", OTHER_CONTENT, 0)));
+
+        // Act
+        final int dispatched = mailQueueService.dispatch();
+
+        // Assert
+        assertThat(dispatched).isEqualTo(3);
+
+        final List<JsonNode> requests = FAKE_SEND_GRID.getRequests();
+        assertThat(requests).hasSize(2);
+        assertThat(requests.stream()
+                .map(request -> request.get("personalizations").size())
+                .sorted()
+                .collect(Collectors.toList()))
+                .containsExactly(1, 2);
+
+        verify(mailQueueRepo, times(1)).deleteAllByIdIn(List.of(1L, 2L));
+        verify(mailQueueRepo, times(1)).deleteAllByIdIn(List.of(3L));
+        verify(mailQueueRepo, never()).reschedule(any(), any());
+    }
+
+    @Test
+    @DisplayName("vHMoqCWeWq: Given SendGrid failing, when dispatch, then mails are rescheduled and kept")
+    void invalid_Rescheduled() {
+
+        // Arrange
+        FAKE_SEND_GRID.failWith(500);
+        given(mailQueueRepo.findAllByNextAttemptAtLessThanEqualOrderByIdAsc(any(), any()))
+                .willReturn(List.of(entry(1, "a@email.com", VALID_CONTENT, 0)));
+
+        final ZonedDateTime before = ZonedDateTime.now();
+
+        // Act
+        mailQueueService.dispatch();
+
+        // Assert
+        assertThat(FAKE_SEND_GRID.getRequests()).hasSize(1);
+        verify(mailQueueRepo, never()).deleteAllByIdIn(any());
+        verify(mailQueueRepo, times(1)).reschedule(
+                eq(List.of(1L)),
+                argThat(next -> !next.isBefore(before.plus(mailQueueConfig.getInitialBackoff()))));
+        verify(mailDeadLetterRepo, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("mEJnyFJwNN: Given SendGrid failing on a mail's last attempt, when dispatch, then it is moved to the dead letters")
+    void invalid_DeadLettered() {
+
+        // Arrange
+        FAKE_SEND_GRID.failWith(400);
+        given(mailQueueRepo.findAllByNextAttemptAtLessThanEqualOrderByIdAsc(any(), any()))
+                .willReturn(List.of(entry(1, "a@email.com", VALID_CONTENT, mailQueueConfig.getMaxAttempts() - 1)));
+
+        // Act
+        mailQueueService.dispatch();
+
+        // Assert
+        verify(mailDeadLetterRepo, times(1)).saveAll(argThat((List<MailDeadLetter> deadLetters) ->
+                deadLetters.size() == 1
+                        && deadLetters.get(0).getRecipient().equals("a@email.com")
+                        && deadLetters.get(0).getAttempts() == mailQueueConfig.getMaxAttempts()
+                        && deadLetters.get(0).getLastError() != null));
+        verify(mailQueueRepo, times(1)).deleteAllByIdIn(List.of(1L));
+        verify(mailQueueRepo, never()).reschedule(any(), any());
+    }
+
+    /**
+     * Stands in for the SendGrid API, answering every mail/send with the configured status
+     */
+    private static class FakeSendGrid {
+
+        private final static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+        private final HttpServer server;
+        private final List<JsonNode> requests = Collections.synchronizedList(new ArrayList<>());
+        private volatile int status = 202;
+
+        FakeSendGrid() {
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            server.createContext("/v3/mail/send", exchange -> {
+                requests.add(OBJECT_MAPPER.readTree(exchange.getRequestBody()));
+                final byte[] body = (status >= 300 ? "{\"errors\":[]}" : "{}").getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        }
+
+        String getHost() {
+            return "localhost:" + server.getAddress().getPort();
+        }
+
+        List<JsonNode> getRequests() {
+            return List.copyOf(requests);
+        }
+
+        void failWith(int status) {
+            this.status = status;
+        }
+
+        void reset() {
+            requests.clear();
+            status = 202;
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.lepine.transfers.unit.services;
+
+import com.lepine.transfers.config.NotificationDigestConfig;
+import com.lepine.transfers.data.notification.DigestEntry;
+import com.lepine.transfers.data.notification.DigestEntryRepo;
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.shipment.ShipmentStatus;
+import com.lepine.transfers.events.shipment.ShipmentUpdateEvent;
+import com.lepine.transfers.notification.digest.NotificationDigestServiceImpl;
+import com.lepine.transfers.services.mailer.queue.MailQueueService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {
+        NotificationDigestServiceImpl.class,
+        NotificationDigestConfig.class,
+})
+public class NotificationDigestServiceTests {
+
+    private final static UUID
+            VALID_USER_UUID = UUID.randomUUID(),
+            VALID_SHIPMENT_UUID = UUID.randomUUID(),
+            OTHER_SHIPMENT_UUID = UUID.randomUUID();
+
+    private final static String VALID_USER_EMAIL = "valid@email.com";
+
+    @Autowired
+    private NotificationDigestServiceImpl notificationDigestService;
+
+    @Autowired
+    private NotificationDigestConfig notificationDigestConfig;
+
+    @MockBean
+    private DigestEntryRepo digestEntryRepo;
+
+    @MockBean
+    private MailQueueService mailQueueService;
+
+    private DigestEntry entry(long id, UUID shipmentUuid, String status) {
+        return DigestEntry.builder()
+                .id(id)
+                .userUuid(VALID_USER_UUID)
+                .recipient(VALID_USER_EMAIL)
+                .shipmentUuid(shipmentUuid)
+                .status(status)
+                .createdAt(ZonedDateTime.now())
+                .build();
+    }
+
+    private static ShipmentUpdateEvent statusUpdate(UUID shipmentUuid) {
+        final Shipment old = Shipment.builder()
+                .uuid(shipmentUuid)
+                .createdBy(VALID_USER_UUID)
+                .status(ShipmentStatus.PENDING)
+                .build();
+
+        return new ShipmentUpdateEvent(NotificationDigestServiceTests.class, old, old.toBuilder()
+                .status(ShipmentStatus.ACCEPTED)
+                .build());
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("RuyNfOcsqK: Given a shipment update, when add, then insert it for the user and leave sending for later")
+    void valid_Add() {
+
+        // Arrange
+        given(digestEntryRepo.insertForUser(VALID_USER_UUID, VALID_SHIPMENT_UUID, "accepted")).willReturn(1);
+
+        // Act
+        final boolean added = notificationDigestService.add(VALID_USER_UUID, VALID_SHIPMENT_UUID, "accepted");
+
+        // Assert
+        assertThat(added).isTrue();
+        verify(digestEntryRepo, never()).countByUserUuid(any());
+        verify(digestEntryRepo, never()).lockAllByUserUuid(any());
+        verify(mailQueueService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("KKTEalsQnl: Given a digest below its limit, when onShipmentUpdate, then the update is kept and nothing is mailed")
+    void valid_Accumulates() {
+
+        // Arrange
+        given(digestEntryRepo.countByUserUuid(VALID_USER_UUID)).willReturn(1L);
+
+        // Act
+        notificationDigestService.onShipmentUpdate(statusUpdate(VALID_SHIPMENT_UUID));
+
+        // Assert
+        verify(digestEntryRepo, never()).deleteAllByIdIn(any());
+        verify(mailQueueService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("xHlRlCAAIe: Given a digest reaching its limit, when onShipmentUpdate, then a single summary is mailed")
+    void valid_FlushesWhenFull() {
+
+        // Arrange
+        given(digestEntryRepo.countByUserUuid(VALID_USER_UUID))
+                .willReturn((long) notificationDigestConfig.getMaxEvents());
+        given(digestEntryRepo.lockAllByUserUuid(VALID_USER_UUID))
+                .willReturn(List.of(
+                        entry(1, VALID_SHIPMENT_UUID, "accepted"),
+                        entry(2, OTHER_SHIPMENT_UUID, "denied")));
+        given(digestEntryRepo.deleteAllByIdIn(List.of(1L, 2L))).willReturn(2);
+
+        // Act
+        notificationDigestService.onShipmentUpdate(statusUpdate(OTHER_SHIPMENT_UUID));
+
+        // Assert
+        verify(mailQueueService, times(1)).enqueue(
+                eq(VALID_USER_EMAIL),
+                eq("Shipment status updates"),
+                argThat(content -> content.startsWith("2 of your shipments have been updated") &&
+                        content.contains(VALID_SHIPMENT_UUID + " has been accepted") &&
+                        content.contains(OTHER_SHIPMENT_UUID + " has been denied")));
+    }
+
+    @Test
+    @DisplayName("lJoYhtXEcC: Given a single pending update past its window, when flushDue, then the usual mail is sent")
+    void valid_FlushDueSingle() {
+
+        // Arrange
+        given(digestEntryRepo.findUserUuidsWithEntriesBefore(any())).willReturn(List.of(VALID_USER_UUID));
+        given(digestEntryRepo.lockAllByUserUuid(VALID_USER_UUID))
+                .willReturn(List.of(entry(1, VALID_SHIPMENT_UUID, "accepted")));
+        given(digestEntryRepo.deleteAllByIdIn(anyList())).willReturn(1);
+
+        // Act
+        final int flushed = notificationDigestService.flushDue();
+
+        // Assert
+        assertThat(flushed).isEqualTo(1);
+        verify(mailQueueService, times(1))
+                .enqueue(VALID_USER_EMAIL, "Shipment status update", "Your shipment has been accepted");
+    }
+
+    @Test
+    @DisplayName("HBlaAJaBOk: Given a digest already sent by someone else, when flushDue, then nothing is mailed")
+    void valid_AlreadyFlushed() {
+
+        // Arrange
+        given(digestEntryRepo.findUserUuidsWithEntriesBefore(any())).willReturn(List.of(VALID_USER_UUID));
+        given(digestEntryRepo.lockAllByUserUuid(VALID_USER_UUID)).willReturn(List.of());
+
+        // Act
+        final int flushed = notificationDigestService.flushDue();
+
+        // Assert
+        assertThat(flushed).isZero();
+        verify(digestEntryRepo, never()).deleteAllByIdIn(any());
+        verify(mailQueueService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("dsQxbaRwTy: Given a digest of which only some entries could be deleted, when flushDue, then throw and mail nothing")
+    void invalid_PartiallyDeleted() {
+
+        // Arrange
+        given(digestEntryRepo.findUserUuidsWithEntriesBefore(any())).willReturn(List.of(VALID_USER_UUID));
+        given(digestEntryRepo.lockAllByUserUuid(VALID_USER_UUID))
+                .willReturn(List.of(
+                        entry(1, VALID_SHIPMENT_UUID, "accepted"),
+                        entry(2, OTHER_SHIPMENT_UUID, "denied")));
+        given(digestEntryRepo.deleteAllByIdIn(List.of(1L, 2L))).willReturn(1);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> notificationDigestService.flushDue());
+        verify(mailQueueService, never()).enqueue(any(), any(), any());
+    }
+}
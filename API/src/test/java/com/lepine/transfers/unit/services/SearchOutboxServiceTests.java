@@ -0,0 +1,192 @@
+package com.lepine.transfers.unit.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lepine.transfers.config.JacksonConfig;
+import com.lepine.transfers.config.MapperConfig;
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.item.ItemRepo;
+import com.lepine.transfers.config.SearchOutboxConfig;
+import com.lepine.transfers.data.item.ItemSearchDTO;
+import com.lepine.transfers.data.search.SearchOutboxEntry;
+import com.lepine.transfers.data.search.SearchOutboxOperation;
+import com.lepine.transfers.data.search.SearchOutboxRepo;
+import com.lepine.transfers.data.search.SearchOutboxStatus;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.stock.StockRepo;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.services.search.outbox.SearchOutboxServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_INDEX;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {
+        MapperConfig.class,
+        SearchOutboxServiceImpl.class,
+        SearchOutboxConfig.class,
+        JacksonAutoConfiguration.class,
+        JacksonConfig.class,
+})
+public class SearchOutboxServiceTests {
+
+    private final static UUID VALID_STOCK_UUID = UUID.randomUUID();
+
+    private final static StockSearchDTO VALID_STOCK_SEARCH_DTO = StockSearchDTO.builder()
+            .objectID(VALID_STOCK_UUID)
+            .quantity(10)
+            .sku("SKU")
+            .build();
+
+    @Autowired
+    private SearchOutboxServiceImpl searchOutboxService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private SearchOutboxRepo searchOutboxRepo;
+
+    @MockBean(name = "getItemSearchService")
+    private SearchService<ItemSearchDTO, UUID> itemSearchService;
+
+    @MockBean(name = "getStockSearchService")
+    private SearchService<StockSearchDTO, UUID> stockSearchService;
+
+    @MockBean
+    private ItemRepo itemRepo;
+
+    @MockBean
+    private StockRepo stockRepo;
+
+    private SearchOutboxEntry entry(long id, SearchOutboxOperation operation, StockSearchDTO dto) throws JsonProcessingException {
+        return SearchOutboxEntry.builder()
+                .id(id)
+                .indexName(STOCKS_INDEX)
+                .objectId(dto.getObjectID().toString())
+                .operation(operation)
+                .payload(objectMapper.writeValueAsString(dto))
+                .createdAt(ZonedDateTime.now())
+                .build();
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("DwkzZbkscC: Given save then partial updates of same object when dispatch, then send one save with latest state")
+    void dispatch_Coalesces() throws Exception {
+
+        // Arrange
+        final StockSearchDTO latest = VALID_STOCK_SEARCH_DTO.toBuilder().quantity(3).build();
+        given(searchOutboxRepo.findAllByOrderByIdAsc(any())).willReturn(List.of(
+                entry(1, SearchOutboxOperation.SAVE, VALID_STOCK_SEARCH_DTO),
+                entry(2, SearchOutboxOperation.PARTIAL_UPDATE, VALID_STOCK_SEARCH_DTO.toBuilder().quantity(5).build()),
+                entry(3, SearchOutboxOperation.PARTIAL_UPDATE, latest)
+        ));
+
+        // Act
+        final int dispatched = searchOutboxService.dispatch();
+
+        // Assert
+        assertThat(dispatched).isEqualTo(3);
+        verify(stockSearchService, times(1)).indexAllInBatch(List.of(latest));
+        verify(stockSearchService, never()).partialUpdateAllInBatch(any());
+        verify(searchOutboxRepo, times(1)).deleteAllByIdIn(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("kHcXwQyTpe: Given refreshes of a stock still there and of one gone when dispatch, then save the first as read and delete the other")
+    void dispatch_Refresh() throws Exception {
+
+        // Arrange
+        final UUID goneStockUuid = UUID.randomUUID();
+        final Stock current = Stock.builder()
+                .uuid(VALID_STOCK_UUID)
+                .quantity(7)
+                .item(Item.builder().uuid(UUID.randomUUID()).sku("SKU").build())
+                .warehouse(Warehouse.builder().uuid(UUID.randomUUID()).zipCode("A1B2C3").build())
+                .build();
+        given(searchOutboxRepo.findAllByOrderByIdAsc(any())).willReturn(List.of(
+                entry(1, SearchOutboxOperation.SAVE, VALID_STOCK_SEARCH_DTO),
+                entry(2, SearchOutboxOperation.REFRESH, StockSearchDTO.builder().objectID(VALID_STOCK_UUID).build()),
+                entry(3, SearchOutboxOperation.PARTIAL_UPDATE, VALID_STOCK_SEARCH_DTO.toBuilder().quantity(5).build()),
+                entry(4, SearchOutboxOperation.REFRESH, StockSearchDTO.builder().objectID(goneStockUuid).build())
+        ));
+        given(stockRepo.findAllByUuidIn(any())).willReturn(List.of(current));
+
+        // Act
+        final int dispatched = searchOutboxService.dispatch();
+
+        // Assert
+        assertThat(dispatched).isEqualTo(4);
+        verify(stockRepo, times(1)).findAllByUuidIn(argThat(uuids ->
+                uuids.size() == 2 && uuids.containsAll(List.of(VALID_STOCK_UUID, goneStockUuid))));
+        verify(stockSearchService, times(1)).indexAllInBatch(argThat(dtos ->
+                dtos.size() == 1 && dtos.get(0).getObjectID().equals(VALID_STOCK_UUID) && dtos.get(0).getQuantity() == 7));
+        verify(stockSearchService, times(1)).deleteAllInBatch(argThat(dtos ->
+                dtos.size() == 1 && dtos.get(0).getObjectID().equals(goneStockUuid)));
+        verify(stockSearchService, never()).partialUpdateAllInBatch(any());
+        verify(searchOutboxRepo, times(1)).deleteAllByIdIn(List.of(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    @DirtiesContext // Leaves the dispatcher backing off
+    @DisplayName("mcaxxTCnXh: Given search service failure when dispatch, then keep entries and back off")
+    void dispatch_Failure() throws Exception {
+
+        // Arrange
+        given(searchOutboxRepo.findAllByOrderByIdAsc(any())).willReturn(List.of(
+                entry(1, SearchOutboxOperation.PARTIAL_UPDATE, VALID_STOCK_SEARCH_DTO)
+        ));
+        willThrow(new RuntimeException("Algolia is down")).given(stockSearchService).partialUpdateAllInBatch(any());
+
+        // Act
+        final int dispatched = searchOutboxService.dispatch();
+        final int dispatchedWhileBackingOff = searchOutboxService.dispatch();
+
+        // Assert
+        assertThat(dispatched).isZero();
+        assertThat(dispatchedWhileBackingOff).isZero();
+        verify(searchOutboxRepo, times(1)).findAllByOrderByIdAsc(any());
+        verify(searchOutboxRepo, times(1)).incrementAttempts(List.of(1L));
+        verify(searchOutboxRepo, never()).deleteAllByIdIn(any());
+        assertThat(searchOutboxService.getStatus().getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("afPdfLQiZq: Given queued entries when getStatus, then return depth and lag of oldest entry")
+    void getStatus() {
+
+        // Arrange
+        final ZonedDateTime oldest = ZonedDateTime.now().minusSeconds(5);
+        given(searchOutboxRepo.count()).willReturn(3L);
+        given(searchOutboxRepo.findOldestCreatedAt()).willReturn(Optional.of(oldest));
+
+        // Act
+        final SearchOutboxStatus status = searchOutboxService.getStatus();
+
+        // Assert
+        assertThat(status.getDepth()).isEqualTo(3);
+        assertThat(status.getLagMillis()).isGreaterThanOrEqualTo(5000);
+        assertThat(status.getOldestCreatedAt()).isEqualTo(oldest);
+    }
+}
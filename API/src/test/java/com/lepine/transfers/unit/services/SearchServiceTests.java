@@ -2,6 +2,7 @@ package com.lepine.transfers.unit.services;
 
 import com.algolia.search.SearchClient;
 import com.algolia.search.SearchIndex;
+import com.lepine.transfers.config.SearchBatchConfig;
 import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.services.search.SearchIndexProviders;
 import com.lepine.transfers.services.search.SearchService;
@@ -15,7 +16,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.util.UUID;
 
-@SpringBootTest(classes = { SearchIndexProviders.class, SearchServiceProviders.class })
+@SpringBootTest(classes = { SearchIndexProviders.class, SearchServiceProviders.class, SearchBatchConfig.class })
 @ActiveProfiles("test")
 public abstract class SearchServiceTests<T, I> {
 
@@ -4,17 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lepine.transfers.config.ApplicationEventPublisherConfig;
 import com.lepine.transfers.config.JacksonConfig;
 import com.lepine.transfers.config.MapperConfig;
+import com.lepine.transfers.config.ShipmentBatchConfig;
 import com.lepine.transfers.config.ValidationConfig;
 import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.shipment.ShipmentBatchEntry;
 import com.lepine.transfers.data.shipment.ShipmentRepo;
 import com.lepine.transfers.data.shipment.ShipmentStatus;
 import com.lepine.transfers.data.shipment.ShipmentStatusLessUuidLessDTO;
 import com.lepine.transfers.data.stock.Stock;
 import com.lepine.transfers.data.transfer.TransferUuidLessDTO;
 import com.lepine.transfers.data.warehouse.Warehouse;
+import com.lepine.transfers.exceptions.shipment.ShipmentBatchSizeException;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotFoundException;
 import com.lepine.transfers.exceptions.shipment.ShipmentNotPendingException;
+import com.lepine.transfers.exceptions.stock.StockTooLowException;
 import com.lepine.transfers.exceptions.transfer.SameWarehouseException;
 import com.lepine.transfers.exceptions.warehouse.WarehouseNotFoundException;
 import com.lepine.transfers.services.shipment.ShipmentService;
@@ -24,6 +28,7 @@ import com.lepine.transfers.services.warehouse.WarehouseService;
 import com.lepine.transfers.utils.ConstraintViolationExceptionUtils;
 import com.lepine.transfers.utils.MessageSourceUtils;
 import com.lepine.transfers.utils.date.ZonedDateUtils;
+import com.lepine.transfers.services.stock.stream.StockStreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,9 +41,11 @@ import org.springframework.context.support.ReloadableResourceBundleMessageSource
 
 import javax.json.JsonException;
 import javax.json.JsonPatch;
+import javax.persistence.EntityManager;
 import javax.validation.ConstraintViolationException;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static com.lepine.transfers.utils.MessageSourceUtils.wrapperFor;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -55,6 +62,7 @@ import static org.mockito.Mockito.*;
         JacksonAutoConfiguration.class,
         JacksonConfig.class,
         ApplicationEventPublisherConfig.class,
+        ShipmentBatchConfig.class,
 })
 public class ShipmentServiceTests {
 
@@ -132,9 +140,15 @@ public class ShipmentServiceTests {
     @MockBean
     private StockService stockService;
 
+    @MockBean
+    private StockStreamService stockStreamService;
+
     @MockBean
     private WarehouseService warehouseService;
 
+    @MockBean
+    private EntityManager entityManager;
+
     @Autowired
     private ApplicationEventPublisher applicationEventPublisher;
 
@@ -246,6 +260,85 @@ public class ShipmentServiceTests {
                 .isEqualTo(new SameWarehouseException(VALID_STOCK, VALID_TARGET_WAREHOUSE_UUID).getMessage());
     }
 
+    @Test
+    @DisplayName("IGoZMTwoll: Given DTO with stock that cannot be reserved when create, then throw StockTooLowException")
+    void invalid_Create_StockNotReserved() {
+
+        // Arrange
+        final UUID otherWarehouseUuid = UUID.randomUUID();
+        final Stock stock = VALID_STOCK.toBuilder()
+                .warehouse(VALID_WAREHOUSE.toBuilder().uuid(otherWarehouseUuid).build())
+                .build();
+
+        given(warehouseService.findByUuid(VALID_TARGET_WAREHOUSE_UUID)).willReturn(Optional.of(VALID_WAREHOUSE));
+        given(stockService.findByUuidIn(any())).willReturn(Set.of(stock));
+        given(stockService.reserve(any())).willReturn(Set.of(VALID_STOCK_UUID));
+        // Drawn from by a concurrent reservation since it was read
+        given(stockService.findQuantityByUuid(VALID_STOCK_UUID)).willReturn(Optional.of(VALID_STOCK_QUANTITY - 1));
+
+        // Act
+        final StockTooLowException stockTooLowException =
+                catchThrowableOfType(() -> shipmentService.create(VALID_SHIPMENT_STATUS_LESS_UUID_LESS_DTO), StockTooLowException.class);
+
+        // Assert
+        assertThat(stockTooLowException)
+                .hasMessage(new StockTooLowException(VALID_STOCK_UUID, VALID_STOCK_QUANTITY - 1, VALID_STOCK_QUANTITY).getMessage());
+        verify(stockService, times(1)).reserve(Map.of(VALID_STOCK_UUID, VALID_STOCK_QUANTITY));
+        verify(shipmentRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("luncZPXcfn: Given batch whose shipments want more than the stock has when createAll, then create what fits and reject the rest")
+    void createAll_PartiallyValid() {
+
+        // Arrange
+        final UUID unknownWarehouseUuid = UUID.randomUUID();
+        final Stock stock = VALID_STOCK.toBuilder()
+                .warehouse(VALID_WAREHOUSE.toBuilder().uuid(UUID.randomUUID()).build())
+                .build();
+
+        given(warehouseService.findAllByUuidIn(any())).willReturn(List.of(VALID_WAREHOUSE));
+        given(stockService.findByUuidIn(any())).willReturn(Set.of(stock));
+        given(stockService.reserve(any())).willReturn(Set.of());
+        given(shipmentRepo.saveAll(any())).willAnswer(invocation -> invocation.getArgument(0)); // Return as is
+        given(shipmentRepo.findAllByUuidInEagerLoad(any())).willAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0)
+                .stream()
+                .map(uuid -> VALID_SHIPMENT.toBuilder().uuid(uuid).build())
+                .collect(Collectors.toList()));
+
+        // Act
+        final List<ShipmentBatchEntry> entries = shipmentService.createAll(List.of(
+                VALID_SHIPMENT_STATUS_LESS_UUID_LESS_DTO,
+                VALID_SHIPMENT_STATUS_LESS_UUID_LESS_DTO,
+                VALID_SHIPMENT_STATUS_LESS_UUID_LESS_DTO.toBuilder().to(unknownWarehouseUuid).build()));
+
+        // Assert
+        assertThat(entries).extracting(ShipmentBatchEntry::getIndex).containsExactly(0, 1, 2);
+        assertThat(entries.get(0).isCreated()).isTrue();
+        assertThat(entries.get(0).getShipment()).isNotNull();
+        assertThat(entries.get(1).getRejection())
+                .isInstanceOf(StockTooLowException.class)
+                .hasMessage(new StockTooLowException(VALID_STOCK_UUID, 0, VALID_STOCK_QUANTITY).getMessage());
+        assertThat(entries.get(2).getRejection())
+                .isInstanceOf(WarehouseNotFoundException.class)
+                .hasMessage(new WarehouseNotFoundException(unknownWarehouseUuid).getMessage());
+
+        verify(warehouseService, times(1)).findAllByUuidIn(Set.of(VALID_TARGET_WAREHOUSE_UUID, unknownWarehouseUuid));
+        verify(stockService, times(1)).findByUuidIn(Set.of(VALID_STOCK_UUID));
+        verify(stockService, times(1)).reserve(Map.of(VALID_STOCK_UUID, VALID_STOCK_QUANTITY));
+        verify(shipmentRepo, times(1)).saveAll(argThat(shipments -> ((List<Shipment>) shipments).size() == 1));
+        verify(shipmentRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("ySljjhyAKp: Given empty batch when createAll, then throw ShipmentBatchSizeException")
+    void createAll_Empty() {
+
+        // Act & Assert
+        assertThrows(ShipmentBatchSizeException.class, () -> shipmentService.createAll(List.of()));
+        verify(stockService, never()).reserve(any());
+    }
+
     @Test
     @DisplayName("hhIwgajnXJ: Given DTO with null transfers when create, then throw ConstraintViolationException")
     void invalid_Create_NullTransfers() {
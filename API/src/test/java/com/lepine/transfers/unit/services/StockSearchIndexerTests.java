@@ -0,0 +1,150 @@
+package com.lepine.transfers.unit.services;
+
+import com.lepine.transfers.data.item.Item;
+import com.lepine.transfers.data.shipment.Shipment;
+import com.lepine.transfers.data.stock.Stock;
+import com.lepine.transfers.data.stock.StockReceipt;
+import com.lepine.transfers.data.stock.StockSearchDTO;
+import com.lepine.transfers.data.transfer.Transfer;
+import com.lepine.transfers.events.item.ItemDeleteEvent;
+import com.lepine.transfers.events.item.ItemUpdateEvent;
+import com.lepine.transfers.events.shipment.ShipmentBatchCreateEvent;
+import com.lepine.transfers.events.stock.StockBatchReceiveEvent;
+import com.lepine.transfers.events.stock.StockReceiveEvent;
+import com.lepine.transfers.services.search.SearchService;
+import com.lepine.transfers.services.search.outbox.SearchOutboxService;
+import com.lepine.transfers.services.stock.StockSearchIndexer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.lepine.transfers.services.search.SearchIndexProviders.STOCKS_INDEX;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {StockSearchIndexer.class})
+@ActiveProfiles({"test"})
+public class StockSearchIndexerTests {
+
+    private final static UUID
+            VALID_ITEM_UUID = UUID.randomUUID(),
+            VALID_WAREHOUSE_UUID = UUID.randomUUID(),
+            OTHER_WAREHOUSE_UUID = UUID.randomUUID(),
+            VALID_STOCK_UUID = UUID.randomUUID(),
+            OTHER_STOCK_UUID = UUID.randomUUID();
+
+    private final static Item VALID_ITEM = Item.builder()
+            .uuid(VALID_ITEM_UUID)
+            .build();
+
+    @Autowired
+    private StockSearchIndexer stockSearchIndexer;
+
+    @MockBean
+    private SearchOutboxService searchOutboxService;
+
+    @MockBean
+    private SearchService<StockSearchDTO, UUID> searchService;
+
+    private static Shipment shipmentOf(UUID... stockUuids) {
+        return Shipment.builder()
+                .transfers(Arrays.stream(stockUuids)
+                        .map(stockUuid -> Transfer.builder()
+                                .stock(Stock.builder().uuid(stockUuid).item(VALID_ITEM).build())
+                                .quantity(1)
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("nxpvxADoPc: Given ItemUpdateEvent when onItemUpdate, then queue the stocks of the item without reading them")
+    void onItemUpdate_ItemUpdateEvent() {
+
+        // Act
+        stockSearchIndexer.onItemUpdate(new ItemUpdateEvent(this, VALID_ITEM));
+
+        // Assert
+        verify(searchOutboxService, times(1)).refreshStocksOfItem(VALID_ITEM_UUID);
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    @DisplayName("QGioNqZLdi: Given ItemDeleteEvent when onItemDelete, speak to searchService")
+    void onItemDelete_ItemDeleteEvent() {
+
+        // Arrange
+        final ItemDeleteEvent event = new ItemDeleteEvent(this, VALID_ITEM_UUID, List.of(VALID_STOCK_UUID));
+
+        // Act
+        stockSearchIndexer.onItemDelete(event);
+
+        // Assert
+        verify(searchService, times(1)).deleteAllInBatch(argThat(dtos ->
+                dtos.size() == 1 && dtos.get(0).getObjectID().equals(VALID_STOCK_UUID)));
+    }
+
+    @Test
+    @DisplayName("oPqbWZxkTd: Given batch of shipments sharing stocks when onShipmentBatchCreate, then queue each stock once")
+    void onShipmentBatchCreate_SharedStocks() {
+
+        // Arrange
+        final ShipmentBatchCreateEvent event = new ShipmentBatchCreateEvent(this, List.of(
+                shipmentOf(VALID_STOCK_UUID, OTHER_STOCK_UUID),
+                shipmentOf(VALID_STOCK_UUID)));
+
+        // Act
+        stockSearchIndexer.onShipmentBatchCreate(event);
+
+        // Assert
+        verify(searchOutboxService, times(1)).refreshAll(eq(STOCKS_INDEX),
+                argThat(uuids -> Set.copyOf(uuids).equals(Set.of(VALID_STOCK_UUID, OTHER_STOCK_UUID)) && uuids.size() == 2));
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    @DisplayName("WmtrGyaKqe: Given StockReceiveEvent when onStockReceive, then queue the received stock by its uuid")
+    void onStockReceive_StockReceiveEvent() {
+
+        // Arrange
+        final StockReceiveEvent event = new StockReceiveEvent(this, VALID_STOCK_UUID, VALID_WAREHOUSE_UUID, VALID_ITEM_UUID, 7);
+
+        // Act
+        stockSearchIndexer.onStockReceive(event);
+
+        // Assert
+        verify(searchOutboxService, times(1)).refreshAll(STOCKS_INDEX, List.of(VALID_STOCK_UUID));
+        verify(searchOutboxService, never()).refreshStocks(any());
+    }
+
+    @Test
+    @DisplayName("LzVkcoYRaw: Given stocks received together when onStockBatchReceive, then queue the received stocks together")
+    void onStockBatchReceive_Receipts() {
+
+        // Arrange
+        final StockBatchReceiveEvent event = new StockBatchReceiveEvent(this, List.of(
+                new StockReceipt(VALID_WAREHOUSE_UUID, VALID_ITEM_UUID, 3),
+                new StockReceipt(OTHER_WAREHOUSE_UUID, VALID_ITEM_UUID, 4)));
+
+        // Act
+        stockSearchIndexer.onStockBatchReceive(event);
+
+        // Assert
+        verify(searchOutboxService, times(1)).refreshStocks(event.getReceipts());
+        verify(searchOutboxService, never()).refreshAll(any(), any());
+    }
+}
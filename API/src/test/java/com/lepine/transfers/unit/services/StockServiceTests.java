@@ -5,10 +5,6 @@ import com.lepine.transfers.config.ValidationConfig;
 import com.lepine.transfers.data.item.Item;
 import com.lepine.transfers.data.stock.*;
 import com.lepine.transfers.data.warehouse.Warehouse;
-import com.lepine.transfers.events.item.ItemDeleteEvent;
-import com.lepine.transfers.events.item.ItemDeleteHandler;
-import com.lepine.transfers.events.item.ItemUpdateEvent;
-import com.lepine.transfers.events.item.ItemUpdateHandler;
 import com.lepine.transfers.exceptions.item.ItemNotFoundException;
 import com.lepine.transfers.exceptions.stock.StockNotFoundException;
 import com.lepine.transfers.exceptions.warehouse.WarehouseNotFoundException;
@@ -19,6 +15,7 @@ import com.lepine.transfers.services.stock.StockServiceImpl;
 import com.lepine.transfers.services.warehouse.WarehouseService;
 import com.lepine.transfers.utils.ConstraintViolationExceptionUtils;
 import com.lepine.transfers.utils.MessageSourceUtils;
+import com.lepine.transfers.services.stock.stream.StockStreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -109,12 +106,6 @@ public class StockServiceTests {
     @Autowired
     private StockService stockService;
 
-    @Autowired
-    private ItemUpdateHandler itemUpdateHandler;
-
-    @Autowired
-    private ItemDeleteHandler itemDeleteHandler;
-
     @Autowired
     private ReloadableResourceBundleMessageSource messageSource;
 
@@ -130,6 +121,9 @@ public class StockServiceTests {
     @MockBean
     private WarehouseService warehouseService;
 
+    @MockBean
+    private StockStreamService stockStreamService;
+
     @BeforeEach
     void setUp() {
         final MessageSourceUtils.ForLocaleWrapper w = wrapperFor(messageSource);
@@ -307,6 +301,8 @@ public class StockServiceTests {
         // Arrange
         given(stockRepo.findById(VALID_STOCK_UUID))
                 .willReturn(Optional.of(VALID_STOCK));
+        given(stockRepo.save(VALID_STOCK))
+                .willReturn(VALID_STOCK);
 
         // Act
         stockService.update(VALID_STOCK_UUID, VALID_STOCK_UUID_LESS_ITEM_LESS_WAREHOUSE_LESS);
@@ -315,53 +311,6 @@ public class StockServiceTests {
         verify(stockRepo).save(VALID_STOCK);
     }
 
-    @Test
-    @DisplayName("cxNmnupMLs: Given Item when updateSearchIndexFor, speak to searchService")
-    void updateSearchIndexFor_Item() {
-        // Arrange
-        final List<Stock> items = Collections.singletonList(VALID_STOCK);
-        given(stockRepo.findByItemUuid(VALID_ITEM_UUID))
-                .willReturn(items);
-
-        // Act
-        stockService.updateSearchIndexFor(VALID_ITEM);
-
-        // Assert
-        verify(searchService, times(1)).partialUpdateAllInBatch(any(List.class));
-    }
-
-    @Test
-    @DisplayName("nxpvxADoPc: Given ItemUpdateEvent when onItemUpdate, speak to searchService")
-    void onItemUpdate_ItemUpdateEvent() {
-        // Arrange
-        final ItemUpdateEvent event = new ItemUpdateEvent(this, VALID_ITEM);
-        final List<Stock> items = Collections.singletonList(VALID_STOCK);
-        given(stockRepo.findByItemUuid(VALID_ITEM_UUID))
-                .willReturn(items);
-
-        // Act
-        itemUpdateHandler.onItemUpdate(event);
-
-        // Assert
-        verify(searchService, times(1)).partialUpdateAllInBatch(any(List.class));
-    }
-
-    @Test
-    @DisplayName("QGioNqZLdi: Given ItemDeleteEvent when onItemDelete, speak to searchService")
-    void onItemDelete_ItemDeleteEvent() {
-        // Arrange
-        final ItemDeleteEvent event = new ItemDeleteEvent(this, VALID_ITEM_UUID);
-        final List<Stock> items = Collections.singletonList(VALID_STOCK);
-        given(stockRepo.findByItemUuid(VALID_ITEM_UUID))
-                .willReturn(items);
-
-        // Act
-        itemDeleteHandler.onItemDelete(event);
-
-        // Assert
-        verify(searchService, times(1)).deleteAllInBatch(any(List.class));
-    }
-
     @Test
     @DisplayName("UChRCJfqct: Given UUID when delete, then delete Stock")
     void delete_UUID() {
@@ -0,0 +1,35 @@
+package com.lepine.transfers.unit.utils;
+
+import com.lepine.transfers.utils.retry.BackoffUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BackoffUtilsTests {
+
+    private final static Duration
+            VALID_INITIAL_BACKOFF = Duration.ofSeconds(1),
+            VALID_MAX_BACKOFF = Duration.ofMinutes(1);
+
+    @Test
+    @DisplayName("PfkrTXzeHa: Given a few failed attempts, when capped, then double the initial backoff for each")
+    void capped_Doubling() {
+
+        // Act & Assert
+        assertThat(BackoffUtils.capped(VALID_INITIAL_BACKOFF, VALID_MAX_BACKOFF, 1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(BackoffUtils.capped(VALID_INITIAL_BACKOFF, VALID_MAX_BACKOFF, 2)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(BackoffUtils.capped(VALID_INITIAL_BACKOFF, VALID_MAX_BACKOFF, 6)).isEqualTo(Duration.ofSeconds(32));
+    }
+
+    @Test
+    @DisplayName("zNcWqhLuRb: Given many failed attempts, when capped, then return the max backoff without overflowing")
+    void capped_Max() {
+
+        // Act & Assert
+        assertThat(BackoffUtils.capped(VALID_INITIAL_BACKOFF, VALID_MAX_BACKOFF, 7)).isEqualTo(VALID_MAX_BACKOFF);
+        assertThat(BackoffUtils.capped(VALID_INITIAL_BACKOFF, VALID_MAX_BACKOFF, 1_000)).isEqualTo(VALID_MAX_BACKOFF);
+    }
+}
@@ -0,0 +1,111 @@
+package com.lepine.transfers.unit.utils;
+
+import com.lepine.transfers.exceptions.pagination.InvalidCursorException;
+import com.lepine.transfers.utils.pagination.CursorUtils;
+import org.javatuples.Pair;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CursorUtilsTests {
+
+    private final static UUID VALID_UUID = UUID.randomUUID();
+
+    private final static ZonedDateTime VALID_DATE = ZonedDateTime.parse("2022-04-15T10:15:30.123456Z[Etc/UTC]");
+
+    private static String tampered(String cursor) {
+        final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(decoded.replace('-', '_').getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("ZciCmBVilD: Given an empty or missing cursor, when decode, then start from the beginning")
+    void decode_Empty() {
+
+        // Act & Assert
+        assertThat(CursorUtils.decodeUuid(null)).isEmpty();
+        assertThat(CursorUtils.decodeUuid("")).isEmpty();
+        assertThat(CursorUtils.decodeString(" ")).isEmpty();
+        assertThat(CursorUtils.decodeZonedDateTimeAndUuid("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("wuhUHUINxO: Given an encoded date and uuid, when decode, then return the same keys")
+    void decode_ZonedDateTimeAndUuid() {
+
+        // Arrange
+        final String cursor = CursorUtils.encode(VALID_DATE, VALID_UUID);
+
+        // Act
+        final Optional<Pair<ZonedDateTime, UUID>> decoded = CursorUtils.decodeZonedDateTimeAndUuid(cursor);
+
+        // Assert
+        assertThat(decoded).contains(new Pair<>(VALID_DATE, VALID_UUID));
+    }
+
+    @Test
+    @DisplayName("fkFgzLLYAK: Given an encoded sku, when decode, then return the same sku")
+    void decode_String() {
+
+        // Arrange
+        final String cursor = CursorUtils.encode("SKU 12/34+56?");
+
+        // Act & Assert
+        assertThat(CursorUtils.decodeString(cursor)).contains("SKU 12/34+56?");
+    }
+
+    @Test
+    @DisplayName("joRMrXGmwM: Given a cursor that is not Base64, when decode, then throw InvalidCursorException")
+    void decode_NotBase64() {
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> CursorUtils.decodeUuid("not a cursor!"));
+        assertThrows(InvalidCursorException.class, () -> CursorUtils.decodeZonedDateTimeAndUuid("%%%"));
+    }
+
+    @Test
+    @DisplayName("XzutoEeqim: Given a cursor with the wrong number of keys, when decode, then throw InvalidCursorException")
+    void decode_WrongKeyCount() {
+
+        // Arrange
+        final String oneKey = CursorUtils.encode(VALID_UUID);
+        final String twoKeys = CursorUtils.encode(VALID_DATE, VALID_UUID);
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> CursorUtils.decodeZonedDateTimeAndUuid(oneKey));
+        assertThrows(InvalidCursorException.class, () -> CursorUtils.decodeUuid(twoKeys));
+    }
+
+    @Test
+    @DisplayName("JCzNNsURVq: Given a cursor whose uuid was tampered with, when decode, then throw InvalidCursorException")
+    void decode_TamperedUuid() {
+
+        // Arrange
+        final String uuidCursor = tampered(CursorUtils.encode(VALID_UUID));
+        final String shipmentCursor = CursorUtils.encode(VALID_DATE, "not-a-uuid");
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> CursorUtils.decodeUuid(uuidCursor));
+        assertThrows(InvalidCursorException.class, () -> CursorUtils.decodeZonedDateTimeAndUuid(shipmentCursor));
+    }
+
+    @Test
+    @DisplayName("UMVBqxJsNF: Given a cursor whose date was tampered with, when decode, then throw InvalidCursorException")
+    void decode_TamperedDate() {
+
+        // Arrange
+        final String cursor = CursorUtils.encode("2022-13-45", VALID_UUID);
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> CursorUtils.decodeZonedDateTimeAndUuid(cursor));
+    }
+}
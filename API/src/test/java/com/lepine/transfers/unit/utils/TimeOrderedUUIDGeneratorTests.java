@@ -0,0 +1,91 @@
+package com.lepine.transfers.unit.utils;
+
+import com.lepine.transfers.utils.id.TimeOrderedUUIDGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TimeOrderedUUIDGeneratorTests {
+
+    private final static long NOW = 1_650_000_000_000L;
+
+    @Test
+    @DisplayName("wJLHgQRJOY: Given a clock, when generate, then return a version 7 identifier carrying the clock's millisecond")
+    void generate_Version7() {
+
+        // Arrange
+        final TimeOrderedUUIDGenerator generator = new TimeOrderedUUIDGenerator(() -> NOW);
+
+        // Act
+        final UUID uuid = generator.generate();
+
+        // Assert
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(NOW, TimeOrderedUUIDGenerator.getTimestamp(uuid));
+    }
+
+    @Test
+    @DisplayName("dpZiOheLYo: Given many identifiers in the same millisecond, when generate, then they strictly increase")
+    void generate_SameMillisecond_Increasing() {
+
+        // Arrange
+        final TimeOrderedUUIDGenerator generator = new TimeOrderedUUIDGenerator(() -> NOW);
+
+        // Act
+        final List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) uuids.add(generator.generate());
+
+        // Assert
+        assertThat(uuids).isSortedAccordingTo(TimeOrderedUUIDGeneratorTests::compareUnsigned);
+        assertThat(Set.copyOf(uuids)).hasSize(uuids.size());
+    }
+
+    @Test
+    @DisplayName("uggpKzWGSE: Given a clock stepping back, when generate, then identifiers still increase")
+    void generate_ClockBackwards_Increasing() {
+
+        // Arrange
+        final AtomicLong clock = new AtomicLong(NOW);
+        final TimeOrderedUUIDGenerator generator = new TimeOrderedUUIDGenerator(clock::get);
+
+        // Act
+        final UUID before = generator.generate();
+        clock.set(NOW - 5_000);
+        final UUID after = generator.generate();
+
+        // Assert
+        assertThat(compareUnsigned(before, after)).isNegative();
+    }
+
+    @Test
+    @DisplayName("mUDxsDRsMm: Given many threads, when generate, then no identifier is repeated")
+    void generate_Concurrent_Unique() {
+
+        // Arrange
+        final TimeOrderedUUIDGenerator generator = new TimeOrderedUUIDGenerator();
+        final Set<UUID> uuids = ConcurrentHashMap.newKeySet();
+
+        // Act
+        IntStream.range(0, 100_000).parallel().forEach(i -> uuids.add(generator.generate()));
+
+        // Assert
+        assertThat(uuids).hasSize(100_000);
+    }
+
+    // Byte order, which is how databases compare uuid columns
+    private static int compareUnsigned(UUID a, UUID b) {
+        final int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
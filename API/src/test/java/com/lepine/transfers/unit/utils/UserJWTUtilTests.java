@@ -0,0 +1,112 @@
+package com.lepine.transfers.unit.utils;
+
+import com.lepine.transfers.config.JWTConfig;
+import com.lepine.transfers.data.auth.Role;
+import com.lepine.transfers.data.user.User;
+import com.lepine.transfers.utils.auth.UserJWTUtilImpl;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+@SpringBootTest(classes = { JWTConfig.class, UserJWTUtilImpl.class })
+@ActiveProfiles("test")
+public class UserJWTUtilTests {
+
+    private final static User VALID_USER = User.builder()
+            .uuid(UUID.randomUUID())
+            .email("a@b.c")
+            .role(Role.builder().name("MANAGER").build())
+            .build();
+
+    @Autowired
+    private UserJWTUtilImpl userJWTUtil;
+
+    @Autowired
+    private JWTConfig jwtConfig;
+
+    @Test
+    void contextLoads() {}
+
+    @Test
+    @DisplayName("YmvXeDGIYh: Given same token twice when decode, then return the cached principal")
+    void decode_Cached() {
+
+        // Arrange
+        final String token = userJWTUtil.encode(VALID_USER);
+
+        // Act
+        final User first = userJWTUtil.decode(token);
+        final User second = userJWTUtil.decode(token);
+
+        // Assert
+        assertThat(second).usingRecursiveComparison().isEqualTo(first);
+        assertThat(first.getUuid()).isEqualTo(VALID_USER.getUuid());
+        assertThat(first.getEmail()).isEqualTo(VALID_USER.getEmail());
+        assertThat(first.getRole().getName()).isEqualTo("MANAGER");
+    }
+
+    @Test
+    @DisplayName("PqhnsAvHwe: Given a decoded principal changed by its request when decode again, then return it unchanged")
+    void decode_Cached_OwnCopy() {
+
+        // Arrange
+        final String token = userJWTUtil.encode(VALID_USER);
+        final User first = userJWTUtil.decode(token);
+        first.setEmail("x@y.z");
+        first.getRole().setName("CLERK");
+
+        // Act
+        final User second = userJWTUtil.decode(token);
+
+        // Assert
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getRole()).isNotSameAs(first.getRole());
+        assertThat(second.getEmail()).isEqualTo(VALID_USER.getEmail());
+        assertThat(second.getRole().getName()).isEqualTo("MANAGER");
+    }
+
+    @Test
+    @DisplayName("rWQUHPDyiE: Given tampered copy of a cached token when decode, then reject it")
+    void decode_Tampered() {
+
+        // Arrange
+        final String token = userJWTUtil.encode(VALID_USER);
+        userJWTUtil.decode(token);
+        final String tampered = token.substring(0, token.length() - 2) +
+                (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act
+        final JwtException exception = catchThrowableOfType(() -> userJWTUtil.decode(tampered), JwtException.class);
+
+        // Assert
+        assertThat(exception).isNotNull();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("VohGxgPCBb: Given cached token past its expiration when decode, then reject it")
+    void decode_CachedExpired() throws InterruptedException {
+
+        // Arrange
+        jwtConfig.setExpiration(1000);
+        final String token = userJWTUtil.encode(VALID_USER);
+        userJWTUtil.decode(token);
+        Thread.sleep(1100);
+
+        // Act
+        final ExpiredJwtException exception = catchThrowableOfType(() -> userJWTUtil.decode(token), ExpiredJwtException.class);
+
+        // Assert
+        assertThat(exception).isNotNull();
+    }
+}
@@ -0,0 +1,29 @@
+package com.lepine.transfers.utils;
+
+import com.lepine.transfers.filters.SqlStatisticsFilter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Fails a request whose SQL statement count, as reported by {@link SqlStatisticsFilter}, goes over a budget.
+ * Needs the whole application, filters included, behind MockMvc, like {@code @SpringBootTest @AutoConfigureMockMvc}.
+ */
+public class QueryBudget {
+
+    public static ResultMatcher atMost(long statements) {
+        return result -> {
+            final MockHttpServletRequest request = result.getRequest();
+            final String header = result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER);
+            assertNotNull(header, "No " + SqlStatisticsFilter.STATEMENTS_HEADER + " header, is the SQL statistics filter registered?");
+
+            final long actual = Long.parseLong(header);
+            if(actual > statements) {
+                fail(String.format("%s %s ran %d SQL statements, over its budget of %d",
+                        request.getMethod(), request.getRequestURI(), actual, statements));
+            }
+        };
+    }
+}